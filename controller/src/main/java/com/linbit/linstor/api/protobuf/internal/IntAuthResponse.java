@@ -7,7 +7,9 @@ import com.linbit.linstor.api.ApiCallReactive;
 import com.linbit.linstor.api.protobuf.ProtoDeserializationUtils;
 import com.linbit.linstor.api.protobuf.ProtobufApiCall;
 import com.linbit.linstor.core.apicallhandler.controller.internal.CtrlAuthResponseApiCallHandler;
+import com.linbit.linstor.netcom.MessageCompression;
 import com.linbit.linstor.netcom.Peer;
+import com.linbit.linstor.netcom.TcpConnectorPeer;
 import com.linbit.linstor.proto.common.ApiCallResponseOuterClass.ApiCallResponse;
 import com.linbit.linstor.proto.javainternal.s2c.MsgIntAuthResponseOuterClass.MsgIntAuthResponse;
 import com.linbit.linstor.storage.kinds.ExtToolsInfo;
@@ -88,6 +90,12 @@ public class IntAuthResponse implements ApiCallReactive
                 msgAuthResponse.getExtToolsInfoList(),
                 false
             );
+
+            // the satellite accepted the compression offered in the authentication message
+            if (peer instanceof TcpConnectorPeer && MessageCompression.isSupported(msgAuthResponse.getCompression()))
+            {
+                ((TcpConnectorPeer) peer).getCompression().enable(msgAuthResponse.getCompressionThreshold());
+            }
         }
         else
         {
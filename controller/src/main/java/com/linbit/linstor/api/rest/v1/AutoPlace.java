@@ -69,7 +69,11 @@ public class AutoPlace
             )
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_AUTO_PLACE_RSC, request));
 
-            requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED));
+            requestHelper.doFlux(
+                ApiConsts.API_AUTO_PLACE_RSC,
+                asyncResponse,
+                ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED)
+            );
         }
         catch (IOException ioExc)
         {
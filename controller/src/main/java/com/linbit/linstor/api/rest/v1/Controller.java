@@ -7,6 +7,8 @@ import com.linbit.linstor.api.rest.v1.utils.ApiCallRcRestUtils;
 import com.linbit.linstor.core.LinStor;
 import com.linbit.linstor.core.apicallhandler.controller.CtrlApiCallHandler;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.ApiCallTimer;
+import com.linbit.linstor.metrics.SlowApiCallTracker;
 import com.linbit.utils.Pair;
 
 import javax.inject.Inject;
@@ -20,7 +22,12 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,17 +41,20 @@ public class Controller
     private final ObjectMapper objectMapper;
     private final RequestHelper requestHelper;
     private final CtrlApiCallHandler ctrlApiCallHandler;
+    private final SlowApiCallTracker slowApiCallTracker;
 
     @Inject
     public Controller(
         ErrorReporter errorReporterRef,
         RequestHelper requestHelperRef,
-        CtrlApiCallHandler ctrlApiCallHandlerRef
+        CtrlApiCallHandler ctrlApiCallHandlerRef,
+        SlowApiCallTracker slowApiCallTrackerRef
     )
     {
         errorReporter = errorReporterRef;
         requestHelper = requestHelperRef;
         ctrlApiCallHandler = ctrlApiCallHandlerRef;
+        slowApiCallTracker = slowApiCallTrackerRef;
 
         objectMapper = new ObjectMapper();
     }
@@ -152,4 +162,43 @@ public class Controller
 
         return resp;
     }
+
+    @GET
+    @Path("slow-api-calls")
+    public Response slowApiCalls(
+        @Context Request request
+    )
+    {
+        List<JsonGenTypes.ApiCallSlowCall> slowCalls = new ArrayList<>();
+        for (SlowApiCallTracker.SlowCall slowCall : slowApiCallTracker.getSlowCalls())
+        {
+            JsonGenTypes.ApiCallSlowCall apiCallSlowCall = new JsonGenTypes.ApiCallSlowCall();
+            apiCallSlowCall.api_call = slowCall.apiCallName;
+            apiCallSlowCall.timestamp = slowCall.timestampMillis;
+            apiCallSlowCall.total_us = TimeUnit.NANOSECONDS.toMicros(slowCall.totalNanos);
+            Map<String, Long> phasesMicros = new HashMap<>();
+            for (ApiCallTimer.Phase phase : ApiCallTimer.Phase.values())
+            {
+                phasesMicros.put(phase.label, TimeUnit.NANOSECONDS.toMicros(slowCall.getPhaseNanos(phase)));
+            }
+            apiCallSlowCall.phases_us = phasesMicros;
+            slowCalls.add(apiCallSlowCall);
+        }
+
+        Response resp;
+        try
+        {
+            resp = Response
+                .status(Response.Status.OK)
+                .entity(objectMapper.writeValueAsString(slowCalls))
+                .build();
+        }
+        catch (JsonProcessingException exc)
+        {
+            errorReporter.reportError(exc);
+            resp = Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        }
+
+        return resp;
+    }
 }
@@ -148,6 +148,6 @@ public class ErrorReports
             })
             .next();
 
-        requestHelper.doFlux(asyncResponse, flux);
+        requestHelper.doFlux(ApiConsts.API_REQ_ERROR_REPORTS, asyncResponse, flux);
     }
 }
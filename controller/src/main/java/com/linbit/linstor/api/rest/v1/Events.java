@@ -0,0 +1,431 @@
+package com.linbit.linstor.api.rest.v1;
+
+import com.linbit.linstor.LinstorParsingUtils;
+import com.linbit.linstor.api.ApiConsts;
+import com.linbit.linstor.api.rest.v1.serializer.JsonGenTypes;
+import com.linbit.linstor.api.rest.v1.utils.ApiCallRcRestUtils;
+import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
+import com.linbit.linstor.core.identifier.NodeName;
+import com.linbit.linstor.core.identifier.ResourceName;
+import com.linbit.linstor.event.ConflatingQueue;
+import com.linbit.linstor.event.EventBroker;
+import com.linbit.linstor.event.EventIdentifier;
+import com.linbit.linstor.event.ObjectIdentifier;
+import com.linbit.linstor.event.ObjectSignal;
+import com.linbit.linstor.event.Watch;
+import com.linbit.linstor.event.common.ResourceStateEvent;
+import com.linbit.linstor.event.common.UsageState;
+import com.linbit.linstor.event.common.VolumeDiskStateEvent;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.netcom.PeerNotConnectedException;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.grizzly.http.server.Request;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Signal;
+import reactor.core.publisher.SignalType;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Server-sent event streams of the state events that the satellites report to the controller.
+ *
+ * Each stream is registered as a watch in the {@link EventBroker}. The events are sent one at a time, the next event
+ * is only sent once the previous one was written. Events that arrive in the meantime are buffered up to
+ * {@link #MAX_PENDING_EVENTS}; if a client falls further behind, it receives an "overflow" event and the stream is
+ * closed, so that the client can reconnect and start over with a new initial state.
+ *
+ * With {@code conflate=true}, only the latest event of each object is kept while the client is busy, so the stream
+ * never overflows, but the client may miss intermediate states.
+ */
+@Path("events")
+public class Events
+{
+    static final String EVENT_RESOURCE_STATE = "resource-state";
+    static final String EVENT_VOLUME_DISK_STATE = "volume-disk-state";
+    static final String EVENT_OVERFLOW = "overflow";
+
+    private static final String CLOSED_REMOVED = "removed";
+    private static final String CLOSED_NO_CONNECTION = "no_connection";
+
+    private static final String WATCH_PEER_ID = "RestEvents";
+    private static final String WATCHER_TYPE = "rest";
+    private static final String KEEP_ALIVE_KEY = "keep-alive";
+    private static final AtomicInteger NEXT_WATCH_ID = new AtomicInteger();
+
+    private static final int MAX_PENDING_EVENTS = 10_000;
+    private static final Duration KEEP_ALIVE_INTERVAL = Duration.ofSeconds(30);
+
+    private final ErrorReporter errorReporter;
+    private final RequestHelper requestHelper;
+    private final EventBroker eventBroker;
+    private final ResourceStateEvent resourceStateEvent;
+    private final VolumeDiskStateEvent volumeDiskStateEvent;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    Events(
+        ErrorReporter errorReporterRef,
+        RequestHelper requestHelperRef,
+        EventBroker eventBrokerRef,
+        ResourceStateEvent resourceStateEventRef,
+        VolumeDiskStateEvent volumeDiskStateEventRef
+    )
+    {
+        errorReporter = errorReporterRef;
+        requestHelper = requestHelperRef;
+        eventBroker = eventBrokerRef;
+        resourceStateEvent = resourceStateEventRef;
+        volumeDiskStateEvent = volumeDiskStateEventRef;
+        objectMapper = new ObjectMapper();
+    }
+
+    @GET
+    @Path("resources")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void resourceEvents(
+        @Context Request request,
+        @Context SseEventSink sseEventSink,
+        @Context Sse sse,
+        @QueryParam("nodes") List<String> nodes,
+        @QueryParam("resources") List<String> resources,
+        @QueryParam("conflate") @DefaultValue("false") boolean conflate
+    )
+    {
+        List<ObjectIdentifier> ancestors;
+        try
+        {
+            // the sign in and the parsing of the names fail before the watch is registered and the stream is opened
+            requestHelper.createContext(ApiConsts.API_EVENT, request);
+            ancestors = getAncestors(
+                nodes != null ? nodes : Collections.emptyList(),
+                resources != null ? resources : Collections.emptyList()
+            );
+        }
+        catch (ApiRcException exc)
+        {
+            throw new WebApplicationException(
+                ApiCallRcRestUtils.toResponse(exc.getApiCallRc(), Response.Status.INTERNAL_SERVER_ERROR)
+            );
+        }
+
+        // the events are keyed by the object they are about, for conflation
+        List<Flux<Tuple2<Object, OutboundSseEvent>>> streams = new ArrayList<>();
+        for (ObjectIdentifier ancestor : ancestors)
+        {
+            streams.add(
+                resourceStateEvent.get().watchForStreams(ancestor)
+                    .map(objectSignal -> Tuples.of(
+                        eventKey(EVENT_RESOURCE_STATE, objectSignal),
+                        toSseEvent(sse, EVENT_RESOURCE_STATE, toResourceState(objectSignal))
+                    ))
+            );
+            streams.add(
+                volumeDiskStateEvent.get().watchForStreams(ancestor)
+                    .map(objectSignal -> Tuples.of(
+                        eventKey(EVENT_VOLUME_DISK_STATE, objectSignal),
+                        toSseEvent(sse, EVENT_VOLUME_DISK_STATE, toVolumeDiskState(objectSignal))
+                    ))
+            );
+        }
+        streams.add(
+            Flux.interval(KEEP_ALIVE_INTERVAL)
+                .map(ignored -> Tuples.of(KEEP_ALIVE_KEY, sse.newEventBuilder().comment("keep-alive").build()))
+        );
+
+        Watch watch = new Watch(
+            UUID.randomUUID(),
+            WATCH_PEER_ID,
+            NEXT_WATCH_ID.incrementAndGet(),
+            new EventIdentifier(null, ObjectIdentifier.global()),
+            conflate
+        );
+        SseSubscriber subscriber = new SseSubscriber(sseEventSink, sse, watch);
+        eventBroker.createLocalWatch(watch, subscriber);
+
+        Flux<Tuple2<Object, OutboundSseEvent>> events = Flux.merge(streams);
+        if (!conflate)
+        {
+            events = events.onBackpressureBuffer(MAX_PENDING_EVENTS);
+        }
+        events.subscribe(subscriber);
+    }
+
+    private static Object eventKey(String eventName, ObjectSignal<?> objectSignal)
+    {
+        return Tuples.of(eventName, objectSignal.getObjectIdentifier());
+    }
+
+    private static List<ObjectIdentifier> getAncestors(List<String> nodes, List<String> resources)
+    {
+        List<NodeName> nodeNames = new ArrayList<>();
+        for (String node : nodes)
+        {
+            nodeNames.add(LinstorParsingUtils.asNodeName(node));
+        }
+        if (nodeNames.isEmpty())
+        {
+            nodeNames.add(null);
+        }
+
+        List<ResourceName> rscNames = new ArrayList<>();
+        for (String rsc : resources)
+        {
+            rscNames.add(LinstorParsingUtils.asRscName(rsc));
+        }
+        if (rscNames.isEmpty())
+        {
+            rscNames.add(null);
+        }
+
+        List<ObjectIdentifier> ancestors = new ArrayList<>();
+        for (NodeName nodeName : nodeNames)
+        {
+            for (ResourceName rscName : rscNames)
+            {
+                ancestors.add(new ObjectIdentifier(nodeName, rscName, null, null));
+            }
+        }
+        return ancestors;
+    }
+
+    private static JsonGenTypes.EventResourceState toResourceState(ObjectSignal<UsageState> objectSignal)
+    {
+        ObjectIdentifier objectIdentifier = objectSignal.getObjectIdentifier();
+        JsonGenTypes.EventResourceState rscState = new JsonGenTypes.EventResourceState();
+        rscState.node_name = objectIdentifier.getNodeName().displayValue;
+        rscState.resource_name = objectIdentifier.getResourceName().displayValue;
+
+        Signal<UsageState> signal = objectSignal.getSignal();
+        if (signal.isOnNext())
+        {
+            UsageState usageState = signal.get();
+            rscState.ready = usageState.getResourceReady();
+            rscState.in_use = usageState.getInUse();
+            rscState.up_to_date = usageState.getUpToDate();
+        }
+        else
+        {
+            rscState.closed = getClosedReason(signal);
+        }
+        return rscState;
+    }
+
+    private static JsonGenTypes.EventVolumeDiskState toVolumeDiskState(ObjectSignal<String> objectSignal)
+    {
+        ObjectIdentifier objectIdentifier = objectSignal.getObjectIdentifier();
+        JsonGenTypes.EventVolumeDiskState vlmState = new JsonGenTypes.EventVolumeDiskState();
+        vlmState.node_name = objectIdentifier.getNodeName().displayValue;
+        vlmState.resource_name = objectIdentifier.getResourceName().displayValue;
+        vlmState.volume_number = objectIdentifier.getVolumeNumber().value;
+
+        Signal<String> signal = objectSignal.getSignal();
+        if (signal.isOnNext())
+        {
+            vlmState.disk_state = signal.get();
+        }
+        else
+        {
+            vlmState.closed = getClosedReason(signal);
+        }
+        return vlmState;
+    }
+
+    private static String getClosedReason(Signal<?> signal)
+    {
+        return signal.isOnError() && signal.getThrowable() instanceof PeerNotConnectedException ?
+            CLOSED_NO_CONNECTION : CLOSED_REMOVED;
+    }
+
+    private OutboundSseEvent toSseEvent(Sse sse, String eventName, Object data)
+    {
+        String json;
+        try
+        {
+            json = objectMapper.writeValueAsString(data);
+        }
+        catch (JsonProcessingException exc)
+        {
+            throw Exceptions.propagate(exc);
+        }
+        return sse.newEventBuilder()
+            .name(eventName)
+            .mediaType(MediaType.APPLICATION_JSON_TYPE)
+            .data(String.class, json)
+            .build();
+    }
+
+    /**
+     * Sends one event at a time, the next event is only sent after the previous one was written to the client.
+     *
+     * Without conflation, the next event is only requested after the previous one was written. With conflation, all
+     * events are requested immediately, and the events that arrive while an event is being written are kept in a
+     * {@link ConflatingQueue}.
+     */
+    private class SseSubscriber extends BaseSubscriber<Tuple2<Object, OutboundSseEvent>>
+    {
+        private final SseEventSink sseEventSink;
+        private final Sse sse;
+        private final Watch watch;
+        private final ConflatingQueue<Object, OutboundSseEvent> conflatingQueue;
+
+        // Guarded by this
+        private boolean sending = false;
+
+        SseSubscriber(SseEventSink sseEventSinkRef, Sse sseRef, Watch watchRef)
+        {
+            sseEventSink = sseEventSinkRef;
+            sse = sseRef;
+            watch = watchRef;
+            conflatingQueue = watch.isConflating() ? new ConflatingQueue<>(WATCHER_TYPE) : null;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription)
+        {
+            if (conflatingQueue == null)
+            {
+                request(1);
+            }
+            else
+            {
+                requestUnbounded();
+            }
+        }
+
+        @Override
+        protected void hookOnNext(Tuple2<Object, OutboundSseEvent> keyedEvent)
+        {
+            if (sseEventSink.isClosed())
+            {
+                dispose();
+            }
+            else
+            if (conflatingQueue == null)
+            {
+                send(keyedEvent.getT2());
+            }
+            else
+            {
+                conflatingQueue.offer(keyedEvent.getT1(), keyedEvent.getT2());
+                sendPending();
+            }
+        }
+
+        private void send(OutboundSseEvent event)
+        {
+            sseEventSink.send(event).whenComplete(
+                (ignored, exc) ->
+                {
+                    if (exc == null)
+                    {
+                        sent();
+                    }
+                    else
+                    {
+                        // the client has disconnected
+                        dispose();
+                    }
+                }
+            );
+        }
+
+        private void sent()
+        {
+            if (conflatingQueue == null)
+            {
+                request(1);
+            }
+            else
+            {
+                synchronized (this)
+                {
+                    sending = false;
+                }
+                sendPending();
+            }
+        }
+
+        private void sendPending()
+        {
+            OutboundSseEvent event = null;
+            synchronized (this)
+            {
+                if (!sending)
+                {
+                    event = conflatingQueue.poll();
+                    sending = event != null;
+                }
+            }
+            if (event != null)
+            {
+                send(event);
+            }
+        }
+
+        @Override
+        protected void hookOnComplete()
+        {
+            sseEventSink.close();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable)
+        {
+            if (Exceptions.isOverflow(throwable))
+            {
+                errorReporter.logDebug(
+                    "Event stream %d closed, the client did not keep up with the events",
+                    watch.getPeerWatchId()
+                );
+                sseEventSink.send(sse.newEventBuilder().name(EVENT_OVERFLOW).data(String.class, "").build())
+                    .whenComplete((ignored, exc) -> sseEventSink.close());
+            }
+            else
+            {
+                errorReporter.reportError(throwable, null, null, "Uncaught exception in REST event stream");
+                sseEventSink.close();
+            }
+        }
+
+        @Override
+        protected void hookOnCancel()
+        {
+            sseEventSink.close();
+        }
+
+        @Override
+        protected void hookFinally(SignalType type)
+        {
+            if (conflatingQueue != null)
+            {
+                conflatingQueue.drop(ignored -> true);
+            }
+            eventBroker.deleteWatch(watch.getPeerId(), watch.getPeerWatchId());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.linbit.linstor.api.rest.v1;
+
+import com.linbit.linstor.api.ApiCallRc;
+import com.linbit.linstor.api.ApiConsts;
+import com.linbit.linstor.api.rest.v1.serializer.JsonGenTypes;
+import com.linbit.linstor.api.rest.v1.utils.ApiCallRcRestUtils;
+import com.linbit.linstor.core.apicallhandler.controller.CtrlSnapshotCrtApiCallHandler;
+
+import javax.inject.Inject;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.grizzly.http.server.Request;
+import reactor.core.publisher.Flux;
+
+@Path("group-snapshots")
+@Produces(MediaType.APPLICATION_JSON)
+public class GroupSnapshots
+{
+    private final ObjectMapper objectMapper;
+    private final RequestHelper requestHelper;
+    private final CtrlSnapshotCrtApiCallHandler ctrlSnapshotCrtApiCallHandler;
+
+    @Inject
+    public GroupSnapshots(
+        RequestHelper requestHelperRef,
+        CtrlSnapshotCrtApiCallHandler ctrlSnapshotCrtApiCallHandlerRef
+    )
+    {
+        requestHelper = requestHelperRef;
+        ctrlSnapshotCrtApiCallHandler = ctrlSnapshotCrtApiCallHandlerRef;
+
+        objectMapper = new ObjectMapper();
+    }
+
+    @POST
+    public void createGroupSnapshot(
+        @Context Request request,
+        @Suspended final AsyncResponse asyncResponse,
+        String jsonData
+    )
+    {
+        try
+        {
+            JsonGenTypes.GroupSnapshot groupSnapData = objectMapper.readValue(
+                jsonData,
+                JsonGenTypes.GroupSnapshot.class
+            );
+
+            Flux<ApiCallRc> responses = ctrlSnapshotCrtApiCallHandler.createGroupSnapshot(
+                    groupSnapData.resource_names,
+                    groupSnapData.name
+                )
+                .subscriberContext(requestHelper.createContext(ApiConsts.API_CRT_GROUP_SNAPSHOT, request));
+
+            requestHelper.doFlux(
+                ApiConsts.API_CRT_GROUP_SNAPSHOT,
+                asyncResponse,
+                ApiCallRcRestUtils.mapToMonoResponse(responses, Response.Status.CREATED)
+            );
+        }
+        catch (IOException ioExc)
+        {
+            ApiCallRcRestUtils.handleJsonParseException(ioExc, asyncResponse);
+        }
+    }
+}
@@ -141,7 +141,11 @@ public class Nodes
                 )
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_CRT_NODE, request));
 
-            requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED));
+            requestHelper.doFlux(
+                ApiConsts.API_CRT_NODE,
+                asyncResponse,
+                ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED)
+            );
         }
         catch (IOException ioExc)
         {
@@ -173,7 +177,11 @@ public class Nodes
             )
             .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_NODE, request));
 
-            requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+            requestHelper.doFlux(
+                ApiConsts.API_MOD_NODE,
+                asyncResponse,
+                ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+            );
         }
         catch (IOException ioExc)
         {
@@ -193,7 +201,7 @@ public class Nodes
             .deleteNode(nodeName)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_DEL_NODE, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_DEL_NODE, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 
     @DELETE
@@ -208,7 +216,7 @@ public class Nodes
             .lostNode(nodeName)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_LOST_NODE, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_LOST_NODE, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 
     @PUT
@@ -98,7 +98,7 @@ public class PhysicalStorage
                     return Mono.just(resp);
                 }).next();
 
-            requestHelper.doFlux(asyncResponse, answer);
+            requestHelper.doFlux(ApiConsts.API_LST_PHYS_STOR, asyncResponse, answer);
         });
     }
 
@@ -189,6 +189,7 @@ public class PhysicalStorage
             }
 
             requestHelper.doFlux(
+                ApiConsts.API_CRT_STOR_POOL,
                 asyncResponse,
                 ApiCallRcRestUtils.mapToMonoResponse(responses, Response.Status.CREATED)
             );
@@ -97,6 +97,6 @@ public class QueryMaxVlmSize
                 return Mono.just(resp);
             }).next();
 
-        requestHelper.doFlux(asyncResponse, flux);
+        requestHelper.doFlux(ApiConsts.API_QRY_MAX_VLM_SIZE, asyncResponse, flux);
     }
 }
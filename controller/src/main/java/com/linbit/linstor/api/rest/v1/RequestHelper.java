@@ -15,6 +15,8 @@ import com.linbit.linstor.api.rest.v1.utils.ApiCallRcRestUtils;
 import com.linbit.linstor.core.LinstorConfigToml;
 import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.ApiCallTimer;
+import com.linbit.linstor.metrics.SlowApiCallTracker;
 import com.linbit.linstor.netcom.Peer;
 import com.linbit.linstor.netcom.PeerREST;
 import com.linbit.linstor.security.AccessContext;
@@ -58,6 +60,7 @@ public class RequestHelper
     private final TransactionMgrGenerator transactionMgrGenerator;
     private final CtrlAuthentication authentication;
     private final LinstorConfigToml linstorConfig;
+    private final SlowApiCallTracker slowApiCallTracker;
 
     @Inject
     public RequestHelper(
@@ -67,7 +70,8 @@ public class RequestHelper
         @PublicContext AccessContext accessContextRef,
         TransactionMgrGenerator transactionMgrGeneratorRef,
         CtrlAuthentication authenticationRef,
-        LinstorConfigToml linstorConfigRef
+        LinstorConfigToml linstorConfigRef,
+        SlowApiCallTracker slowApiCallTrackerRef
     )
     {
         errorReporter = errorReporterRef;
@@ -77,6 +81,7 @@ public class RequestHelper
         transactionMgrGenerator = transactionMgrGeneratorRef;
         authentication = authenticationRef;
         linstorConfig = linstorConfigRef;
+        slowApiCallTracker = slowApiCallTrackerRef;
     }
 
     private Tuple2<String, String> parseBasicAuthHeader(String authorization)
@@ -211,11 +216,15 @@ public class RequestHelper
     {
         AccessContext accCtx = subscriberContext.get(AccessContext.class);
         Peer peer = subscriberContext.getOrDefault(Peer.class, null);
+        // the time the request was queued in the HTTP server is not known
+        ApiCallTimer timer = slowApiCallTracker.startTimer(subscriberContext.get(ApiModule.API_CALL_NAME), 0);
 
         Response ret;
 
         TransactionMgr transMgr = transactional ? transactionMgrGenerator.startTransaction() : null;
 
+        final long startNanos = System.nanoTime();
+        ApiCallTimer prevTimer = timer.bind();
         apiCallScope.enter();
         try
         {
@@ -290,17 +299,26 @@ public class RequestHelper
                 }
                 transMgr.returnConnection();
             }
+            ApiCallTimer.restore(prevTimer);
+            timer.addScopeNanos(System.nanoTime() - startNanos);
+            timer.finish();
         }
 
         return ret;
     }
 
-    void doFlux(final AsyncResponse asyncResponse, Mono<Response> monoResponse)
+    void doFlux(String apiCall, final AsyncResponse asyncResponse, Mono<Response> monoResponse)
     {
+        // the time the request was queued in the HTTP server is not known
+        ApiCallTimer timer = slowApiCallTracker.startTimer(apiCall, 0);
+
         monoResponse
+            .doFinally(ignored -> timer.finish())
             .onErrorResume(ApiRcException.class,
                 apiExc -> Mono.just(
                     ApiCallRcRestUtils.toResponse(apiExc.getApiCallRc(), Response.Status.INTERNAL_SERVER_ERROR)))
+            // visible to the scopes of the API call, see ScopeRunner
+            .subscriberContext(Context.of(ApiCallTimer.class, timer))
             .subscribe(
                 asyncResponse::resume,
                 exc ->
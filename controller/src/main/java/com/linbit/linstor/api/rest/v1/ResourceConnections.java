@@ -126,6 +126,10 @@ public class ResourceConnections
         )
         .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_RSC_CONN, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_MOD_RSC_CONN,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 }
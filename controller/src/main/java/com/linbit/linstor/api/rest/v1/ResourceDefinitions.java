@@ -179,7 +179,11 @@ public class ResourceDefinitions
         )
         .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_RSC_DFN, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_MOD_RSC_DFN,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 
     @DELETE
@@ -192,6 +196,6 @@ public class ResourceDefinitions
         Flux<ApiCallRc> flux = ctrlRscDfnDeleteApiCallHandler.deleteResourceDefinition(rscName)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_DEL_RSC_DFN, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_DEL_RSC_DFN, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 }
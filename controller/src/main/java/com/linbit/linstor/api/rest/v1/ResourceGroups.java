@@ -202,7 +202,11 @@ public class ResourceGroups
         )
             .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_RSC_GRP, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_MOD_RSC_GRP,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 
     @DELETE
@@ -247,7 +251,11 @@ public class ResourceGroups
             )
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_SPAWN_RSC_DFN, request));
 
-            requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED));
+            requestHelper.doFlux(
+                ApiConsts.API_SPAWN_RSC_DFN,
+                asyncResponse,
+                ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED)
+            );
         }
         catch (IOException ioExc)
         {
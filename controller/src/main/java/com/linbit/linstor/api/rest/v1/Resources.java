@@ -187,7 +187,11 @@ public class Resources
             Flux<ApiCallRc> flux = ctrlRscCrtApiCallHandler.createResource(rscWithPayloadApiList)
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_CRT_RSC, request));
 
-            requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED));
+            requestHelper.doFlux(
+                ApiConsts.API_CRT_RSC,
+                asyncResponse,
+                ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.CREATED)
+            );
         }
         catch (IOException ioExc)
         {
@@ -246,7 +250,11 @@ public class Resources
         )
         .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_RSC, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_MOD_RSC,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 
     @DELETE
@@ -261,7 +269,7 @@ public class Resources
         Flux<ApiCallRc> flux = ctrlRscDeleteApiCallHandler.deleteResource(nodeName, rscName)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_DEL_RSC, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_DEL_RSC, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 
     @PUT
@@ -294,7 +302,7 @@ public class Resources
                 true)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_TOGGLE_DISK, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_TOGGLE_DISK, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 
     @PUT
@@ -327,7 +335,7 @@ public class Resources
                 false)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_TOGGLE_DISK, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_TOGGLE_DISK, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 
     @PUT
@@ -362,6 +370,6 @@ public class Resources
             false)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_TOGGLE_DISK, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_TOGGLE_DISK, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 }
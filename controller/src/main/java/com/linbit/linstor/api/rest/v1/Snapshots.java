@@ -139,6 +139,7 @@ public class Snapshots
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_CRT_SNAPSHOT, request));
 
             requestHelper.doFlux(
+                ApiConsts.API_CRT_SNAPSHOT,
                 asyncResponse,
                 ApiCallRcRestUtils.mapToMonoResponse(responses, Response.Status.CREATED)
             );
@@ -161,6 +162,10 @@ public class Snapshots
         Flux<ApiCallRc> responses = ctrlSnapshotDeleteApiCallHandler.deleteSnapshot(rscName, snapName)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_DEL_SNAPSHOT, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(responses));
+        requestHelper.doFlux(
+            ApiConsts.API_DEL_SNAPSHOT,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(responses)
+        );
     }
 }
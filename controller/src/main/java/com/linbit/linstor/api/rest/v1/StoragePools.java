@@ -138,6 +138,7 @@ public class StoragePools
                     .subscriberContext(requestHelper.createContext(ApiConsts.API_LST_STOR_POOL, request));
 
                 requestHelper.doFlux(
+                    ApiConsts.API_LST_STOR_POOL,
                     asyncResponse,
                     storPoolListToResponse(flux, nodeName, storPoolName, limit, offset)
                 );
@@ -233,6 +234,7 @@ public class StoragePools
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_CRT_STOR_POOL, request));
 
             requestHelper.doFlux(
+                ApiConsts.API_CRT_STOR_POOL,
                 asyncResponse,
                 ApiCallRcRestUtils.mapToMonoResponse(responses, Response.Status.CREATED)
             );
@@ -268,7 +270,11 @@ public class StoragePools
         )
         .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_STOR_POOL, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_MOD_STOR_POOL,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 
     @DELETE
@@ -283,6 +289,10 @@ public class StoragePools
         Flux<ApiCallRc> flux = ctrlStorPoolApiCallHandler.deleteStorPool(nodeName, storPoolName)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_DEL_STOR_POOL, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_DEL_STOR_POOL,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 }
@@ -77,6 +77,7 @@ public class View
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_LST_VLM, request));
 
             requestHelper.doFlux(
+                ApiConsts.API_LST_VLM,
                 asyncResponse,
                 listVolumesApiCallRcWithToResponse(flux, limit, offset)
             );
@@ -141,7 +142,11 @@ public class View
                 .listStorPools(nodesFilter, storagePoolsFilter)
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_LST_STOR_POOL, request));
 
-            requestHelper.doFlux(asyncResponse, storPoolListToResponse(flux, limit, offset));
+            requestHelper.doFlux(
+                ApiConsts.API_LST_STOR_POOL,
+                asyncResponse,
+                storPoolListToResponse(flux, limit, offset)
+            );
         });
     }
 
@@ -189,7 +189,7 @@ public class VolumeDefinitions
                 new HashSet<>(vlmDfnData.delete_props))
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_VLM_DFN, request));
 
-            requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+            requestHelper.doFlux(ApiConsts.API_MOD_VLM_DFN, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
         }
         catch (IOException exc)
         {
@@ -209,6 +209,6 @@ public class VolumeDefinitions
         Flux<ApiCallRc> flux = ctrlVlmDfnDeleteApiCallHandler.deleteVolumeDefinition(rscName, vlmNr)
             .subscriberContext(requestHelper.createContext(ApiConsts.API_DEL_VLM_DFN, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
+        requestHelper.doFlux(ApiConsts.API_DEL_VLM_DFN, asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux));
     }
 }
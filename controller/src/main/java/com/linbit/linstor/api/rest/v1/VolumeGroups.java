@@ -164,7 +164,11 @@ public class VolumeGroups
         )
         .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_VLM_GRP, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_MOD_VLM_GRP,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 
 
@@ -103,6 +103,7 @@ public class Volumes
                 .subscriberContext(requestHelper.createContext(ApiConsts.API_LST_VLM, request));
 
             requestHelper.doFlux(
+                ApiConsts.API_LST_VLM,
                 asyncResponse,
                 listVolumesApiCallRcWithToResponse(flux, rscName, nodeName, vlmNr, limit, offset)
             );
@@ -231,6 +232,10 @@ public class Volumes
         )
         .subscriberContext(requestHelper.createContext(ApiConsts.API_MOD_VLM, request));
 
-        requestHelper.doFlux(asyncResponse, ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK));
+        requestHelper.doFlux(
+            ApiConsts.API_MOD_VLM,
+            asyncResponse,
+            ApiCallRcRestUtils.mapToMonoResponse(flux, Response.Status.OK)
+        );
     }
 }
@@ -13,6 +13,8 @@ import com.linbit.linstor.core.LinstorConfigToml;
 import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
 import com.linbit.linstor.dbdrivers.DatabaseException;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.CtrlMetricsCollector;
+import com.linbit.linstor.metrics.MetricsTextFormat;
 
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.Context;
@@ -65,6 +67,7 @@ public class GrizzlyHttpService implements SystemService
     private LinstorConfigToml.Logging.RestAccessLogMode restAccessLogMode;
     private final ControllerDatabase ctrlDb;
     private final Map<ServiceName, SystemService> systemServiceMap;
+    private final CtrlMetricsCollector metricsCollector;
 
     private static final String INDEX_CONTENT = "<html><title>Linstor REST server</title>" +
         "<body><a href=\"https://app.swaggerhub.com/apis-docs/Linstor/Linstor/" + JsonGenTypes.REST_API_VERSION +
@@ -88,6 +91,7 @@ public class GrizzlyHttpService implements SystemService
     {
         errorReporter = errorReporterRef;
         ctrlDb = injector.getInstance(ControllerDatabase.class);
+        metricsCollector = injector.getInstance(CtrlMetricsCollector.class);
         listenAddress = listenAddressRef;
         listenAddressSecure = listenAddressSecureRef;
         keyStoreFile = keyStoreFileRef;
@@ -156,6 +160,10 @@ public class GrizzlyHttpService implements SystemService
                                 response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR_500);
                             }
                         }
+                        else if (request.getHttpHandlerPath().equals("/metrics"))
+                        {
+                            writeMetrics(response);
+                        }
                         else
                         {
                             response.setStatus(HttpStatus.NOT_FOUND_404);
@@ -217,6 +225,10 @@ public class GrizzlyHttpService implements SystemService
                                 response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR_500);
                             }
                         }
+                        else if (request.getHttpHandlerPath().equals("/metrics"))
+                        {
+                            writeMetrics(response);
+                        }
                         else
                         {
                             response.setStatus(HttpStatus.NOT_FOUND_404);
@@ -238,6 +250,13 @@ public class GrizzlyHttpService implements SystemService
         );
     }
 
+    private void writeMetrics(Response response) throws IOException
+    {
+        response.setContentType(MetricsTextFormat.CONTENT_TYPE);
+        response.getWriter().write(metricsCollector.collectText());
+        response.setStatus(HttpStatus.OK_200);
+    }
+
     private void enableCompression(HttpServer httpServerRef)
     {
         CompressionConfig compressionConfig = httpServerRef.getListener("grizzly").getCompressionConfig();
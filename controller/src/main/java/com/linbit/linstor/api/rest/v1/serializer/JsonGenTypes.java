@@ -756,6 +756,19 @@ public class JsonGenTypes
         public List<String> nodes = Collections.emptyList();
     }
 
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class GroupSnapshot
+    {
+        /**
+         * Name of the snapshot, which is created for all resources
+         */
+        public String name;
+        /**
+         * Resource definitions whose resources are suspended and snapshotted together
+         */
+        public List<String> resource_names = Collections.emptyList();
+    }
+
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     public static class PassPhraseCreate
     {
@@ -853,6 +866,50 @@ public class JsonGenTypes
         public PhysicalStorageStoragePoolCreate with_storage_pool;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class EventResourceState
+    {
+        public String node_name;
+        public String resource_name;
+        public Boolean ready;
+        public Boolean in_use;
+        public Boolean up_to_date;
+        /**
+         * Set if the state is no longer known, either because the resource was removed
+         * or because the satellite disconnected.
+         */
+        public String closed;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class EventVolumeDiskState
+    {
+        public String node_name;
+        public String resource_name;
+        public Integer volume_number;
+        public String disk_state;
+        /**
+         * Set if the state is no longer known, either because the volume was removed
+         * or because the satellite disconnected.
+         */
+        public String closed;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class ApiCallSlowCall
+    {
+        public String api_call;
+        /**
+         * Unix timestamp in milliseconds of the end of the API call
+         */
+        public Long timestamp;
+        public Long total_us;
+        /**
+         * Duration of each phase in microseconds
+         */
+        public Map<String, Long> phases_us = Collections.emptyMap();
+    }
+
     private JsonGenTypes()
     {
     }
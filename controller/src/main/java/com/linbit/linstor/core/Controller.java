@@ -40,6 +40,7 @@ import com.linbit.linstor.event.serializer.protobuf.common.VolumeDiskStateEventS
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.logging.LoggingModule;
 import com.linbit.linstor.logging.StdErrorReporter;
+import com.linbit.linstor.metrics.SlowApiCallTracker;
 import com.linbit.linstor.netcom.NetComModule;
 import com.linbit.linstor.numberpool.DbNumberPoolInitializer;
 import com.linbit.linstor.numberpool.NumberPoolModule;
@@ -129,6 +130,7 @@ public final class Controller
     private final PingTask pingTask;
     private final ReconnectorTask reconnectorTask;
     private final LogArchiveTask logArchiveTask;
+    private final SlowApiCallTracker slowApiCallTracker;
 
     private final DebugConsoleCreator debugConsoleCreator;
     private final ControllerNetComInitializer controllerNetComInitializer;
@@ -160,6 +162,7 @@ public final class Controller
         ReconnectorTask reconnectorTaskRef,
         RetryResourcesTask retryResourcesTaskRef,
         LogArchiveTask logArchiveTaskRef,
+        SlowApiCallTracker slowApiCallTrackerRef,
         DebugConsoleCreator debugConsoleCreatorRef,
         ControllerNetComInitializer controllerNetComInitializerRef,
         WhitelistProps whitelistPropsRef,
@@ -185,6 +188,7 @@ public final class Controller
         reconnectorTask = reconnectorTaskRef;
         logArchiveTask = logArchiveTaskRef;
         retryResourcesTask = retryResourcesTaskRef;
+        slowApiCallTracker = slowApiCallTrackerRef;
         debugConsoleCreator = debugConsoleCreatorRef;
         controllerNetComInitializer = controllerNetComInitializerRef;
         whitelistProps = whitelistPropsRef;
@@ -227,6 +231,7 @@ public final class Controller
             systemServicesMap.put(controllerDb.getInstanceName(), controllerDb);
             systemServicesMap.put(taskScheduleService.getInstanceName(), taskScheduleService);
             systemServicesMap.put(timerEventSvc.getInstanceName(), timerEventSvc);
+            systemServicesMap.put(slowApiCallTracker.getInstanceName(), slowApiCallTracker);
 
             dbInitializer.initialize(cArgs.isDbStartupVerification());
 
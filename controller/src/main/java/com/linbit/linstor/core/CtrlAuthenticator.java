@@ -12,10 +12,14 @@ import com.linbit.linstor.api.protobuf.internal.IntAuthResponse;
 import com.linbit.linstor.core.apicallhandler.ScopeRunner;
 import com.linbit.linstor.core.apicallhandler.response.ApiAccessDeniedException;
 import com.linbit.linstor.core.objects.Node;
+import com.linbit.linstor.core.repository.SystemConfRepository;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.netcom.MessageCompression;
 import com.linbit.linstor.netcom.Peer;
 import com.linbit.linstor.netcom.PeerNotConnectedException;
 import com.linbit.linstor.netcom.TcpConnectorPeer;
+import com.linbit.linstor.propscon.InvalidKeyException;
+import com.linbit.linstor.propscon.Props;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
 import com.linbit.linstor.tasks.ReconnectorTask;
@@ -42,6 +46,7 @@ public class CtrlAuthenticator
     private final AccessContext apiCtx;
     private final IntAuthResponse intAuthResponse;
     private final ReconnectorTask reconnectorTask;
+    private final SystemConfRepository systemConfRepository;
 
     @Inject
     CtrlAuthenticator(
@@ -52,7 +57,8 @@ public class CtrlAuthenticator
         @PeerContext Provider<AccessContext> peerAccCtxRef,
         @SystemContext AccessContext apiCtxRef,
         IntAuthResponse intAuthResponseRef,
-        ReconnectorTask reconnectorTaskRef
+        ReconnectorTask reconnectorTaskRef,
+        SystemConfRepository systemConfRepositoryRef
     )
     {
         errorReporter = errorReporterRef;
@@ -63,6 +69,7 @@ public class CtrlAuthenticator
         apiCtx = apiCtxRef;
         intAuthResponse = intAuthResponseRef;
         reconnectorTask = reconnectorTaskRef;
+        systemConfRepository = systemConfRepositoryRef;
     }
 
     public void sendAuthentication(Peer peer)
@@ -112,6 +119,11 @@ public class CtrlAuthenticator
                 Peer peer = node.getPeer(peerAccCtx.get());
                 if (peer instanceof TcpConnectorPeer)
                 {
+                    // until the satellite accepted the compression (if offered at all), nothing is compressed
+                    ((TcpConnectorPeer) peer).getCompression().disable();
+
+                    Props ctrlConf = systemConfRepository.getCtrlConfForView(apiCtx);
+                    String compression = getCompression(ctrlConf);
                     flux = ((TcpConnectorPeer) peer).apiCall(
                         InternalApiConsts.API_AUTH,
                         serializer
@@ -119,7 +131,9 @@ public class CtrlAuthenticator
                             .authMessage(
                                 node.getUuid(),
                                 node.getName().getDisplayName(),
-                                "Hello, LinStor!".getBytes()
+                                "Hello, LinStor!".getBytes(),
+                                compression,
+                                compression.isEmpty() ? 0 : getCompressionThreshold(ctrlConf)
                             )
                             .build(),
                         false
@@ -175,6 +189,64 @@ public class CtrlAuthenticator
         return authResponseFlux;
     }
 
+    private String getCompression(Props ctrlConf)
+    {
+        String compression = "";
+        try
+        {
+            String algorithm = ctrlConf.getPropWithDefault(
+                InternalApiConsts.KEY_NETCOM_COMPRESSION,
+                InternalApiConsts.NAMESPC_NETCOM,
+                MessageCompression.ALGORITHM_NONE
+            );
+            if (MessageCompression.isSupported(algorithm))
+            {
+                compression = MessageCompression.ALGORITHM_DEFLATE;
+            }
+            else
+            if (!MessageCompression.ALGORITHM_NONE.equalsIgnoreCase(algorithm))
+            {
+                errorReporter.logWarning(
+                    "Unknown compression algorithm '%s' configured, messages to satellites are not compressed",
+                    algorithm
+                );
+            }
+        }
+        catch (InvalidKeyException exc)
+        {
+            throw new ImplementationError(exc);
+        }
+        return compression;
+    }
+
+    private int getCompressionThreshold(Props ctrlConf)
+    {
+        int threshold = MessageCompression.DEFAULT_THRESHOLD;
+        try
+        {
+            String thresholdStr = ctrlConf.getProp(
+                InternalApiConsts.KEY_NETCOM_COMPRESSION_THRESHOLD,
+                InternalApiConsts.NAMESPC_NETCOM
+            );
+            if (thresholdStr != null)
+            {
+                threshold = Integer.parseInt(thresholdStr);
+            }
+        }
+        catch (NumberFormatException exc)
+        {
+            errorReporter.logWarning(
+                "Invalid compression threshold configured, using the default of %d bytes",
+                MessageCompression.DEFAULT_THRESHOLD
+            );
+        }
+        catch (InvalidKeyException exc)
+        {
+            throw new ImplementationError(exc);
+        }
+        return threshold;
+    }
+
     private Peer getPeerPrivileged(Node node)
     {
         Peer peer;
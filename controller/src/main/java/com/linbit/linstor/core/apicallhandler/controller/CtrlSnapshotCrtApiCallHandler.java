@@ -38,6 +38,7 @@ import com.linbit.linstor.core.objects.Volume;
 import com.linbit.linstor.core.objects.VolumeDefinition;
 import com.linbit.linstor.dbdrivers.DatabaseException;
 import com.linbit.linstor.layer.resource.CtrlRscLayerDataFactory;
+import com.linbit.linstor.metrics.LinStorMetrics;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
 import com.linbit.linstor.stateflags.StateFlags;
@@ -70,8 +71,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 import reactor.core.publisher.Flux;
 import reactor.util.function.Tuple2;
@@ -79,6 +83,11 @@ import reactor.util.function.Tuple2;
 @Singleton
 public class CtrlSnapshotCrtApiCallHandler
 {
+    public static final String PHASE_SUSPEND = "suspend";
+    public static final String PHASE_TAKE = "take";
+    public static final String PHASE_RESUME = "resume";
+    public static final String PHASE_IO_SUSPENDED = "io_suspended";
+
     private final AccessContext apiCtx;
     private final ScopeRunner scopeRunner;
     private final CtrlTransactionHelper ctrlTransactionHelper;
@@ -177,6 +186,42 @@ public class CtrlSnapshotCrtApiCallHandler
         final ResourceName rscName = rscDfn.getName();
 
         SnapshotName snapshotName = LinstorParsingUtils.asSnapshotName(snapshotNameStr);
+        SnapshotDefinition snapshotDfn = createSnapshotObjects(rscDfn, snapshotName, nodeNameStrs);
+
+        ctrlTransactionHelper.commit();
+
+        ApiCallRcImpl responses = new ApiCallRcImpl();
+
+        responses.addEntry(ApiSuccessUtils.defaultRegisteredEntry(
+            snapshotDfn.getUuid(), getSnapshotDescriptionInline(nodeNameStrs, rscNameStr, snapshotNameStr)
+        ));
+
+        Flux<ApiCallRc> satelliteUpdateResponses =
+            ctrlSatelliteUpdateCaller.updateSatellites(snapshotDfn, notConnectedError())
+                .concatWith(ctrlSatelliteUpdateCaller.updateSatellites(rscDfn, notConnectedError(), Flux.empty()))
+                .transform(updateResponses -> CtrlResponseUtils.combineResponses(
+                    updateResponses,
+                    rscName,
+                    "Suspended IO of {1} on {0} for snapshot"
+                ));
+
+        return Flux
+            .<ApiCallRc>just(responses)
+            .concatWith(satelliteUpdateResponses)
+            .concatWith(takeSnapshot(rscName, snapshotName))
+            .onErrorResume(exception -> abortSnapshot(rscName, snapshotName, exception))
+            .onErrorResume(CtrlResponseUtils.DelayedApiRcException.class, ignored -> Flux.empty());
+    }
+
+    /**
+     * Creates the snapshot objects of a resource definition, and marks its resources for suspending IO
+     */
+    private SnapshotDefinition createSnapshotObjects(
+        ResourceDefinition rscDfn,
+        SnapshotName snapshotName,
+        List<String> nodeNameStrs
+    )
+    {
         SnapshotDefinition snapshotDfn = createSnapshotDfnData(
             rscDfn,
             snapshotName,
@@ -253,29 +298,7 @@ public class CtrlSnapshotCrtApiCallHandler
             setSuspend(rsc, true);
         }
 
-        ctrlTransactionHelper.commit();
-
-        ApiCallRcImpl responses = new ApiCallRcImpl();
-
-        responses.addEntry(ApiSuccessUtils.defaultRegisteredEntry(
-            snapshotDfn.getUuid(), getSnapshotDescriptionInline(nodeNameStrs, rscNameStr, snapshotNameStr)
-        ));
-
-        Flux<ApiCallRc> satelliteUpdateResponses =
-            ctrlSatelliteUpdateCaller.updateSatellites(snapshotDfn, notConnectedError())
-                .concatWith(ctrlSatelliteUpdateCaller.updateSatellites(rscDfn, notConnectedError(), Flux.empty()))
-                .transform(updateResponses -> CtrlResponseUtils.combineResponses(
-                    updateResponses,
-                    rscName,
-                    "Suspended IO of {1} on {0} for snapshot"
-                ));
-
-        return Flux
-            .<ApiCallRc>just(responses)
-            .concatWith(satelliteUpdateResponses)
-            .concatWith(takeSnapshot(rscName, snapshotName))
-            .onErrorResume(exception -> abortSnapshot(rscName, snapshotName, exception))
-            .onErrorResume(CtrlResponseUtils.DelayedApiRcException.class, ignored -> Flux.empty());
+        return snapshotDfn;
     }
 
     private Flux<ApiCallRc> abortSnapshot(
@@ -434,6 +457,371 @@ public class CtrlSnapshotCrtApiCallHandler
             .flatMap(Tuple2::getT2).thenMany(Flux.empty());
     }
 
+    /**
+     * Create a snapshot with the same name of several resources, which is consistent across the resources.
+     * <p>
+     * The stages are the same as for {@link #createSnapshot(List, String, String)}, but each stage is performed for
+     * all resources in a single transaction, and the satellites of all resources are updated in parallel. IO is
+     * therefore suspended on all resources before any of the snapshots is taken, and is only resumed after all
+     * snapshots have been taken.
+     * <p>
+     * The snapshots are created on all diskful resources of the given resource definitions. The duration of the
+     * stages and the time for which IO was suspended are recorded in
+     * {@link LinStorMetrics#GROUP_SNAPSHOT_PHASE_DURATION} and reported in the responses.
+     */
+    public Flux<ApiCallRc> createGroupSnapshot(
+        List<String> rscNameStrs,
+        String snapshotNameStr
+    )
+    {
+        ResponseContext context = makeGroupSnapshotContext(rscNameStrs, snapshotNameStr);
+
+        return scopeRunner
+            .fluxInTransactionalScope(
+                "Create group snapshot",
+                lockGuardFactory.create()
+                    .read(LockObj.NODES_MAP)
+                    .write(LockObj.RSC_DFN_MAP)
+                    .buildDeferred(),
+                () -> createGroupSnapshotInTransaction(rscNameStrs, snapshotNameStr)
+            )
+            .transform(responses -> responseConverter.reportingExceptions(context, responses));
+    }
+
+    private Flux<ApiCallRc> createGroupSnapshotInTransaction(
+        List<String> rscNameStrs,
+        String snapshotNameStr
+    )
+    {
+        if (rscNameStrs.isEmpty())
+        {
+            throw new ApiRcException(ApiCallRcImpl.simpleEntry(
+                ApiConsts.FAIL_NOT_FOUND_RSC_DFN, "No resource definitions given for the group snapshot"
+            ));
+        }
+
+        Map<ResourceName, ResourceDefinition> rscDfns = new LinkedHashMap<>();
+        for (String rscNameStr : rscNameStrs)
+        {
+            ResourceDefinition rscDfn = ctrlApiDataLoader.loadRscDfn(rscNameStr, true);
+            rscDfns.put(rscDfn.getName(), rscDfn);
+        }
+
+        SnapshotName snapshotName = LinstorParsingUtils.asSnapshotName(snapshotNameStr);
+        List<SnapshotDefinition> snapshotDfns = new ArrayList<>();
+        for (ResourceDefinition rscDfn : rscDfns.values())
+        {
+            snapshotDfns.add(createSnapshotObjects(rscDfn, snapshotName, Collections.emptyList()));
+        }
+
+        ctrlTransactionHelper.commit();
+
+        ApiCallRcImpl responses = new ApiCallRcImpl();
+        List<Flux<ApiCallRc>> suspendResponses = new ArrayList<>();
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            ResourceName rscName = snapshotDfn.getResourceName();
+
+            responses.addEntry(ApiSuccessUtils.defaultRegisteredEntry(
+                snapshotDfn.getUuid(), getSnapshotDfnDescriptionInline(snapshotDfn)
+            ));
+
+            suspendResponses.add(
+                ctrlSatelliteUpdateCaller.updateSatellites(snapshotDfn, notConnectedError())
+                    .concatWith(ctrlSatelliteUpdateCaller.updateSatellites(
+                        rscDfns.get(rscName),
+                        notConnectedError(),
+                        Flux.empty()
+                    ))
+                    .transform(updateResponses -> CtrlResponseUtils.combineResponses(
+                        updateResponses,
+                        rscName,
+                        "Suspended IO of {1} on {0} for snapshot"
+                    ))
+            );
+        }
+
+        List<ResourceName> rscNames = new ArrayList<>(rscDfns.keySet());
+        Map<String, Long> phaseMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        Flux<ApiCallRc> suspendAllResponses = CtrlResponseUtils.mergeCombinedResponses(suspendResponses);
+        Flux<ApiCallRc> ioSuspendedResponses =
+            timeGroupSnapshotPhase(PHASE_SUSPEND, phaseMillis, suspendAllResponses)
+                .concatWith(timeGroupSnapshotPhase(PHASE_TAKE, phaseMillis, takeGroupSnapshot(rscNames, snapshotName)))
+                .concatWith(timeGroupSnapshotPhase(PHASE_RESUME, phaseMillis, resumeGroup(rscNames, snapshotName)));
+
+        return Flux
+            .<ApiCallRc>just(responses)
+            .concatWith(timeGroupSnapshotPhase(PHASE_IO_SUSPENDED, phaseMillis, ioSuspendedResponses))
+            .concatWith(Flux.defer(() -> Flux.just(makeGroupSnapshotPhaseReport(rscNames, snapshotName, phaseMillis))))
+            .concatWith(removeInProgressGroupSnapshots(rscNames, snapshotName))
+            .onErrorResume(exception -> abortGroupSnapshot(rscNames, snapshotName, exception))
+            .onErrorResume(CtrlResponseUtils.DelayedApiRcException.class, ignored -> Flux.empty());
+    }
+
+    /**
+     * Records the duration of the phase when the phase completes successfully
+     */
+    private static Flux<ApiCallRc> timeGroupSnapshotPhase(
+        String phase,
+        Map<String, Long> phaseMillis,
+        Flux<ApiCallRc> phaseResponses
+    )
+    {
+        return Flux.defer(() ->
+            {
+                long startNanos = System.nanoTime();
+                return phaseResponses.doOnComplete(() ->
+                    {
+                        long durationNanos = System.nanoTime() - startNanos;
+                        LinStorMetrics.GROUP_SNAPSHOT_PHASE_DURATION.labels(phase).observeNanos(durationNanos);
+                        phaseMillis.put(phase, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+                    }
+                );
+            }
+        );
+    }
+
+    private static ApiCallRc makeGroupSnapshotPhaseReport(
+        List<ResourceName> rscNames,
+        SnapshotName snapshotName,
+        Map<String, Long> phaseMillis
+    )
+    {
+        return ApiCallRcImpl.singletonApiCallRc(ApiCallRcImpl.simpleEntry(
+            ApiConsts.MASK_INFO,
+            String.format(
+                "IO of %d resources was suspended for %dms for snapshot '%s' (suspend: %dms, take: %dms, " +
+                    "resume: %dms)",
+                rscNames.size(),
+                phaseMillis.get(PHASE_IO_SUSPENDED),
+                snapshotName.displayValue,
+                phaseMillis.get(PHASE_SUSPEND),
+                phaseMillis.get(PHASE_TAKE),
+                phaseMillis.get(PHASE_RESUME)
+            )
+        ));
+    }
+
+    private Flux<ApiCallRc> abortGroupSnapshot(
+        List<ResourceName> rscNames,
+        SnapshotName snapshotName,
+        Throwable exception
+    )
+    {
+        return scopeRunner
+            .fluxInTransactionalScope(
+                "Abort taking group snapshot",
+                lockGuardFactory.create()
+                    .read(LockObj.NODES_MAP)
+                    .write(LockObj.RSC_DFN_MAP)
+                    .buildDeferred(),
+                () -> abortGroupSnapshotInTransaction(rscNames, snapshotName, exception)
+            );
+    }
+
+    private Flux<ApiCallRc> abortGroupSnapshotInTransaction(
+        List<ResourceName> rscNames,
+        SnapshotName snapshotName,
+        Throwable exception
+    )
+    {
+        SnapshotDefinition.Flags flag = exception instanceof CtrlResponseUtils.DelayedApiRcException &&
+            isFailNotConnected((CtrlResponseUtils.DelayedApiRcException) exception) ?
+                SnapshotDefinition.Flags.FAILED_DISCONNECT : SnapshotDefinition.Flags.FAILED_DEPLOYMENT;
+
+        List<SnapshotDefinition> snapshotDfns = loadGroupSnapshotDfns(rscNames, snapshotName);
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            enableFlagPrivileged(snapshotDfn, flag);
+            unsetInCreationPrivileged(snapshotDfn);
+        }
+
+        ctrlTransactionHelper.commit();
+
+        List<Flux<ApiCallRc>> satelliteUpdateResponses = new ArrayList<>();
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            satelliteUpdateResponses.add(
+                ctrlSatelliteUpdateCaller.updateSatellites(snapshotDfn, notConnectedCannotAbort())
+                    .transform(responses -> CtrlResponseUtils.combineResponses(
+                        responses,
+                        snapshotDfn.getResourceName(),
+                        "Aborted snapshot of {1} on {0}"
+                    ))
+            );
+        }
+
+        return CtrlResponseUtils.mergeCombinedResponses(satelliteUpdateResponses)
+            .onErrorResume(CtrlResponseUtils.DelayedApiRcException.class, ignored -> Flux.empty())
+            .concatWith(Flux.error(exception));
+    }
+
+    private Flux<ApiCallRc> takeGroupSnapshot(List<ResourceName> rscNames, SnapshotName snapshotName)
+    {
+        return scopeRunner
+            .fluxInTransactionalScope(
+                "Take group snapshot",
+                lockGuardFactory.create()
+                    .read(LockObj.NODES_MAP)
+                    .write(LockObj.RSC_DFN_MAP)
+                    .buildDeferred(),
+                () -> takeGroupSnapshotInTransaction(rscNames, snapshotName)
+            );
+    }
+
+    private Flux<ApiCallRc> takeGroupSnapshotInTransaction(List<ResourceName> rscNames, SnapshotName snapshotName)
+    {
+        List<SnapshotDefinition> snapshotDfns = loadGroupSnapshotDfns(rscNames, snapshotName);
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            for (Snapshot snapshot : getAllSnapshotsPrivileged(snapshotDfn))
+            {
+                setTakeSnapshotPrivileged(snapshot, true);
+            }
+        }
+
+        ctrlTransactionHelper.commit();
+
+        List<Flux<ApiCallRc>> satelliteUpdateResponses = new ArrayList<>();
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            satelliteUpdateResponses.add(
+                ctrlSatelliteUpdateCaller.updateSatellites(snapshotDfn, notConnectedError())
+                    .transform(responses -> CtrlResponseUtils.combineResponses(
+                        responses,
+                        snapshotDfn.getResourceName(),
+                        "Took snapshot of {1} on {0}"
+                    ))
+            );
+        }
+
+        return CtrlResponseUtils.mergeCombinedResponses(satelliteUpdateResponses);
+    }
+
+    private Flux<ApiCallRc> resumeGroup(List<ResourceName> rscNames, SnapshotName snapshotName)
+    {
+        return scopeRunner
+            .fluxInTransactionalScope(
+                "Resume group snapshot resources",
+                lockGuardFactory.create()
+                    .read(LockObj.NODES_MAP)
+                    .write(LockObj.RSC_DFN_MAP)
+                    .buildDeferred(),
+                () -> resumeGroupInTransaction(rscNames, snapshotName)
+            );
+    }
+
+    private Flux<ApiCallRc> resumeGroupInTransaction(List<ResourceName> rscNames, SnapshotName snapshotName)
+    {
+        List<SnapshotDefinition> snapshotDfns = loadGroupSnapshotDfns(rscNames, snapshotName);
+        List<ResourceDefinition> rscDfns = new ArrayList<>();
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            for (Snapshot snapshot : getAllSnapshotsPrivileged(snapshotDfn))
+            {
+                unsetSuspendResourcePrivileged(snapshot);
+            }
+
+            ResourceDefinition rscDfn = ctrlApiDataLoader.loadRscDfn(snapshotDfn.getResourceName(), true);
+            resumeIoPrivileged(rscDfn);
+            rscDfns.add(rscDfn);
+        }
+
+        ctrlTransactionHelper.commit();
+
+        List<Flux<ApiCallRc>> satelliteUpdateResponses = new ArrayList<>();
+        for (int idx = 0; idx < snapshotDfns.size(); ++idx)
+        {
+            SnapshotDefinition snapshotDfn = snapshotDfns.get(idx);
+            satelliteUpdateResponses.add(
+                ctrlSatelliteUpdateCaller.updateSatellites(snapshotDfn, notConnectedError())
+                    .concatWith(ctrlSatelliteUpdateCaller.updateSatellites(
+                        rscDfns.get(idx),
+                        notConnectedError(),
+                        Flux.empty()
+                    ))
+                    .transform(responses -> CtrlResponseUtils.combineResponses(
+                        responses,
+                        snapshotDfn.getResourceName(),
+                        "Resumed IO of {1} on {0} after snapshot"
+                    ))
+            );
+        }
+
+        return CtrlResponseUtils.mergeCombinedResponses(satelliteUpdateResponses);
+    }
+
+    private Flux<ApiCallRc> removeInProgressGroupSnapshots(List<ResourceName> rscNames, SnapshotName snapshotName)
+    {
+        return scopeRunner
+            .fluxInTransactionalScope(
+                "Clean up in-progress group snapshots",
+                lockGuardFactory.create()
+                    .read(LockObj.NODES_MAP)
+                    .write(LockObj.RSC_DFN_MAP)
+                    .buildDeferred(),
+                () -> removeInProgressGroupSnapshotsInTransaction(rscNames, snapshotName)
+            );
+    }
+
+    private Flux<ApiCallRc> removeInProgressGroupSnapshotsInTransaction(
+        List<ResourceName> rscNames,
+        SnapshotName snapshotName
+    )
+    {
+        List<SnapshotDefinition> snapshotDfns = loadGroupSnapshotDfns(rscNames, snapshotName);
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            unsetInCreationPrivileged(snapshotDfn);
+
+            for (Snapshot snapshot : getAllSnapshotsPrivileged(snapshotDfn))
+            {
+                setTakeSnapshotPrivileged(snapshot, false);
+            }
+
+            enableFlagPrivileged(snapshotDfn, SnapshotDefinition.Flags.SUCCESSFUL);
+        }
+
+        ctrlTransactionHelper.commit();
+
+        List<Flux<ApiCallRc>> satelliteUpdateResponses = new ArrayList<>();
+        for (SnapshotDefinition snapshotDfn : snapshotDfns)
+        {
+            satelliteUpdateResponses.add(
+                ctrlSatelliteUpdateCaller.updateSatellites(snapshotDfn, notConnectedError())
+                    // ensure that the individual node update fluxes are subscribed to, but ignore responses
+                    .flatMap(Tuple2::getT2).thenMany(Flux.empty())
+            );
+        }
+
+        return Flux.merge(satelliteUpdateResponses);
+    }
+
+    private List<SnapshotDefinition> loadGroupSnapshotDfns(List<ResourceName> rscNames, SnapshotName snapshotName)
+    {
+        List<SnapshotDefinition> snapshotDfns = new ArrayList<>(rscNames.size());
+        for (ResourceName rscName : rscNames)
+        {
+            snapshotDfns.add(ctrlApiDataLoader.loadSnapshotDfn(rscName, snapshotName, true));
+        }
+        return snapshotDfns;
+    }
+
+    private static ResponseContext makeGroupSnapshotContext(List<String> rscNameStrs, String snapshotNameStr)
+    {
+        Map<String, String> objRefs = new TreeMap<>();
+        objRefs.put(ApiConsts.KEY_SNAPSHOT, snapshotNameStr);
+
+        return new ResponseContext(
+            ApiOperation.makeCreateOperation(),
+            "Resources: " + String.join(", ", rscNameStrs) + ", Snapshot: " + snapshotNameStr,
+            "snapshot '" + snapshotNameStr + "' of resources '" + String.join("', '", rscNameStrs) + "'",
+            ApiConsts.MASK_SNAPSHOT,
+            objRefs
+        );
+    }
+
     private void createSnapshotOnNode(
         SnapshotDefinition snapshotDfn,
         Collection<SnapshotVolumeDefinition> snapshotVolumeDefinitions,
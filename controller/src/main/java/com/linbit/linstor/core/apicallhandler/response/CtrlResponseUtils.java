@@ -129,6 +129,39 @@ public class CtrlResponseUtils
             );
     }
 
+    /**
+     * Merge the sources, which are usually the results of {@link #combineResponses(Flux, ResourceName, String)} for
+     * several resources, delaying failure.
+     * The {@link DelayedApiRcException} errors of the sources are combined into a single DelayedApiRcException, which
+     * is emitted when all sources complete.
+     */
+    public static Flux<ApiCallRc> mergeCombinedResponses(List<Flux<ApiCallRc>> sources)
+    {
+        return Flux.defer(() ->
+            {
+                List<ApiRcException> errors = Collections.synchronizedList(new ArrayList<>());
+                List<Flux<ApiCallRc>> delayingSources = new ArrayList<>(sources.size());
+                for (Flux<ApiCallRc> source : sources)
+                {
+                    delayingSources.add(source.onErrorResume(
+                        DelayedApiRcException.class,
+                        delayedExc ->
+                        {
+                            errors.addAll(delayedExc.getErrors());
+                            return Flux.empty();
+                        }
+                    ));
+                }
+                return Flux.merge(delayingSources)
+                    .concatWith(Flux.defer(() ->
+                        errors.isEmpty() ?
+                            Flux.empty() :
+                            Flux.error(new DelayedApiRcException(errors))
+                    ));
+            }
+        );
+    }
+
     /**
      * See {@link #combineResponses(Flux, ResourceName, String)}.
      */
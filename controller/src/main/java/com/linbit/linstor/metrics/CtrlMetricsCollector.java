@@ -0,0 +1,203 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.linstor.InternalApiConsts;
+import com.linbit.linstor.annotation.SystemContext;
+import com.linbit.linstor.core.objects.Node;
+import com.linbit.linstor.core.repository.NodeRepository;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.netcom.Peer;
+import com.linbit.linstor.proto.javainternal.s2c.MsgIntMetricsOuterClass;
+import com.linbit.linstor.proto.javainternal.s2c.MsgIntMetricsOuterClass.MsgIntMetrics;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.linstor.security.AccessDeniedException;
+import com.linbit.locks.LockGuard;
+import com.linbit.locks.LockGuardFactory;
+
+import static com.linbit.locks.LockGuardFactory.LockObj.NODES_MAP;
+import static com.linbit.locks.LockGuardFactory.LockType.READ;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Collects the metrics of the controller and of all connected satellites.
+ *
+ * The satellites' metrics are requested over the satellite connections whenever the metrics are scraped. The
+ * scrape does not wait for the answers, it returns the satellites' metrics of the last completed request, so that
+ * the first scrape only contains the metrics of the controller. The satellites' samples get an additional "node"
+ * label. Satellites that do not answer in time are skipped.
+ */
+@Singleton
+public class CtrlMetricsCollector
+{
+    private static final Duration SATELLITE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ErrorReporter errorReporter;
+    private final AccessContext sysCtx;
+    private final LockGuardFactory lockGuardFactory;
+    private final NodeRepository nodeRepository;
+
+    private final AtomicBoolean refreshRunning = new AtomicBoolean();
+    // sorted by node name
+    private volatile Map<String, MsgIntMetrics> satelliteMetrics = Collections.emptyMap();
+
+    @Inject
+    public CtrlMetricsCollector(
+        ErrorReporter errorReporterRef,
+        @SystemContext AccessContext sysCtxRef,
+        LockGuardFactory lockGuardFactoryRef,
+        NodeRepository nodeRepositoryRef
+    )
+    {
+        errorReporter = errorReporterRef;
+        sysCtx = sysCtxRef;
+        lockGuardFactory = lockGuardFactoryRef;
+        nodeRepository = nodeRepositoryRef;
+    }
+
+    /**
+     * Returns all metrics in the Prometheus text exposition format
+     */
+    public String collectText()
+    {
+        return MetricsTextFormat.write(collect());
+    }
+
+    public List<MetricFamilySamples> collect()
+    {
+        refreshSatelliteMetrics();
+
+        Map<String, MetricFamilySamples> families = new TreeMap<>();
+        for (MetricFamilySamples ctrlFamily : MetricsRegistry.getDefault().collect())
+        {
+            families.put(ctrlFamily.getName(), ctrlFamily);
+        }
+        for (Map.Entry<String, MsgIntMetrics> entry : satelliteMetrics.entrySet())
+        {
+            mergeSatelliteMetrics(families, entry.getKey(), entry.getValue());
+        }
+        return new ArrayList<>(families.values());
+    }
+
+    /**
+     * Requests the metrics of all connected satellites, unless a previous request is still running. The answers
+     * replace the cached satellite metrics once all satellites answered or timed out.
+     */
+    private void refreshSatelliteMetrics()
+    {
+        if (refreshRunning.compareAndSet(false, true))
+        {
+            Flux.fromIterable(getSatellitePeers())
+                .flatMap(nodeNameAndPeer -> nodeNameAndPeer.getT2()
+                    .apiCall(InternalApiConsts.API_REQUEST_METRICS, new byte[] {})
+                    .timeout(SATELLITE_TIMEOUT)
+                    .flatMap(answer -> parseSatelliteMetrics(nodeNameAndPeer.getT1(), answer))
+                    .onErrorResume(exc ->
+                    {
+                        errorReporter.logDebug(
+                            "Metrics of node '%s' not available: %s",
+                            nodeNameAndPeer.getT1(),
+                            exc.getClass().getSimpleName()
+                        );
+                        return Flux.empty();
+                    })
+                )
+                .collectMap(Tuple2::getT1, Tuple2::getT2, TreeMap::new)
+                .doFinally(ignored -> refreshRunning.set(false))
+                .subscribe(
+                    answers -> satelliteMetrics = Collections.unmodifiableMap(answers),
+                    errorReporter::reportError
+                );
+        }
+    }
+
+    private List<Tuple2<String, Peer>> getSatellitePeers()
+    {
+        List<Tuple2<String, Peer>> peers = new ArrayList<>();
+        try (LockGuard lg = lockGuardFactory.build(READ, NODES_MAP))
+        {
+            for (Node node : nodeRepository.getMapForView(sysCtx).values())
+            {
+                Peer peer = node.getPeer(sysCtx);
+                if (peer != null && peer.isConnected())
+                {
+                    peers.add(Tuples.of(node.getName().displayValue, peer));
+                }
+            }
+        }
+        catch (AccessDeniedException accDeniedExc)
+        {
+            errorReporter.reportError(accDeniedExc);
+        }
+        return peers;
+    }
+
+    private Flux<Tuple2<String, MsgIntMetrics>> parseSatelliteMetrics(String nodeName, ByteArrayInputStream answer)
+    {
+        Flux<Tuple2<String, MsgIntMetrics>> parsed;
+        try
+        {
+            parsed = Flux.just(Tuples.of(nodeName, MsgIntMetrics.parseDelimitedFrom(answer)));
+        }
+        catch (IOException ioExc)
+        {
+            errorReporter.logWarning("Could not parse the metrics of node '%s': %s", nodeName, ioExc.getMessage());
+            parsed = Flux.empty();
+        }
+        return parsed;
+    }
+
+    private void mergeSatelliteMetrics(
+        Map<String, MetricFamilySamples> families,
+        String nodeName,
+        MsgIntMetrics msgMetrics
+    )
+    {
+        try
+        {
+            for (MsgIntMetricsOuterClass.MetricFamily msgFamily : msgMetrics.getFamiliesList())
+            {
+                MetricFamily.Type type = MetricFamily.Type.valueOf(msgFamily.getType());
+                MetricFamilySamples family = families.computeIfAbsent(
+                    msgFamily.getName(),
+                    name -> new MetricFamilySamples(name, type, msgFamily.getHelp())
+                );
+                if (family.getType() == type)
+                {
+                    for (MsgIntMetricsOuterClass.MetricSample msgSample : msgFamily.getSamplesList())
+                    {
+                        family.add(
+                            new MetricFamilySamples.Sample(
+                                msgSample.getName(),
+                                msgSample.getLabelNamesList(),
+                                msgSample.getLabelValuesList(),
+                                msgSample.getValue()
+                            ).withLabel(LinStorMetrics.LABEL_NODE, nodeName)
+                        );
+                    }
+                }
+            }
+        }
+        catch (IllegalArgumentException illegalArgExc)
+        {
+            errorReporter.logWarning(
+                "Could not parse the metrics of node '%s': %s",
+                nodeName,
+                illegalArgExc.getMessage()
+            );
+        }
+    }
+}
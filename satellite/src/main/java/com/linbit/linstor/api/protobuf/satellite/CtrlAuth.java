@@ -13,7 +13,9 @@ import com.linbit.linstor.core.UpdateMonitor;
 import com.linbit.linstor.core.apicallhandler.satellite.StltApiCallHandler;
 import com.linbit.linstor.core.apicallhandler.satellite.authentication.AuthenticationResult;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.netcom.MessageCompression;
 import com.linbit.linstor.netcom.Peer;
+import com.linbit.linstor.netcom.TcpConnectorPeer;
 import com.linbit.linstor.proto.javainternal.c2s.MsgIntAuthOuterClass.MsgIntAuth;
 
 import javax.inject.Inject;
@@ -85,6 +87,13 @@ public class CtrlAuth implements ApiCall
         AuthenticationResult authResult =
             apiCallHandler.authenticate(nodeUuid, nodeName, controllerPeer);
 
+        // compression offered by the controller. Only accepted if both sides of the connection
+        // are able to compress the data
+        boolean compressionAccepted = authResult.isAuthenticated() &&
+            controllerPeer instanceof TcpConnectorPeer &&
+            MessageCompression.isSupported(auth.getCompression());
+        int compressionThreshold = auth.getCompressionThreshold();
+
         byte[] replyBytes;
         if (authResult.isAuthenticated())
         {
@@ -97,6 +106,8 @@ public class CtrlAuth implements ApiCall
                     LinStor.VERSION_INFO_PROVIDER.getSemanticVersion(),
                     nodeUname,
                     authResult.getExternalToolsInfoList(),
+                    compressionAccepted ? MessageCompression.ALGORITHM_DEFLATE : "",
+                    compressionThreshold,
                     authResult.getApiCallRc()
                 )
                 .build();
@@ -114,5 +125,23 @@ public class CtrlAuth implements ApiCall
                 InternalApiConsts.API_AUTH_RESPONSE
             )
         );
+
+        // enabled only after the reply was queued, the reply itself is never compressed
+        MessageCompression compression = controllerPeer instanceof TcpConnectorPeer ?
+            ((TcpConnectorPeer) controllerPeer).getCompression() : null;
+        if (compression != null)
+        {
+            if (compressionAccepted)
+            {
+                compression.enable(compressionThreshold);
+                errorReporter.logDebug(
+                    "Compressing messages to the controller with at least %d bytes of data", compressionThreshold
+                );
+            }
+            else
+            {
+                compression.disable();
+            }
+        }
     }
 }
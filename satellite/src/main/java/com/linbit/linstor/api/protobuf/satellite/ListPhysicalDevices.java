@@ -1,6 +1,5 @@
 package com.linbit.linstor.api.protobuf.satellite;
 
-import com.linbit.extproc.ExtCmdFactory;
 import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.api.ApiCall;
 import com.linbit.linstor.api.ApiModule;
@@ -11,7 +10,7 @@ import com.linbit.linstor.netcom.Peer;
 import com.linbit.linstor.proto.javainternal.c2s.MsgReqPhysicalDevicesOuterClass;
 import com.linbit.linstor.storage.LsBlkEntry;
 import com.linbit.linstor.storage.StorageException;
-import com.linbit.linstor.storage.utils.LsBlkUtils;
+import com.linbit.linstor.storage.utils.BlockDeviceScanner;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -29,7 +28,7 @@ import java.util.List;
 public class ListPhysicalDevices implements ApiCall
 {
     private final ErrorReporter errorReporter;
-    private final ExtCmdFactory extCmdFactory;
+    private final BlockDeviceScanner blockDeviceScanner;
     private final Provider<Peer> peerProvider;
     private Provider<Long> apiCallId;
     private final CtrlStltSerializer ctrlStltSerializer;
@@ -37,14 +36,14 @@ public class ListPhysicalDevices implements ApiCall
     @Inject
     public ListPhysicalDevices(
         ErrorReporter errorReporterRef,
-        ExtCmdFactory extCmdFactoryRef,
+        BlockDeviceScanner blockDeviceScannerRef,
         Provider<Peer> peerProviderRef,
         @Named(ApiModule.API_CALL_ID) Provider<Long> apiCallIdRef,
         CtrlStltSerializer ctrlStltSerializerRef
     )
     {
         errorReporter = errorReporterRef;
-        extCmdFactory = extCmdFactoryRef;
+        blockDeviceScanner = blockDeviceScannerRef;
         peerProvider = peerProviderRef;
         apiCallId = apiCallIdRef;
         ctrlStltSerializer = ctrlStltSerializerRef;
@@ -58,12 +57,14 @@ public class ListPhysicalDevices implements ApiCall
             MsgReqPhysicalDevicesOuterClass.MsgReqPhysicalDevices msgReqPhysicalDevices =
                 MsgReqPhysicalDevicesOuterClass.MsgReqPhysicalDevices.parseDelimitedFrom(msgDataIn);
 
-            List<LsBlkEntry> entries = LsBlkUtils.lsblk(extCmdFactory.create());
-            String[] blkIdEntries = LsBlkUtils.blkid(extCmdFactory.create());
-
+            List<LsBlkEntry> entries;
             if (msgReqPhysicalDevices.getFilter())
             {
-                entries = LsBlkUtils.filterDeviceCandidates(entries, blkIdEntries);
+                entries = blockDeviceScanner.getDeviceCandidates();
+            }
+            else
+            {
+                entries = blockDeviceScanner.getBlockDevices();
             }
 
             byte[] answer = ctrlStltSerializer
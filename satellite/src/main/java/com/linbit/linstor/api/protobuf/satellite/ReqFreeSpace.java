@@ -3,17 +3,14 @@ package com.linbit.linstor.api.protobuf.satellite;
 import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.api.ApiCallReactive;
 import com.linbit.linstor.api.ApiModule;
-import com.linbit.linstor.api.SpaceInfo;
 import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
 import com.linbit.linstor.api.protobuf.ProtobufApiCall;
 import com.linbit.linstor.api.protobuf.serializer.ProtoCtrlStltSerializerBuilder;
 import com.linbit.linstor.core.apicallhandler.ScopeRunner;
-import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
 import com.linbit.linstor.core.apicallhandler.satellite.StltApiCallHandlerUtils;
-import com.linbit.linstor.core.objects.StorPool;
+import com.linbit.linstor.core.apicallhandler.satellite.StltSpaceInfoSnapshot.StorPoolSpaceInfo;
 import com.linbit.linstor.proto.javainternal.s2c.MsgIntFreeSpaceOuterClass.MsgIntFreeSpace;
 import com.linbit.locks.LockGuard;
-import com.linbit.utils.Either;
 import reactor.core.publisher.Flux;
 
 import javax.inject.Inject;
@@ -23,7 +20,7 @@ import javax.inject.Singleton;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Map;
+import java.util.List;
 
 
 @ProtobufApiCall(
@@ -64,12 +61,19 @@ public class ReqFreeSpace implements ApiCallReactive
     private Flux<byte[]> executeInScope()
         throws IOException
     {
-        Map<StorPool, Either<SpaceInfo, ApiRcException>> freeSpaceMap = apiCallHandlerUtils.getAllSpaceInfo(true);
+        // does not wait for the device manager, answers with the last known free space instead
+        List<StorPoolSpaceInfo> freeSpaceList = apiCallHandlerUtils.getAllSpaceInfoNonBlocking(true);
 
         MsgIntFreeSpace.Builder builder = MsgIntFreeSpace.newBuilder();
-        for (Map.Entry<StorPool, Either<SpaceInfo, ApiRcException>> entry : freeSpaceMap.entrySet())
+        for (StorPoolSpaceInfo storPoolSpaceInfo : freeSpaceList)
         {
-            builder.addFreeSpaces(ProtoCtrlStltSerializerBuilder.buildStorPoolFreeSpace(entry).build());
+            builder.addFreeSpaces(
+                ProtoCtrlStltSerializerBuilder.buildStorPoolFreeSpace(
+                    storPoolSpaceInfo.storPoolUuid,
+                    storPoolSpaceInfo.storPoolName,
+                    storPoolSpaceInfo.spaceInfo
+                ).build()
+            );
         }
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         builder.build().writeDelimitedTo(baos);
@@ -0,0 +1,51 @@
+package com.linbit.linstor.api.protobuf.satellite;
+
+import com.linbit.linstor.InternalApiConsts;
+import com.linbit.linstor.api.ApiCall;
+import com.linbit.linstor.api.ApiModule;
+import com.linbit.linstor.api.interfaces.serializer.CtrlStltSerializer;
+import com.linbit.linstor.api.protobuf.ProtobufApiCall;
+import com.linbit.linstor.metrics.MetricsRegistry;
+import com.linbit.linstor.netcom.Peer;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InputStream;
+
+@ProtobufApiCall(
+    name = InternalApiConsts.API_REQUEST_METRICS,
+    description = "Returns the satellite's metrics to the controller"
+)
+@Singleton
+public class ReqMetrics implements ApiCall
+{
+    private final Provider<Peer> peerProvider;
+    private final Provider<Long> apiCallId;
+    private final CtrlStltSerializer ctrlStltSerializer;
+
+    @Inject
+    public ReqMetrics(
+        Provider<Peer> peerProviderRef,
+        @Named(ApiModule.API_CALL_ID) Provider<Long> apiCallIdRef,
+        CtrlStltSerializer ctrlStltSerializerRef
+    )
+    {
+        peerProvider = peerProviderRef;
+        apiCallId = apiCallIdRef;
+        ctrlStltSerializer = ctrlStltSerializerRef;
+    }
+
+    @Override
+    public void execute(InputStream msgDataIn) throws IOException
+    {
+        byte[] answer = ctrlStltSerializer
+            .answerBuilder(InternalApiConsts.API_ANSWER_METRICS, apiCallId.get())
+            .metrics(MetricsRegistry.getDefault().collect())
+            .build();
+
+        peerProvider.get().sendMessage(answer);
+    }
+}
@@ -34,6 +34,7 @@ import com.linbit.linstor.event.serializer.protobuf.common.VolumeDiskStateEventS
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.logging.LoggingModule;
 import com.linbit.linstor.logging.StdErrorReporter;
+import com.linbit.linstor.metrics.SlowApiCallTracker;
 import com.linbit.linstor.numberpool.SatelliteNumberPoolModule;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
@@ -109,6 +110,8 @@ public final class Satellite
 
     private final SatelliteConfigToml satelliteConfig;
 
+    private final SlowApiCallTracker slowApiCallTracker;
+
     @Inject
     public Satellite(
         ErrorReporter errorReporterRef,
@@ -125,7 +128,8 @@ public final class Satellite
         SatelliteNetComInitializer satelliteNetComInitializerRef,
         SatelliteCmdlArguments satelliteCmdlArgumentsRef,
         StltCoreObjProtInitializer stltCoreObjProtInitializerRef,
-        SatelliteConfigToml satelliteConfigRef
+        SatelliteConfigToml satelliteConfigRef,
+        SlowApiCallTracker slowApiCallTrackerRef
     )
     {
         errorReporter = errorReporterRef;
@@ -143,6 +147,7 @@ public final class Satellite
         satelliteCmdlArguments = satelliteCmdlArgumentsRef;
         stltCoreObjProtInitializer = stltCoreObjProtInitializerRef;
         satelliteConfig = satelliteConfigRef;
+        slowApiCallTracker = slowApiCallTrackerRef;
     }
 
     public void start()
@@ -191,6 +196,7 @@ public final class Satellite
 
             systemServicesMap.put(fsWatchSvc.getInstanceName(), fsWatchSvc);
             systemServicesMap.put(timerEventSvc.getInstanceName(), timerEventSvc);
+            systemServicesMap.put(slowApiCallTracker.getInstanceName(), slowApiCallTracker);
             if (vsnCheck.hasDrbd9())
             {
                 systemServicesMap.put(drbdEventSvc.getInstanceName(), drbdEventSvc);
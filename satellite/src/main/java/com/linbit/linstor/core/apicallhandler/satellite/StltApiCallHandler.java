@@ -351,6 +351,7 @@ public class StltApiCallHandler
                 Node localNode = controllerPeerConnector.getLocalNode();
                 if (localNode != null)
                 {
+                    resumeInterruptedWipes(localNode);
                     if (deviceManager != null)
                     {
                         deviceManager.fullSyncApplied(localNode);
@@ -602,6 +603,27 @@ public class StltApiCallHandler
         }
     }
 
+    /**
+     * Lets the device providers finish the wipes of deleted volumes that were interrupted by a restart of the
+     * satellite. The providers check each storage pool only once, so later full syncs do not scan them again.
+     */
+    private void resumeInterruptedWipes(Node localNode) throws AccessDeniedException
+    {
+        Iterator<StorPool> storPoolIter = localNode.iterateStorPools(apiCtx);
+        while (storPoolIter.hasNext())
+        {
+            StorPool storPool = storPoolIter.next();
+            try
+            {
+                deviceProviderMapper.getDeviceProviderByStorPool(storPool).resumeInterruptedWipes(storPool);
+            }
+            catch (StorageException exc)
+            {
+                errorReporter.reportError(exc);
+            }
+        }
+    }
+
     private void reconfigureAllStorageDrivers()
     {
         try
@@ -10,6 +10,7 @@ import com.linbit.linstor.api.SpaceInfo;
 import com.linbit.linstor.core.ControllerPeerConnector;
 import com.linbit.linstor.core.CoreModule;
 import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
+import com.linbit.linstor.core.apicallhandler.satellite.StltSpaceInfoSnapshot.StorPoolSpaceInfo;
 import com.linbit.linstor.core.identifier.ResourceName;
 import com.linbit.linstor.core.identifier.StorPoolName;
 import com.linbit.linstor.core.objects.Resource;
@@ -55,6 +56,7 @@ public class StltApiCallHandlerUtils
     private final StorageLayer storageLayer;
     private final DeviceProviderMapper deviceProviderMapper;
     private LockGuardFactory lockGuardFactory;
+    private final StltSpaceInfoSnapshot spaceInfoSnapshot;
 
     @Inject
     public StltApiCallHandlerUtils(
@@ -66,7 +68,8 @@ public class StltApiCallHandlerUtils
         @Named(CoreModule.RSC_DFN_MAP_LOCK) ReadWriteLock rscDfnMapLockRef,
         StorageLayer storageLayerRef,
         DeviceProviderMapper deviceProviderMapperRef,
-        LockGuardFactory lockGuardFactoryRef
+        LockGuardFactory lockGuardFactoryRef,
+        StltSpaceInfoSnapshot spaceInfoSnapshotRef
     )
     {
         errorReporter = errorReporterRef;
@@ -78,6 +81,7 @@ public class StltApiCallHandlerUtils
         storageLayer = storageLayerRef;
         deviceProviderMapper = deviceProviderMapperRef;
         lockGuardFactory = lockGuardFactoryRef;
+        spaceInfoSnapshot = spaceInfoSnapshotRef;
     }
 
     public Map<Volume.Key, Either<Long, ApiRcException>> getVlmAllocatedCapacities(
@@ -218,7 +222,7 @@ public class StltApiCallHandlerUtils
 
     public Map<StorPool, Either<SpaceInfo, ApiRcException>> getAllSpaceInfo(boolean thin)
     {
-        Map<StorPool, Either<SpaceInfo, ApiRcException>> spaceMap = new HashMap<>();
+        Map<StorPool, Either<SpaceInfo, ApiRcException>> spaceMap;
 
         Lock nodesMapReadLock = nodesMapLock.readLock();
         Lock storPoolDfnMapReadLock = storPoolDfnMapLock.readLock();
@@ -228,6 +232,78 @@ public class StltApiCallHandlerUtils
             nodesMapReadLock.lock();
             storPoolDfnMapReadLock.lock();
 
+            spaceMap = collectSpaceInfo(thin);
+        }
+        finally
+        {
+            storPoolDfnMapReadLock.unlock();
+            nodesMapReadLock.unlock();
+        }
+
+        return spaceMap;
+    }
+
+    /**
+     * Like {@link #getAllSpaceInfo(boolean)}, but does not wait for the locks of the local state if they are
+     * currently held by someone else (usually the device manager). In that case, the last known space info is
+     * returned from the {@link StltSpaceInfoSnapshot}.
+     *
+     * The storage providers are only queried while holding the locks, as they must not be used concurrently with
+     * the device manager.
+     */
+    public List<StorPoolSpaceInfo> getAllSpaceInfoNonBlocking(boolean thin)
+    {
+        List<StorPoolSpaceInfo> spaceInfoList = null;
+
+        Lock nodesMapReadLock = nodesMapLock.readLock();
+        Lock storPoolDfnMapReadLock = storPoolDfnMapLock.readLock();
+
+        if (nodesMapReadLock.tryLock())
+        {
+            try
+            {
+                if (storPoolDfnMapReadLock.tryLock())
+                {
+                    try
+                    {
+                        collectSpaceInfo(thin);
+                        spaceInfoList = spaceInfoSnapshot.get(thin);
+                    }
+                    finally
+                    {
+                        storPoolDfnMapReadLock.unlock();
+                    }
+                }
+            }
+            finally
+            {
+                nodesMapReadLock.unlock();
+            }
+        }
+
+        if (spaceInfoList == null)
+        {
+            spaceInfoList = spaceInfoSnapshot.get(thin);
+            if (spaceInfoList == null)
+            {
+                // no snapshot yet, wait for the locks
+                getAllSpaceInfo(thin);
+                spaceInfoList = spaceInfoSnapshot.get(thin);
+            }
+        }
+        if (spaceInfoList == null)
+        {
+            spaceInfoList = Collections.emptyList();
+        }
+
+        return spaceInfoList;
+    }
+
+    private Map<StorPool, Either<SpaceInfo, ApiRcException>> collectSpaceInfo(boolean thin)
+    {
+        Map<StorPool, Either<SpaceInfo, ApiRcException>> spaceMap = new HashMap<>();
+        try
+        {
             for (StorPool storPool : controllerPeerConnector.getLocalNode().streamStorPools(apiCtx).collect(toList()))
             {
                 if (storPool.getDeviceProviderKind().usesThinProvisioning() == thin)
@@ -235,17 +311,12 @@ public class StltApiCallHandlerUtils
                     spaceMap.put(storPool, getStoragePoolSpaceInfoOrError(storPool));
                 }
             }
+            spaceInfoSnapshot.replace(thin, spaceMap);
         }
         catch (AccessDeniedException exc)
         {
             errorReporter.reportError(new ImplementationError(exc));
         }
-        finally
-        {
-            storPoolDfnMapReadLock.unlock();
-            nodesMapReadLock.unlock();
-        }
-
         return spaceMap;
     }
 
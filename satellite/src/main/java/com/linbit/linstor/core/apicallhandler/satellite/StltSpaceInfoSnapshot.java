@@ -0,0 +1,143 @@
+package com.linbit.linstor.core.apicallhandler.satellite;
+
+import com.linbit.linstor.AccessToDeletedDataException;
+import com.linbit.linstor.api.SpaceInfo;
+import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
+import com.linbit.linstor.core.objects.StorPool;
+import com.linbit.utils.Either;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last known capacity and free space of the local storage pools.
+ *
+ * The snapshot is updated whenever the space info is queried while holding the locks of the local state, e.g. by
+ * the device manager after resources were applied. Read-only API calls use the snapshot to answer while the
+ * device manager holds the locks, instead of waiting for the end of the device manager's cycle.
+ */
+@Singleton
+public class StltSpaceInfoSnapshot
+{
+    private final Map<StorPool, StorPoolSpaceInfo> spaceInfoMap = new ConcurrentHashMap<>();
+    // whether the snapshot contains all storage pools of the respective kind of provisioning
+    private volatile boolean thinComplete = false;
+    private volatile boolean thickComplete = false;
+
+    @Inject
+    public StltSpaceInfoSnapshot()
+    {
+    }
+
+    /**
+     * Replaces the snapshot of all storage pools of the given kind of provisioning.
+     * Must be called while holding (at least) the read locks of the nodes map and the storage pool definition map.
+     */
+    public void replace(boolean thin, Map<StorPool, Either<SpaceInfo, ApiRcException>> spaceMap)
+    {
+        spaceInfoMap.keySet().removeIf(
+            storPool -> storPool.getDeviceProviderKind().usesThinProvisioning() == thin &&
+                !spaceMap.containsKey(storPool)
+        );
+        update(spaceMap);
+        if (thin)
+        {
+            thinComplete = true;
+        }
+        else
+        {
+            thickComplete = true;
+        }
+    }
+
+    /**
+     * Updates the snapshot of the given storage pools.
+     * Must be called while holding (at least) the read locks of the nodes map and the storage pool definition map.
+     */
+    public void update(Map<StorPool, Either<SpaceInfo, ApiRcException>> spaceMap)
+    {
+        long nowMillis = System.currentTimeMillis();
+        for (Map.Entry<StorPool, Either<SpaceInfo, ApiRcException>> entry : spaceMap.entrySet())
+        {
+            StorPool storPool = entry.getKey();
+            spaceInfoMap.put(
+                storPool,
+                new StorPoolSpaceInfo(
+                    storPool.getUuid(),
+                    storPool.getName().displayValue,
+                    storPool.getDeviceProviderKind().usesThinProvisioning(),
+                    entry.getValue(),
+                    nowMillis
+                )
+            );
+        }
+    }
+
+    /**
+     * Returns the snapshot of the storage pools of the given kind of provisioning, or {@code null} if the space
+     * info of all those storage pools was not queried yet.
+     * Does not require any locks.
+     */
+    public List<StorPoolSpaceInfo> get(boolean thin)
+    {
+        List<StorPoolSpaceInfo> result = null;
+        if (thin ? thinComplete : thickComplete)
+        {
+            result = new ArrayList<>();
+            for (Map.Entry<StorPool, StorPoolSpaceInfo> entry : spaceInfoMap.entrySet())
+            {
+                StorPoolSpaceInfo spaceInfo = entry.getValue();
+                if (spaceInfo.thin == thin && !isDeleted(entry.getKey()))
+                {
+                    result.add(spaceInfo);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isDeleted(StorPool storPool)
+    {
+        boolean deleted = false;
+        try
+        {
+            storPool.getUuid();
+        }
+        catch (AccessToDeletedDataException ignored)
+        {
+            // the storage pool was deleted after the snapshot was taken
+            deleted = true;
+        }
+        return deleted;
+    }
+
+    public static class StorPoolSpaceInfo
+    {
+        public final UUID storPoolUuid;
+        public final String storPoolName;
+        public final boolean thin;
+        public final Either<SpaceInfo, ApiRcException> spaceInfo;
+        public final long timestampMillis;
+
+        StorPoolSpaceInfo(
+            UUID storPoolUuidRef,
+            String storPoolNameRef,
+            boolean thinRef,
+            Either<SpaceInfo, ApiRcException> spaceInfoRef,
+            long timestampMillisRef
+        )
+        {
+            storPoolUuid = storPoolUuidRef;
+            storPoolName = storPoolNameRef;
+            thin = thinRef;
+            spaceInfo = spaceInfoRef;
+            timestampMillis = timestampMillisRef;
+        }
+    }
+}
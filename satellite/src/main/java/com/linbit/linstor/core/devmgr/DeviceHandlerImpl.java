@@ -14,6 +14,7 @@ import com.linbit.linstor.api.interfaces.serializer.CtrlStltSerializer;
 import com.linbit.linstor.core.ControllerPeerConnector;
 import com.linbit.linstor.core.SysFsHandler;
 import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
+import com.linbit.linstor.core.apicallhandler.satellite.StltSpaceInfoSnapshot;
 import com.linbit.linstor.core.identifier.NodeName;
 import com.linbit.linstor.core.identifier.ResourceName;
 import com.linbit.linstor.core.identifier.VolumeNumber;
@@ -39,6 +40,7 @@ import com.linbit.linstor.storage.interfaces.categories.resource.VlmProviderObje
 import com.linbit.linstor.storage.layer.DeviceLayer;
 import com.linbit.linstor.storage.layer.DeviceLayer.LayerProcessResult;
 import com.linbit.linstor.storage.layer.DeviceLayer.NotificationListener;
+import com.linbit.linstor.storage.layer.adapter.dmsetup.DmSetupInventory;
 import com.linbit.linstor.storage.layer.exceptions.ResourceException;
 import com.linbit.linstor.storage.layer.exceptions.VolumeException;
 import com.linbit.linstor.storage.layer.provider.StorageLayer;
@@ -58,6 +60,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -84,6 +87,8 @@ public class DeviceHandlerImpl implements DeviceHandler
     private final ExtCmdFactory extCmdFactory;
 
     private final SysFsHandler sysFsHandler;
+    private final DmSetupInventory dmSetupInventory;
+    private final StltSpaceInfoSnapshot spaceInfoSnapshot;
 
     @Inject
     public DeviceHandlerImpl(
@@ -96,7 +101,9 @@ public class DeviceHandlerImpl implements DeviceHandler
         StorageLayer storageLayerRef,
         ResourceStateEvent resourceStateEventRef,
         ExtCmdFactory extCmdFactoryRef,
-        SysFsHandler sysFsHandlerRef
+        SysFsHandler sysFsHandlerRef,
+        DmSetupInventory dmSetupInventoryRef,
+        StltSpaceInfoSnapshot spaceInfoSnapshotRef
     )
     {
         wrkCtx = wrkCtxRef;
@@ -110,6 +117,8 @@ public class DeviceHandlerImpl implements DeviceHandler
         resourceStateEvent = resourceStateEventRef;
         extCmdFactory = extCmdFactoryRef;
         sysFsHandler = sysFsHandlerRef;
+        dmSetupInventory = dmSetupInventoryRef;
+        spaceInfoSnapshot = spaceInfoSnapshotRef;
 
         fullSyncApplied = new AtomicBoolean(false);
     }
@@ -122,6 +131,7 @@ public class DeviceHandlerImpl implements DeviceHandler
 
         calculateGrossSizes(rscs);
 
+        dmSetupInventory.invalidate();
         boolean prepareSuccess = prepareLayers(rscByLayer, snapByLayer);
 
         if (prepareSuccess)
@@ -263,6 +273,9 @@ public class DeviceHandlerImpl implements DeviceHandler
         List<Resource> sysFsUpdateList = new ArrayList<>();
         List<Resource> sysFsDeleteList = new ArrayList<>();
 
+        Map<Resource, ApiCallRcImpl> apiCallRcByRsc = new LinkedHashMap<>();
+        Set<Resource> failedRscs = new HashSet<>();
+
         for (Resource rsc : resourceList)
         {
             ResourceName rscName = rsc.getDefinition().getName();
@@ -277,69 +290,11 @@ public class DeviceHandlerImpl implements DeviceHandler
                 }
                 unprocessedSnapshotsRef.removeAll(snapshots);
 
-                AbsRscLayerObject<Resource> rscLayerObject = rsc.getLayerData(wrkCtx);
                 process(
-                    rscLayerObject,
+                    rsc.getLayerData(wrkCtx),
                     snapshots,
                     apiCallRc
                 );
-
-                if (rscLayerObject.getLayerKind().isLocalOnly() &&
-                    rsc.getStateFlags().isUnset(wrkCtx, Resource.Flags.DELETE)
-                )
-                {
-                    MkfsUtils.makeFileSystemOnMarked(errorReporter, extCmdFactory, wrkCtx, rsc);
-                }
-                for (Snapshot snapshot : snapshots)
-                {
-                    if (snapshot.getFlags().isSet(wrkCtx, Snapshot.Flags.DELETE))
-                    {
-                        snapListNotifyDelete.add(snapshot);
-                        // snapshot.delete is done by the deviceManager
-                    }
-                }
-
-                /*
-                 * old device manager reported changes of free space after every
-                 * resource operation. As this could require to query the same
-                 * VG or zpool multiple times within the same device manager run,
-                 * we only query the free space after the whole run.
-                 * This also means that we only send the resourceApplied messages
-                 * at the very end
-                 */
-                if (rsc.getStateFlags().isSet(wrkCtx, Resource.Flags.DELETE))
-                {
-                    rscListNotifyDelete.add(rsc);
-                    notificationListener.get().notifyResourceDeleted(rsc);
-                    // rsc.delete is done by the deviceManager
-                }
-                else
-                {
-                    Iterator<Volume> iterateVolumes = rsc.iterateVolumes();
-                    while (iterateVolumes.hasNext())
-                    {
-                        Volume vlm = iterateVolumes.next();
-                        if (vlm.getFlags().isSet(wrkCtx, Volume.Flags.DELETE))
-                        {
-                            // verify if all VlmProviderObject were deleted correctly
-                            ensureAllVlmDataDeleted(rscLayerObject, vlm.getVolumeDefinition().getVolumeNumber());
-                            vlmListNotifyDelete.add(vlm);
-                        }
-                    }
-                    rscListNotifyApplied.add(rsc);
-                }
-
-                // give the layer the opportunity to send a "resource ready" event
-                resourceFinished(rsc.getLayerData(wrkCtx));
-
-                if (rsc.getStateFlags().isUnset(wrkCtx, Resource.Flags.DELETE))
-                {
-                    sysFsUpdateList.add(rsc);
-                }
-                else
-                {
-                    sysFsDeleteList.add(rsc);
-                }
             }
             catch (AccessDeniedException | DatabaseException exc)
             {
@@ -362,67 +317,185 @@ public class DeviceHandlerImpl implements DeviceHandler
                     rscLayerData.getSuffixedResourceName(),
                     devLayersAbove
                 );
+                failedRscs.add(rsc);
             }
             catch (Exception | ImplementationError exc)
             {
-                String errorId = errorReporter.reportError(
-                    exc,
-                    null,
-                    null,
-                    "An error occurred while processing resource '" + rsc + "'"
-                );
-
-                long rc;
-                String errMsg;
-                String cause;
-                String correction;
-                String details;
-                if (exc instanceof StorageException ||
-                    exc instanceof ResourceException ||
-                    exc instanceof VolumeException
-                )
-                {
-                    LinStorException linExc = (LinStorException) exc;
-                    // TODO add returnCode and message to the classes StorageException, ResourceException and
-                    // VolumeException and include them here
+                apiCallRc = resourceFailed(rsc, exc);
+                failedRscs.add(rsc);
+            }
+            apiCallRcByRsc.put(rsc, apiCallRc);
+        }
 
-                    rc = ApiConsts.FAIL_UNKNOWN_ERROR;
-                    errMsg = exc.getMessage();
+        // layers might have deferred some work in order to batch it for all resources
+        processDeferred(apiCallRcByRsc, failedRscs);
 
-                    cause = linExc.getCauseText();
-                    correction = linExc.getCorrectionText();
-                    details = linExc.getDetailsText();
-                }
-                else
+        for (Entry<Resource, ApiCallRcImpl> entry : apiCallRcByRsc.entrySet())
+        {
+            Resource rsc = entry.getKey();
+            ResourceName rscName = rsc.getDefinition().getName();
+            if (!failedRscs.contains(rsc))
+            {
+                try
                 {
-                    rc = ApiConsts.FAIL_UNKNOWN_ERROR;
-                    errMsg = exc.getMessage();
-                    if (errMsg == null)
+                    AbsRscLayerObject<Resource> rscLayerObject = rsc.getLayerData(wrkCtx);
+                    if (rscLayerObject.getLayerKind().isLocalOnly() &&
+                        rsc.getStateFlags().isUnset(wrkCtx, Resource.Flags.DELETE)
+                    )
+                    {
+                        MkfsUtils.makeFileSystemOnMarked(errorReporter, extCmdFactory, wrkCtx, rsc);
+                    }
+                    List<Snapshot> snapshots = snapshotsByRscName.get(rscName);
+                    if (snapshots != null)
                     {
-                        errMsg = "An unknown exception occurred while processing the resource " + rscName.displayValue;
+                        for (Snapshot snapshot : snapshots)
+                        {
+                            if (snapshot.getFlags().isSet(wrkCtx, Snapshot.Flags.DELETE))
+                            {
+                                snapListNotifyDelete.add(snapshot);
+                                // snapshot.delete is done by the deviceManager
+                            }
+                        }
                     }
 
-                    cause = null;
-                    correction = null;
-                    details = null;
-                }
+                    /*
+                     * old device manager reported changes of free space after every
+                     * resource operation. As this could require to query the same
+                     * VG or zpool multiple times within the same device manager run,
+                     * we only query the free space after the whole run.
+                     * This also means that we only send the resourceApplied messages
+                     * at the very end
+                     */
+                    if (rsc.getStateFlags().isSet(wrkCtx, Resource.Flags.DELETE))
+                    {
+                        rscListNotifyDelete.add(rsc);
+                        notificationListener.get().notifyResourceDeleted(rsc);
+                        // rsc.delete is done by the deviceManager
+                    }
+                    else
+                    {
+                        Iterator<Volume> iterateVolumes = rsc.iterateVolumes();
+                        while (iterateVolumes.hasNext())
+                        {
+                            Volume vlm = iterateVolumes.next();
+                            if (vlm.getFlags().isSet(wrkCtx, Volume.Flags.DELETE))
+                            {
+                                // verify if all VlmProviderObject were deleted correctly
+                                ensureAllVlmDataDeleted(rscLayerObject, vlm.getVolumeDefinition().getVolumeNumber());
+                                vlmListNotifyDelete.add(vlm);
+                            }
+                        }
+                        rscListNotifyApplied.add(rsc);
+                    }
 
-                apiCallRc = ApiCallRcImpl.singletonApiCallRc(ApiCallRcImpl
-                    .entryBuilder(rc, errMsg)
-                    .setCause(cause)
-                    .setCorrection(correction)
-                    .setDetails(details)
-                    .addErrorId(errorId)
-                    .build()
-                );
+                    // give the layer the opportunity to send a "resource ready" event
+                    resourceFinished(rscLayerObject);
 
-                notificationListener.get().notifyResourceFailed(rsc, apiCallRc);
+                    if (rsc.getStateFlags().isUnset(wrkCtx, Resource.Flags.DELETE))
+                    {
+                        sysFsUpdateList.add(rsc);
+                    }
+                    else
+                    {
+                        sysFsDeleteList.add(rsc);
+                    }
+                }
+                catch (AccessDeniedException | DatabaseException exc)
+                {
+                    throw new ImplementationError(exc);
+                }
+                catch (Exception | ImplementationError exc)
+                {
+                    entry.setValue(resourceFailed(rsc, exc));
+                }
             }
-            notificationListener.get().notifyResourceDispatchResponse(rscName, apiCallRc);
+            notificationListener.get().notifyResourceDispatchResponse(rscName, entry.getValue());
         }
         sysFsHandler.updateSysFsSettings(sysFsUpdateList, sysFsDeleteList);
     }
 
+    private void processDeferred(Map<Resource, ApiCallRcImpl> apiCallRcByRsc, Set<Resource> failedRscs)
+    {
+        Iterator<DeviceLayer> layerIt = layerFactory.iterateDeviceHandlers();
+        while (layerIt.hasNext())
+        {
+            DeviceLayer layer = layerIt.next();
+            Map<AbsRscLayerObject<Resource>, LinStorException> failedLayerData;
+            try
+            {
+                failedLayerData = layer.processDeferred();
+            }
+            catch (AccessDeniedException | DatabaseException exc)
+            {
+                throw new ImplementationError(exc);
+            }
+            for (Entry<AbsRscLayerObject<Resource>, LinStorException> failedEntry : failedLayerData.entrySet())
+            {
+                Resource rsc = failedEntry.getKey().getAbsResource();
+                failedRscs.add(rsc);
+                apiCallRcByRsc.put(rsc, resourceFailed(rsc, failedEntry.getValue()));
+            }
+        }
+    }
+
+    private ApiCallRcImpl resourceFailed(Resource rsc, Throwable exc)
+    {
+        String errorId = errorReporter.reportError(
+            exc,
+            null,
+            null,
+            "An error occurred while processing resource '" + rsc + "'"
+        );
+
+        long rc;
+        String errMsg;
+        String cause;
+        String correction;
+        String details;
+        if (exc instanceof StorageException ||
+            exc instanceof ResourceException ||
+            exc instanceof VolumeException
+        )
+        {
+            LinStorException linExc = (LinStorException) exc;
+            // TODO add returnCode and message to the classes StorageException, ResourceException and
+            // VolumeException and include them here
+
+            rc = ApiConsts.FAIL_UNKNOWN_ERROR;
+            errMsg = exc.getMessage();
+
+            cause = linExc.getCauseText();
+            correction = linExc.getCorrectionText();
+            details = linExc.getDetailsText();
+        }
+        else
+        {
+            rc = ApiConsts.FAIL_UNKNOWN_ERROR;
+            errMsg = exc.getMessage();
+            if (errMsg == null)
+            {
+                errMsg = "An unknown exception occurred while processing the resource " +
+                    rsc.getDefinition().getName().displayValue;
+            }
+
+            cause = null;
+            correction = null;
+            details = null;
+        }
+
+        ApiCallRcImpl apiCallRc = ApiCallRcImpl.singletonApiCallRc(ApiCallRcImpl
+            .entryBuilder(rc, errMsg)
+            .setCause(cause)
+            .setCorrection(correction)
+            .setDetails(details)
+            .addErrorId(errorId)
+            .build()
+        );
+
+        notificationListener.get().notifyResourceFailed(rsc, apiCallRc);
+        return apiCallRc;
+    }
+
     private void ensureAllVlmDataDeleted(
         AbsRscLayerObject<Resource> rscLayerObjectRef,
         VolumeNumber volumeNumberRef
@@ -520,6 +593,7 @@ public class DeviceHandlerImpl implements DeviceHandler
             {
                 Map<StorPool, Either<SpaceInfo, ApiRcException>> spaceInfoQueryMap =
                     storageLayer.getFreeSpaceOfAccessedStoagePools();
+                spaceInfoSnapshot.update(spaceInfoQueryMap);
 
                 Map<StorPool, SpaceInfo> spaceInfoMap = new TreeMap<>();
 
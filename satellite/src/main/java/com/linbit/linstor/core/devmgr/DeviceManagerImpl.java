@@ -43,6 +43,7 @@ import com.linbit.linstor.drbdstate.DrbdEventService;
 import com.linbit.linstor.event.ObjectIdentifier;
 import com.linbit.linstor.event.common.ResourceStateEvent;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.LinStorMetrics;
 import com.linbit.linstor.netcom.Peer;
 import com.linbit.linstor.propscon.Props;
 import com.linbit.linstor.security.AccessContext;
@@ -152,6 +153,12 @@ class DeviceManagerImpl implements Runnable, SystemService, DeviceManager, Devic
 
     private final StltSecurityObjects stltSecObj;
 
+    // label values of the device manager phase duration metric
+    private static final String PHASE_COLLECT_NOTIFICATIONS = "collect_update_notifications";
+    private static final String PHASE_REQUEST_UPDATES = "request_update_data";
+    private static final String PHASE_COLLECT_UPDATES = "collect_update_data";
+    private static final String PHASE_DISPATCH = "dispatch_device_handlers";
+
     private static final ServiceName DEV_MGR_NAME;
     static
     {
@@ -582,7 +589,9 @@ class DeviceManagerImpl implements Runnable, SystemService, DeviceManager, Devic
                 {
                     // Collects update notifications
                     // Blocks if waitUpdFlag is set
+                    long phaseStart = System.nanoTime();
                     phaseCollectUpdateNotifications();
+                    LinStorMetrics.DEVMGR_PHASE_DURATION.labels(PHASE_COLLECT_NOTIFICATIONS).observeSince(phaseStart);
 
                     // Set nonblocking collection of update notifications, so that if the
                     // device manager service restarts, and updates are pending receipt
@@ -597,10 +606,14 @@ class DeviceManagerImpl implements Runnable, SystemService, DeviceManager, Devic
                     }
 
                     // Requests updates from the controller
+                    phaseStart = System.nanoTime();
                     phaseRequestUpdateData();
+                    LinStorMetrics.DEVMGR_PHASE_DURATION.labels(PHASE_REQUEST_UPDATES).observeSince(phaseStart);
 
                     // Blocks until all updates have been received from the controller
+                    phaseStart = System.nanoTime();
                     phaseCollectUpdateData();
+                    LinStorMetrics.DEVMGR_PHASE_DURATION.labels(PHASE_COLLECT_UPDATES).observeSince(phaseStart);
                 }
 
                 // Cancel nonblocking collection of update notifications
@@ -608,7 +621,9 @@ class DeviceManagerImpl implements Runnable, SystemService, DeviceManager, Devic
 
                 if (!drbdVersion.hasDrbd9() || stateAvailable)
                 {
+                    long phaseStart = System.nanoTime();
                     phaseDispatchDeviceHandlers(phaseLock);
+                    LinStorMetrics.DEVMGR_PHASE_DURATION.labels(PHASE_DISPATCH).observeSince(phaseStart);
                 }
                 else
                 {
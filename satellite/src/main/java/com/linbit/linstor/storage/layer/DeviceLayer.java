@@ -1,5 +1,6 @@
 package com.linbit.linstor.storage.layer;
 
+import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.api.ApiCallRc;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.api.ApiConsts;
@@ -57,6 +58,18 @@ public interface DeviceLayer
         throws StorageException, ResourceException, VolumeException, AccessDeniedException,
             DatabaseException;
 
+    /**
+     * Called once all resources of the current device manager run were processed. Layers that deferred
+     * work of multiple resources (e.g. to batch external commands) have to complete it here.
+     *
+     * @return The layer data of the resources whose deferred work failed, mapped to the cause of the failure
+     *
+     * @throws AccessDeniedException
+     * @throws DatabaseException
+     */
+    Map<AbsRscLayerObject<Resource>, LinStorException> processDeferred()
+        throws AccessDeniedException, DatabaseException;
+
     void clearCache() throws StorageException;
 
     void setLocalNodeProps(Props localNodeProps);
@@ -0,0 +1,206 @@
+package com.linbit.linstor.storage.layer.adapter.dmsetup;
+
+import com.linbit.extproc.ExtCmd.OutputData;
+import com.linbit.extproc.ExtCmdFactory;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.storage.StorageException;
+import com.linbit.linstor.storage.layer.provider.utils.Commands;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inventory of the device-mapper devices, scoped to a single device manager run.
+ *
+ * The names are read from sysfs (/sys/block/dm-N/dm/name, no external command).
+ * The targets are only queried if a layer needs them, with a single 'dmsetup table' for all devices. That way
+ * the number of external commands per device manager run does not depend on the number of volumes.
+ *
+ * The inventory is invalidated at the beginning of every device manager run. Every dmsetup or cryptsetup call
+ * that creates or removes a device-mapper device has to report the change via
+ * {@link #deviceCreated(String, String)} and {@link #deviceRemoved(String)}, or {@link #invalidate()} the
+ * inventory if the command failed and the resulting state is unknown. Lookups outside of a device manager run
+ * therefore see all changes made by Linstor, but devices created or removed by other tools are only noticed
+ * by the next device manager run.
+ */
+@Singleton
+public class DmSetupInventory
+{
+    private static final String SYS_BLOCK = "/sys/block";
+    private static final String DM_DEV_PREFIX = "dm-";
+
+    // "<name>: <start> <length> <target> [<args>]" or, for further targets of the same device,
+    // "<start> <length> <target> [<args>]"
+    private static final Pattern DM_LINE_PATTERN = Pattern.compile(
+        "^(?:(\\S+):\\s+)?(\\d+)\\s+(\\d+)\\s+(\\S+)\\s*(.*)$"
+    );
+
+    private final ExtCmdFactory extCmdFactory;
+    private final ErrorReporter errorReporter;
+
+    private Map<String, DmDevice> devices;
+    private boolean tablesLoaded;
+
+    @Inject
+    public DmSetupInventory(ExtCmdFactory extCmdFactoryRef, ErrorReporter errorReporterRef)
+    {
+        extCmdFactory = extCmdFactoryRef;
+        errorReporter = errorReporterRef;
+    }
+
+    /**
+     * Drops all cached information. The next lookup rescans the device-mapper devices.
+     */
+    public synchronized void invalidate()
+    {
+        devices = null;
+        tablesLoaded = false;
+    }
+
+    public synchronized boolean exists(String name) throws StorageException
+    {
+        return getDevices().containsKey(name);
+    }
+
+    /**
+     * Returns the names of all device-mapper devices having at least one target of the given type
+     */
+    public synchronized Set<String> listByTarget(String target) throws StorageException
+    {
+        loadTables();
+        Set<String> ret = new TreeSet<>();
+        for (DmDevice dev : devices.values())
+        {
+            if (dev.targets.contains(target))
+            {
+                ret.add(dev.name);
+            }
+        }
+        return ret;
+    }
+
+    public synchronized void deviceCreated(String name, String target)
+    {
+        if (devices != null)
+        {
+            DmDevice dev = new DmDevice(name);
+            dev.targets.add(target);
+            devices.put(name, dev);
+        }
+    }
+
+    public synchronized void deviceRemoved(String name)
+    {
+        if (devices != null)
+        {
+            devices.remove(name);
+        }
+    }
+
+    private Map<String, DmDevice> getDevices() throws StorageException
+    {
+        if (devices == null)
+        {
+            File[] blockDevs = new File(SYS_BLOCK).listFiles((dir, name) -> name.startsWith(DM_DEV_PREFIX));
+            if (blockDevs == null)
+            {
+                // no sysfs, the table also contains the names of all devices
+                devices = new HashMap<>();
+                loadTables();
+            }
+            else
+            {
+                devices = new HashMap<>();
+                for (File blockDev : blockDevs)
+                {
+                    try
+                    {
+                        String name = readSysFsValue(blockDev.toPath().resolve("dm").resolve("name"));
+                        devices.put(name, new DmDevice(name));
+                    }
+                    catch (IOException ignored)
+                    {
+                        // the device was removed while we were iterating
+                    }
+                }
+                errorReporter.logTrace("DmSetupInventory: found %d device-mapper devices", devices.size());
+            }
+        }
+        return devices;
+    }
+
+    private void loadTables() throws StorageException
+    {
+        if (!tablesLoaded)
+        {
+            getDevices();
+            for (DmDevice dev : devices.values())
+            {
+                dev.targets.clear();
+            }
+            OutputData outputData = Commands.genericExecutor(
+                extCmdFactory.create(),
+                new String[] {"dmsetup", "table"},
+                "Failed to list device-mapper tables",
+                "Failed to list device-mapper tables"
+            );
+            parseTables(new String(outputData.stdoutData));
+            tablesLoaded = true;
+        }
+    }
+
+    private void parseTables(String out)
+    {
+        DmDevice current = null;
+        for (String line : out.split("\n"))
+        {
+            Matcher matcher = DM_LINE_PATTERN.matcher(line.trim());
+            if (matcher.matches())
+            {
+                String name = matcher.group(1);
+                if (name != null)
+                {
+                    current = devices.get(name);
+                    if (current == null)
+                    {
+                        // created after the sysfs scan or no sysfs available
+                        current = new DmDevice(name);
+                        devices.put(name, current);
+                    }
+                }
+                if (current != null)
+                {
+                    current.targets.add(matcher.group(4));
+                }
+            }
+            // else "No devices found" or empty line
+        }
+    }
+
+    private String readSysFsValue(Path path) throws IOException
+    {
+        return new String(Files.readAllBytes(path)).trim();
+    }
+
+    private static class DmDevice
+    {
+        private final String name;
+        private final Set<String> targets = new TreeSet<>();
+
+        private DmDevice(String nameRef)
+        {
+            name = nameRef;
+        }
+    }
+}
@@ -1,77 +1,15 @@
 package com.linbit.linstor.storage.layer.adapter.dmsetup;
 
-import com.linbit.ChildProcessTimeoutException;
 import com.linbit.extproc.ExtCmd;
-import com.linbit.extproc.ExtCmd.OutputData;
 import com.linbit.extproc.ExtCmdFactory;
-import com.linbit.extproc.ExtCmdUtils;
 import com.linbit.linstor.storage.StorageException;
 import com.linbit.linstor.storage.layer.provider.utils.Commands;
 import com.linbit.utils.StringUtils;
 
-import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class DmSetupUtils
 {
     private static final String DM_SETUP_MESSAGE_FLUSH = "flush";
 
-    private static final Pattern DM_SETUP_LS_PATTERN = Pattern.compile(
-        "^([^\\s]+)\\s+\\(([0-9]+)(?::\\s|,\\s)([0-9]+)\\)$",
-        Pattern.MULTILINE
-    );
-
-    public static Set<String> list(ExtCmd extCmd, String target) throws StorageException
-    {
-        Set<String> ret = new HashSet<>();
-        try
-        {
-            OutputData outputData;
-            if (target == null)
-            {
-                outputData = extCmd.exec("dmsetup", "ls");
-            }
-            else
-            {
-                outputData = extCmd.exec("dmsetup", "ls", "--target", target);
-            }
-            ExtCmdUtils.checkExitCode(
-                outputData,
-                StorageException::new,
-                "listing devices from dmsetup ls failed "
-            );
-
-            String stdOut = new String(outputData.stdoutData);
-            Matcher matcher = DM_SETUP_LS_PATTERN.matcher(stdOut);
-            while (matcher.find())
-            {
-                String devName = matcher.group(1);
-                // String major = matcher.group(2);
-                // String minor = matcher.group(3);
-
-                ret.add(devName);
-            }
-        }
-        catch (IOException ioExc)
-        {
-            throw new StorageException(
-                "Failed to list writecache devices",
-                ioExc
-            );
-        }
-        catch (ChildProcessTimeoutException exc)
-        {
-            throw new StorageException(
-                "Listing writecache devices timed out",
-                exc
-            );
-        }
-        return ret;
-    }
-
     public static void remove(ExtCmd extCmd, String identifier) throws StorageException
     {
         Commands.genericExecutor(
@@ -1,6 +1,7 @@
 package com.linbit.linstor.storage.layer.adapter.dmsetup;
 
 import com.linbit.extproc.ExtCmdFactory;
+import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.PriorityProps;
 import com.linbit.linstor.annotation.DeviceManagerContext;
 import com.linbit.linstor.api.ApiCallRcImpl;
@@ -37,6 +38,7 @@ import com.linbit.linstor.utils.layer.LayerVlmUtils;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -47,6 +49,7 @@ public class WritecacheLayer implements DeviceLayer
 {
     private static final String FORMAT_DM_NAME = "linstor_writecache_%s%s_%05d";
     private static final String FORMAT_DEV_PATH = "/dev/mapper/%s";
+    private static final String DM_TARGET_WRITECACHE = "writecache";
 
     /**
      * Maps the ApiConsts.KEY_WRITECACHE_OPTS* to the actual argument keys
@@ -59,6 +62,7 @@ public class WritecacheLayer implements DeviceLayer
     private final DeviceProviderMapper deviceProviderMapper;
     private final ExtCmdFactory extCmdFactory;
     private final Provider<DeviceHandler> resourceProcessorProvider;
+    private final DmSetupInventory dmSetupInventory;
 
     private Props localNodeProps;
     private StltConfigAccessor stltConfAccessor;
@@ -82,7 +86,8 @@ public class WritecacheLayer implements DeviceLayer
         DeviceProviderMapper deviceProviderMapperRef,
         ExtCmdFactory extCmdFactoryRef,
         Provider<DeviceHandler> resourceProcessorProviderRef,
-        StltConfigAccessor stltConfAccessorRef
+        StltConfigAccessor stltConfAccessorRef,
+        DmSetupInventory dmSetupInventoryRef
     )
     {
         errorReporter = errorReporterRef;
@@ -91,6 +96,7 @@ public class WritecacheLayer implements DeviceLayer
         extCmdFactory = extCmdFactoryRef;
         resourceProcessorProvider = resourceProcessorProviderRef;
         stltConfAccessor = stltConfAccessorRef;
+        dmSetupInventory = dmSetupInventoryRef;
     }
 
     @Override
@@ -108,7 +114,7 @@ public class WritecacheLayer implements DeviceLayer
         throws StorageException, AccessDeniedException, DatabaseException
     {
         errorReporter.logTrace("Writecache: listing all 'writecache' devices");
-        Set<String> dmDeviceNames = DmSetupUtils.list(extCmdFactory.create(), "writecache");
+        Set<String> dmDeviceNames = dmSetupInventory.listByTarget(DM_TARGET_WRITECACHE);
 
         for (AbsRscLayerObject<Resource> rscDataObj : rscObjListRef)
         {
@@ -206,7 +212,21 @@ public class WritecacheLayer implements DeviceLayer
                         vlmData.getIdentifier(),
                         vlmData.getDevicePath()
                     );
-                    DmSetupUtils.remove(extCmdFactory.create(), vlmData.getIdentifier());
+                    boolean removed = false;
+                    try
+                    {
+                        DmSetupUtils.remove(extCmdFactory.create(), vlmData.getIdentifier());
+                        dmSetupInventory.deviceRemoved(vlmData.getIdentifier());
+                        removed = true;
+                    }
+                    finally
+                    {
+                        if (!removed)
+                        {
+                            // dmsetup might have failed after removing the device
+                            dmSetupInventory.invalidate();
+                        }
+                    }
                     vlmData.setExists(false);
                 }
                 else
@@ -371,15 +391,29 @@ public class WritecacheLayer implements DeviceLayer
                     String dmsetupOptsStr = dmsetupOptsSb.toString();
                     int dmsetupOpsCounts = MkfsUtils.shellSplit(dmsetupOptsStr).size();
 
-                    DmSetupUtils.create(
-                        extCmdFactory,
-                        vlmData.getIdentifier(),
-                        dataChild.getDevicePath(),
-                        cacheChild.getDevicePath(),
-                        considerCacheAsPmem,
-                        4096,
-                        dmsetupOpsCounts + " " + dmsetupOptsStr
-                    );
+                    boolean created = false;
+                    try
+                    {
+                        DmSetupUtils.create(
+                            extCmdFactory,
+                            vlmData.getIdentifier(),
+                            dataChild.getDevicePath(),
+                            cacheChild.getDevicePath(),
+                            considerCacheAsPmem,
+                            4096,
+                            dmsetupOpsCounts + " " + dmsetupOptsStr
+                        );
+                        dmSetupInventory.deviceCreated(vlmData.getIdentifier(), DM_TARGET_WRITECACHE);
+                        created = true;
+                    }
+                    finally
+                    {
+                        if (!created)
+                        {
+                            // dmsetup might have failed after creating the device
+                            dmSetupInventory.invalidate();
+                        }
+                    }
 
                     vlmData.setDevicePath(
                         String.format(
@@ -400,6 +434,12 @@ public class WritecacheLayer implements DeviceLayer
         return ret;
     }
 
+    @Override
+    public Map<AbsRscLayerObject<Resource>, LinStorException> processDeferred()
+    {
+        return Collections.emptyMap();
+    }
+
     @Override
     public void clearCache() throws StorageException
     {
@@ -11,6 +11,7 @@ import com.linbit.drbd.md.PeerCountException;
 import com.linbit.extproc.ExtCmdFactory;
 import com.linbit.extproc.ExtCmdFailedException;
 import com.linbit.linstor.InternalApiConsts;
+import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.annotation.DeviceManagerContext;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.api.ApiConsts;
@@ -46,6 +47,7 @@ import com.linbit.linstor.storage.interfaces.categories.resource.VlmProviderObje
 import com.linbit.linstor.storage.interfaces.layers.drbd.DrbdRscObject.DrbdRscFlags;
 import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.layer.DeviceLayer;
+import com.linbit.linstor.storage.layer.adapter.drbd.helper.DrbdMetaDataExecutor;
 import com.linbit.linstor.storage.layer.adapter.drbd.helper.ReadyForPrimaryNotifier;
 import com.linbit.linstor.storage.layer.adapter.drbd.utils.ConfFileBuilder;
 import com.linbit.linstor.storage.layer.adapter.drbd.utils.DrbdAdm;
@@ -63,15 +65,22 @@ import javax.inject.Singleton;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -80,9 +89,16 @@ public class DrbdLayer implements DeviceLayer
     public static final String DRBD_DEVICE_PATH_FORMAT = "/dev/drbd%d";
     private static final String DRBD_CONFIG_SUFFIX = ".res";
     private static final String DRBD_CONFIG_TMP_SUFFIX = ".res_tmp";
+    private static final String DRBD_COMMON_CONFIG_FILE = "linstor_common.conf";
 
     private static final long HAS_VALID_STATE_FOR_PRIMARY_TIMEOUT = 2000;
 
+    private static final String RES_FILE_HASH_ALGORITHM = "SHA-256";
+
+    // Upper limit of resources adjusted by a single drbdadm invocation, keeps the command within
+    // the default timeout of external commands
+    private static final int MAX_ADJUST_BATCH_SIZE = 32;
+
     private final AccessContext workerCtx;
     private final DrbdAdm drbdUtils;
     private final DrbdStateStore drbdState;
@@ -93,6 +109,19 @@ public class DrbdLayer implements DeviceLayer
     private final ControllerPeerConnector controllerPeerConnector;
     private final Provider<DeviceHandler> resourceProcessorProvider;
     private final ExtCmdFactory extCmdFactory;
+    private final DrbdMetaDataExecutor metaDataExecutor;
+
+    /*
+     * Content hash of the last .res file that was successfully adjusted (and backed up), by suffixed
+     * resource name. If the rendered content did not change and the DRBD state does not require an adjust,
+     * rewriting the .res file, the backup copy and the 'drbdadm adjust' call are skipped.
+     */
+    private final Map<String, byte[]> appliedResFileHashes;
+    private int adjustsPerformed;
+    private int adjustsSkipped;
+    private int adjustInvocations;
+
+    private final List<PendingAdjust> pendingAdjusts;
 
     // Number of activity log stripes for DRBD meta data; this should be replaced with a property of the
     // resource definition, a property of the volume definition, or otherwise a system-wide default
@@ -113,7 +142,8 @@ public class DrbdLayer implements DeviceLayer
         CtrlStltSerializer interComSerializerRef,
         ControllerPeerConnector controllerPeerConnectorRef,
         Provider<DeviceHandler> resourceProcessorRef,
-        ExtCmdFactory extCmdFactoryRef
+        ExtCmdFactory extCmdFactoryRef,
+        DrbdMetaDataExecutor metaDataExecutorRef
     )
     {
         workerCtx = workerCtxRef;
@@ -126,6 +156,10 @@ public class DrbdLayer implements DeviceLayer
         controllerPeerConnector = controllerPeerConnectorRef;
         resourceProcessorProvider = resourceProcessorRef;
         extCmdFactory = extCmdFactoryRef;
+        metaDataExecutor = metaDataExecutorRef;
+
+        appliedResFileHashes = new HashMap<>();
+        pendingAdjusts = new ArrayList<>();
     }
 
     @Override
@@ -141,7 +175,10 @@ public class DrbdLayer implements DeviceLayer
     )
         throws StorageException, AccessDeniedException, DatabaseException
     {
-        // no-op
+        adjustsPerformed = 0;
+        adjustsSkipped = 0;
+        adjustInvocations = 0;
+        pendingAdjusts.clear();
     }
 
     @Override
@@ -233,7 +270,27 @@ public class DrbdLayer implements DeviceLayer
     @Override
     public void clearCache()
     {
-        // no-op
+        errorReporter.logDebug(
+            "DRBD adjusts in this run: %d performed with %d drbdadm invocations, %d skipped (unchanged)",
+            adjustsPerformed,
+            adjustInvocations,
+            adjustsSkipped
+        );
+    }
+
+    public int getAdjustsPerformed()
+    {
+        return adjustsPerformed;
+    }
+
+    public int getAdjustsSkipped()
+    {
+        return adjustsSkipped;
+    }
+
+    public int getAdjustInvocations()
+    {
+        return adjustInvocations;
     }
 
     @Override
@@ -259,9 +316,6 @@ public class DrbdLayer implements DeviceLayer
             if (processChild(drbdRscData, snapshotList, apiCallRc))
             {
                 adjustDrbd(drbdRscData, snapshotList, apiCallRc, true);
-
-                // this should not be executed if adjusting the drbd resource fails
-                copyResFileToBackup(drbdRscData);
             }
         }
         else
@@ -282,10 +336,16 @@ public class DrbdLayer implements DeviceLayer
         {
             if (adjustDrbd(drbdRscData, snapshotList, apiCallRc, false))
             {
-                addAdjustedMsg(drbdRscData, apiCallRc);
-
-                // this should not be executed if adjusting the drbd resource fails
-                copyResFileToBackup(drbdRscData);
+                PendingAdjust pending = getPendingAdjust(drbdRscData);
+                if (pending == null)
+                {
+                    addAdjustedMsg(drbdRscData, apiCallRc);
+                }
+                else
+                {
+                    // reported by processDeferred once the deferred adjust succeeded
+                    pending.apiCallRc = apiCallRc;
+                }
             }
             else
             {
@@ -296,6 +356,19 @@ public class DrbdLayer implements DeviceLayer
         // resource is currently primary or not.
     }
 
+    private PendingAdjust getPendingAdjust(DrbdRscData<Resource> drbdRscData)
+    {
+        PendingAdjust ret = null;
+        for (PendingAdjust pending : pendingAdjusts)
+        {
+            if (pending.drbdRscData == drbdRscData)
+            {
+                ret = pending;
+            }
+        }
+        return ret;
+    }
+
     private void addDeletedMsg(DrbdRscData<Resource> drbdRscData, ApiCallRcImpl apiCallRc)
     {
         apiCallRc.addEntry(
@@ -393,6 +466,7 @@ public class DrbdLayer implements DeviceLayer
             Path resFile = asResourceFile(drbdRscData, false);
             errorReporter.logTrace("Deleting res file: %s ", resFile);
             Files.deleteIfExists(resFile);
+            appliedResFileHashes.remove(suffixedRscName);
 
             drbdRscData.setExists(false);
             for (DrbdVlmData<Resource> drbdVlmData : drbdRscData.getVlmLayerObjects().values())
@@ -467,25 +541,45 @@ public class DrbdLayer implements DeviceLayer
                 if (!drbdRscData.getAbsResource().isDrbdDiskless(workerCtx))
                 {
                     // do not try to create meta data while the resource is diskless....
-                    for (DrbdVlmData<Resource> drbdVlmData : checkMetaData)
+                    List<Boolean> hasMetaDataList = runPerVolume(checkMetaData, this::hasMetaData);
+                    for (int idx = 0; idx < checkMetaData.size(); ++idx)
                     {
-                        if (!hasMetaData(drbdVlmData))
+                        if (!hasMetaDataList.get(idx))
                         {
-                            createMetaData.add(drbdVlmData);
+                            createMetaData.add(checkMetaData.get(idx));
                         }
                     }
                 }
 
-                regenerateResFile(drbdRscData);
-
-                // createMetaData needs rendered resFile
-                for (DrbdVlmData<Resource> drbdVlmData : createMetaData)
+                String suffixedRscName = drbdRscData.getSuffixedResourceName();
+                String resFileContent = renderResFile(drbdRscData);
+                byte[] resFileHash = hashResFile(resFileContent);
+                boolean resFileChanged = !Arrays.equals(resFileHash, appliedResFileHashes.get(suffixedRscName)) ||
+                    !Files.exists(asResourceFile(drbdRscData, false));
+                if (resFileChanged)
+                {
+                    // forget the old hash in case writing the new file or adjusting fails
+                    appliedResFileHashes.remove(suffixedRscName);
+                    writeResFile(drbdRscData, resFileContent);
+                }
+                else
                 {
-                    createMetaData(drbdVlmData);
+                    errorReporter.logTrace("Resource file of %s is unchanged", suffixedRscName);
                 }
 
+                // createMetaData needs rendered resFile
+                runPerVolume(
+                    createMetaData,
+                    drbdVlmData ->
+                    {
+                        createMetaData(drbdVlmData);
+                        return null;
+                    }
+                );
+
                 try
                 {
+                    boolean resized = false;
                     for (DrbdVlmData<Resource> drbdVlmData : drbdRscData.getVlmLayerObjects().values())
                     {
                         if (needsResize(drbdVlmData))
@@ -496,9 +590,11 @@ public class DrbdLayer implements DeviceLayer
                                 // thinly backed
                                 VolumeUtils.isVolumeThinlyBacked(drbdVlmData, false)
                             );
+                            resized = true;
                         }
                     }
 
+                    boolean peerForgotten = false;
                     if (!drbdRscData.getAbsResource().isDrbdDiskless(workerCtx))
                     {
                         for (DrbdRscData<Resource> otherRsc : drbdRscData.getRscDfnLayerObject().getDrbdRscDataList())
@@ -541,24 +637,43 @@ public class DrbdLayer implements DeviceLayer
                                 {
                                     throw delPeerExc != null ? delPeerExc : forgetPeerExc;
                                 }
+                                peerForgotten = true;
                             }
                         }
                     }
 
-                    drbdUtils.adjust(
-                        drbdRscData,
-                        false,
-                        false,
-                        false
-                    );
-                    drbdRscData.setAdjustRequired(false);
-
-                    // set device paths
-                    for (DrbdVlmData<Resource> drbdVlmData : drbdRscData.getVlmLayerObjects().values())
+                    byte[] newResFileHash = resFileChanged ? resFileHash : null;
+                    boolean adjust = resFileChanged || drbdRscData.isAdjustRequired() || !createMetaData.isEmpty() ||
+                        resized || peerForgotten;
+                    if (!adjust)
+                    {
+                        errorReporter.logTrace(
+                            "Skipping adjust of %s, neither resource file nor DRBD state changed",
+                            suffixedRscName
+                        );
+                        adjustsSkipped++;
+                        finishAdjust(drbdRscData, newResFileHash);
+                    }
+                    else
+                    if (drbdRscData.getParent() == null)
+                    {
+                        // no other layer of this resource depends on the DRBD device, the adjust can be batched
+                        // with the adjusts of other resources in processDeferred
+                        errorReporter.logTrace("Deferring adjust of %s", suffixedRscName);
+                        pendingAdjusts.add(new PendingAdjust(drbdRscData, newResFileHash));
+                    }
+                    else
                     {
-                        drbdVlmData.setDevicePath(generateDevicePath(drbdVlmData));
+                        drbdUtils.adjust(
+                            drbdRscData,
+                            false,
+                            false,
+                            false
+                        );
+                        adjustsPerformed++;
+                        adjustInvocations++;
+                        finishAdjust(drbdRscData, newResFileHash);
                     }
-                    condInitialOrSkipSync(drbdRscData);
                 }
                 catch (ExtCmdFailedException exc)
                 {
@@ -572,6 +687,109 @@ public class DrbdLayer implements DeviceLayer
         return contProcess;
     }
 
+    /**
+     * Performs the steps that require an adjusted DRBD resource
+     *
+     * @param newResFileHash The hash of the newly written .res file, or null if the .res file was not changed
+     */
+    private void finishAdjust(DrbdRscData<Resource> drbdRscData, byte[] newResFileHash)
+        throws AccessDeniedException, StorageException
+    {
+        drbdRscData.setAdjustRequired(false);
+
+        // set device paths
+        for (DrbdVlmData<Resource> drbdVlmData : drbdRscData.getVlmLayerObjects().values())
+        {
+            drbdVlmData.setDevicePath(generateDevicePath(drbdVlmData));
+        }
+        condInitialOrSkipSync(drbdRscData);
+
+        if (newResFileHash != null)
+        {
+            // this should not be executed if adjusting the drbd resource fails
+            copyResFileToBackup(drbdRscData);
+            appliedResFileHashes.put(drbdRscData.getSuffixedResourceName(), newResFileHash);
+        }
+    }
+
+    /**
+     * Adjusts all resources whose adjust was deferred during this run with as few drbdadm invocations
+     * as possible. If a batched adjust fails, the resources of that batch are adjusted individually to find
+     * out which of them actually failed.
+     */
+    @Override
+    public Map<AbsRscLayerObject<Resource>, LinStorException> processDeferred()
+        throws AccessDeniedException, DatabaseException
+    {
+        Map<AbsRscLayerObject<Resource>, LinStorException> failedRscs = new HashMap<>();
+
+        List<PendingAdjust> pendingList = new ArrayList<>(pendingAdjusts);
+        pendingAdjusts.clear();
+        for (int batchStart = 0; batchStart < pendingList.size(); batchStart += MAX_ADJUST_BATCH_SIZE)
+        {
+            List<PendingAdjust> batch = pendingList.subList(
+                batchStart,
+                Math.min(batchStart + MAX_ADJUST_BATCH_SIZE, pendingList.size())
+            );
+
+            boolean adjustIndividually = batch.size() == 1;
+            if (!adjustIndividually)
+            {
+                try
+                {
+                    drbdUtils.adjust(
+                        batch.stream().map(pending -> pending.drbdRscData).collect(Collectors.toList())
+                    );
+                    adjustInvocations++;
+                }
+                catch (ExtCmdFailedException exc)
+                {
+                    errorReporter.logWarning(
+                        "Batched adjust of %d DRBD resources failed, adjusting the resources individually",
+                        batch.size()
+                    );
+                    adjustInvocations++;
+                    adjustIndividually = true;
+                }
+            }
+
+            for (PendingAdjust pending : batch)
+            {
+                DrbdRscData<Resource> drbdRscData = pending.drbdRscData;
+                try
+                {
+                    if (adjustIndividually)
+                    {
+                        // adjusting a resource that was already adjusted by the failed batch is a no-op
+                        drbdUtils.adjust(drbdRscData, false, false, false);
+                        adjustInvocations++;
+                    }
+                    adjustsPerformed++;
+                    finishAdjust(drbdRscData, pending.resFileHash);
+                    if (pending.apiCallRc != null)
+                    {
+                        addAdjustedMsg(drbdRscData, pending.apiCallRc);
+                    }
+                }
+                catch (ExtCmdFailedException exc)
+                {
+                    failedRscs.put(
+                        drbdRscData,
+                        new ResourceException(
+                            String.format("Failed to adjust DRBD resource %s", drbdRscData.getSuffixedResourceName()),
+                            exc
+                        )
+                    );
+                }
+                catch (StorageException exc)
+                {
+                    failedRscs.put(drbdRscData, exc);
+                }
+            }
+        }
+        return failedRscs;
+    }
+
     private boolean needsResize(DrbdVlmData<Resource> drbdVlmData) throws AccessDeniedException
     {
         // A resize should not be called on a resize without a disk
@@ -746,6 +964,12 @@ public class DrbdLayer implements DeviceLayer
             // when adding a disk, DRBD believes that it is diskless but we still need to create metadata
             !drbdVlmData.hasDisk())
         {
+            if (mdUtils.hasValidLayout())
+            {
+                // the superblock is consistent, drbdmeta would be able to read the meta data
+                hasMetaData = true;
+            }
+            else
             if (mdUtils.hasMetaData())
             {
                 boolean isMetaDataCorrupt;
@@ -796,6 +1020,92 @@ public class DrbdLayer implements DeviceLayer
         return hasMetaData;
     }
 
+    /**
+     * Runs the given task for all given volumes and returns the results in the order of the volumes.
+     *
+     * If there is more than one volume, the tasks run concurrently, as they mostly wait for external commands
+     * (drbdmeta) or for reading the superblocks of the backing devices. All tasks are finished before this method
+     * returns. If any of the tasks fails, the exception of the first failed volume is thrown.
+     */
+    private <T> List<T> runPerVolume(List<DrbdVlmData<Resource>> drbdVlmDataList, VolumeTask<T> task)
+        throws AccessDeniedException, StorageException, VolumeException
+    {
+        List<T> results = new ArrayList<>();
+        if (drbdVlmDataList.size() == 1)
+        {
+            results.add(task.run(drbdVlmDataList.get(0)));
+        }
+        else
+        if (!drbdVlmDataList.isEmpty())
+        {
+            List<Future<T>> futures = new ArrayList<>();
+            try
+            {
+                for (DrbdVlmData<Resource> drbdVlmData : drbdVlmDataList)
+                {
+                    futures.add(metaDataExecutor.submit(() -> task.run(drbdVlmData)));
+                }
+
+                Throwable failure = null;
+                for (Future<T> future : futures)
+                {
+                    T result = null;
+                    try
+                    {
+                        result = future.get();
+                    }
+                    catch (ExecutionException exc)
+                    {
+                        if (failure == null)
+                        {
+                            failure = exc.getCause();
+                        }
+                    }
+                    catch (InterruptedException exc)
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new StorageException("Interrupted while processing DRBD meta data", exc);
+                    }
+                    results.add(result);
+                }
+
+                if (failure instanceof AccessDeniedException)
+                {
+                    throw (AccessDeniedException) failure;
+                }
+                if (failure instanceof StorageException)
+                {
+                    throw (StorageException) failure;
+                }
+                if (failure instanceof VolumeException)
+                {
+                    throw (VolumeException) failure;
+                }
+                if (failure instanceof RuntimeException)
+                {
+                    throw (RuntimeException) failure;
+                }
+                if (failure instanceof Error)
+                {
+                    throw (Error) failure;
+                }
+                if (failure != null)
+                {
+                    throw new ImplementationError(failure);
+                }
+            }
+            finally
+            {
+                // only has an effect if we were interrupted while waiting for the tasks
+                for (Future<T> future : futures)
+                {
+                    future.cancel(true);
+                }
+            }
+        }
+        return results;
+    }
+
     private void createMetaData(DrbdVlmData<Resource> drbdVlmData)
         throws AccessDeniedException, StorageException, ImplementationError, VolumeException
     {
@@ -898,6 +1208,7 @@ public class DrbdLayer implements DeviceLayer
             if (drbdRscState == null)
             {
                 drbdRscData.setExists(false);
+                drbdRscData.setAdjustRequired(true);
             }
             else
             {
@@ -1085,10 +1396,10 @@ public class DrbdLayer implements DeviceLayer
     {
         Resource localResource = drbdRscData.getAbsResource();
 
-        // FIXME: Temporary fix: If the NIC selection property on a storage pool is changed retrospectively,
-        //        then rewriting the DRBD resource configuration file and 'drbdadm adjust' is required,
-        //        but there is not yet a mechanism to notify the device handler to perform an adjust action.
-        drbdRscData.setAdjustRequired(true);
+        // Changes of the configuration (like a NIC selection property on a storage pool changed retrospectively)
+        // are detected by comparing the hash of the rendered .res file. From here on only the current DRBD state
+        // decides whether an adjust is required
+        drbdRscData.setAdjustRequired(false);
 
         boolean isRscDisklessFlagSet = localResource.getStateFlags().isSet(workerCtx, Resource.Flags.DRBD_DISKLESS);
 
@@ -1104,12 +1415,9 @@ public class DrbdLayer implements DeviceLayer
         }
     }
 
-    private void regenerateResFile(DrbdRscData<Resource> drbdRscData)
-        throws AccessDeniedException, StorageException
+    private String renderResFile(DrbdRscData<Resource> drbdRscData)
+        throws AccessDeniedException
     {
-        Path resFile = asResourceFile(drbdRscData, false);
-        Path tmpResFile = asResourceFile(drbdRscData, true);
-
         List<DrbdRscData<Resource>> drbdPeerRscDataList = drbdRscData.getRscDfnLayerObject()
             .getDrbdRscDataList().stream()
             .filter(otherRscData -> !otherRscData.equals(drbdRscData) &&
@@ -1117,13 +1425,52 @@ public class DrbdLayer implements DeviceLayer
             )
             .collect(Collectors.toList());
 
-        String content = new ConfFileBuilder(
+        return new ConfFileBuilder(
             errorReporter,
             workerCtx,
             drbdRscData,
             drbdPeerRscDataList,
             whitelistProps
         ).build();
+    }
+
+    /*
+     * The .res file includes the linstor_common.conf as template-file, so its content is part of the hash. Otherwise
+     * a changed common configuration would not be adjusted into resources whose .res file did not change.
+     */
+    private byte[] hashResFile(String content) throws StorageException
+    {
+        byte[] hash;
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance(RES_FILE_HASH_ALGORITHM);
+            digest.update(content.getBytes(StandardCharsets.UTF_8));
+            Path commonConfFile = Paths.get(CoreModule.CONFIG_PATH, DRBD_COMMON_CONFIG_FILE);
+            if (Files.exists(commonConfFile))
+            {
+                digest.update(Files.readAllBytes(commonConfFile));
+            }
+            hash = digest.digest();
+        }
+        catch (NoSuchAlgorithmException exc)
+        {
+            throw new ImplementationError(exc);
+        }
+        catch (IOException ioExc)
+        {
+            throw new StorageException(
+                "Failed to read the common DRBD configuration file '" + DRBD_COMMON_CONFIG_FILE + "'",
+                ioExc
+            );
+        }
+        return hash;
+    }
+
+    private void writeResFile(DrbdRscData<Resource> drbdRscData, String content)
+        throws StorageException
+    {
+        Path resFile = asResourceFile(drbdRscData, false);
+        Path tmpResFile = asResourceFile(drbdRscData, true);
 
         try (FileOutputStream resFileOut = new FileOutputStream(tmpResFile.toFile()))
         {
@@ -1410,4 +1757,24 @@ public class DrbdLayer implements DeviceLayer
     {
         // ignored
     }
+
+    private static class PendingAdjust
+    {
+        private final DrbdRscData<Resource> drbdRscData;
+        private final byte[] resFileHash;
+        // the ApiCallRc of the resource if an "adjusted" message has to be reported after the adjust, otherwise null
+        private ApiCallRcImpl apiCallRc;
+
+        private PendingAdjust(DrbdRscData<Resource> drbdRscDataRef, byte[] resFileHashRef)
+        {
+            drbdRscData = drbdRscDataRef;
+            resFileHash = resFileHashRef;
+        }
+    }
+
+    @FunctionalInterface
+    private interface VolumeTask<T>
+    {
+        T run(DrbdVlmData<Resource> drbdVlmData) throws AccessDeniedException, StorageException, VolumeException;
+    }
 }
@@ -0,0 +1,44 @@
+package com.linbit.linstor.storage.layer.adapter.drbd.helper;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the checks and the creation of DRBD meta data of multiple volumes concurrently.
+ *
+ * One pool of {@link #MAX_PARALLEL_META_DATA_OPS} threads is shared by all resources, so the number of
+ * concurrent drbdmeta calls stays bounded regardless of how many resources are processed.
+ */
+@Singleton
+public class DrbdMetaDataExecutor
+{
+    private static final int MAX_PARALLEL_META_DATA_OPS = 8;
+
+    private final ExecutorService executor;
+
+    @Inject
+    public DrbdMetaDataExecutor()
+    {
+        AtomicInteger threadNr = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(
+            MAX_PARALLEL_META_DATA_OPS,
+            runnable ->
+            {
+                Thread thread = new Thread(runnable, "DrbdMetaData-" + threadNr.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    public <T> Future<T> submit(Callable<T> task)
+    {
+        return executor.submit(task);
+    }
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 @Singleton
@@ -88,6 +89,22 @@ public class DrbdAdm
         // execute(Arrays.asList("drbdsetup", "show", drbdRscData.getSuffixedResourceName()));
     }
 
+    /**
+     * Adjusts multiple resources with a single drbdadm invocation.
+     * If the command fails, it is not possible to tell which of the given resources failed, which is why
+     * the caller has to check the resources individually
+     */
+    public void adjust(Collection<DrbdRscData<Resource>> drbdRscDataList) throws ExtCmdFailedException
+    {
+        List<String> command = new ArrayList<>();
+        command.addAll(Arrays.asList(DRBDADM_UTIL, "-vvv", "adjust"));
+        for (DrbdRscData<Resource> drbdRscData : drbdRscDataList)
+        {
+            command.add(drbdRscData.getSuffixedResourceName());
+        }
+        execute(command);
+    }
+
     /**
      * Resizes a resource
      */
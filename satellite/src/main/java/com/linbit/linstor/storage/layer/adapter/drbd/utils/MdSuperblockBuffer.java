@@ -1,5 +1,7 @@
 package com.linbit.linstor.storage.layer.adapter.drbd.utils;
 
+import com.linbit.drbd.md.MetaData;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -30,6 +32,12 @@ public class MdSuperblockBuffer
     // Values for generation identifier that indicate new metadata; that is, no initial sync has been performed
     private static final List<Long> INITIAL_GENERATION_OPTIONS = Arrays.asList(0x0L, 0x4L);
 
+    // Offsets and sizes in the superblock are stored in 512 byte sectors
+    private static final long SECTORS_PER_kiB = 2;
+
+    // Activity log stripe sizes are stored in units of 4 kiB
+    private static final long AL_STRIPE_SIZE_UNIT_kiB = 4;
+
     private static final byte[] ZEROES = new byte[SUPERBLK_SIZE];
     private static final ByteBuffer ZEROES_BUFFER;
 
@@ -153,6 +161,40 @@ public class MdSuperblockBuffer
         return mdMagic == DRBD_MAGIC_ID;
     }
 
+    /**
+     * Checks the activity log and bitmap layout recorded in the superblock the same way the DRBD kernel module
+     * does when attaching the meta data, which allows to trust existing meta data without running drbdmeta.
+     *
+     * @return true if the superblock contains DRBD meta data with a consistent layout
+     */
+    public boolean hasValidLayout()
+    {
+        boolean valid = false;
+        if (hasMetaData() &&
+            mdBitmapBitBlocksize == MetaData.DRBD_BM_BIT_COVER_kiB * MetaData.DIVISOR_kiB &&
+            mdMaxPeers >= MetaData.DRBD_MIN_PEERS && mdMaxPeers <= MetaData.DRBD_MAX_PEERS &&
+            mdAlStripes > 0 && mdAlStripeSize > 0)
+        {
+            long alSizekiB = (long) mdAlStripes * mdAlStripeSize * AL_STRIPE_SIZE_UNIT_kiB;
+            if (alSizekiB >= MetaData.DRBD_MIN_AL_kiB && alSizekiB <= MetaData.DRBD_MAX_AL_kiB)
+            {
+                long alSizeSect = alSizekiB * SECTORS_PER_kiB;
+                long superblkSect = MetaData.DRBD_MD_SUPERBLK_kiB * SECTORS_PER_kiB;
+                if (mdAlOffset == superblkSect)
+                {
+                    // external meta data: superblock, activity log, bitmap
+                    valid = mdBitmapOffset == superblkSect + alSizeSect && mdSize > mdBitmapOffset;
+                }
+                else
+                {
+                    // internal meta data: bitmap, activity log, superblock at the end of the device
+                    valid = mdAlOffset == -alSizeSect && mdBitmapOffset < mdAlOffset && mdSize > -mdBitmapOffset;
+                }
+            }
+        }
+        return valid;
+    }
+
     public boolean isMetaDataNew()
     {
         return INITIAL_GENERATION_OPTIONS.contains(mdCurrentGen);
@@ -9,15 +9,17 @@ import com.linbit.linstor.core.objects.Resource;
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.storage.StorageException;
 import com.linbit.linstor.storage.data.adapter.luks.LuksVlmData;
+import com.linbit.linstor.storage.layer.adapter.dmsetup.DmSetupInventory;
 import com.linbit.linstor.storage.utils.Luks;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 @Singleton
 public class CryptSetupCommands implements Luks
@@ -25,18 +27,25 @@ public class CryptSetupCommands implements Luks
     private static final String CRYPTSETUP = "cryptsetup";
     private static final String CRYPT_PREFIX = "Linstor-Crypt-";
 
-    @SuppressWarnings("unused")
+    private static final String DM_TARGET_CRYPT = "crypt";
+
+    // "LUKS" followed by 0xBA 0xBE, shared by LUKS1 and the primary header of LUKS2
+    private static final byte[] LUKS_MAGIC = new byte[] {'L', 'U', 'K', 'S', (byte) 0xBA, (byte) 0xBE};
+
     private final ErrorReporter errorReporter;
     private final ExtCmdFactory extCmdFactory;
+    private final DmSetupInventory dmSetupInventory;
 
     @Inject
     public CryptSetupCommands(
         ExtCmdFactory extCmdFactoryRef,
-        ErrorReporter errorReporterRef
+        ErrorReporter errorReporterRef,
+        DmSetupInventory dmSetupInventoryRef
     )
     {
         extCmdFactory = extCmdFactoryRef;
         errorReporter = errorReporterRef;
+        dmSetupInventory = dmSetupInventoryRef;
     }
 
     @Override
@@ -95,6 +104,7 @@ public class CryptSetupCommands implements Luks
     @Override
     public void openLuksDevice(String dev, String targetIdentifier, byte[] cryptKey) throws StorageException
     {
+        boolean opened = false;
         try
         {
             final ExtCmd extCommand = extCmdFactory.create();
@@ -116,6 +126,8 @@ public class CryptSetupCommands implements Luks
                 StorageException::new,
                 "Failed to open dm-crypt device '" + CRYPT_PREFIX + targetIdentifier + "'"
             );
+            dmSetupInventory.deviceCreated(CRYPT_PREFIX + targetIdentifier, DM_TARGET_CRYPT);
+            opened = true;
         }
         catch (IOException ioExc)
         {
@@ -131,11 +143,20 @@ public class CryptSetupCommands implements Luks
                 exc
             );
         }
+        finally
+        {
+            if (!opened)
+            {
+                // cryptsetup might have failed after creating the device
+                dmSetupInventory.invalidate();
+            }
+        }
     }
 
     @Override
     public void closeLuksDevice(String identifier) throws StorageException
     {
+        boolean closed = false;
         try
         {
             final ExtCmd extCommand = extCmdFactory.create();
@@ -146,6 +167,8 @@ public class CryptSetupCommands implements Luks
                 StorageException::new,
                 "Failed to close dm-crypt device '" + CRYPT_PREFIX + identifier + "'"
             );
+            dmSetupInventory.deviceRemoved(CRYPT_PREFIX + identifier);
+            closed = true;
         }
         catch (IOException ioExc)
         {
@@ -161,6 +184,14 @@ public class CryptSetupCommands implements Luks
                 exc
             );
         }
+        finally
+        {
+            if (!closed)
+            {
+                // cryptsetup might have failed after removing the device
+                dmSetupInventory.invalidate();
+            }
+        }
     }
 
     public void deleteHeaders(String backingDeviceRef) throws StorageException
@@ -198,14 +229,49 @@ public class CryptSetupCommands implements Luks
     }
 
 
+    /**
+     * Checks for the LUKS header magic directly on the backing device. Only if the device cannot be read,
+     * 'cryptsetup isLuks' is used as a fallback
+     */
     public boolean hasLuksFormat(LuksVlmData<Resource> vlmData) throws StorageException
+    {
+        boolean hasLuks;
+        String backingDevice = vlmData.getBackingDevice();
+        try (InputStream devIn = new FileInputStream(backingDevice))
+        {
+            byte[] header = new byte[LUKS_MAGIC.length];
+            int read = 0;
+            int count = 0;
+            while (read < header.length && count != -1)
+            {
+                count = devIn.read(header, read, header.length - read);
+                if (count > 0)
+                {
+                    read += count;
+                }
+            }
+            hasLuks = read == header.length && Arrays.equals(header, LUKS_MAGIC);
+        }
+        catch (IOException ioExc)
+        {
+            errorReporter.logDebug(
+                "Failed to read LUKS header of '%s' (%s), falling back to cryptsetup",
+                backingDevice,
+                ioExc.getMessage()
+            );
+            hasLuks = cryptSetupIsLuks(backingDevice);
+        }
+        return hasLuks;
+    }
+
+    private boolean cryptSetupIsLuks(String backingDevice) throws StorageException
     {
         boolean hasLuks = false;
 
         ExtCmd extCmd = extCmdFactory.create();
         try
         {
-            OutputData outputData = extCmd.exec(CRYPTSETUP, "isLuks", vlmData.getBackingDevice());
+            OutputData outputData = extCmd.exec(CRYPTSETUP, "isLuks", backingDevice);
 
             hasLuks = outputData.exitCode == 0;
         }
@@ -227,44 +293,13 @@ public class CryptSetupCommands implements Luks
         return hasLuks;
     }
 
+    /**
+     * Looks the dm-crypt device up by name in the {@link DmSetupInventory}, which does not require any external
+     * command.
+     */
     public boolean isOpen(String identifier) throws StorageException
     {
-        boolean open = false;
-        ExtCmd extCmd = extCmdFactory.create();
-        try
-        {
-            OutputData outputData = extCmd.exec("dmsetup", "ls", "--target", "crypt");
-            ExtCmdUtils.checkExitCode(
-                outputData,
-                StorageException::new,
-                "Failed to list dm-crypt devices"
-            );
-
-            // just to make sure that "foo" does not match "foobar"
-            Pattern pattern = Pattern.compile(
-                "^" + Pattern.quote(CRYPT_PREFIX + identifier) + "\\s+",
-                Pattern.MULTILINE
-            );
-
-            String stdOut = new String(outputData.stdoutData);
-            Matcher matcher = pattern.matcher(stdOut.trim());
-            open = matcher.find();
-        }
-        catch (ChildProcessTimeoutException exc)
-        {
-            throw new StorageException(
-                "Listing open dm-crypt devices timed out",
-                exc
-            );
-        }
-        catch (IOException exc)
-        {
-            throw new StorageException(
-                "Failed to list dm-crypt devices",
-                exc
-            );
-        }
-        return open;
+        return dmSetupInventory.exists(CRYPT_PREFIX + identifier);
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.linbit.linstor.storage.layer.adapter.luks;
 
 import com.linbit.ImplementationError;
 import com.linbit.extproc.ExtCmdFactory;
+import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.annotation.DeviceManagerContext;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.core.devmgr.DeviceHandler;
@@ -23,11 +24,14 @@ import com.linbit.linstor.storage.layer.DeviceLayer;
 import com.linbit.linstor.storage.layer.exceptions.ResourceException;
 import com.linbit.linstor.storage.layer.exceptions.VolumeException;
 import com.linbit.linstor.storage.layer.provider.utils.Commands;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,11 +45,14 @@ public class LuksLayer implements DeviceLayer
     // linstor calculates in KiB
     private static final int MIB = 1024;
 
+    private static final long WAIT_UNTIL_DEVICE_OPENED_TIMEOUT_IN_MS = 5000;
+
     private final AccessContext sysCtx;
     private final CryptSetupCommands cryptSetup;
     private final Provider<DeviceHandler> resourceProcessorProvider;
     private final ExtCmdFactory extCmdFactory;
     private final ErrorReporter errorReporter;
+    private final DeviceNodeWatcher deviceNodeWatcher;
 
     @Inject
     public LuksLayer(
@@ -53,7 +60,8 @@ public class LuksLayer implements DeviceLayer
         CryptSetupCommands cryptSetupRef,
         ExtCmdFactory extCmdFactoryRef,
         Provider<DeviceHandler> resourceProcessorRef,
-        ErrorReporter errorReporterRef
+        ErrorReporter errorReporterRef,
+        DeviceNodeWatcher deviceNodeWatcherRef
     )
     {
         sysCtx = sysCtxRef;
@@ -61,6 +69,7 @@ public class LuksLayer implements DeviceLayer
         extCmdFactory = extCmdFactoryRef;
         resourceProcessorProvider = resourceProcessorRef;
         errorReporter = errorReporterRef;
+        deviceNodeWatcher = deviceNodeWatcherRef;
     }
 
     @Override
@@ -113,6 +122,12 @@ public class LuksLayer implements DeviceLayer
         luksData.getSingleChild().setUsableSize(size);
     }
 
+    @Override
+    public Map<AbsRscLayerObject<Resource>, LinStorException> processDeferred()
+    {
+        return Collections.emptyMap();
+    }
+
     @Override
     public void clearCache() throws StorageException
     {
@@ -189,6 +204,7 @@ public class LuksLayer implements DeviceLayer
 
             if (processResult == LayerProcessResult.SUCCESS)
             {
+                List<String> openedDevicePaths = new ArrayList<>();
                 for (LuksVlmData<Resource> vlmData : groupedByDeleteFlag.get(false))
                 {
                     String identifier = getIdentifier(vlmData);
@@ -197,7 +213,8 @@ public class LuksLayer implements DeviceLayer
 
                     vlmData.setBackingDevice(vlmData.getSingleChild().getDevicePath());
 
-                    boolean alreadyLuks = cryptSetup.hasLuksFormat(vlmData);
+                    // an opened dm-crypt device is luks-formatted, no need to check its backing device
+                    boolean alreadyLuks = isOpen || cryptSetup.hasLuksFormat(vlmData);
 
                     if (!alreadyLuks)
                     {
@@ -223,8 +240,18 @@ public class LuksLayer implements DeviceLayer
                     {
                         cryptSetup
                             .openLuksDevice(vlmData.getBackingDevice(), identifier, vlmData.getDecryptedPassword());
+                        openedDevicePaths.add(vlmData.getDevicePath());
                     }
+                }
 
+                // open all devices first and wait for all of their device nodes at once
+                if (!openedDevicePaths.isEmpty())
+                {
+                    deviceNodeWatcher.awaitCreated(openedDevicePaths, WAIT_UNTIL_DEVICE_OPENED_TIMEOUT_IN_MS);
+                }
+
+                for (LuksVlmData<Resource> vlmData : groupedByDeleteFlag.get(false))
+                {
                     vlmData.setAllocatedSize(
                         Commands.getBlockSizeInKib(
                             extCmdFactory.create(),
@@ -0,0 +1,44 @@
+package com.linbit.linstor.storage.layer.adapter.nvme;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the connects of NVMe initiators and the waits for their device nodes concurrently.
+ *
+ * One pool of {@link #MAX_PARALLEL_CONNECTS} threads is shared by all device manager runs, so the number of
+ * concurrent nvme connect calls stays bounded regardless of how many initiators are connected.
+ */
+@Singleton
+public class NvmeConnectExecutor
+{
+    private static final int MAX_PARALLEL_CONNECTS = 16;
+
+    private final ExecutorService executor;
+
+    @Inject
+    public NvmeConnectExecutor()
+    {
+        AtomicInteger threadNr = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(
+            MAX_PARALLEL_CONNECTS,
+            runnable ->
+            {
+                Thread thread = new Thread(runnable, "NvmeConnect-" + threadNr.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    public <T> Future<T> submit(Callable<T> task)
+    {
+        return executor.submit(task);
+    }
+}
@@ -2,6 +2,7 @@ package com.linbit.linstor.storage.layer.adapter.nvme;
 
 import com.linbit.ChildProcessTimeoutException;
 import com.linbit.ImplementationError;
+import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.annotation.DeviceManagerContext;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.core.devmgr.DeviceHandler;
@@ -20,6 +21,8 @@ import com.linbit.linstor.storage.data.adapter.nvme.NvmeVlmData;
 import com.linbit.linstor.storage.interfaces.categories.resource.AbsRscLayerObject;
 import com.linbit.linstor.storage.interfaces.categories.resource.VlmProviderObject;
 import com.linbit.linstor.storage.layer.DeviceLayer;
+import com.linbit.linstor.storage.layer.adapter.nvme.NvmeUtils.InitiatorConnection;
+import com.linbit.linstor.storage.layer.adapter.nvme.NvmeUtils.SubsystemDevices;
 import com.linbit.linstor.storage.layer.exceptions.ResourceException;
 import com.linbit.linstor.storage.layer.exceptions.VolumeException;
 
@@ -32,8 +35,13 @@ import javax.inject.Singleton;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Class for managing NVMe Target and Initiator
@@ -48,18 +56,27 @@ public class NvmeLayer implements DeviceLayer
     private final AccessContext sysCtx;
     private final Provider<DeviceHandler> resourceProcessorProvider;
     private final NvmeUtils nvmeUtils;
+    private final NvmeConnectExecutor connectExecutor;
+
+    /*
+     * Initiators of the current device manager run whose connect is executed by processDeferred,
+     * concurrently with the connects of the other initiators
+     */
+    private final Map<NvmeRscData<Resource>, InitiatorConnection> pendingConnects = new LinkedHashMap<>();
 
     @Inject
     public NvmeLayer(
         ErrorReporter errorReporterRef,
         @DeviceManagerContext AccessContext workerCtxRef,
         NvmeUtils nvmeUtilsRef,
+        NvmeConnectExecutor connectExecutorRef,
         Provider<DeviceHandler> resourceProcessorRef
     )
     {
         errorReporter = errorReporterRef;
         sysCtx = workerCtxRef;
         nvmeUtils = nvmeUtilsRef;
+        connectExecutor = connectExecutorRef;
         resourceProcessorProvider = resourceProcessorRef;
     }
 
@@ -76,7 +93,8 @@ public class NvmeLayer implements DeviceLayer
     )
         throws StorageException, AccessDeniedException, DatabaseException
     {
-        // no-op
+        nvmeUtils.clearCache();
+        pendingConnects.clear();
     }
 
     /**
@@ -122,11 +140,21 @@ public class NvmeLayer implements DeviceLayer
                 !nvmeRscData.getAbsResource().getStateFlags().isSet(sysCtx, Resource.Flags.DELETE)
             )
             {
-                // connect
-                nvmeUtils.connect(nvmeRscData, sysCtx);
-                if (!nvmeUtils.setDevicePaths(nvmeRscData, true))
+                if (nvmeRscData.getParent() == null)
                 {
-                    throw new StorageException("Failed to set NVMe device path!");
+                    // nothing is stacked on top of this initiator, so the connect (and the wait for its devices)
+                    // can be executed later together with the connects of all other initiators
+                    errorReporter.logTrace("NVMe: deferring connect of %s", nvmeRscData.getSuffixedResourceName());
+                    pendingConnects.put(nvmeRscData, nvmeUtils.getInitiatorConnection(nvmeRscData, sysCtx));
+                }
+                else
+                {
+                    // connect
+                    nvmeUtils.connect(nvmeRscData, sysCtx);
+                    if (!nvmeUtils.setDevicePaths(nvmeRscData, true))
+                    {
+                        throw new StorageException("Failed to set NVMe device path!");
+                    }
                 }
             }
             else
@@ -253,11 +281,99 @@ public class NvmeLayer implements DeviceLayer
         nvmeVlmData.getSingleChild().setUsableSize(size);
     }
 
+    /**
+     * Connects all initiators deferred during this run. The subsystems are independent of each other, so the
+     * connects and the waits for the device nodes are executed concurrently, while the target of each discovery
+     * controller is only discovered once.
+     */
+    @Override
+    public Map<AbsRscLayerObject<Resource>, LinStorException> processDeferred()
+    {
+        Map<AbsRscLayerObject<Resource>, LinStorException> failedRscs = new HashMap<>();
+        if (!pendingConnects.isEmpty())
+        {
+            Map<NvmeRscData<Resource>, InitiatorConnection> connects = new LinkedHashMap<>(pendingConnects);
+            pendingConnects.clear();
+
+            Map<NvmeRscData<Resource>, Future<SubsystemDevices>> futures = new LinkedHashMap<>();
+            try
+            {
+                for (Map.Entry<NvmeRscData<Resource>, InitiatorConnection> entry : connects.entrySet())
+                {
+                    NvmeRscData<Resource> nvmeRscData = entry.getKey();
+                    InitiatorConnection conn = entry.getValue();
+                    futures.put(
+                        nvmeRscData,
+                        connectExecutor.submit(
+                            () ->
+                            {
+                                nvmeUtils.connect(conn);
+                                return nvmeUtils.findDevicePaths(conn);
+                            }
+                        )
+                    );
+                }
+
+                for (Map.Entry<NvmeRscData<Resource>, Future<SubsystemDevices>> entry : futures.entrySet())
+                {
+                    NvmeRscData<Resource> nvmeRscData = entry.getKey();
+                    try
+                    {
+                        // the layer data is only modified by the device manager thread
+                        if (!nvmeUtils.applyDevicePaths(nvmeRscData, entry.getValue().get()))
+                        {
+                            failedRscs.put(nvmeRscData, new StorageException("Failed to set NVMe device path!"));
+                        }
+                    }
+                    catch (ExecutionException exc)
+                    {
+                        Throwable cause = exc.getCause();
+                        failedRscs.put(
+                            nvmeRscData,
+                            cause instanceof LinStorException ?
+                                (LinStorException) cause :
+                                new StorageException(
+                                    "Failed to connect NVMe initiator " + nvmeRscData.getSuffixedResourceName(),
+                                    cause
+                                )
+                        );
+                    }
+                    catch (InterruptedException exc)
+                    {
+                        Thread.currentThread().interrupt();
+                        failedRscs.put(
+                            nvmeRscData,
+                            new StorageException(
+                                "Interrupted while connecting NVMe initiator " +
+                                    nvmeRscData.getSuffixedResourceName(),
+                                exc
+                            )
+                        );
+                    }
+                }
+            }
+            finally
+            {
+                // only has an effect on the connects that are still running after an interruption
+                for (Future<SubsystemDevices> future : futures.values())
+                {
+                    future.cancel(true);
+                }
+            }
+            errorReporter.logDebug(
+                "NVMe: connected %d initiators, %d failed",
+                connects.size() - failedRscs.size(),
+                failedRscs.size()
+            );
+        }
+        return failedRscs;
+    }
+
     @Override
     public void clearCache()
         throws StorageException
     {
-        // no-op
+        nvmeUtils.clearCache();
     }
 
     @Override
@@ -31,6 +31,7 @@ import com.linbit.linstor.storage.data.provider.spdk.SpdkData;
 import com.linbit.linstor.storage.interfaces.categories.resource.AbsRscLayerObject;
 import com.linbit.linstor.storage.interfaces.categories.resource.VlmProviderObject;
 import com.linbit.linstor.storage.kinds.DeviceLayerKind;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.SpdkCommands;
 import com.linbit.linstor.storage.utils.SpdkUtils;
 import com.linbit.linstor.utils.layer.LayerRscUtils;
@@ -47,15 +48,26 @@ import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Class for processing NvmeRscData
@@ -71,27 +83,48 @@ public class NvmeUtils
     private static final String NVMET_PATH = "/sys/kernel/config/nvmet/";
     public static final String NVME_SUBSYSTEMS_PATH = NVMET_PATH + "subsystems/";
     private static final String NVME_PORTS_PATH = NVMET_PATH + "ports/";
-    private static final String NVME_FABRICS_PATH = "/sys/devices/virtual/nvme-fabrics/ctl/nvme";
+    private static final String NVME_FABRICS_CTL_PATH = "/sys/devices/virtual/nvme-fabrics/ctl/";
 
     private static final int IANA_DEFAULT_PORT = 4420;
-    private static final int NVME_IDX_MAX_DIGITS = 5;
-    private static final int NVME_GREP_SLEEP_MAX_WAIT_TIME = 50;
-    private static final long NVME_GREP_SLEEP_INCREMENT = 200L;
+    private static final long NVME_SYSFS_POLL_INTERVAL = 200L;
+    private static final long NVME_DEVICE_WAIT_TIMEOUT = 10_000L;
+
+    // nvme<ctrl>n<ns> or, with native multipath, nvme<subsys>c<ctrl>n<ns>
+    private static final Pattern NVME_NAMESPACE_DIR_PATTERN = Pattern.compile("^nvme\\d+(?:c\\d+)?n(\\d+)$");
+    private static final Pattern NVME_CTRL_DIR_PATTERN = Pattern.compile("^nvme(\\d+)$");
 
     private final ExtCmdFactory extCmdFactory;
     private final Props stltProps;
     private final ErrorReporter errorReporter;
+    private final DeviceNodeWatcher deviceNodeWatcher;
+
+    /*
+     * Subsystem names reported by 'nvme discover', by discovery controller (transport, address, port, host NQN).
+     * Concurrent connects to the same discovery controller share the future of a single discovery.
+     * Only valid for a single device manager run, see clearCache()
+     */
+    private final ConcurrentMap<String, CompletableFuture<Set<String>>> discoveryCache = new ConcurrentHashMap<>();
 
     @Inject
     public NvmeUtils(
         ErrorReporter errorReporterRef,
         ExtCmdFactory extCmdFactoryRef,
-        @Named(LinStor.SATELLITE_PROPS) Props stltPropsRef
+        @Named(LinStor.SATELLITE_PROPS) Props stltPropsRef,
+        DeviceNodeWatcher deviceNodeWatcherRef
     )
     {
         errorReporter = errorReporterRef;
         extCmdFactory = extCmdFactoryRef;
         stltProps = stltPropsRef;
+        deviceNodeWatcher = deviceNodeWatcherRef;
+    }
+
+    /**
+     * Drops the cached discovery results. Called at the beginning and the end of every device manager run.
+     */
+    public void clearCache()
+    {
+        discoveryCache.clear();
     }
 
 
@@ -224,15 +257,9 @@ public class NvmeUtils
                     );
                 }
                 // create soft link
-                ExtCmdUtils.checkExitCode(
-                    extCmdFactory.create().exec(
-                        "ln",
-                        "-s",
-                        subsystemDirectory,
-                        NVME_PORTS_PATH + portIdx + "/subsystems/" + subsystemName
-                        ),
-                    StorageException::new,
-                    "Failed to create symbolic link!"
+                Files.createSymbolicLink(
+                    Paths.get(NVME_PORTS_PATH + portIdx + "/subsystems/" + subsystemName),
+                    subsystemPath
                 );
             }
             nvmeRscData.setExists(true);
@@ -332,13 +359,26 @@ public class NvmeUtils
      */
     public void connect(NvmeRscData<Resource> nvmeRscData, AccessContext accCtx)
         throws StorageException
+    {
+        connect(getInitiatorConnection(nvmeRscData, accCtx));
+    }
+
+    /**
+     * Collects everything needed to connect the given NVMe Initiator to its Target.
+     *
+     * The returned object does not reference any linstor objects, so the actual connect can also be
+     * executed by a thread that does not hold the locks of the device manager.
+     *
+     * @param nvmeRscData   NvmeRscData object containing all needed information for this method
+     * @param accCtx        AccessContext needed to access properties and Target resource
+     */
+    public InitiatorConnection getInitiatorConnection(NvmeRscData<Resource> nvmeRscData, AccessContext accCtx)
+        throws StorageException
     {
         final String subsystemName = getNvmeSubsystemPrefix(nvmeRscData) + nvmeRscData.getSuffixedResourceName();
 
         try
         {
-            errorReporter.logDebug("NVMe: connecting initiator to: " + subsystemName);
-
             ResourceDefinition rscDfn = nvmeRscData.getAbsResource().getResourceDefinition();
             final PriorityProps nvmePrioProps = new PriorityProps(
                 rscDfn.getProps(accCtx),
@@ -371,20 +411,48 @@ public class NvmeUtils
             ).getAddress();
 
             String nodeName = nvmeRscData.getAbsResource().getNode().getName().getDisplayName();
-            List<String> subsystemNames = discover(nvmeRscData, transportType, ipAddr, port, nodeName);
-            if (!subsystemNames.contains(subsystemName))
+            List<Integer> nsids = new ArrayList<>();
+            for (NvmeVlmData<Resource> nvmeVlmData : nvmeRscData.getVlmLayerObjects().values())
             {
-                throw new StorageException("Failed to discover subsystem name \'" + subsystemName + "\'!");
+                nsids.add(getNsid(nvmeVlmData));
+            }
+            return new InitiatorConnection(subsystemName, transportType, ipAddr, port, nodeName, nsids);
+        }
+        catch (InvalidNameException | AccessDeniedException | InvalidKeyException exc)
+        {
+            throw new ImplementationError(exc);
+        }
+    }
+
+    /**
+     * Connects to the subsystem described by the given {@link InitiatorConnection}.
+     *
+     * The discovery controller of the target is only queried once per device manager run, unless the
+     * subsystem is missing in the cached discovery result.
+     */
+    public void connect(InitiatorConnection conn)
+        throws StorageException
+    {
+        try
+        {
+            errorReporter.logDebug("NVMe: connecting initiator to: " + conn.subsystemName);
+
+            CompletableFuture<Set<String>> discovery = discover(conn, null);
+            if (!getSubsystemNames(discovery).contains(conn.subsystemName) &&
+                // the subsystem might have been created after the cached discovery
+                !getSubsystemNames(discover(conn, discovery)).contains(conn.subsystemName))
+            {
+                throw new StorageException("Failed to discover subsystem name \'" + conn.subsystemName + "\'!");
             }
 
             OutputData output = extCmdFactory.create().exec(
                 "nvme",
                 "connect",
-                "--transport=" + transportType,
-                "--nqn=" + subsystemName,
-                "--traddr=" + ipAddr,
-                "--trsvcid=" + port,
-                "--hostnqn=" + nodeName
+                "--transport=" + conn.transportType,
+                "--nqn=" + conn.subsystemName,
+                "--traddr=" + conn.ipAddr,
+                "--trsvcid=" + conn.port,
+                "--hostnqn=" + conn.hostNqn
             );
             ExtCmdUtils.checkExitCode(output, StorageException::new, "Failed to connect to NVMe target!");
         }
@@ -392,10 +460,6 @@ public class NvmeUtils
         {
             throw new StorageException("Failed to connect to NVMe target!", exc);
         }
-        catch (InvalidNameException | AccessDeniedException | InvalidKeyException exc)
-        {
-            throw new ImplementationError(exc);
-        }
     }
 
     /**
@@ -491,90 +555,214 @@ public class NvmeUtils
      * Queries NVMe-specific indices for the {@link NvmeRscData} and {@link NvmeVlmData}
      * and stores the result as the device path (for example '/dev/nvme2n1')
      *
+     * The indices are read from sysfs. If waiting, sysfs is polled until the controller and all namespaces
+     * show up, and afterwards the device nodes are awaited using the {@link DeviceNodeWatcher}.
+     *
      * @param nvmeRscData   NvmeRscData object containing all needed information for this method
-     * @param isWaiting     boolean true if the external commands should be waited for in loop
+     * @param isWaiting     boolean true if the controller, namespaces and device nodes should be waited for
      * @return              boolean true if the data was found and false otherwise
      */
     public boolean setDevicePaths(NvmeRscData<Resource> nvmeRscData, boolean isWaiting)
         throws StorageException
     {
-        boolean success = true;
-        final String subsystemName = getNvmeSubsystemPrefix(nvmeRscData) + nvmeRscData.getSuffixedResourceName();
+        List<Integer> nsids = new ArrayList<>();
+        for (NvmeVlmData<Resource> nvmeVlmData : nvmeRscData.getVlmLayerObjects().values())
+        {
+            nsids.add(getNsid(nvmeVlmData));
+        }
+        return applyDevicePaths(
+            nvmeRscData,
+            findDevicePaths(
+                getNvmeSubsystemPrefix(nvmeRscData) + nvmeRscData.getSuffixedResourceName(),
+                nsids,
+                isWaiting
+            )
+        );
+    }
+
+    /**
+     * Waits until the controller and all namespaces of the given connected initiator show up and returns their
+     * device paths.
+     *
+     * Does not access any linstor objects, so it can be executed by a thread that does not hold the locks of the
+     * device manager. The result has to be applied using {@link #applyDevicePaths(NvmeRscData, SubsystemDevices)}
+     */
+    public SubsystemDevices findDevicePaths(InitiatorConnection conn) throws StorageException
+    {
+        return findDevicePaths(conn.subsystemName, conn.nsids, true);
+    }
 
+    private SubsystemDevices findDevicePaths(String subsystemName, List<Integer> nsids, boolean isWaiting)
+        throws StorageException
+    {
+        SubsystemDevices devices;
         try
         {
             errorReporter.logDebug("NVMe: trying to set device paths for: " + subsystemName);
 
-            OutputData output = executeCmdAfterWaiting(
-                isWaiting,
-                "/bin/bash", "-c", "grep -H -r -w " + subsystemName + " " + NVME_FABRICS_PATH + "*/subsysnqn"
-            );
+            final long deadline = System.currentTimeMillis() + (isWaiting ? NVME_DEVICE_WAIT_TIMEOUT : 0);
 
-            if (output == null)
+            Integer nvmeRscIdx = findControllerIdx(subsystemName);
+            while (nvmeRscIdx == null && System.currentTimeMillis() < deadline)
             {
-                success = false;
-                setExistsDeep(nvmeRscData, false);
+                Thread.sleep(NVME_SYSFS_POLL_INTERVAL);
+                nvmeRscIdx = findControllerIdx(subsystemName);
+            }
+
+            if (nvmeRscIdx == null)
+            {
+                devices = new SubsystemDevices(false, Collections.emptyMap());
             }
             else
             {
-                final int nvmeRscIdx = Integer.parseInt(
-                    (new String(output.stdoutData))
-                        .substring(NVME_FABRICS_PATH.length(), NVME_FABRICS_PATH.length() + NVME_IDX_MAX_DIGITS)
-                        .split(File.separator)[0]
-                );
-                final String nvmeFabricsVlmPath = NVME_FABRICS_PATH + nvmeRscIdx + "/nvme" + nvmeRscIdx;
-
-                nvmeRscData.setExists(true);
-
-                for (NvmeVlmData<Resource> nvmeVlmData : nvmeRscData.getVlmLayerObjects().values())
+                Map<Integer, String> devicePaths = new HashMap<>();
+                for (int nsid : nsids)
                 {
-                    output = executeCmdAfterWaiting(
-                        isWaiting,
-                        "/bin/bash", "-c",
-                        "grep -H -r -w " + (nvmeVlmData.getVlmNr().getValue() + 1) + " " +
-                        nvmeFabricsVlmPath + "*n*/nsid"
-
-                    );
-                    /*
-                     * device path might be
-                     * .../nvmeX/nvmeXcYnZ/..
-                     * but also
-                     * .../nvmeX/nvmeXnY/..
-                     *
-                     */
-
-                    if (output == null)
+                    Integer nvmeVlmIdx = findNamespaceIdx(nvmeRscIdx, nsid);
+                    while (nvmeVlmIdx == null && System.currentTimeMillis() < deadline)
                     {
-                        success = false;
-                        nvmeVlmData.setExists(false);
+                        Thread.sleep(NVME_SYSFS_POLL_INTERVAL);
+                        nvmeVlmIdx = findNamespaceIdx(nvmeRscIdx, nsid);
                     }
-                    else
+
+                    if (nvmeVlmIdx != null)
                     {
-                        String grepResult = new String(output.stdoutData);
-                        // grepResult looks something like
-                        // /sys/devices/virtual/nvme-fabrics/ctl/nvme0/nvme0c1n1/nsid:1
-                        // either with cY or without
+                        devicePaths.put(nsid, "/dev/nvme" + nvmeRscIdx + "n" + nvmeVlmIdx);
+                    }
+                }
 
-                        String[] nvmePathParts = grepResult.split(File.separator);
-                        // should now only contain "nvme0(c1)?n1"
-                        String nvmeNamespacePart = nvmePathParts[nvmePathParts.length - 2];
+                if (isWaiting && !devicePaths.isEmpty())
+                {
+                    deviceNodeWatcher.awaitCreated(
+                        devicePaths.values(),
+                        Math.max(deadline - System.currentTimeMillis(), NVME_SYSFS_POLL_INTERVAL)
+                    );
+                }
+                devices = new SubsystemDevices(true, devicePaths);
+            }
+        }
+        catch (IOException | InterruptedException exc)
+        {
+            throw new StorageException("Failed to set NVMe device path!", exc);
+        }
+        return devices;
+    }
 
-                        final int nvmeVlmIdx = Integer.parseInt(
-                            nvmeNamespacePart.substring(nvmeNamespacePart.lastIndexOf('n') + 1)
-                        );
+    /**
+     * Stores the device paths found by {@link #findDevicePaths(InitiatorConnection)} in the {@link NvmeVlmData}
+     * of the given {@link NvmeRscData}. Has to be called by the device manager thread
+     *
+     * @return              boolean true if the controller and all namespaces were found and false otherwise
+     */
+    public boolean applyDevicePaths(NvmeRscData<Resource> nvmeRscData, SubsystemDevices devices)
+    {
+        boolean success = true;
+        if (!devices.controllerFound)
+        {
+            success = false;
+            setExistsDeep(nvmeRscData, false);
+        }
+        else
+        {
+            nvmeRscData.setExists(true);
+            for (NvmeVlmData<Resource> nvmeVlmData : nvmeRscData.getVlmLayerObjects().values())
+            {
+                String devicePath = devices.devicePathsByNsid.get(getNsid(nvmeVlmData));
+                if (devicePath == null)
+                {
+                    success = false;
+                    nvmeVlmData.setExists(false);
+                }
+                else
+                {
+                    nvmeVlmData.setDevicePath(devicePath);
+                    nvmeVlmData.setExists(true);
+                }
+            }
+        }
+        return success;
+    }
 
-                        nvmeVlmData.setDevicePath("/dev/nvme" + nvmeRscIdx + "n" + nvmeVlmIdx);
-                        nvmeVlmData.setExists(true);
+    private static int getNsid(NvmeVlmData<Resource> nvmeVlmData)
+    {
+        return nvmeVlmData.getVlmNr().getValue() + 1;
+    }
+
+    /**
+     * Returns the index of the NVMe-oF controller connected to the given subsystem, or null if there is none
+     */
+    private Integer findControllerIdx(String subsystemName) throws IOException
+    {
+        Integer ctrlIdx = null;
+        File[] ctrlDirs = new File(NVME_FABRICS_CTL_PATH).listFiles();
+        if (ctrlDirs != null)
+        {
+            for (File ctrlDir : ctrlDirs)
+            {
+                Matcher matcher = NVME_CTRL_DIR_PATTERN.matcher(ctrlDir.getName());
+                if (matcher.matches())
+                {
+                    String subsysNqn = readSysFsValue(ctrlDir.toPath().resolve("subsysnqn"));
+                    if (subsystemName.equals(subsysNqn))
+                    {
+                        ctrlIdx = Integer.parseInt(matcher.group(1));
+                        break;
                     }
                 }
             }
         }
-        catch (IOException | ChildProcessTimeoutException | InterruptedException exc)
+        return ctrlIdx;
+    }
+
+    /**
+     * Returns the index of the block device of the given namespace of the given controller, or null if the
+     * namespace was not scanned yet
+     */
+    private Integer findNamespaceIdx(int ctrlIdx, int nsid) throws IOException
+    {
+        /*
+         * the namespace directory might be
+         * .../nvmeX/nvmeXcYnZ/..
+         * but also
+         * .../nvmeX/nvmeXnY/..
+         */
+        Integer nsIdx = null;
+        File[] nsDirs = new File(NVME_FABRICS_CTL_PATH + "nvme" + ctrlIdx).listFiles();
+        if (nsDirs != null)
         {
-            throw new StorageException("Failed to set NVMe device path!", exc);
+            for (File nsDir : nsDirs)
+            {
+                Matcher matcher = NVME_NAMESPACE_DIR_PATTERN.matcher(nsDir.getName());
+                if (matcher.matches())
+                {
+                    String nsidStr = readSysFsValue(nsDir.toPath().resolve("nsid"));
+                    if (Integer.toString(nsid).equals(nsidStr))
+                    {
+                        nsIdx = Integer.parseInt(matcher.group(1));
+                        break;
+                    }
+                }
+            }
         }
+        return nsIdx;
+    }
 
-        return success;
+    /**
+     * Returns the trimmed content of the given sysfs / configfs attribute, or null if it does not exist
+     * (anymore)
+     */
+    private String readSysFsValue(Path path) throws IOException
+    {
+        String value;
+        try
+        {
+            value = new String(Files.readAllBytes(path)).trim();
+        }
+        catch (NoSuchFileException exc)
+        {
+            value = null;
+        }
+        return value;
     }
 
     /**
@@ -710,89 +898,102 @@ public class NvmeUtils
 
     /* helper methods */
 
-    /**
-     * Executes the given command immediately or waits for its completion, depending on {@param isWaiting}
-     *
-     * @param isWaiting boolean true if the external commands should be waited for in loop
-     * @param command   String... command being executed
-     * @return          OutputData of the executed command or null if something went wrong
-     */
-    private OutputData executeCmdAfterWaiting(boolean isWaiting, String... command)
-        throws IOException, ChildProcessTimeoutException, InterruptedException
-    {
-        int tries = isWaiting ? 0 : NVME_GREP_SLEEP_MAX_WAIT_TIME - 1;
-        OutputData output = null;
-        boolean extCmdSuccess;
-        do
-        {
-            output = extCmdFactory.create().exec(command);
-            extCmdSuccess = output.exitCode == 0;
-            if (!extCmdSuccess)
-            {
-                Thread.sleep(NVME_GREP_SLEEP_INCREMENT);
-                tries++;
-            }
-        }
-        while (!extCmdSuccess && tries < NVME_GREP_SLEEP_MAX_WAIT_TIME);
-
-        if (isWaiting && tries >= NVME_GREP_SLEEP_MAX_WAIT_TIME || !extCmdSuccess)
-        {
-            output = null;
-        }
-        return output;
-    }
-
     /**
      * Executes the nvme-discover command and reads the names of available subsystems from the output
      *
-     * @param nvmeRscData   NvmeRscData, object containing needed NVMe subsystem prefix
-     * @param transportType String, only RDMA featured at the moment
-     * @param ipAddr        String, can be IPv4 or IPv6
-     * @param port          String, default: 4420
-     * @return              List<String> of discovered subsystem names
+     * The result is cached per discovery controller until {@link #clearCache()} is called, so that connecting
+     * many initiators to the same target only requires a single discovery. Concurrent callers for the same
+     * discovery controller wait for the same discovery instead of starting their own.
+     *
+     * @param conn          InitiatorConnection, containing the address of the discovery controller
+     * @param outdated      a discovery returned by a previous call that should be repeated, or null to use a
+     *     cached discovery. If the outdated discovery was already replaced by another caller, the replacement is
+     *     used instead of discovering again
+     * @return              the future of the set of discovered subsystem names
      */
-    private List<String> discover(
-        NvmeRscData<Resource> nvmeRscData,
-        String transportType,
-        String ipAddr,
-        String port,
-        String nodeName
+    private CompletableFuture<Set<String>> discover(
+        InitiatorConnection conn,
+        CompletableFuture<Set<String>> outdated
     )
-        throws StorageException
     {
-        List<String> subsystemNames = new ArrayList<>();
+        final String discoveryKey = conn.getDiscoveryKey();
+        final CompletableFuture<Set<String>> newDiscovery = new CompletableFuture<>();
+        CompletableFuture<Set<String>> discovery = discoveryCache.compute(
+            discoveryKey,
+            (ignored, cached) -> cached == null || cached == outdated ? newDiscovery : cached
+        );
 
-        try
+        if (discovery == newDiscovery)
         {
-            errorReporter.logDebug("NVMe: discovering target subsystems.");
+            try
+            {
+                errorReporter.logDebug("NVMe: discovering target subsystems on " + conn.ipAddr + ":" + conn.port);
 
-            OutputData output = extCmdFactory.create().exec(
-                "nvme",
-                "discover",
-                "--transport=" + transportType,
-                "--traddr=" + ipAddr,
-                "--trsvcid=" + port,
-                "--hostnqn=" + nodeName
-            );
-            ExtCmdUtils.checkExitCode(output, StorageException::new, "Failed to discover NVMe subsystems!");
+                OutputData output = extCmdFactory.create().exec(
+                    "nvme",
+                    "discover",
+                    "--transport=" + conn.transportType,
+                    "--traddr=" + conn.ipAddr,
+                    "--trsvcid=" + conn.port,
+                    "--hostnqn=" + conn.hostNqn
+                );
+                ExtCmdUtils.checkExitCode(output, StorageException::new, "Failed to discover NVMe subsystems!");
 
-            for (String outputLine : (new String(output.stdoutData)).split("\n"))
-            {
-                if (outputLine.contains("subnqn:"))
+                Set<String> subsystemNames = new HashSet<>();
+                for (String outputLine : (new String(output.stdoutData)).split("\n"))
                 {
-                    int idx = outputLine.indexOf(getNvmeSubsystemPrefix(nvmeRscData));
+                    int idx = outputLine.indexOf("subnqn:");
                     if (idx >= 0)
                     {
-                        subsystemNames.add(outputLine.substring(idx));
+                        subsystemNames.add(outputLine.substring(idx + "subnqn:".length()).trim());
                     }
                 }
+                newDiscovery.complete(subsystemNames);
+            }
+            catch (IOException | ChildProcessTimeoutException exc)
+            {
+                failDiscovery(
+                    discoveryKey,
+                    newDiscovery,
+                    new StorageException("Failed to discover NVMe subsystems!", exc)
+                );
+            }
+            catch (StorageException | RuntimeException exc)
+            {
+                failDiscovery(discoveryKey, newDiscovery, exc);
             }
         }
-        catch (IOException | ChildProcessTimeoutException exc)
+        return discovery;
+    }
+
+    private void failDiscovery(String discoveryKey, CompletableFuture<Set<String>> discovery, Exception exc)
+    {
+        // do not cache the failure, the next connect retries the discovery
+        discoveryCache.remove(discoveryKey, discovery);
+        discovery.completeExceptionally(exc);
+    }
+
+    private Set<String> getSubsystemNames(CompletableFuture<Set<String>> discovery) throws StorageException
+    {
+        Set<String> subsystemNames;
+        try
         {
-            throw new StorageException("Failed to discover NVMe subsystems!", exc);
+            subsystemNames = discovery.get();
+        }
+        catch (ExecutionException exc)
+        {
+            Throwable cause = exc.getCause();
+            if (cause instanceof StorageException)
+            {
+                throw (StorageException) cause;
+            }
+            throw new StorageException("Failed to discover NVMe subsystems!", cause);
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while discovering NVMe subsystems", exc);
         }
-
         return subsystemNames;
     }
 
@@ -866,31 +1067,30 @@ public class NvmeUtils
      * @return          String port index
      */
     private String getPortIdx(LsIpAddress ipAddr)
-        throws StorageException, IOException, ChildProcessTimeoutException
+        throws StorageException
     {
         errorReporter.logDebug("NVMe: retrieving port directory index of IP address: " + ipAddr.getAddress());
 
-        OutputData output = extCmdFactory.create().exec(
-            "/bin/bash", "-c", "grep -r -H --color=never " + ipAddr.getAddress() + " " + NVME_PORTS_PATH
-        );
-
-        String portIdx;
-        if (output.exitCode == 0)
+        String portIdx = null;
+        File[] portDirs = new File(NVME_PORTS_PATH).listFiles();
+        if (portDirs == null)
         {
-            String grepPortIdx = new String(output.stdoutData);
-            portIdx = grepPortIdx.substring(
-                NVME_PORTS_PATH.length(),
-                grepPortIdx.indexOf(File.separator, NVME_PORTS_PATH.length() + 1)
-            );
+            throw new StorageException("Failed to look up port index!");
         }
-        else
-        if (output.exitCode == 1)
+        try
         {
-            portIdx = null;
+            for (File portDir : portDirs)
+            {
+                if (ipAddr.getAddress().equals(readSysFsValue(portDir.toPath().resolve("addr_traddr"))))
+                {
+                    portIdx = portDir.getName();
+                    break;
+                }
+            }
         }
-        else
+        catch (IOException exc)
         {
-            throw new StorageException("Failed to look up port index!");
+            throw new StorageException("Failed to look up port index!", exc);
         }
 
         return portIdx;
@@ -963,4 +1163,62 @@ public class NvmeUtils
     {
         return extCmdFactory;
     }
+
+    /**
+     * Everything needed to discover and connect an NVMe Initiator's subsystem
+     */
+    public static class InitiatorConnection
+    {
+        private final String subsystemName;
+        private final String transportType;
+        private final String ipAddr;
+        private final String port;
+        private final String hostNqn;
+        private final List<Integer> nsids;
+
+        private InitiatorConnection(
+            String subsystemNameRef,
+            String transportTypeRef,
+            String ipAddrRef,
+            String portRef,
+            String hostNqnRef,
+            List<Integer> nsidsRef
+        )
+        {
+            subsystemName = subsystemNameRef;
+            transportType = transportTypeRef;
+            ipAddr = ipAddrRef;
+            port = portRef;
+            hostNqn = hostNqnRef;
+            nsids = nsidsRef;
+        }
+
+        public String getSubsystemName()
+        {
+            return subsystemName;
+        }
+
+        /**
+         * Initiators with the same discovery key share the result of a single 'nvme discover'
+         */
+        public String getDiscoveryKey()
+        {
+            return transportType + ":" + ipAddr + ":" + port + ":" + hostNqn;
+        }
+    }
+
+    /**
+     * The device paths of the namespaces of a connected subsystem, by namespace id
+     */
+    public static class SubsystemDevices
+    {
+        private final boolean controllerFound;
+        private final Map<Integer, String> devicePathsByNsid;
+
+        private SubsystemDevices(boolean controllerFoundRef, Map<Integer, String> devicePathsByNsidRef)
+        {
+            controllerFound = controllerFoundRef;
+            devicePathsByNsid = devicePathsByNsidRef;
+        }
+    }
 }
@@ -3,11 +3,6 @@ package com.linbit.linstor.storage.layer.provider;
 import com.linbit.ImplementationError;
 import com.linbit.InvalidNameException;
 import com.linbit.extproc.ExtCmdFactory;
-import com.linbit.fsevent.FileObserver;
-import com.linbit.fsevent.FileSystemWatch;
-import com.linbit.fsevent.FileSystemWatch.Event;
-import com.linbit.fsevent.FileSystemWatch.FileEntry;
-import com.linbit.linstor.LinStorRuntimeException;
 import com.linbit.linstor.PriorityProps;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.api.ApiConsts;
@@ -37,6 +32,7 @@ import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.layer.DeviceLayer.NotificationListener;
 import com.linbit.linstor.storage.layer.provider.utils.DmStatCommands;
 import com.linbit.linstor.storage.layer.provider.utils.StltProviderUtils;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.SpdkCommands;
 import com.linbit.linstor.transaction.TransactionMgr;
 import com.linbit.utils.AccessUtils;
@@ -47,9 +43,6 @@ import static com.linbit.linstor.storage.utils.SpdkUtils.SPDK_PATH_PREFIX;
 
 import javax.inject.Provider;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -58,6 +51,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -80,7 +74,7 @@ public abstract class AbsStorageProvider<INFO, LAYER_DATA extends AbsStorageVlmD
     protected final List<Consumer<Map<String, Long>>> postRunVolumeNotifications = new ArrayList<>();
     protected final Set<String> changedStoragePoolStrings = new HashSet<>();
     private final String typeDescr;
-    private final FileSystemWatch fsWatch;
+    private final DeviceNodeWatcher deviceNodeWatcher;
     protected final DeviceProviderKind kind;
 
     private final Set<StorPool> changedStorPools = new HashSet<>();
@@ -92,6 +86,7 @@ public abstract class AbsStorageProvider<INFO, LAYER_DATA extends AbsStorageVlmD
         AccessContext storDriverAccCtxRef,
         StltConfigAccessor stltConfigAccessorRef,
         WipeHandler wipeHandlerRef,
+        DeviceNodeWatcher deviceNodeWatcherRef,
         Provider<NotificationListener> notificationListenerProviderRef,
         Provider<TransactionMgr> transMgrProviderRef,
         String typeDescrRef,
@@ -102,6 +97,7 @@ public abstract class AbsStorageProvider<INFO, LAYER_DATA extends AbsStorageVlmD
         extCmdFactory = extCmdFactoryRef;
         storDriverAccCtx = storDriverAccCtxRef;
         wipeHandler = wipeHandlerRef;
+        deviceNodeWatcher = deviceNodeWatcherRef;
         notificationListenerProvider = notificationListenerProviderRef;
         stltConfigAccessor = stltConfigAccessorRef;
         transMgrProvider = transMgrProviderRef;
@@ -109,14 +105,6 @@ public abstract class AbsStorageProvider<INFO, LAYER_DATA extends AbsStorageVlmD
         kind = kindRef;
 
         infoListCache = new HashMap<>();
-        try
-        {
-            fsWatch = new FileSystemWatch(errorReporter);
-        }
-        catch (IOException exc)
-        {
-            throw new LinStorRuntimeException("Unable to create FileSystemWatch", exc);
-        }
     }
 
     @Override
@@ -334,65 +322,151 @@ public abstract class AbsStorageProvider<INFO, LAYER_DATA extends AbsStorageVlmD
     private void createVolumes(List<LAYER_DATA> vlmsToCreate, ApiCallRcImpl apiCallRc)
         throws StorageException, AccessDeniedException, DatabaseException
     {
-        for (LAYER_DATA vlmData : vlmsToCreate)
+        // create all volumes first and wait for their devices afterwards, so that udev can create the device nodes
+        // of all volumes in parallel instead of one after another
+        List<CreatedVolume> createdVlms = new ArrayList<>();
+        try
         {
-            String sourceLvId = computeRestoreFromResourceName(vlmData);
-            // sourceLvId ends with "_00000"
+            try
+            {
+                for (LAYER_DATA vlmData : vlmsToCreate)
+                {
+                    String sourceLvId = computeRestoreFromResourceName(vlmData);
+                    // sourceLvId ends with "_00000"
 
-            String sourceSnapshotName = computeRestoreFromSnapshotName(vlmData.getVolume());
+                    String sourceSnapshotName = computeRestoreFromSnapshotName(vlmData.getVolume());
 
-            boolean snapRestore = sourceLvId != null && sourceSnapshotName != null;
-            if (snapRestore)
-            {
-                errorReporter.logTrace("Restoring from lv: %s, snapshot: %s", sourceLvId, sourceSnapshotName);
-                restoreSnapshot(sourceLvId, sourceSnapshotName, vlmData);
-            }
-            else
-            {
-                createLvImpl(vlmData);
-            }
-            vlmData.setExists(true);
+                    // taken before the volume is created, so that nothing can fail between the creation and the
+                    // registration of the created volume below
+                    long waitTimeoutAfterCreate = getWaitTimeoutAfterCreate(vlmData.getStorPool());
 
-            String storageName = getStorageName(vlmData);
-            String lvId = asLvIdentifier(vlmData);
+                    boolean snapRestore = sourceLvId != null && sourceSnapshotName != null;
+                    if (snapRestore)
+                    {
+                        errorReporter.logTrace(
+                            "Restoring from lv: %s, snapshot: %s",
+                            sourceLvId,
+                            sourceSnapshotName
+                        );
+                        restoreSnapshot(sourceLvId, sourceSnapshotName, vlmData);
+                    }
+                    else
+                    {
+                        createLvImpl(vlmData);
+                    }
+                    vlmData.setExists(true);
+
+                    // registered right away, so that the volume is also finished if one of the following calls fails
+                    CreatedVolume createdVlm = new CreatedVolume(
+                        vlmData,
+                        snapRestore,
+                        System.currentTimeMillis(),
+                        waitTimeoutAfterCreate
+                    );
+                    createdVlms.add(createdVlm);
 
-            // some providers cannot construct a device path in the next call and therefore return null here
-            String devicePath = getDevicePath(storageName, lvId);
+                    String storageName = getStorageName(vlmData);
+                    String lvId = asLvIdentifier(vlmData);
 
-            // those providers will most likely also skip setting the (null) devicePath.
-            setDevicePath(vlmData, devicePath);
+                    // some providers cannot construct a device path in the next call and therefore return null
+                    String devicePath = getDevicePath(storageName, lvId);
 
-            // however, those providers have to have a different method in getting the device path which means
-            // the correct device path was already set since the "createLvImpl" or "restoreSnapshot" call.
-            devicePath = vlmData.getDevicePath();
+                    // those providers will most likely also skip setting the (null) devicePath.
+                    setDevicePath(vlmData, devicePath);
 
-            StorPool storPool = vlmData.getStorPool();
-            long waitTimeoutAfterCreate = getWaitTimeoutAfterCreate(storPool);
-            waitUntilDeviceCreated(devicePath, waitTimeoutAfterCreate);
+                    // however, those providers have to have a different method in getting the device path which
+                    // means the correct device path was already set since the "createLvImpl" or "restoreSnapshot"
+                    // call.
+                    devicePath = vlmData.getDevicePath();
+                    createdVlm.devicePath = devicePath;
 
-            long allocatedSize = getAllocatedSize(vlmData);
-            long minSize = kind.usesThinProvisioning() ? 0 : vlmData.getExepectedSize();
-            if (allocatedSize < minSize)
+                    if (!devicePath.startsWith(SPDK_PATH_PREFIX))
+                    {
+                        try
+                        {
+                            createdVlm.deviceCreated = deviceNodeWatcher.expectCreated(devicePath);
+                        }
+                        catch (StorageException exc)
+                        {
+                            // fails the wait for this volume only, the remaining volumes are still created
+                            createdVlm.watchFailure = exc;
+                        }
+                    }
+                }
+            }
+            catch (Exception exc)
             {
-                throw new StorageException("Size of create volume is too low. Expected " +
-                    minSize + ". Actual: " + allocatedSize + ". Volume: " + vlmData);
+                // the volumes that were created before the failure exist, so they still have to be finished
+                // (quick-wipe, sizes and "created" message) before the failure is reported
+                try
+                {
+                    finishCreatedVolumes(createdVlms, apiCallRc);
+                }
+                catch (Exception finishExc)
+                {
+                    exc.addSuppressed(finishExc);
+                }
+                throw exc;
             }
-
-            setAllocatedSize(vlmData, allocatedSize);
-            setUsableSize(vlmData, allocatedSize);
-
-            if (stltConfigAccessor.useDmStats() && updateDmStats())
+            finishCreatedVolumes(createdVlms, apiCallRc);
+        }
+        finally
+        {
+            // stop waiting for the devices of the remaining volumes if the creation of a volume failed
+            for (CreatedVolume createdVlm : createdVlms)
             {
-                DmStatCommands.create(extCmdFactory.create(), devicePath);
+                if (createdVlm.deviceCreated != null)
+                {
+                    createdVlm.deviceCreated.cancel(false);
+                }
             }
+        }
+    }
 
-            if (!snapRestore && !devicePath.startsWith(SPDK_PATH_PREFIX))
+    private void finishCreatedVolumes(List<CreatedVolume> createdVlms, ApiCallRcImpl apiCallRc)
+        throws StorageException, AccessDeniedException, DatabaseException
+    {
+        for (CreatedVolume createdVlm : createdVlms)
+        {
+            // a volume without device path is the one whose device path lookup failed, that failure is reported by
+            // the caller
+            if (createdVlm.devicePath != null)
             {
-                wipeHandler.quickWipe(devicePath);
+                finishCreatedVolume(createdVlm, apiCallRc);
             }
+        }
+    }
+
+    private void finishCreatedVolume(CreatedVolume createdVlm, ApiCallRcImpl apiCallRc)
+        throws StorageException, AccessDeniedException, DatabaseException
+    {
+        LAYER_DATA vlmData = createdVlm.vlmData;
+        String devicePath = createdVlm.devicePath;
+
+        waitUntilDeviceCreated(createdVlm);
+
+        long allocatedSize = getAllocatedSize(vlmData);
+        long minSize = kind.usesThinProvisioning() ? 0 : vlmData.getExepectedSize();
+        if (allocatedSize < minSize)
+        {
+            throw new StorageException("Size of create volume is too low. Expected " +
+                minSize + ". Actual: " + allocatedSize + ". Volume: " + vlmData);
+        }
+
+        setAllocatedSize(vlmData, allocatedSize);
+        setUsableSize(vlmData, allocatedSize);
 
-            addCreatedMsg(vlmData, apiCallRc);
+        if (stltConfigAccessor.useDmStats() && updateDmStats())
+        {
+            DmStatCommands.create(extCmdFactory.create(), devicePath);
         }
+
+        if (!createdVlm.snapRestore && !devicePath.startsWith(SPDK_PATH_PREFIX))
+        {
+            wipeHandler.quickWipe(devicePath);
+        }
+
+        addCreatedMsg(vlmData, apiCallRc);
     }
 
     protected long getWaitTimeoutAfterCreate(StorPool storPoolRef)
@@ -720,84 +794,38 @@ public abstract class AbsStorageProvider<INFO, LAYER_DATA extends AbsStorageVlmD
         return restoreSnapshotName;
     }
 
-    private void waitUntilDeviceCreated(String devicePath, long waitTimeoutAfterCreateMillis)
+    private void waitUntilDeviceCreated(CreatedVolume createdVlm)
         throws StorageException
     {
-        if (!devicePath.startsWith(SPDK_PATH_PREFIX))
+        String devicePath = createdVlm.devicePath;
+        if (createdVlm.watchFailure != null)
         {
-            waitUntilNonSpdkCreated(devicePath, waitTimeoutAfterCreateMillis);
+            throw createdVlm.watchFailure;
         }
         else
+        if (createdVlm.deviceCreated != null)
         {
-            // wait not required, just confirming LV existence
-            SpdkCommands.lvsByName(extCmdFactory.create(), devicePath.split(SPDK_PATH_PREFIX)[1]);
-        }
-    }
-
-    private void waitUntilNonSpdkCreated(String devicePath, long waitTimeoutAfterCreateMillis)
-        throws StorageException
-    {
-        final Object syncObj = new Object();
-        FileObserver fileObserver = new FileObserver()
-        {
-            @Override
-            public void fileEvent(FileEntry watchEntry)
-            {
-                synchronized (syncObj)
-                {
-                    syncObj.notify();
-                }
-            }
-        };
-        try
-        {
-            synchronized (syncObj)
-            {
-                long start = System.currentTimeMillis();
-                fsWatch.addFileEntry(
-                    new FileEntry(
-                        Paths.get(devicePath),
-                        Event.CREATE,
-                        fileObserver
-                    )
-                );
-                try
-                {
-                    errorReporter.logTrace(
-                        "Waiting until device [%s] appears (up to %dms)",
-                        devicePath,
-                        waitTimeoutAfterCreateMillis
-                    );
-
-                    syncObj.wait(waitTimeoutAfterCreateMillis);
-                }
-                catch (InterruptedException interruptedExc)
-                {
-                    throw new StorageException(
-                        "Interrupted exception while waiting for device '" + devicePath + "' to show up",
-                        interruptedExc
-                    );
-                }
-                if (!Files.exists(Paths.get(devicePath)))
-                {
-                    throw new StorageException(
-                        "Device '" + devicePath + "' did not show up in " +
-                            waitTimeoutAfterCreateMillis + "ms"
-                    );
-                }
-                errorReporter.logTrace(
-                    "Device [%s] appeared after %sms",
-                    devicePath,
-                    System.currentTimeMillis() - start
-                );
-            }
+            errorReporter.logTrace(
+                "Waiting until device [%s] appears (up to %dms)",
+                devicePath,
+                createdVlm.waitTimeoutAfterCreateMillis
+            );
+            deviceNodeWatcher.awaitCreated(
+                devicePath,
+                createdVlm.deviceCreated,
+                createdVlm.createdMillis,
+                createdVlm.waitTimeoutAfterCreateMillis
+            );
+            errorReporter.logTrace(
+                "Device [%s] appeared after %sms",
+                devicePath,
+                System.currentTimeMillis() - createdVlm.createdMillis
+            );
         }
-        catch (IOException exc)
+        else
         {
-            throw new StorageException(
-                "Unable to register file watch event for device '" + devicePath + "' being created",
-                exc
-            );
+            // wait not required, just confirming LV existence
+            SpdkCommands.lvsByName(extCmdFactory.create(), devicePath.split(SPDK_PATH_PREFIX)[1]);
         }
     }
 
@@ -974,4 +1002,31 @@ public abstract class AbsStorageProvider<INFO, LAYER_DATA extends AbsStorageVlmD
     protected abstract void setUsableSize(LAYER_DATA vlmData, long size) throws DatabaseException;
 
     protected abstract void setExpectedUsableSize(LAYER_DATA vlmData, long size) throws DatabaseException;
+
+    private class CreatedVolume
+    {
+        private final LAYER_DATA vlmData;
+        private final boolean snapRestore;
+        private final long createdMillis;
+        private final long waitTimeoutAfterCreateMillis;
+        // null until the device path is known
+        private String devicePath;
+        // null if the device node is not watched (SPDK) or the watch could not be registered
+        private CompletableFuture<Void> deviceCreated;
+        // set if the watch could not be registered
+        private StorageException watchFailure;
+
+        private CreatedVolume(
+            LAYER_DATA vlmDataRef,
+            boolean snapRestoreRef,
+            long createdMillisRef,
+            long waitTimeoutAfterCreateMillisRef
+        )
+        {
+            vlmData = vlmDataRef;
+            snapRestore = snapRestoreRef;
+            createdMillis = createdMillisRef;
+            waitTimeoutAfterCreateMillis = waitTimeoutAfterCreateMillisRef;
+        }
+    }
 }
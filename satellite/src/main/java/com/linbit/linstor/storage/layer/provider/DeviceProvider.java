@@ -75,4 +75,18 @@ public interface DeviceProvider
      */
     void update(StorPool storPoolRef)
         throws AccessDeniedException, DatabaseException, StorageException;
+
+    /**
+     * Cleans up after wipes of deleted volumes that were interrupted by a restart of the satellite. Called for every
+     * storage pool of the local node once the storage pools were received from the controller.
+     *
+     * @param storPoolRef
+     * @throws StorageException
+     * @throws AccessDeniedException
+     */
+    default void resumeInterruptedWipes(StorPool storPoolRef)
+        throws StorageException, AccessDeniedException
+    {
+        // no-op, only providers that wipe deleted volumes in the background have to clean up
+    }
 }
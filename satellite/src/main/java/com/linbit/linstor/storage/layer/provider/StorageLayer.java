@@ -2,6 +2,7 @@ package com.linbit.linstor.storage.layer.provider;
 
 import com.linbit.ImplementationError;
 import com.linbit.extproc.ExtCmdFactory;
+import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.annotation.DeviceManagerContext;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.api.ApiConsts;
@@ -102,6 +103,12 @@ public class StorageLayer implements DeviceLayer
         return this.getClass().getSimpleName();
     }
 
+    @Override
+    public Map<AbsRscLayerObject<Resource>, LinStorException> processDeferred()
+    {
+        return Collections.emptyMap();
+    }
+
     @Override
     public void clearCache() throws StorageException
     {
@@ -1,50 +1,105 @@
 package com.linbit.linstor.storage.layer.provider;
 
-import com.linbit.extproc.ExtCmdFactory;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.LinStorMetrics;
 import com.linbit.linstor.storage.StorageException;
-import com.linbit.linstor.storage.layer.adapter.drbd.utils.MdSuperblockBuffer;
-import com.linbit.linstor.storage.layer.provider.utils.Commands;
 import com.linbit.utils.ExceptionThrowingConsumer;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Wipes the signatures of file systems, volume managers, partition tables, RAID superblocks and DRBD's internal
+ * meta data from devices, which are all located within the first or the last {@link #WIPE_AREA_SIZE} bytes of a
+ * device.
+ *
+ * The areas are wiped by positional writes to the device instead of running "wipefs". Only chunks that are not
+ * already zero are written, so that wiping a new thinly provisioned volume does not allocate any space.
+ *
+ * Asynchronous wipes are queued per backing device (e.g. volume group or storage directory), and at most
+ * {@link #MAX_PARALLEL_WIPES_PER_BACKING_DEVICE} wipes run concurrently on each backing device. The space of a
+ * device that is wiped asynchronously must not be freed before the wipe finished notifier is called. If the
+ * notifier fails to free the space, it is called again after {@link #NOTIFY_RETRY_DELAY_MILLIS} (times the number of
+ * failed attempts), up to {@link #MAX_NOTIFY_ATTEMPTS} times.
+ *
+ * The providers rename a device before they wipe it asynchronously, so {@link #quickWipe(String)} of a new device
+ * with the original name does not have to wait for the asynchronous wipe.
+ */
 @Singleton
 public class WipeHandler
 {
-    private final ExtCmdFactory extCmdFactory;
+    private static final long WIPE_AREA_SIZE = 1L << 20;
+    private static final int CHUNK_SIZE = 64 << 10;
+
+    private static final int MAX_PARALLEL_WIPES = 8;
+    private static final int MAX_PARALLEL_WIPES_PER_BACKING_DEVICE = 2;
+
+    private static final int MAX_NOTIFY_ATTEMPTS = 5;
+    private static final long NOTIFY_RETRY_DELAY_MILLIS = 10_000L;
+
     private final ErrorReporter errorReporter;
+    private final ExecutorService wipeExecutor;
+    private final ScheduledExecutorService retryExecutor;
+
+    // Guarded by this
+    private final Map<String, BackingDeviceQueue> queues = new HashMap<>();
 
     @Inject
-    public WipeHandler(
-        ExtCmdFactory extCmdFactoryRef,
-        ErrorReporter errorReporterRef
-    )
+    public WipeHandler(ErrorReporter errorReporterRef)
     {
-        extCmdFactory = extCmdFactoryRef;
         errorReporter = errorReporterRef;
+
+        AtomicInteger threadNr = new AtomicInteger();
+        wipeExecutor = Executors.newFixedThreadPool(
+            MAX_PARALLEL_WIPES,
+            runnable ->
+            {
+                Thread thread = new Thread(runnable, "WipeHandler-" + threadNr.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        retryExecutor = Executors.newSingleThreadScheduledExecutor(
+            runnable ->
+            {
+                Thread thread = new Thread(runnable, "WipeHandler-retry");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
     }
 
     /**
      * Only wipes linstor-known data.
      *
-     * That means, this method calls "{@code wipefs devicePath}" and cleans drbd super block (last 4k of the device)
+     * That means, this method zeroes the areas at the start and the end of the device that contain the signatures
+     * which "{@code wipefs}" would remove, as well as the drbd super block (last 4k of the device)
      *
      * @param devicePath
      *
      * @throws StorageException
-     * @throws IOException
      */
     public void quickWipe(String devicePath) throws StorageException
     {
-        Commands.wipeFs(extCmdFactory.create(), Collections.singleton(devicePath));
         try
         {
-            MdSuperblockBuffer.wipe(devicePath);
+            wipeSignatures(devicePath);
         }
         catch (IOException ioExc)
         {
@@ -52,11 +107,23 @@ public class WipeHandler
         }
     }
 
-    public void asyncWipe(String devicePath, ExceptionThrowingConsumer<String, StorageException> wipeFinishedNotifier)
-        throws StorageException
+    /**
+     * Queues the wipe of a device that is about to be deleted, and returns immediately.
+     *
+     * The notifier is called by the wiping thread when the wipe finished, even if the wipe failed, and is expected
+     * to free the space of the device. If the notifier throws an exception, it is called again later.
+     *
+     * @param devicePath device to wipe
+     * @param backingDevice identifier of the device, volume group or directory that provides the space of the
+     *     device, used to limit the number of concurrent wipes on it
+     * @param wipeFinishedNotifier called with the device path when the wipe finished
+     */
+    public void asyncWipe(
+        String devicePath,
+        String backingDevice,
+        ExceptionThrowingConsumer<String, StorageException> wipeFinishedNotifier
+    )
     {
-        // TODO: this step should be asynchron
-
         /*
          * for security reasons we should wipe (zero out) an lvm / zfs before actually removing it.
          *
@@ -64,18 +131,189 @@ public class WipeHandler
          * in that case, we still need to make sure to at least wipe DRBD's signature so that
          * re-allocating the same storage does not find the data-garbage from last DRBD configuration
          */
-        try
+        enqueue(new WipeTask(devicePath, backingDevice, wipeFinishedNotifier));
+    }
+
+    private synchronized void enqueue(WipeTask task)
+    {
+        queues.computeIfAbsent(task.backingDevice, ignored -> new BackingDeviceQueue()).pending.add(task);
+        LinStorMetrics.WIPES_PENDING_ALL.inc();
+        startWipes(task.backingDevice);
+    }
+
+    // Must be called while holding the lock of this object
+    private void startWipes(String backingDevice)
+    {
+        BackingDeviceQueue queue = queues.get(backingDevice);
+        while (queue.running < MAX_PARALLEL_WIPES_PER_BACKING_DEVICE && !queue.pending.isEmpty())
+        {
+            ++queue.running;
+            wipeExecutor.execute(queue.pending.poll());
+        }
+    }
+
+    private synchronized void finished(WipeTask task)
+    {
+        BackingDeviceQueue queue = queues.get(task.backingDevice);
+        --queue.running;
+        if (queue.running == 0 && queue.pending.isEmpty())
+        {
+            queues.remove(task.backingDevice);
+        }
+        else
         {
-            MdSuperblockBuffer.wipe(devicePath);
+            startWipes(task.backingDevice);
         }
-        catch (IOException exc)
+        LinStorMetrics.WIPES_PENDING_ALL.dec();
+    }
+
+    /**
+     * @return the number of bytes that were zeroed
+     */
+    private static long wipeSignatures(String devicePath) throws IOException
+    {
+        long zeroedBytes;
+        try (
+            FileChannel channel = FileChannel.open(
+                FileSystems.getDefault().getPath(devicePath),
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        )
+        {
+            long size = channel.size();
+            long headEnd = Math.min(WIPE_AREA_SIZE, size);
+            long tailStart = Math.max(headEnd, size - WIPE_AREA_SIZE);
+
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            zeroedBytes = zeroNonZeroChunks(channel, buffer, 0, headEnd) +
+                zeroNonZeroChunks(channel, buffer, tailStart, size);
+            if (zeroedBytes > 0)
+            {
+                channel.force(false);
+            }
+        }
+        return zeroedBytes;
+    }
+
+    private static long zeroNonZeroChunks(FileChannel channel, ByteBuffer buffer, long start, long end)
+        throws IOException
+    {
+        long zeroedBytes = 0;
+        byte[] data = buffer.array();
+        for (long chunkStart = start; chunkStart < end; chunkStart += CHUNK_SIZE)
+        {
+            int chunkLen = (int) Math.min(CHUNK_SIZE, end - chunkStart);
+            buffer.clear();
+            buffer.limit(chunkLen);
+            while (buffer.hasRemaining() && channel.read(buffer, chunkStart + buffer.position()) >= 0)
+            {
+                // read the whole chunk
+            }
+            int readLen = buffer.position();
+
+            boolean zero = true;
+            for (int idx = 0; zero && idx < readLen; ++idx)
+            {
+                zero = data[idx] == 0;
+            }
+            if (!zero)
+            {
+                Arrays.fill(data, 0, readLen, (byte) 0);
+                buffer.clear();
+                buffer.limit(readLen);
+                while (buffer.hasRemaining())
+                {
+                    channel.write(buffer, chunkStart + buffer.position());
+                }
+                zeroedBytes += readLen;
+            }
+        }
+        return zeroedBytes;
+    }
+
+    private static class BackingDeviceQueue
+    {
+        private final Queue<WipeTask> pending = new ArrayDeque<>();
+        private int running = 0;
+    }
+
+    private class WipeTask implements Runnable
+    {
+        private final String devicePath;
+        private final String backingDevice;
+        private final ExceptionThrowingConsumer<String, StorageException> wipeFinishedNotifier;
+
+        WipeTask(
+            String devicePathRef,
+            String backingDeviceRef,
+            ExceptionThrowingConsumer<String, StorageException> wipeFinishedNotifierRef
+        )
+        {
+            devicePath = devicePathRef;
+            backingDevice = backingDeviceRef;
+            wipeFinishedNotifier = wipeFinishedNotifierRef;
+        }
+
+        @Override
+        public void run()
         {
-            errorReporter.reportError(exc);
-            // wipe failed, but we still need to free the allocated space
+            try
+            {
+                long startNanos = System.nanoTime();
+                long zeroedBytes = wipeSignatures(devicePath);
+                long durationMicros = Math.max(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), 1);
+                LinStorMetrics.WIPED_BYTES_ALL.inc(zeroedBytes);
+                errorReporter.logDebug(
+                    "Wiped '%s': %d bytes zeroed in %d ms (%.1f MiB/s)",
+                    devicePath,
+                    zeroedBytes,
+                    TimeUnit.MICROSECONDS.toMillis(durationMicros),
+                    zeroedBytes / (double) (1 << 20) / (durationMicros / 1_000_000.0)
+                );
+            }
+            catch (IOException exc)
+            {
+                errorReporter.reportError(exc);
+                // wipe failed, but we still need to free the allocated space
+            }
+
+            try
+            {
+                notifyWipeFinished(1);
+            }
+            finally
+            {
+                finished(this);
+            }
         }
-        finally
+
+        private void notifyWipeFinished(int attempt)
         {
-            wipeFinishedNotifier.accept(devicePath);
+            try
+            {
+                wipeFinishedNotifier.accept(devicePath);
+            }
+            catch (StorageException | RuntimeException exc)
+            {
+                if (attempt < MAX_NOTIFY_ATTEMPTS)
+                {
+                    long delayMillis = NOTIFY_RETRY_DELAY_MILLIS * attempt;
+                    errorReporter.logWarning(
+                        "Failed to free the space of the wiped device '%s' (attempt %d of %d), retrying in %d ms: %s",
+                        devicePath,
+                        attempt,
+                        MAX_NOTIFY_ATTEMPTS,
+                        delayMillis,
+                        exc.getMessage()
+                    );
+                    retryExecutor.schedule(() -> notifyWipeFinished(attempt + 1), delayMillis, TimeUnit.MILLISECONDS);
+                }
+                else
+                {
+                    errorReporter.reportError(exc);
+                }
+            }
         }
     }
 }
@@ -28,6 +28,7 @@ import com.linbit.linstor.storage.layer.provider.AbsStorageProvider;
 import com.linbit.linstor.storage.layer.provider.WipeHandler;
 import com.linbit.linstor.storage.layer.provider.utils.StorageConfigReader;
 import com.linbit.linstor.storage.utils.DeviceLayerUtils;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.FileCommands;
 import com.linbit.linstor.storage.utils.FileUtils;
 import com.linbit.linstor.storage.utils.FileUtils.FileInfo;
@@ -42,17 +43,21 @@ import javax.inject.Singleton;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Singleton
 public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource>, FileData<Snapshot>>
@@ -64,21 +69,29 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
     private static final String FORMAT_VLM_TO_ID = FORMAT_VLM_TO_ID_BASE + ".img";
     private static final String FORMAT_SNAP_VLM_TO_ID = FORMAT_VLM_TO_ID_BASE + "_%s.img";
 
-    private static final String FORMAT_ID_WIPE_IN_PROGRESS = "%s_linstor_wiping_in_progress";
+    private static final String ID_WIPE_IN_PROGRESS_SUFFIX = "_linstor_wiping_in_progress";
+    private static final String FORMAT_ID_WIPE_IN_PROGRESS = "%s" + ID_WIPE_IN_PROGRESS_SUFFIX;
 
     private static final String LODEV_FILE = "/var/lib/linstor/loop_device_mapping";
     private static final String LODEV_FILE_TMP = LODEV_FILE + ".tmp";
 
     private static final Map<String, String> LOSETUP_DEVICES = new TreeMap<>();
 
+    private final LoopDeviceManager loopDeviceManager;
+
+    // Storage directories that were checked for files whose wipe was interrupted by a restart of the satellite
+    private final Set<Path> wipeResumedStorageDirectories = new HashSet<>();
+
     protected FileProvider(
         ErrorReporter errorReporter,
         ExtCmdFactory extCmdFactory,
         AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
         Provider<TransactionMgr> transMgrProvider,
+        LoopDeviceManager loopDeviceManagerRef,
         String subTypeDescr,
         DeviceProviderKind subTypeKind
     )
@@ -89,11 +102,13 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             subTypeDescr,
             subTypeKind
         );
+        loopDeviceManager = loopDeviceManagerRef;
     }
 
     @Inject
@@ -103,8 +118,10 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
         @DeviceManagerContext AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
-        Provider<TransactionMgr> transMgrProvider
+        Provider<TransactionMgr> transMgrProvider,
+        LoopDeviceManager loopDeviceManagerRef
     )
     {
         super(
@@ -113,11 +130,13 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             "FILE",
             DeviceProviderKind.FILE
         );
+        loopDeviceManager = loopDeviceManagerRef;
     }
 
     @Override
@@ -242,12 +261,7 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
     protected void createLoopDevice(FileData<Resource> fileData, Path backingFile)
         throws StorageException, DatabaseException
     {
-        String loDev = new String(
-            LosetupCommands.attach(
-                extCmdFactory.create(),
-                backingFile
-            )
-            .stdoutData).trim();
+        String loDev = loopDeviceManager.attach(backingFile);
 
         LOSETUP_DEVICES.put(loDev, backingFile.toString());
         fileData.setDevicePath(loDev);
@@ -276,50 +290,97 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
         String devicePath = fileData.getDevicePath();
         Path storageDirectory = fileData.getStorageDirectory();
 
-        if (true)
-        {
-            wipeHandler.quickWipe(devicePath);
-            LosetupCommands.detach(extCmdFactory.create(), devicePath);
-            FileCommands.delete(
-                storageDirectory,
-                oldId
-            );
-            fileData.setExists(false);
-        }
-        else
-        {
-            // TODO use this path once async wiping is implemened
-
-            // just make sure to not colide with any other ongoing wipe-lv-name
-            String newId = String.format(FORMAT_ID_WIPE_IN_PROGRESS, UUID.randomUUID().toString());
-            FileCommands.rename(
-                storageDirectory,
-                oldId,
-                newId
-            );
+        // just make sure to not colide with any other ongoing wipe-lv-name
+        String newId = String.format(FORMAT_ID_WIPE_IN_PROGRESS, UUID.randomUUID().toString());
+        FileCommands.rename(
+            storageDirectory,
+            oldId,
+            newId
+        );
+
+        fileData.setExists(false);
+
+        // the renamed file keeps its space allocated and the loop device stays attached until the wipe finished
+        wipeAndDelete(devicePath, true, storageDirectory, newId);
+
+        LOSETUP_DEVICES.remove(devicePath);
+    }
 
-            wipeHandler.asyncWipe(
-                devicePath,
-                ignored ->
+    /**
+     * @param devicePath the attached loop device, or the file itself if no loop device is attached
+     * @param detach whether the loop device has to be detached before the file is deleted
+     */
+    private void wipeAndDelete(String devicePath, boolean detach, Path storageDirectory, String id)
+    {
+        // the notifier is called again if it fails, the loop device must only be detached once
+        AtomicBoolean detached = new AtomicBoolean(!detach);
+        wipeHandler.asyncWipe(
+            devicePath,
+            storageDirectory.toString(),
+            ignored ->
+            {
+                if (!detached.get())
+                {
+                    loopDeviceManager.detach(devicePath);
+                    detached.set(true);
+                }
+                FileCommands.delete(
+                    storageDirectory,
+                    id
+                );
+                if (Files.exists(storageDirectory.resolve(id)))
                 {
-                    try
+                    throw new StorageException("Failed to delete wiped file '" + storageDirectory.resolve(id) + "'");
+                }
+            }
+        );
+    }
+
+    /**
+     * Wipes and deletes the files that were renamed for being wiped, but whose wipe was interrupted by a restart of
+     * the satellite. Each storage directory is only checked once.
+     */
+    @Override
+    public void resumeInterruptedWipes(StorPool storPool) throws StorageException
+    {
+        Path storageDirectory = getStorageDirectory(storPool);
+        if (!wipeResumedStorageDirectories.contains(storageDirectory) && Files.isDirectory(storageDirectory))
+        {
+            // the info of all attached loop devices, by the path of their backing file
+            Map<String, FileInfo> infoList = loopDeviceManager.getInfoList();
+            try (
+                DirectoryStream<Path> wipeFiles = Files.newDirectoryStream(
+                    storageDirectory,
+                    "*" + ID_WIPE_IN_PROGRESS_SUFFIX
+                )
+            )
+            {
+                for (Path wipeFile : wipeFiles)
+                {
+                    errorReporter.logInfo("Resuming the interrupted wipe of file '%s'", wipeFile);
+                    String id = wipeFile.getFileName().toString();
+                    FileInfo info = infoList.get(wipeFile.toString());
+                    if (info != null)
                     {
-                        LosetupCommands.detach(extCmdFactory.create(), devicePath);
-                        FileCommands.delete(
-                            storageDirectory,
-                            newId
-                        );
-                        fileData.setExists(false);
+                        String loDev = info.loPath.toString();
+                        LOSETUP_DEVICES.remove(loDev);
+                        wipeAndDelete(loDev, true, storageDirectory, id);
                     }
-                    catch (DatabaseException exc)
+                    else
                     {
-                        throw new ImplementationError(exc);
+                        wipeAndDelete(wipeFile.toString(), false, storageDirectory, id);
                     }
                 }
-            );
+            }
+            catch (IOException ioExc)
+            {
+                throw new StorageException(
+                    "Failed to list the files that are being wiped in " + storageDirectory,
+                    ioExc
+                );
+            }
+            wipeResumedStorageDirectories.add(storageDirectory);
         }
-
-        LOSETUP_DEVICES.remove(devicePath);
     }
 
     @Override
@@ -470,7 +531,7 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
             );
         }
 
-        Map<String, FileInfo> infoList = FileUtils.getInfoList(extCmdFactory.create());
+        Map<String, FileInfo> infoList = loopDeviceManager.getInfoList();
         for (Entry<String, FileInfo> entry : infoList.entrySet())
         {
             String backingFile = entry.getKey();
@@ -679,6 +740,7 @@ public class FileProvider extends AbsStorageProvider<FileInfo, FileData<Resource
             throw new StorageException("Failed to move " + LODEV_FILE_TMP + " to " + LODEV_FILE, exc);
         }
 
+        loopDeviceManager.invalidateCache();
         super.clearCache();
     }
 
@@ -13,6 +13,7 @@ import com.linbit.linstor.storage.data.provider.file.FileData;
 import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.layer.DeviceLayer.NotificationListener;
 import com.linbit.linstor.storage.layer.provider.WipeHandler;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.FileCommands;
 import com.linbit.linstor.storage.utils.LosetupCommands;
 import com.linbit.linstor.transaction.TransactionMgr;
@@ -33,8 +34,10 @@ public class FileThinProvider extends FileProvider
         @DeviceManagerContext AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
-        Provider<TransactionMgr> transMgrProvider
+        Provider<TransactionMgr> transMgrProvider,
+        LoopDeviceManager loopDeviceManager
     )
     {
         super(
@@ -43,8 +46,10 @@ public class FileThinProvider extends FileProvider
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
+            loopDeviceManager,
             "FILE THIN",
             DeviceProviderKind.FILE_THIN
         );
@@ -56,7 +61,6 @@ public class FileThinProvider extends FileProvider
     {
         Path backingFile = fileData.getStorageDirectory().resolve(fileData.getIdentifier());
         FileCommands.createThin(
-            extCmdFactory.create(),
             backingFile,
             fileData.getExepectedSize()
         );
@@ -69,7 +73,6 @@ public class FileThinProvider extends FileProvider
     {
         // no special command for resize, just "re-allocate" to the needed size
         FileCommands.createThin(
-            extCmdFactory.create(),
             fileData.getStorageDirectory().resolve(fileData.getIdentifier()),
             fileData.getExepectedSize()
         );
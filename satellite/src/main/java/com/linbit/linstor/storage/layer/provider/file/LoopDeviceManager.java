@@ -0,0 +1,141 @@
+package com.linbit.linstor.storage.layer.provider.file;
+
+import com.linbit.extproc.ExtCmdFactory;
+import com.linbit.linstor.storage.StorageException;
+import com.linbit.linstor.storage.utils.FileUtils.FileInfo;
+import com.linbit.linstor.storage.utils.LosetupCommands;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Keeps track of the attached loop devices and their backing files.
+ *
+ * The inventory is read from sysfs ({@code /sys/block/loop<N>/loop/backing_file}) instead of running
+ * "{@code losetup -l}", and is cached until {@link #invalidateCache()} is called, so that the file providers share
+ * a single scan per device manager run. Attaching and detaching loop devices still runs "{@code losetup}", and
+ * updates the cached inventory.
+ */
+@Singleton
+public class LoopDeviceManager
+{
+    private static final Path SYS_BLOCK = Paths.get("/sys/block");
+    private static final Path DEV = Paths.get("/dev");
+    private static final String LOOP_DEVICE_GLOB = "loop*";
+    private static final String BACKING_FILE = "loop/backing_file";
+    // appended by the kernel if the backing file was deleted while attached
+    private static final String DELETED_SUFFIX = " (deleted)";
+
+    private final ExtCmdFactory extCmdFactory;
+
+    // Guarded by this; backing file -> loop device, null until the sysfs was scanned
+    private Map<String, Path> loopDevices;
+
+    @Inject
+    public LoopDeviceManager(ExtCmdFactory extCmdFactoryRef)
+    {
+        extCmdFactory = extCmdFactoryRef;
+    }
+
+    /**
+     * @return the info of all attached loop devices, by the path of their backing file
+     */
+    public synchronized Map<String, FileInfo> getInfoList() throws StorageException
+    {
+        if (loopDevices == null)
+        {
+            loopDevices = scanLoopDevices(SYS_BLOCK, DEV);
+        }
+
+        Map<String, FileInfo> infoList = new HashMap<>();
+        for (Entry<String, Path> entry : loopDevices.entrySet())
+        {
+            infoList.put(entry.getKey(), new FileInfo(entry.getValue(), Paths.get(entry.getKey())));
+        }
+        return infoList;
+    }
+
+    /**
+     * @return the path of the attached loop device
+     */
+    public synchronized String attach(Path backingFile) throws StorageException
+    {
+        String loDev = new String(LosetupCommands.attach(extCmdFactory.create(), backingFile).stdoutData).trim();
+        if (loopDevices != null)
+        {
+            loopDevices.put(backingFile.toString(), Paths.get(loDev));
+        }
+        return loDev;
+    }
+
+    public synchronized void detach(String loDev) throws StorageException
+    {
+        LosetupCommands.detach(extCmdFactory.create(), loDev);
+        if (loopDevices != null)
+        {
+            loopDevices.values().remove(Paths.get(loDev));
+        }
+    }
+
+    public synchronized void invalidateCache()
+    {
+        loopDevices = null;
+    }
+
+    static Map<String, Path> scanLoopDevices(Path sysBlock, Path dev) throws StorageException
+    {
+        Map<String, Path> scannedLoopDevices = new HashMap<>();
+        try (DirectoryStream<Path> loopDirs = Files.newDirectoryStream(sysBlock, LOOP_DEVICE_GLOB))
+        {
+            for (Path loopDir : loopDirs)
+            {
+                String backingFile = readBackingFile(loopDir.resolve(BACKING_FILE));
+                if (backingFile != null && !backingFile.endsWith(DELETED_SUFFIX))
+                {
+                    scannedLoopDevices.put(backingFile, dev.resolve(loopDir.getFileName().toString()));
+                }
+            }
+        }
+        catch (IOException ioExc)
+        {
+            throw new StorageException("Failed to list loop back devices in " + sysBlock, ioExc);
+        }
+        return scannedLoopDevices;
+    }
+
+    /**
+     * @return the backing file, or null if the loop device is not attached
+     */
+    private static String readBackingFile(Path backingFilePath) throws IOException
+    {
+        String backingFile = null;
+        try
+        {
+            backingFile = new String(Files.readAllBytes(backingFilePath), StandardCharsets.UTF_8);
+            if (backingFile.endsWith("\n"))
+            {
+                backingFile = backingFile.substring(0, backingFile.length() - 1);
+            }
+            if (backingFile.isEmpty())
+            {
+                backingFile = null;
+            }
+        }
+        catch (NoSuchFileException ignored)
+        {
+            // the backing_file entry only exists while the loop device is attached
+        }
+        return backingFile;
+    }
+}
@@ -31,6 +31,7 @@ import com.linbit.linstor.storage.layer.provider.AbsStorageProvider;
 import com.linbit.linstor.storage.layer.provider.WipeHandler;
 import com.linbit.linstor.storage.layer.provider.utils.StorageConfigReader;
 import com.linbit.linstor.storage.utils.DeviceLayerUtils;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.LvmCommands;
 import com.linbit.linstor.storage.utils.LvmUtils;
 import com.linbit.linstor.storage.utils.LvmUtils.LvsInfo;
@@ -58,19 +59,27 @@ public class LvmProvider extends AbsStorageProvider<LvsInfo, LvmData<Resource>,
     // FIXME: FORMAT should be private, only made public for LayeredSnapshotHelper
     public static final String FORMAT_RSC_TO_LVM_ID = "%s%s_%05d";
     public static final String FORMAT_SNAP_TO_LVM_ID = FORMAT_RSC_TO_LVM_ID + "_%s";
-    private static final String FORMAT_LVM_ID_WIPE_IN_PROGRESS = "%s-linstor_wiping_in_progress-%d";
+    private static final String LVM_ID_WIPE_IN_PROGRESS_MARKER = "-linstor_wiping_in_progress-";
+    private static final String FORMAT_LVM_ID_WIPE_IN_PROGRESS = "%s" + LVM_ID_WIPE_IN_PROGRESS_MARKER + "%s-%d";
     private static final String FORMAT_DEV_PATH = "/dev/%s/%s";
 
     private static final String DFLT_LVCREATE_TYPE = "linear";
 
+    // The start time of the satellite is part of the names of the volumes that are being wiped, so that the
+    // names do not collide with the names of volumes whose wipe was interrupted by a restart of the satellite
+    private static final String DELETED_ID_EPOCH = Long.toHexString(System.currentTimeMillis());
     private static final AtomicLong DELETED_ID = new AtomicLong(0);
 
+    // Volume groups that were checked for volumes whose wipe was interrupted by a restart of the satellite
+    private final Set<String> wipeResumedVolumeGroups = new HashSet<>();
+
     protected LvmProvider(
         ErrorReporter errorReporter,
         ExtCmdFactory extCmdFactory,
         AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
         Provider<TransactionMgr> transMgrProvider,
         String subTypeDescr,
@@ -83,6 +92,7 @@ public class LvmProvider extends AbsStorageProvider<LvsInfo, LvmData<Resource>,
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             subTypeDescr,
@@ -97,6 +107,7 @@ public class LvmProvider extends AbsStorageProvider<LvsInfo, LvmData<Resource>,
         @DeviceManagerContext AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
         Provider<TransactionMgr> transMgrProvider
     )
@@ -107,6 +118,7 @@ public class LvmProvider extends AbsStorageProvider<LvsInfo, LvmData<Resource>,
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             "LVM",
@@ -291,48 +303,75 @@ public class LvmProvider extends AbsStorageProvider<LvsInfo, LvmData<Resource>,
         String devicePath = vlmData.getDevicePath();
         String volumeGroup = vlmData.getVolumeGroup();
 
-        if (true)
-        {
-            wipeHandler.quickWipe(devicePath);
-            LvmCommands.delete(extCmdFactory.create(), volumeGroup, oldLvmId);
-            vlmData.setExists(false);
-        }
-        else
-        {
-            // TODO use this path once async wiping is implemented
+        // devicePath is the "current" devicePath. as we will rename it right now
+        // we will have to adjust the devicePath
+        int lastIndexOf = devicePath.lastIndexOf(oldLvmId);
+
+        // just make sure to not colide with any other ongoing wipe-lv-name
+        String newLvmId = String.format(
+            FORMAT_LVM_ID_WIPE_IN_PROGRESS,
+            asLvIdentifier(vlmData),
+            DELETED_ID_EPOCH,
+            DELETED_ID.incrementAndGet()
+        );
+        devicePath = devicePath.substring(0, lastIndexOf) + newLvmId;
 
-            // devicePath is the "current" devicePath. as we will rename it right now
-            // we will have to adjust the devicePath
-            int lastIndexOf = devicePath.lastIndexOf(oldLvmId);
+        LvmCommands.rename(
+            extCmdFactory.create(),
+            volumeGroup,
+            oldLvmId,
+            newLvmId
+        );
 
-            // just make sure to not colide with any other ongoing wipe-lv-name
-            String newLvmId = String.format(
-                FORMAT_LVM_ID_WIPE_IN_PROGRESS,
-                asLvIdentifier(vlmData),
-                DELETED_ID.incrementAndGet()
-            );
-            devicePath = devicePath.substring(0, lastIndexOf) + newLvmId;
+        vlmData.setExists(false);
 
-            LvmCommands.rename(
-                extCmdFactory.create(),
-                volumeGroup,
-                oldLvmId,
-                newLvmId
-            );
+        // the renamed volume keeps its space allocated until the wipe finished
+        wipeAndDelete(devicePath, volumeGroup, newLvmId);
+    }
 
-            vlmData.setExists(false);
+    private void wipeAndDelete(String devicePath, String volumeGroup, String lvmId)
+    {
+        wipeHandler.asyncWipe(
+            devicePath,
+            volumeGroup,
+            ignored ->
+            {
+                LvmCommands.delete(
+                    extCmdFactory.create(),
+                    volumeGroup,
+                    lvmId
+                );
+            }
+        );
+    }
 
-            wipeHandler.asyncWipe(
-                devicePath,
-                ignored ->
+    /**
+     * Wipes and deletes the volumes that were renamed for being wiped, but whose wipe was interrupted by a restart
+     * of the satellite. Each volume group is only checked once.
+     */
+    @Override
+    public void resumeInterruptedWipes(StorPool storPool) throws StorageException
+    {
+        String volumeGroup = getVolumeGroup(storPool);
+        if (volumeGroup != null && !wipeResumedVolumeGroups.contains(volumeGroup))
+        {
+            Map<String, LvsInfo> lvsInfos = LvmUtils.getLvsInfo(
+                extCmdFactory.create(),
+                Collections.singleton(volumeGroup)
+            );
+            for (LvsInfo info : lvsInfos.values())
+            {
+                if (info.volumeGroup.equals(volumeGroup) && info.identifier.contains(LVM_ID_WIPE_IN_PROGRESS_MARKER))
                 {
-                    LvmCommands.delete(
-                        extCmdFactory.create(),
-                        volumeGroup,
-                        newLvmId
+                    errorReporter.logInfo(
+                        "Resuming the interrupted wipe of volume '%s/%s'",
+                        info.volumeGroup,
+                        info.identifier
                     );
+                    wipeAndDelete(info.path, info.volumeGroup, info.identifier);
                 }
-            );
+            }
+            wipeResumedVolumeGroups.add(volumeGroup);
         }
     }
 
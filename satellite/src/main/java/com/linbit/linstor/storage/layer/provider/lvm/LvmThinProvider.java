@@ -19,6 +19,7 @@ import com.linbit.linstor.storage.data.provider.lvm.LvmThinData;
 import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.layer.DeviceLayer.NotificationListener;
 import com.linbit.linstor.storage.layer.provider.WipeHandler;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.LvmCommands;
 import com.linbit.linstor.storage.utils.LvmUtils;
 import com.linbit.linstor.storage.utils.LvmUtils.LvsInfo;
@@ -41,6 +42,7 @@ public class LvmThinProvider extends LvmProvider
         @DeviceManagerContext AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
         Provider<TransactionMgr> transMgrProvider
     )
@@ -51,6 +53,7 @@ public class LvmThinProvider extends LvmProvider
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             "LVM-Thin",
@@ -116,6 +119,12 @@ public class LvmThinProvider extends LvmProvider
         lvmVlmData.setExists(false);
     }
 
+    @Override
+    public void resumeInterruptedWipes(StorPool storPool)
+    {
+        // thin volumes are deleted without being wiped
+    }
+
     @Override
     protected boolean snapshotExists(LvmData<Snapshot> snapVlmRef)
         throws StorageException, AccessDeniedException, DatabaseException
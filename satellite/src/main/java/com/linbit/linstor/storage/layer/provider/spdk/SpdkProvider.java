@@ -32,6 +32,7 @@ import com.linbit.linstor.storage.layer.provider.AbsStorageProvider;
 import com.linbit.linstor.storage.layer.provider.WipeHandler;
 import com.linbit.linstor.storage.layer.provider.utils.SpdkConfigReader;
 import com.linbit.linstor.storage.utils.DeviceLayerUtils;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.SpdkCommands;
 import com.linbit.linstor.storage.utils.SpdkUtils;
 import com.linbit.linstor.storage.utils.SpdkUtils.LvsInfo;
@@ -70,6 +71,7 @@ public class SpdkProvider extends AbsStorageProvider<LvsInfo, SpdkData<Resource>
         AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
         Provider<TransactionMgr> transMgrProvider,
         String subTypeDescr,
@@ -82,6 +84,7 @@ public class SpdkProvider extends AbsStorageProvider<LvsInfo, SpdkData<Resource>
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             subTypeDescr,
@@ -96,6 +99,7 @@ public class SpdkProvider extends AbsStorageProvider<LvsInfo, SpdkData<Resource>
         @DeviceManagerContext AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
         Provider<TransactionMgr> transMgrProvider
     )
@@ -106,6 +110,7 @@ public class SpdkProvider extends AbsStorageProvider<LvsInfo, SpdkData<Resource>
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             "SPDK",
@@ -0,0 +1,90 @@
+package com.linbit.linstor.storage.layer.provider.zfs;
+
+import com.linbit.extproc.ExtCmdFactory;
+import com.linbit.linstor.storage.StorageException;
+import com.linbit.linstor.storage.utils.ZfsUtils;
+import com.linbit.linstor.storage.utils.ZfsUtils.ZfsInventory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Shares one {@link ZfsInventory} between the {@link ZfsProvider} and the {@link ZfsThinProvider} within a device
+ * manager run, so that each run only lists the zfs datasets and zpools once, regardless of the number of volumes,
+ * snapshots and storage pools.
+ *
+ * The inventory is queried on first use within a run, and the providers invalidate it whenever they modify a
+ * dataset, so that it is queried again on the next use. At the end of each run the providers clear the cache, and
+ * queries outside of a run (e.g. free space requests from the controller) are not cached, so that the next run
+ * never starts with an outdated inventory.
+ */
+@Singleton
+public class ZfsInventoryCache
+{
+    private final ExtCmdFactory extCmdFactory;
+
+    // Guarded by this; null until queried
+    private ZfsInventory inventory;
+    // Guarded by this; true from the first use of the inventory by a device manager run until the end of the run
+    private boolean runActive;
+
+    @Inject
+    public ZfsInventoryCache(ExtCmdFactory extCmdFactoryRef)
+    {
+        extCmdFactory = extCmdFactoryRef;
+    }
+
+    /**
+     * Must only be called by device manager runs
+     *
+     * @return the cached inventory, which is queried and cached first if necessary
+     */
+    public synchronized ZfsInventory get() throws StorageException
+    {
+        runActive = true;
+        if (inventory == null)
+        {
+            inventory = query();
+        }
+        return inventory;
+    }
+
+    /**
+     * @return the cached inventory, or a newly queried inventory which is only cached during a device manager run
+     */
+    public synchronized ZfsInventory getCachedOrQuery() throws StorageException
+    {
+        ZfsInventory ret = inventory;
+        if (ret == null)
+        {
+            ret = query();
+            if (runActive)
+            {
+                inventory = ret;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Called after a dataset was created, modified or deleted
+     */
+    public synchronized void invalidate()
+    {
+        inventory = null;
+    }
+
+    /**
+     * Called at the end of a device manager run
+     */
+    public synchronized void clearCache()
+    {
+        inventory = null;
+        runActive = false;
+    }
+
+    private ZfsInventory query() throws StorageException
+    {
+        return ZfsUtils.getZfsInventory(extCmdFactory.create(), extCmdFactory.create());
+    }
+}
@@ -26,10 +26,12 @@ import com.linbit.linstor.storage.layer.DeviceLayer.NotificationListener;
 import com.linbit.linstor.storage.layer.provider.AbsStorageProvider;
 import com.linbit.linstor.storage.layer.provider.WipeHandler;
 import com.linbit.linstor.storage.utils.DeviceLayerUtils;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.PmemUtils;
 import com.linbit.linstor.storage.utils.ZfsCommands;
 import com.linbit.linstor.storage.utils.ZfsUtils;
 import com.linbit.linstor.storage.utils.ZfsUtils.ZfsInfo;
+import com.linbit.linstor.storage.utils.ZfsUtils.ZfsInventory;
 import com.linbit.linstor.transaction.TransactionMgr;
 
 import javax.inject.Inject;
@@ -37,7 +39,6 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import java.io.File;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,14 +59,18 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
 
     private Map<StorPool, Long> extentSizes = new TreeMap<>();
 
+    protected final ZfsInventoryCache zfsInventoryCache;
+
     protected ZfsProvider(
         ErrorReporter errorReporter,
         ExtCmdFactory extCmdFactory,
         AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
         Provider<TransactionMgr> transMgrProvider,
+        ZfsInventoryCache zfsInventoryCacheRef,
         String subTypeDescr,
         DeviceProviderKind kind
     )
@@ -76,11 +81,13 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             subTypeDescr,
             kind
         );
+        zfsInventoryCache = zfsInventoryCacheRef;
     }
 
     @Inject
@@ -90,8 +97,10 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
         @DeviceManagerContext AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
-        Provider<TransactionMgr> transMgrProvider
+        Provider<TransactionMgr> transMgrProvider,
+        ZfsInventoryCache zfsInventoryCacheRef
     )
     {
         super(
@@ -100,11 +109,13 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
             "ZFS",
             DeviceProviderKind.ZFS
         );
+        zfsInventoryCache = zfsInventoryCacheRef;
     }
 
     @Override
@@ -112,12 +123,19 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
     {
         super.clearCache();
         extentSizes.clear();
+        zfsInventoryCache.clearCache();
     }
 
     @Override
     protected Map<String, Long> getFreeSpacesImpl() throws StorageException
     {
-        return ZfsUtils.getZPoolFreeSize(extCmdFactory.create(), changedStoragePoolStrings);
+        ZfsInventory inventory = zfsInventoryCache.get();
+        Map<String, Long> freeSizes = new HashMap<>();
+        for (String zPool : changedStoragePoolStrings)
+        {
+            freeSizes.put(zPool, inventory.getFreeSize(zPool));
+        }
+        return freeSizes;
     }
 
     @Override
@@ -127,7 +145,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
     )
         throws StorageException
     {
-        return ZfsUtils.getZfsList(extCmdFactory.create());
+        return zfsInventoryCache.get().volumes;
     }
 
     @Override
@@ -192,6 +210,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             vlmData.getExepectedSize(),
             false
         );
+        zfsInventoryCache.invalidate();
     }
 
     protected long roundUpToExtentSize(long sizeRef)
@@ -223,6 +242,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             asLvIdentifier(vlmData),
             vlmData.getExepectedSize()
         );
+        zfsInventoryCache.invalidate();
     }
 
     @Override
@@ -234,6 +254,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             vlmData.getZPool(),
             lvId
         );
+        zfsInventoryCache.invalidate();
         vlmData.setExists(false);
     }
 
@@ -255,6 +276,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             asLvIdentifier(vlmData),
             snapVlm.getVolume().getAbsResource().getSnapshotName().displayValue
         );
+        zfsInventoryCache.invalidate();
     }
 
     @Override
@@ -268,6 +290,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             sourceSnapName,
             asLvIdentifier(targetVlmData)
         );
+        zfsInventoryCache.invalidate();
     }
 
     @Override
@@ -279,6 +302,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             getZPool(snapVlmRef.getStorPool()),
             asSnapLvIdentifier(snapVlmRef)
         );
+        zfsInventoryCache.invalidate();
     }
 
     @Override
@@ -291,6 +315,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             asLvIdentifier(vlmData),
             rollbackTargetSnapshotName
         );
+        zfsInventoryCache.invalidate();
     }
 
     @Override
@@ -333,8 +358,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
             );
         }
         zpoolName = zpoolName.trim();
-        HashMap<String, ZfsInfo> zfsPoolMap = ZfsUtils.getThinZPoolsList(extCmdFactory.create());
-        if (!zfsPoolMap.containsKey(zpoolName))
+        if (!zfsInventoryCache.getCachedOrQuery().filesystems.containsKey(zpoolName))
         {
             throw new StorageException("no zpool found with name '" + zpoolName + "'");
         }
@@ -383,10 +407,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
         String rootPoolName = poolName.substring(0, idx);
 
         // do not use sub pool, we have to ask the actual zpool, not the sub dataset
-        return ZfsUtils.getZPoolTotalSize(
-            extCmdFactory.create(),
-            Collections.singleton(rootPoolName)
-        ).get(rootPoolName);
+        return zfsInventoryCache.getCachedOrQuery().getZPoolSize(rootPoolName);
     }
 
     @Override
@@ -397,10 +418,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
         {
             throw new StorageException("Unset zpool for " + storPool);
         }
-        return ZfsUtils.getZPoolFreeSize(
-            extCmdFactory.create(),
-            Collections.singleton(zPool)
-        ).get(zPool);
+        return zfsInventoryCache.getCachedOrQuery().getFreeSize(zPool);
     }
 
     @Override
@@ -439,11 +457,7 @@ public class ZfsProvider extends AbsStorageProvider<ZfsInfo, ZfsData<Resource>,
                     }
                     else
                     {
-                        long extentSize = ZfsUtils.getZfsExtentSize(
-                            extCmdFactory.create(),
-                            info.poolName,
-                            info.identifier
-                        );
+                        long extentSize = info.volBlockSize;
                         vlmData.setSizeState(Size.TOO_LARGE);
                         final long toleratedSize =
                             expectedSize + extentSize * TOLERANCE_FACTOR;
@@ -18,18 +18,14 @@ import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.layer.DeviceLayer.NotificationListener;
 import com.linbit.linstor.storage.layer.provider.WipeHandler;
 import com.linbit.linstor.storage.utils.DeviceLayerUtils;
+import com.linbit.linstor.storage.utils.DeviceNodeWatcher;
 import com.linbit.linstor.storage.utils.ZfsCommands;
-import com.linbit.linstor.storage.utils.ZfsUtils;
-import com.linbit.linstor.storage.utils.ZfsUtils.ZfsInfo;
 import com.linbit.linstor.transaction.TransactionMgr;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
-import java.util.Collections;
-import java.util.HashMap;
-
 @Singleton
 public class ZfsThinProvider extends ZfsProvider
 {
@@ -40,8 +36,10 @@ public class ZfsThinProvider extends ZfsProvider
         @DeviceManagerContext AccessContext storDriverAccCtx,
         StltConfigAccessor stltConfigAccessor,
         WipeHandler wipeHandler,
+        DeviceNodeWatcher deviceNodeWatcher,
         Provider<NotificationListener> notificationListenerProvider,
-        Provider<TransactionMgr> transMgrProvider
+        Provider<TransactionMgr> transMgrProvider,
+        ZfsInventoryCache zfsInventoryCache
     )
     {
         super(
@@ -50,8 +48,10 @@ public class ZfsThinProvider extends ZfsProvider
             storDriverAccCtx,
             stltConfigAccessor,
             wipeHandler,
+            deviceNodeWatcher,
             notificationListenerProvider,
             transMgrProvider,
+            zfsInventoryCache,
             "ZFS-Thin",
             DeviceProviderKind.ZFS_THIN
         );
@@ -68,6 +68,7 @@ public class ZfsThinProvider extends ZfsProvider
             vlmData.getExepectedSize(),
             true
         );
+        zfsInventoryCache.invalidate();
     }
 
     @Override
@@ -99,8 +100,7 @@ public class ZfsThinProvider extends ZfsProvider
             );
         }
         thinZpoolName = thinZpoolName.trim();
-        HashMap<String, ZfsInfo> zfsList = ZfsUtils.getThinZPoolsList(extCmdFactory.create());
-        if (!zfsList.containsKey(thinZpoolName))
+        if (!zfsInventoryCache.getCachedOrQuery().filesystems.containsKey(thinZpoolName))
         {
             throw new StorageException("no zfs dataset found with name '" + thinZpoolName + "'");
         }
@@ -112,10 +112,7 @@ public class ZfsThinProvider extends ZfsProvider
         String zPoolName = getZpoolOnlyName(storPool);
 
         // do not use the thin version, we have to ask the actual zpool, not the thin "pool"
-        return ZfsUtils.getZPoolTotalSize(
-            extCmdFactory.create(),
-            Collections.singleton(zPoolName)
-        ).get(zPoolName);
+        return zfsInventoryCache.getCachedOrQuery().getZPoolSize(zPoolName);
     }
 
     @Override
@@ -127,8 +124,6 @@ public class ZfsThinProvider extends ZfsProvider
             throw new StorageException("Unset thin zfs dataset for " + storPool);
         }
 
-        return ZfsUtils.getThinZPoolsList(
-            extCmdFactory.create()
-        ).get(thinZpoolName).usableSize;
+        return zfsInventoryCache.getCachedOrQuery().getFreeSize(thinZpoolName);
     }
 }
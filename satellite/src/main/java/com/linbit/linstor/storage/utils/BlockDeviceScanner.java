@@ -0,0 +1,353 @@
+package com.linbit.linstor.storage.utils;
+
+import com.linbit.fsevent.DirectoryObserver;
+import com.linbit.fsevent.FileSystemWatch;
+import com.linbit.fsevent.FileSystemWatch.DirectoryEntry;
+import com.linbit.fsevent.FileSystemWatch.Event;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.storage.LsBlkEntry;
+import com.linbit.linstor.storage.StorageException;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lists the block devices of this node with the same information as "{@code lsblk}" and "{@code blkid}" without
+ * running them, by reading {@code /sys/class/block} and the udev database.
+ *
+ * The scan is cached until a device node is created in or deleted from {@code /dev}, or the udev database changes,
+ * which is detected using the {@link FileSystemWatch}. If the watch loses events, the cached scan is dropped as
+ * well. As a safety net against any other missed change, the cached scan is never used for longer than
+ * {@link #SCAN_TTL_MILLIS}.
+ */
+@Singleton
+public class BlockDeviceScanner
+{
+    private static final Path SYS_CLASS_BLOCK = Paths.get("/sys/class/block");
+    private static final Path UDEV_DATA = Paths.get("/run/udev/data");
+    private static final Path DEV = Paths.get("/dev");
+
+    private static final long SCAN_TTL_MILLIS = 60_000L;
+
+    private static final long SECTOR_SIZE = 512;
+    // lsblk does not list RAM disks by default
+    private static final int MAJOR_RAM_DISK = 1;
+
+    private static final String UDEV_PROPERTY_PREFIX = "E:";
+    private static final String UDEV_FS_TYPE = "ID_FS_TYPE";
+    private static final String UDEV_PART_TABLE_TYPE = "ID_PART_TABLE_TYPE";
+    private static final String UDEV_SERIAL_SHORT = "ID_SERIAL_SHORT";
+    private static final String UDEV_WWN_WITH_EXTENSION = "ID_WWN_WITH_EXTENSION";
+    private static final String UDEV_WWN = "ID_WWN";
+
+    private final ErrorReporter errorReporter;
+    private final FileSystemWatch fsWatch;
+
+    // Guarded by this; null if there is no up to date scan
+    private Scan cachedScan;
+    // Guarded by this; System.currentTimeMillis() when the cached scan was taken
+    private long cachedScanTimestamp;
+    // Guarded by this; true once the watches that invalidate the cached scan are registered
+    private boolean watching;
+
+    @Inject
+    public BlockDeviceScanner(ErrorReporter errorReporterRef, FileSystemWatch fsWatchRef)
+    {
+        errorReporter = errorReporterRef;
+        fsWatch = fsWatchRef;
+    }
+
+    /**
+     * @return all block devices, like "{@code lsblk}"
+     */
+    public List<LsBlkEntry> getBlockDevices() throws StorageException
+    {
+        return getScan().entries;
+    }
+
+    /**
+     * @return the block devices that could be used for a new storage pool, see
+     *     {@link LsBlkUtils#filterDeviceCandidates(List, Set)}
+     */
+    public List<LsBlkEntry> getDeviceCandidates() throws StorageException
+    {
+        Scan scan = getScan();
+        return LsBlkUtils.filterDeviceCandidates(scan.entries, scan.signatureDeviceNames);
+    }
+
+    private synchronized Scan getScan() throws StorageException
+    {
+        long now = System.currentTimeMillis();
+        Scan scan = cachedScan;
+        if (scan == null || now - cachedScanTimestamp >= SCAN_TTL_MILLIS)
+        {
+            // register the watches before the scan, so that no change after the scan is missed
+            watch();
+            scan = scan(SYS_CLASS_BLOCK, UDEV_DATA);
+            if (watching)
+            {
+                cachedScan = scan;
+                cachedScanTimestamp = now;
+            }
+        }
+        return scan;
+    }
+
+    private synchronized void invalidate()
+    {
+        cachedScan = null;
+    }
+
+    // Must be called while holding the lock of this object
+    private void watch()
+    {
+        if (!watching)
+        {
+            List<DirectoryEntry> entries = new ArrayList<>();
+            DirectoryObserver observer = new ScanInvalidator();
+            try
+            {
+                entries.add(fsWatch.newDirectoryEntry(DEV.toString(), Event.CREATE, observer));
+                entries.add(fsWatch.newDirectoryEntry(DEV.toString(), Event.DELETE, observer));
+                if (Files.isDirectory(UDEV_DATA))
+                {
+                    // udev replaces its database files by renaming new files into the directory
+                    entries.add(fsWatch.newDirectoryEntry(UDEV_DATA.toString(), Event.CREATE, observer));
+                    entries.add(fsWatch.newDirectoryEntry(UDEV_DATA.toString(), Event.DELETE, observer));
+                }
+                watching = true;
+            }
+            catch (IOException ioExc)
+            {
+                for (DirectoryEntry entry : entries)
+                {
+                    fsWatch.removeDirectoryEntry(entry);
+                }
+                errorReporter.logWarning(
+                    "Unable to watch %s for changes, block devices will be scanned on every request: %s",
+                    DEV,
+                    ioExc.getMessage()
+                );
+            }
+        }
+    }
+
+    private class ScanInvalidator implements DirectoryObserver
+    {
+        @Override
+        public void directoryEvent(DirectoryEntry ignoredEntry, Path ignoredPath)
+        {
+            invalidate();
+        }
+
+        @Override
+        public void directoryOverflow(DirectoryEntry ignoredEntry)
+        {
+            // changes might have been missed
+            invalidate();
+        }
+    }
+
+    static Scan scan(Path sysClassBlock, Path udevData) throws StorageException
+    {
+        List<String> kernelNames = new ArrayList<>();
+        try (DirectoryStream<Path> devDirs = Files.newDirectoryStream(sysClassBlock))
+        {
+            for (Path devDir : devDirs)
+            {
+                kernelNames.add(devDir.getFileName().toString());
+            }
+        }
+        catch (IOException ioExc)
+        {
+            throw new StorageException("Failed to list block devices in " + sysClassBlock, ioExc);
+        }
+        Collections.sort(kernelNames);
+
+        List<LsBlkEntry> entries = new ArrayList<>();
+        Set<String> signatureDeviceNames = new HashSet<>();
+        for (String kernelName : kernelNames)
+        {
+            try
+            {
+                scanDevice(sysClassBlock, udevData, kernelName, entries, signatureDeviceNames);
+            }
+            catch (NoSuchFileException ignored)
+            {
+                // device was removed during the scan
+            }
+            catch (IOException | NumberFormatException exc)
+            {
+                throw new StorageException("Failed to read the sysfs entries of block device " + kernelName, exc);
+            }
+        }
+        return new Scan(Collections.unmodifiableList(entries), Collections.unmodifiableSet(signatureDeviceNames));
+    }
+
+    private static void scanDevice(
+        Path sysClassBlock,
+        Path udevData,
+        String kernelName,
+        List<LsBlkEntry> entries,
+        Set<String> signatureDeviceNames
+    )
+        throws IOException
+    {
+        Path devDir = sysClassBlock.resolve(kernelName);
+        String majMin = readAttribute(devDir.resolve("dev"));
+        int colonIdx = majMin.indexOf(':');
+        int major = Integer.parseInt(majMin.substring(0, colonIdx));
+        int minor = Integer.parseInt(majMin.substring(colonIdx + 1));
+        long size = Long.parseLong(readAttribute(devDir.resolve("size"))) * SECTOR_SIZE;
+
+        if (major != MAJOR_RAM_DISK && size > 0)
+        {
+            boolean partition = Files.exists(devDir.resolve("partition"));
+            // the directory of a partition is a subdirectory of the directory of its disk
+            Path diskDir = partition ? devDir.toRealPath().getParent() : devDir;
+
+            String name = kernelName;
+            Path dmName = devDir.resolve("dm").resolve("name");
+            if (Files.exists(dmName))
+            {
+                name = readAttribute(dmName);
+            }
+
+            String model = "";
+            if (!partition)
+            {
+                model = readOptionalAttribute(devDir.resolve("device").resolve("model"));
+            }
+            boolean rotational = "1".equals(readOptionalAttribute(diskDir.resolve("queue").resolve("rotational")));
+
+            Map<String, String> udevProps = readUdevProperties(udevData.resolve("b" + majMin));
+            String fsType = udevProps.getOrDefault(UDEV_FS_TYPE, "");
+            String serial = udevProps.getOrDefault(UDEV_SERIAL_SHORT, "");
+            String wwn = udevProps.getOrDefault(
+                UDEV_WWN_WITH_EXTENSION,
+                udevProps.getOrDefault(UDEV_WWN, "")
+            );
+            if (udevProps.containsKey(UDEV_FS_TYPE) || udevProps.containsKey(UDEV_PART_TABLE_TYPE))
+            {
+                signatureDeviceNames.add(name);
+            }
+
+            // like lsblk, list stacked devices (device mapper, md) once per underlying device
+            List<String> parentNames = new ArrayList<>();
+            if (partition)
+            {
+                parentNames.add(diskDir.getFileName().toString());
+            }
+            else
+            {
+                Path slavesDir = devDir.resolve("slaves");
+                if (Files.isDirectory(slavesDir))
+                {
+                    try (DirectoryStream<Path> slaves = Files.newDirectoryStream(slavesDir))
+                    {
+                        for (Path slave : slaves)
+                        {
+                            parentNames.add(slave.getFileName().toString());
+                        }
+                    }
+                    Collections.sort(parentNames);
+                }
+            }
+            if (parentNames.isEmpty())
+            {
+                parentNames.add("");
+            }
+
+            for (String parentName : parentNames)
+            {
+                entries.add(
+                    new LsBlkEntry(
+                        name,
+                        size,
+                        rotational,
+                        parentName,
+                        kernelName,
+                        fsType,
+                        major,
+                        minor,
+                        model,
+                        serial,
+                        wwn
+                    )
+                );
+            }
+        }
+    }
+
+    private static String readAttribute(Path attrPath) throws IOException
+    {
+        return new String(Files.readAllBytes(attrPath), StandardCharsets.UTF_8).trim();
+    }
+
+    private static String readOptionalAttribute(Path attrPath) throws IOException
+    {
+        String value = "";
+        try
+        {
+            value = readAttribute(attrPath);
+        }
+        catch (NoSuchFileException ignored)
+        {
+            // attribute is not provided by the driver of this device
+        }
+        return value;
+    }
+
+    /**
+     * @return the "{@code E:KEY=VALUE}" properties of the udev database file of a device, or an empty map if udev
+     *     has no entry for the device
+     */
+    private static Map<String, String> readUdevProperties(Path udevDataFile) throws IOException
+    {
+        Map<String, String> props = new HashMap<>();
+        try
+        {
+            for (String line : Files.readAllLines(udevDataFile, StandardCharsets.UTF_8))
+            {
+                int eqIdx = line.indexOf('=');
+                if (line.startsWith(UDEV_PROPERTY_PREFIX) && eqIdx != -1)
+                {
+                    props.put(line.substring(UDEV_PROPERTY_PREFIX.length(), eqIdx), line.substring(eqIdx + 1));
+                }
+            }
+        }
+        catch (NoSuchFileException ignored)
+        {
+            // not known to udev, e.g. in a container without udev
+        }
+        return props;
+    }
+
+    static class Scan
+    {
+        final List<LsBlkEntry> entries;
+        // names of the devices that contain a file system, partition table or other signature, like "blkid" lists
+        final Set<String> signatureDeviceNames;
+
+        Scan(List<LsBlkEntry> entriesRef, Set<String> signatureDeviceNamesRef)
+        {
+            entries = entriesRef;
+            signatureDeviceNames = signatureDeviceNamesRef;
+        }
+    }
+}
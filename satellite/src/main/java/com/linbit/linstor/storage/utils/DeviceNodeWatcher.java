@@ -0,0 +1,272 @@
+package com.linbit.linstor.storage.utils;
+
+import com.linbit.ImplementationError;
+import com.linbit.fsevent.DirectoryObserver;
+import com.linbit.fsevent.FileSystemWatch;
+import com.linbit.fsevent.FileSystemWatch.DirectoryEntry;
+import com.linbit.fsevent.FileSystemWatch.Event;
+import com.linbit.fsevent.FileSystemWatch.FileEntry;
+import com.linbit.linstor.storage.StorageException;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Satellite-wide tracking of device nodes that are expected to show up, e.g. after a volume was created or a
+ * device was opened.
+ *
+ * Every expected device gets a future that is completed once the device node exists. Devices in the same directory
+ * share a single {@link FileSystemWatch} registration on that directory, which only exists while devices in that
+ * directory are expected. Devices in directories that do not exist yet (e.g. the first logical volume of a volume
+ * group) are watched individually, as the {@link FileSystemWatch} follows the creation of the missing parent
+ * directories for those.
+ *
+ * This allows to create or open all devices first and wait for all of them afterwards, instead of waiting for
+ * each device in turn.
+ *
+ * If the {@link FileSystemWatch} loses the events of a directory, all devices expected in that directory are
+ * checked again, so that no device is waited for until the timeout although it exists.
+ */
+@Singleton
+public class DeviceNodeWatcher
+{
+    private final FileSystemWatch fsWatch;
+
+    // Guarded by this
+    private final Map<Path, DirWatch> dirWatches = new HashMap<>();
+
+    @Inject
+    public DeviceNodeWatcher(FileSystemWatch fsWatchRef)
+    {
+        fsWatch = fsWatchRef;
+    }
+
+    /**
+     * @return a future that is completed once the given device node exists. Cancelling the future stops watching
+     *     for the device
+     */
+    public CompletableFuture<Void> expectCreated(String devicePath) throws StorageException
+    {
+        final Path path = Paths.get(devicePath);
+        final Path dir = path.getParent();
+        final CompletableFuture<Void> created = new CompletableFuture<>();
+        try
+        {
+            if (dir != null && Files.isDirectory(dir))
+            {
+                addToDirWatch(dir, path, created);
+            }
+            else
+            {
+                FileEntry fileEntry = fsWatch.newFileEntry(
+                    devicePath,
+                    Event.CREATE,
+                    ignored -> created.complete(null)
+                );
+                created.whenComplete((ignored, ignoredExc) -> fsWatch.removeFileEntry(fileEntry));
+            }
+        }
+        catch (IOException exc)
+        {
+            throw new StorageException(
+                "Unable to register file watch event for device '" + devicePath + "' being created",
+                exc
+            );
+        }
+
+        // the device might already have been created before the watch was registered
+        if (Files.exists(path))
+        {
+            created.complete(null);
+        }
+        return created;
+    }
+
+    private void addToDirWatch(Path dir, Path path, CompletableFuture<Void> created) throws IOException
+    {
+        synchronized (this)
+        {
+            DirWatch dirWatch = dirWatches.get(dir);
+            if (dirWatch == null)
+            {
+                dirWatch = new DirWatch();
+                dirWatch.entry = fsWatch.newDirectoryEntry(dir.toString(), Event.CREATE, dirWatch);
+                dirWatches.put(dir, dirWatch);
+            }
+            dirWatch.expected.computeIfAbsent(path, ignored -> new ArrayList<>()).add(created);
+        }
+        created.whenComplete((ignored, ignoredExc) -> removeFromDirWatch(dir, path, created));
+    }
+
+    private synchronized void removeFromDirWatch(Path dir, Path path, CompletableFuture<Void> created)
+    {
+        DirWatch dirWatch = dirWatches.get(dir);
+        if (dirWatch != null)
+        {
+            List<CompletableFuture<Void>> futures = dirWatch.expected.get(path);
+            if (futures != null)
+            {
+                futures.remove(created);
+                if (futures.isEmpty())
+                {
+                    dirWatch.expected.remove(path);
+                }
+            }
+            if (dirWatch.expected.isEmpty())
+            {
+                dirWatches.remove(dir);
+                fsWatch.removeDirectoryEntry(dirWatch.entry);
+            }
+        }
+    }
+
+    /**
+     * Waits until the device node of a future returned by {@link #expectCreated(String)} exists
+     *
+     * @param devicePath the device path given to {@link #expectCreated(String)}
+     * @param created the future returned by {@link #expectCreated(String)}
+     * @param startMillis the time at which the device was expected, i.e. at which the timeout started
+     * @param timeoutMillis the time after startMillis after which waiting fails
+     *
+     * @throws StorageException if the device does not exist after the timeout
+     */
+    public void awaitCreated(
+        String devicePath,
+        CompletableFuture<Void> created,
+        long startMillis,
+        long timeoutMillis
+    )
+        throws StorageException
+    {
+        try
+        {
+            long remaining = startMillis + timeoutMillis - System.currentTimeMillis();
+            created.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException timeoutExc)
+        {
+            created.cancel(false);
+            if (!Files.exists(Paths.get(devicePath)))
+            {
+                throw new StorageException(
+                    "Device '" + devicePath + "' did not show up in " + timeoutMillis + "ms"
+                );
+            }
+        }
+        catch (InterruptedException interruptedExc)
+        {
+            created.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new StorageException(
+                "Interrupted exception while waiting for device '" + devicePath + "' to show up",
+                interruptedExc
+            );
+        }
+        catch (ExecutionException exc)
+        {
+            // the futures are never completed exceptionally
+            throw new ImplementationError(exc);
+        }
+    }
+
+    /**
+     * Waits until all given device nodes exist. The timeout applies to all devices together, not to each device
+     *
+     * @throws StorageException if any of the devices does not exist after the timeout
+     */
+    public void awaitCreated(Collection<String> devicePaths, long timeoutMillis) throws StorageException
+    {
+        long start = System.currentTimeMillis();
+        Map<String, CompletableFuture<Void>> expected = new LinkedHashMap<>();
+        try
+        {
+            for (String devicePath : devicePaths)
+            {
+                expected.put(devicePath, expectCreated(devicePath));
+            }
+            for (Map.Entry<String, CompletableFuture<Void>> entry : expected.entrySet())
+            {
+                awaitCreated(entry.getKey(), entry.getValue(), start, timeoutMillis);
+            }
+        }
+        finally
+        {
+            cancelAll(expected.values());
+        }
+    }
+
+    /**
+     * Stops watching for all devices of the given futures that did not show up yet
+     */
+    public static void cancelAll(Collection<CompletableFuture<Void>> futures)
+    {
+        for (CompletableFuture<Void> future : futures)
+        {
+            future.cancel(false);
+        }
+    }
+
+    private class DirWatch implements DirectoryObserver
+    {
+        // Guarded by the enclosing DeviceNodeWatcher
+        private DirectoryEntry entry;
+        private final Map<Path, List<CompletableFuture<Void>>> expected = new HashMap<>();
+
+        @Override
+        public void directoryEvent(DirectoryEntry ignoredEntry, Path filePath)
+        {
+            List<CompletableFuture<Void>> futures;
+            synchronized (DeviceNodeWatcher.this)
+            {
+                List<CompletableFuture<Void>> expectedFutures = expected.get(filePath);
+                futures = expectedFutures == null ? null : new ArrayList<>(expectedFutures);
+            }
+            if (futures != null)
+            {
+                for (CompletableFuture<Void> future : futures)
+                {
+                    future.complete(null);
+                }
+            }
+        }
+
+        @Override
+        public void directoryOverflow(DirectoryEntry ignoredEntry)
+        {
+            // the creation of any of the expected devices might have been missed
+            Map<Path, List<CompletableFuture<Void>>> expectedCopy = new HashMap<>();
+            synchronized (DeviceNodeWatcher.this)
+            {
+                for (Map.Entry<Path, List<CompletableFuture<Void>>> expectedEntry : expected.entrySet())
+                {
+                    expectedCopy.put(expectedEntry.getKey(), new ArrayList<>(expectedEntry.getValue()));
+                }
+            }
+            for (Map.Entry<Path, List<CompletableFuture<Void>>> expectedEntry : expectedCopy.entrySet())
+            {
+                if (Files.exists(expectedEntry.getKey()))
+                {
+                    for (CompletableFuture<Void> future : expectedEntry.getValue())
+                    {
+                        future.complete(null);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.linbit.linstor.storage.utils;
 
+import com.linbit.SizeConv;
+import com.linbit.SizeConv.SizeUnit;
 import com.linbit.extproc.ExtCmd;
 import com.linbit.extproc.ExtCmd.OutputData;
 import com.linbit.linstor.storage.StorageException;
@@ -7,6 +9,7 @@ import com.linbit.linstor.storage.StorageException;
 import static com.linbit.linstor.storage.layer.provider.utils.Commands.genericExecutor;
 
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.file.Path;
 
 import com.google.common.io.Files;
@@ -33,26 +36,29 @@ public class FileCommands
         );
     }
 
-    public static OutputData createThin(
-        ExtCmd extCmd,
+    /**
+     * Creates a sparse file of the given size, or resizes an existing file. Growing the file does not allocate
+     * any blocks, like "{@code truncate -s}".
+     */
+    public static void createThin(
         Path vlmPath,
         long size
     )
         throws StorageException
     {
-        return genericExecutor(
-            extCmd,
-            new String[] {
-                "truncate",
-                "-s", size + "KiB",
-                vlmPath.toString()
-            },
-            "Failed to create file volume",
-            "Failed to create new file volume '" + vlmPath + "' with size " + size + "kb"
-        );
+        try (RandomAccessFile file = new RandomAccessFile(vlmPath.toFile(), "rw"))
+        {
+            file.setLength(SizeConv.convert(size, SizeUnit.UNIT_KiB, SizeUnit.UNIT_B));
+        }
+        catch (IOException exc)
+        {
+            throw new StorageException(
+                "Failed to create new file volume '" + vlmPath + "' with size " + size + "kb",
+                exc
+            );
+        }
     }
 
-
     public static void rename(
         Path storageDirectoryRef,
         String oldIdRef,
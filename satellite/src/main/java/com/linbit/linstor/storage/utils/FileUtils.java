@@ -9,7 +9,6 @@ import com.linbit.linstor.storage.StorageException;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -45,37 +44,6 @@ public class FileUtils
         }
     }
 
-    public static Map<String, FileInfo> getInfoList(ExtCmd extCmd)
-        throws StorageException
-    {
-        OutputData outputData = LosetupCommands.list(extCmd);
-
-        final Map<String, FileInfo> ret = new HashMap<>();
-        final String stdOut = new String(outputData.stdoutData);
-        if (!stdOut.trim().isEmpty())
-        {
-            final String[] lines = stdOut.split("\n");
-            // idx starts at 1 so we can skip the HEADER row "NAME BACK-FILE"
-            for (int idx = 1; idx < lines.length; ++idx)
-            {
-                final String line = lines[idx];
-                final String[] data = line.trim().split("\\s+");
-                if (!data[LosetupCommands.LOSETUP_LIST_BACK_FILE_IDX].equals("BACK_FILE"))
-                {
-                    ret.put(
-                        data[LosetupCommands.LOSETUP_LIST_BACK_FILE_IDX],
-                        new FileInfo(
-                            Paths.get(data[LosetupCommands.LOSETUP_LIST_DEV_NAME_IDX]),
-                            Paths.get(data[LosetupCommands.LOSETUP_LIST_BACK_FILE_IDX])
-                        )
-                    );
-                }
-            }
-        }
-        return ret;
-    }
-
-
     public static Map<String, Long> getDirFreeSizes(Set<String> changedStoragePoolStringsRef)
     {
         Map<String, Long> ret = new TreeMap<>();
@@ -9,9 +9,6 @@ import java.nio.file.Path;
 
 public class LosetupCommands
 {
-    public static final int LOSETUP_LIST_DEV_NAME_IDX = 0;
-    public static final int LOSETUP_LIST_BACK_FILE_IDX = 1;
-
     public static OutputData attach(ExtCmd extCmd, Path backingFile)
         throws StorageException
     {
@@ -28,20 +25,6 @@ public class LosetupCommands
         );
     }
 
-    public static OutputData list(ExtCmd extCmd) throws StorageException
-    {
-        return genericExecutor(
-            extCmd,
-            new String[] {
-                "losetup",
-                "-l",
-                "-O", "NAME,BACK-FILE"
-            },
-            "Failed to list loop back devices",
-            "Failed to list loop back devices"
-        );
-    }
-
     public static OutputData detach(ExtCmd extCmd, String devPath)
         throws StorageException
     {
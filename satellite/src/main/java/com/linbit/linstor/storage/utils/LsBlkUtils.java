@@ -1,14 +1,11 @@
 package com.linbit.linstor.storage.utils;
 
-import com.linbit.extproc.ExtCmd;
 import com.linbit.linstor.storage.LsBlkEntry;
-import com.linbit.linstor.storage.StorageException;
-import com.linbit.linstor.storage.layer.provider.utils.Commands;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class LsBlkUtils
@@ -63,53 +60,40 @@ public class LsBlkUtils
         return lsBlkEntries;
     }
 
-    public static List<LsBlkEntry> lsblk(ExtCmd extCmd)
-        throws StorageException
-    {
-        ExtCmd.OutputData outputData = Commands.genericExecutor(
-            extCmd,
-            new String[]{
-                "lsblk",
-                "-P",
-                "-b",
-                "-o", Arrays.stream(LsBlkEntry.LsBlkFields.values())
-                    .map(LsBlkEntry.LsBlkFields::toString)
-                    .collect(Collectors.joining(","))
-            },
-            "Failed execute lsblk",
-            "Failed to execute lsblk"
-        );
-
-        return parseLsblkOutput(new String(outputData.stdoutData, StandardCharsets.UTF_8));
-    }
-
-    public static String[] blkid(ExtCmd extCmd)
-        throws StorageException
+    public static List<LsBlkEntry> filterDeviceCandidates(List<LsBlkEntry> entries, final String[] blkIdEntries)
     {
-        ExtCmd.OutputData outputData = Commands.genericExecutor(
-            extCmd,
-            new String[]{
-                "blkid",
-                "-o", "device"
-            },
-            "Failed execute blkid",
-            "Failed to execute blkid"
-        );
-
-        final String blkIdResult = new String(outputData.stdoutData, StandardCharsets.UTF_8);
-        return blkIdResult.split("\n");
+        Set<String> signatureDeviceNames = new HashSet<>();
+        for (String blkIdEntry : blkIdEntries)
+        {
+            signatureDeviceNames.add(blkIdEntry.substring(blkIdEntry.lastIndexOf('/') + 1));
+        }
+        return filterDeviceCandidates(entries, signatureDeviceNames);
     }
 
-    public static List<LsBlkEntry> filterDeviceCandidates(List<LsBlkEntry> entries, final String[] blkIdEntries)
+    /**
+     * @param entries all block devices
+     * @param signatureDeviceNames names of the devices that contain a file system, partition table or other
+     *     signature
+     *
+     * @return the devices that are not a partition or stacked device, are large enough, are not a DRBD device,
+     *     have no partitions or stacked devices on top of them and contain no signature
+     */
+    public static List<LsBlkEntry> filterDeviceCandidates(
+        List<LsBlkEntry> entries,
+        final Set<String> signatureDeviceNames
+    )
     {
-        final List<String> blkIds = Arrays.asList(blkIdEntries);
+        final Set<String> parentNames = new HashSet<>();
+        for (LsBlkEntry entry : entries)
+        {
+            parentNames.add(entry.getParentName());
+        }
         return entries.stream()
             .filter(lsBlkEntry -> lsBlkEntry.getParentName().isEmpty() &&
                 lsBlkEntry.getSize() > MINIMAL_DEVICE_SIZE_BYTES &&
                 lsBlkEntry.getMajor() != MAJOR_DRBD_NR)
-            .filter(lsBlkEntry -> entries.stream()
-                .noneMatch(entry -> entry.getParentName().equals(lsBlkEntry.getName())))
-            .filter(lsBlkEntry -> blkIds.stream().noneMatch(blkid -> blkid.endsWith(lsBlkEntry.getName())))
+            .filter(lsBlkEntry -> !parentNames.contains(lsBlkEntry.getName()))
+            .filter(lsBlkEntry -> !signatureDeviceNames.contains(lsBlkEntry.getName()))
             .collect(Collectors.toList());
     }
 }
@@ -11,11 +11,10 @@ import static com.linbit.linstor.storage.layer.provider.utils.Commands.genericEx
 
 import java.io.File;
 import java.util.List;
-import java.util.Set;
 
 public class ZfsCommands
 {
-    public static OutputData list(ExtCmd extCmd) throws StorageException
+    public static OutputData listAll(ExtCmd extCmd) throws StorageException
     {
         return genericExecutor(
             extCmd,
@@ -24,39 +23,15 @@ public class ZfsCommands
                 "list",
                 "-H",   // no headers, single tab instead of spaces
                 "-p",   // sizes in bytes
-                "-o", "name,used,volsize,type", // columns: name, allocated space, available space, type
-                "-t", "volume,snapshot"
+                // columns: name, allocated space, volume size, available space, volume block size, type
+                "-o", "name,used,volsize,available,volblocksize,type",
+                "-t", "filesystem,volume,snapshot"
             },
-            "Failed to list zfs volumes",
+            "Failed to list zfs datasets",
             "Failed to query 'zfs' info"
         );
     }
 
-    public static OutputData getExtentSize(ExtCmd extCmd, String zpool, String identifier) throws StorageException
-    {
-        String fullQualifiedId;
-        if (identifier == null || identifier.trim().isEmpty())
-        {
-            fullQualifiedId = zpool;
-        }
-        else
-        {
-            fullQualifiedId = zpool + File.separator + identifier;
-        }
-        return genericExecutor(
-            extCmd,
-            new String[] {
-                "zfs",
-                "get", "volblocksize",
-                "-o", "value",
-                "-Hp",
-                fullQualifiedId
-            },
-            "Failed to query zfs extent size",
-            "Failed to query extent size of zfs volume " + fullQualifiedId
-        );
-    }
-
     public static OutputData create(ExtCmd extCmd, String zpool, String identifier, long size, boolean thin)
         throws StorageException
     {
@@ -221,61 +196,20 @@ public class ZfsCommands
         );
     }
 
-    public static OutputData getZPoolTotalSize(ExtCmd extCmd, Set<String> zpools)
-        throws StorageException
-    {
-        return genericExecutor(
-            extCmd,
-            StringUtils.concat(
-                new String[]
-                {
-                    "zpool",
-                    "get",
-                    "size",
-                    "-Hp"
-                },
-                zpools
-            ),
-            "Failed to query total size of zpool(s) " + zpools,
-            "Failed to query total size of zpool(s) " + zpools
-        );
-    }
-
-    public static OutputData getZPoolFreeSize(ExtCmd extCmd, Set<String> zPools)
-        throws StorageException
-    {
-        return genericExecutor(
-            extCmd,
-            StringUtils.concat(
-                new String[]
-                {
-                    "zfs",
-                    "get",
-                    "available",
-                    "-o", "name,value",
-                    "-Hp"
-                },
-                zPools
-            ),
-            "Failed to query free size of zPool(s) " + zPools,
-            "Failed to query free size of zPools(s) " + zPools
-        );
-    }
-
-    public static OutputData listThinPools(ExtCmd extCmd) throws StorageException
+    public static OutputData listZpoolSizes(ExtCmd extCmd) throws StorageException
     {
         return genericExecutor(
             extCmd,
-            new String[] {
-                "zfs",
+            new String[]
+            {
+                "zpool",
                 "list",
                 "-H",   // no headers, single tab instead of spaces
                 "-p",   // sizes in bytes
-                "-o", "name,available,type", // columns: name, available space, type
-                "-t", "filesystem"
+                "-o", "name,size"
             },
-            "Failed to list zfs filesystem types",
-            "Failed to query 'zfs' info"
+            "Failed to query sizes of zpools",
+            "Failed to query sizes of zpools"
         );
     }
 
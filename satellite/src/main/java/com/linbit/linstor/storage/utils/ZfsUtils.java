@@ -10,10 +10,10 @@ import com.linbit.linstor.storage.StorageUtils;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -24,17 +24,21 @@ public class ZfsUtils
     private static final int ZFS_LIST_COL_IDENTIFIER = 0;
     private static final int ZFS_LIST_COL_ALLOCATED_SIZE = 1;
     private static final int ZFS_LIST_COL_USABLE_SIZE = 2;
-    private static final int ZFS_LIST_COL_TYPE = 3;
+    private static final int ZFS_LIST_COL_AVAILABLE_SIZE = 3;
+    private static final int ZFS_LIST_COL_VOLBLOCKSIZE = 4;
+    private static final int ZFS_LIST_COL_TYPE = 5;
+    private static final int ZFS_LIST_COL_COUNT = 6;
 
-    private static final int ZFS_LIST_FILESYSTEMS_COL_IDENTIFIER = 0;
-    private static final int ZFS_LIST_FILESYSTEMS_COL_AVAILABLE_SIZE = 1;
-    private static final int ZFS_LIST_FILESYSTEMS_COL_TYPE = 2;
+    private static final int ZPOOL_LIST_COL_NAME = 0;
+    private static final int ZPOOL_LIST_COL_SIZE = 1;
+    private static final int ZPOOL_LIST_COL_COUNT = 2;
 
     private static final String ZFS_TYPE_VOLUME = "volume";
     private static final String ZFS_TYPE_SNAPSHOT = "snapshot";
     private static final String ZFS_TYPE_FILESYSTEM = "filesystem";
 
-    private static final int ZFS_EXTENT_SIZE_COL_SIZE = 1;
+    // printed by "zfs list" for properties that do not apply to the type of the dataset
+    private static final String ZFS_NO_VALUE = "-";
 
     private ZfsUtils()
     {
@@ -48,6 +52,7 @@ public class ZfsUtils
         public final String path;
         public final long allocatedSize;
         public final long usableSize;
+        public final long volBlockSize;
 
         ZfsInfo(
             String poolNameRef,
@@ -55,7 +60,8 @@ public class ZfsUtils
             String typeRef,
             String pathRef,
             long allocatedSizeRef,
-            long usableSizeRef
+            long usableSizeRef,
+            long volBlockSizeRef
         )
         {
             poolName = poolNameRef;
@@ -64,113 +70,117 @@ public class ZfsUtils
             path = pathRef;
             allocatedSize = allocatedSizeRef;
             usableSize = usableSizeRef;
+            volBlockSize = volBlockSizeRef;
         }
     }
 
-    public static HashMap<String, ZfsInfo> getThinZPoolsList(ExtCmd extCmd)
-        throws StorageException
+    /**
+     * All zfs datasets and zpools of this node, as reported by a single "{@code zfs list}" and a single
+     * "{@code zpool list}" call.
+     */
+    public static class ZfsInventory
     {
-        final OutputData output = ZfsCommands.listThinPools(extCmd);
-        final String stdOut = new String(output.stdoutData);
-
-        final HashMap<String, ZfsInfo> infoByIdentifier = new HashMap<>();
+        /**
+         * Volumes and snapshots by their full qualified identifier. The usable size is the volume size in KiB
+         */
+        public final Map<String, ZfsInfo> volumes;
+        /**
+         * Filesystems (including the root datasets of the zpools) by their name. The usable size is the available
+         * space in KiB
+         */
+        public final Map<String, ZfsInfo> filesystems;
+        /**
+         * Total size of the zpools in KiB by their name
+         */
+        public final Map<String, Long> zpoolSizes;
+
+        ZfsInventory(
+            Map<String, ZfsInfo> volumesRef,
+            Map<String, ZfsInfo> filesystemsRef,
+            Map<String, Long> zpoolSizesRef
+        )
+        {
+            volumes = Collections.unmodifiableMap(volumesRef);
+            filesystems = Collections.unmodifiableMap(filesystemsRef);
+            zpoolSizes = Collections.unmodifiableMap(zpoolSizesRef);
+        }
 
-        final String[] lines = stdOut.split("\n");
-        final int expectedColCount = 3;
-        for (final String line : lines)
+        /**
+         * @return the available space of the given filesystem (zpool or dataset) in KiB
+         */
+        public long getFreeSize(String datasetName) throws StorageException
         {
-            try
+            ZfsInfo info = filesystems.get(datasetName);
+            if (info == null)
             {
-                final String[] data = line.trim().split(DELIMITER);
-                if (data.length == expectedColCount)
-                {
-                    final String identifier = data[ZFS_LIST_FILESYSTEMS_COL_IDENTIFIER];
-                    final String availableSizeStr = data[ZFS_LIST_FILESYSTEMS_COL_AVAILABLE_SIZE];
-                    final String type = data[ZFS_LIST_FILESYSTEMS_COL_TYPE];
-
-                    if (type.equals(ZFS_TYPE_FILESYSTEM))
-                    {
-                        long usableSize = SizeConv.convert(
-                            StorageUtils.parseDecimalAsLong(availableSizeStr.trim()),
-                            SizeUnit.UNIT_B,
-                            SizeUnit.UNIT_KiB
-                        );
-                        int poolNameEndIndex = identifier.lastIndexOf(File.separator);
-                        if (poolNameEndIndex == -1)
-                        {
-                            poolNameEndIndex = identifier.length() - 1;
-                        }
-                        final ZfsInfo state = new ZfsInfo(
-                            identifier.substring(0, poolNameEndIndex),
-                            identifier.substring(poolNameEndIndex + 1),
-                            type,
-                            buildZfsPath(identifier),
-                            -1,
-                            usableSize
-                        );
-                        infoByIdentifier.put(identifier, state);
-                    }
-                }
+                throw new StorageException("no zfs dataset found with name '" + datasetName + "'");
             }
-            catch (NumberFormatException ignored)
+            return info.usableSize;
+        }
+
+        /**
+         * @return the total size of the given zpool in KiB
+         */
+        public long getZPoolSize(String zpoolName) throws StorageException
+        {
+            Long size = zpoolSizes.get(zpoolName);
+            if (size == null)
             {
-                // we could not parse a number so we ignore the whole line
+                throw new StorageException("no zpool found with name '" + zpoolName + "'");
             }
+            return size;
         }
-        return infoByIdentifier;
-
     }
 
-    public static HashMap<String, ZfsInfo> getZfsList(final ExtCmd extCmd)
+    public static ZfsInventory getZfsInventory(ExtCmd zfsExtCmd, ExtCmd zpoolExtCmd)
         throws StorageException
     {
-        final OutputData output = ZfsCommands.list(extCmd);
-        final String stdOut = new String(output.stdoutData);
-
-        final HashMap<String, ZfsInfo> infoByIdentifier = new HashMap<>();
+        return parseZfsInventory(
+            new String(ZfsCommands.listAll(zfsExtCmd).stdoutData),
+            new String(ZfsCommands.listZpoolSizes(zpoolExtCmd).stdoutData)
+        );
+    }
 
-        final String[] lines = stdOut.split("\n");
-        final int expectedColCount = 4;
-        for (final String line : lines)
+    static ZfsInventory parseZfsInventory(String zfsListOut, String zpoolListOut)
+    {
+        final Map<String, ZfsInfo> volumes = new HashMap<>();
+        final Map<String, ZfsInfo> filesystems = new HashMap<>();
+        for (final String line : zfsListOut.split("\n"))
         {
             final String[] data = line.trim().split(DELIMITER);
             try
             {
-                if (data.length == expectedColCount)
+                if (data.length == ZFS_LIST_COL_COUNT)
                 {
                     final String identifier = data[ZFS_LIST_COL_IDENTIFIER];
-                    final String allocatedSizeStr = data[ZFS_LIST_COL_ALLOCATED_SIZE];
-                    final String usableSizeStr = data[ZFS_LIST_COL_USABLE_SIZE];
                     final String type = data[ZFS_LIST_COL_TYPE];
 
                     if (type.equals(ZFS_TYPE_VOLUME) || type.equals(ZFS_TYPE_SNAPSHOT))
                     {
-                        long allocatedSize = SizeConv.convert(
-                            StorageUtils.parseDecimalAsLong(allocatedSizeStr.trim()),
-                            SizeUnit.UNIT_B,
-                            SizeUnit.UNIT_KiB
+                        volumes.put(
+                            identifier,
+                            createZfsInfo(
+                                identifier,
+                                type,
+                                parseSizeInKib(data[ZFS_LIST_COL_ALLOCATED_SIZE]),
+                                parseSizeInKib(data[ZFS_LIST_COL_USABLE_SIZE]),
+                                parseOptionalLong(data[ZFS_LIST_COL_VOLBLOCKSIZE])
+                            )
                         );
-
-                        long usableSize = SizeConv.convert(
-                            StorageUtils.parseDecimalAsLong(usableSizeStr.trim()),
-                            SizeUnit.UNIT_B,
-                            SizeUnit.UNIT_KiB
-                        );
-
-                        int poolNameEndIndex = identifier.lastIndexOf(File.separator);
-                        if (poolNameEndIndex == -1)
-                        {
-                            poolNameEndIndex = identifier.length() - 1;
-                        }
-                        final ZfsInfo state = new ZfsInfo(
-                            identifier.substring(0, poolNameEndIndex),
-                            identifier.substring(poolNameEndIndex + 1),
-                            type,
-                            buildZfsPath(identifier),
-                            allocatedSize,
-                            usableSize
+                    }
+                    else
+                    if (type.equals(ZFS_TYPE_FILESYSTEM))
+                    {
+                        filesystems.put(
+                            identifier,
+                            createZfsInfo(
+                                identifier,
+                                type,
+                                -1,
+                                parseSizeInKib(data[ZFS_LIST_COL_AVAILABLE_SIZE]),
+                                -1
+                            )
                         );
-                        infoByIdentifier.put(identifier, state);
                     }
                 }
             }
@@ -179,7 +189,63 @@ public class ZfsUtils
                 // we could not parse a number so we ignore the whole line
             }
         }
-        return infoByIdentifier;
+
+        final Map<String, Long> zpoolSizes = new HashMap<>();
+        for (final String line : zpoolListOut.split("\n"))
+        {
+            final String[] data = line.trim().split(DELIMITER);
+            try
+            {
+                if (data.length == ZPOOL_LIST_COL_COUNT)
+                {
+                    zpoolSizes.put(data[ZPOOL_LIST_COL_NAME], parseSizeInKib(data[ZPOOL_LIST_COL_SIZE]));
+                }
+            }
+            catch (NumberFormatException ignored)
+            {
+                // we could not parse a number so we ignore the whole line
+            }
+        }
+        return new ZfsInventory(volumes, filesystems, zpoolSizes);
+    }
+
+    private static ZfsInfo createZfsInfo(
+        String identifier,
+        String type,
+        long allocatedSize,
+        long usableSize,
+        long volBlockSize
+    )
+    {
+        int poolNameEndIndex = identifier.lastIndexOf(File.separator);
+        if (poolNameEndIndex == -1)
+        {
+            poolNameEndIndex = identifier.length() - 1;
+        }
+        return new ZfsInfo(
+            identifier.substring(0, poolNameEndIndex),
+            identifier.substring(poolNameEndIndex + 1),
+            type,
+            buildZfsPath(identifier),
+            allocatedSize,
+            usableSize,
+            volBlockSize
+        );
+    }
+
+    private static long parseSizeInKib(String sizeStr)
+    {
+        return SizeConv.convert(
+            StorageUtils.parseDecimalAsLong(sizeStr.trim()),
+            SizeUnit.UNIT_B,
+            SizeUnit.UNIT_KiB
+        );
+    }
+
+    private static long parseOptionalLong(String str)
+    {
+        String trimmed = str.trim();
+        return trimmed.equals(ZFS_NO_VALUE) ? -1 : StorageUtils.parseDecimalAsLong(trimmed);
     }
 
     public static Set<String> getZPoolList(ExtCmd extCmd) throws StorageException
@@ -201,60 +267,6 @@ public class ZfsUtils
             File.separator + identifier;
     }
 
-    public static Map<String, Long> getZPoolFreeSize(ExtCmd extCmd, Set<String> zPool) throws StorageException
-    {
-        Map<String, Long> freeSizes = ParseUtils.parseSimpleTable(
-            ZfsCommands.getZPoolFreeSize(extCmd, zPool),
-            DELIMITER,
-            "free size"
-        );
-
-        for (Entry<String, Long> entry : freeSizes.entrySet())
-        {
-            entry.setValue(
-                SizeConv.convert(
-                    entry.getValue(),
-                    SizeUnit.UNIT_B,
-                    SizeUnit.UNIT_KiB
-                )
-            );
-        }
-
-        return freeSizes;
-    }
-
-    public static long getZfsExtentSize(ExtCmd extCmd, String poolName, String identifier) throws StorageException
-    {
-        return ParseUtils.parseDecimalAsLong(
-            new String(
-                ZfsCommands.getExtentSize(extCmd, poolName, identifier)
-                    .stdoutData
-            ).trim()
-        );
-    }
-
-    public static Map<String, Long> getZPoolTotalSize(ExtCmd extCmd, Set<String> zPools) throws StorageException
-    {
-        Map<String, Long> totalSizes = ParseUtils.parseSimpleTable(
-            ZfsCommands.getZPoolTotalSize(extCmd, zPools),
-            DELIMITER,
-            "free size",
-            0, // field for name
-            2 // field for value
-        );
-        for (Entry<String, Long> entry : totalSizes.entrySet())
-        {
-            entry.setValue(
-                SizeConv.convert(
-                    entry.getValue(),
-                    SizeUnit.UNIT_B,
-                    SizeUnit.UNIT_KiB
-                )
-            );
-        }
-        return totalSizes;
-    }
-
     public static List<String> getPhysicalVolumes(ExtCmd extCmd, String zPoolRef) throws StorageException
     {
         List<String> devices = new ArrayList<>();
@@ -0,0 +1,107 @@
+package com.linbit.linstor.storage.layer.adapter.drbd.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MdSuperblockBufferTest
+{
+    private static final int DRBD_MAGIC_ID = 0x8374026D;
+    private static final int DEVICE_SIZE = 1 << 20;
+    private static final int SUPERBLK_SIZE = 4096;
+
+    // 32 kiB activity log in one stripe, in 512 byte sectors
+    private static final int AL_SIZE_SECT = 64;
+    private static final int BM_SIZE_SECT = 128;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testInternalMetaData() throws Exception
+    {
+        MdSuperblockBuffer superblock = read(
+            superblock(DRBD_MAGIC_ID, -AL_SIZE_SECT, -(AL_SIZE_SECT + BM_SIZE_SECT), 4096, 7)
+        );
+        Assert.assertTrue(superblock.hasMetaData());
+        Assert.assertTrue(superblock.hasValidLayout());
+    }
+
+    @Test
+    public void testExternalMetaData() throws Exception
+    {
+        MdSuperblockBuffer superblock = read(superblock(DRBD_MAGIC_ID, 8, 8 + AL_SIZE_SECT, 4096, 7));
+        Assert.assertTrue(superblock.hasValidLayout());
+    }
+
+    @Test
+    public void testNoMetaData() throws Exception
+    {
+        MdSuperblockBuffer superblock = read(new byte[SUPERBLK_SIZE]);
+        Assert.assertFalse(superblock.hasMetaData());
+        Assert.assertFalse(superblock.hasValidLayout());
+    }
+
+    @Test
+    public void testInconsistentLayout() throws Exception
+    {
+        // bitmap overlapping the activity log
+        Assert.assertFalse(read(superblock(DRBD_MAGIC_ID, -AL_SIZE_SECT, -AL_SIZE_SECT, 4096, 7)).hasValidLayout());
+        // activity log not in front of the superblock
+        Assert.assertFalse(
+            read(superblock(DRBD_MAGIC_ID, -2 * AL_SIZE_SECT, -(AL_SIZE_SECT + BM_SIZE_SECT), 4096, 7))
+                .hasValidLayout()
+        );
+        // unsupported bitmap granularity
+        Assert.assertFalse(
+            read(superblock(DRBD_MAGIC_ID, -AL_SIZE_SECT, -(AL_SIZE_SECT + BM_SIZE_SECT), 512, 7)).hasValidLayout()
+        );
+        // too many peers
+        MdSuperblockBuffer superblock = read(
+            superblock(DRBD_MAGIC_ID, -AL_SIZE_SECT, -(AL_SIZE_SECT + BM_SIZE_SECT), 4096, 32)
+        );
+        Assert.assertTrue(superblock.hasMetaData());
+        Assert.assertFalse(superblock.hasValidLayout());
+    }
+
+    private static byte[] superblock(int magic, int alOffset, int bmOffset, int bmBytesPerBit, int maxPeers)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(SUPERBLK_SIZE).order(ByteOrder.BIG_ENDIAN);
+        buffer.putLong(DEVICE_SIZE / 512); // effective size
+        buffer.putLong(0x4L); // current generation
+        buffer.putLong(0).putLong(0).putLong(0).putLong(0); // reserved
+        buffer.putLong(0x1234L); // device generation
+        buffer.putInt(0); // flags
+        buffer.putInt(magic);
+        buffer.putInt(AL_SIZE_SECT + BM_SIZE_SECT + 8); // meta data size
+        buffer.putInt(alOffset);
+        buffer.putInt(1237); // activity log extents
+        buffer.putInt(bmOffset);
+        buffer.putInt(bmBytesPerBit);
+        buffer.putInt(1 << 20); // max bio size
+        buffer.putInt(maxPeers);
+        buffer.putInt(0); // node id
+        buffer.putInt(1); // activity log stripes
+        buffer.putInt(8); // activity log stripe size in 4 kiB units
+        return buffer.array();
+    }
+
+    private MdSuperblockBuffer read(byte[] superblock) throws IOException
+    {
+        byte[] device = new byte[DEVICE_SIZE];
+        System.arraycopy(superblock, 0, device, DEVICE_SIZE - SUPERBLK_SIZE, SUPERBLK_SIZE);
+        Path devicePath = tempFolder.newFile().toPath();
+        Files.write(devicePath, device);
+
+        MdSuperblockBuffer buffer = new MdSuperblockBuffer();
+        buffer.readObject(devicePath.toString());
+        return buffer;
+    }
+}
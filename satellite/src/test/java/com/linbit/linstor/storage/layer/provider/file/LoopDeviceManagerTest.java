@@ -0,0 +1,77 @@
+package com.linbit.linstor.storage.layer.provider.file;
+
+import com.linbit.linstor.storage.StorageException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LoopDeviceManagerTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path sysBlock;
+    private Path dev;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        Path root = tempFolder.getRoot().toPath();
+        sysBlock = Files.createDirectories(root.resolve("block"));
+        dev = Paths.get("/dev");
+
+        // attached
+        write(sysBlock.resolve("loop0").resolve("loop").resolve("backing_file"), "/var/lib/linstor/rsc1_00000.img\n");
+        write(sysBlock.resolve("loop7").resolve("loop").resolve("backing_file"), "/var/lib/linstor/rsc2_00000.img\n");
+        // detached, the backing_file entry does not exist
+        Files.createDirectories(sysBlock.resolve("loop1").resolve("loop"));
+        Files.createDirectories(sysBlock.resolve("loop2"));
+        // backing file was deleted while attached
+        write(
+            sysBlock.resolve("loop3").resolve("loop").resolve("backing_file"),
+            "/var/lib/linstor/rsc3_00000.img (deleted)\n"
+        );
+        // not a loop device
+        write(sysBlock.resolve("sda").resolve("loop").resolve("backing_file"), "/var/lib/linstor/rsc4_00000.img\n");
+    }
+
+    @Test
+    public void testScanLoopDevices() throws Exception
+    {
+        Map<String, Path> loopDevices = LoopDeviceManager.scanLoopDevices(sysBlock, dev);
+
+        Assert.assertEquals(2, loopDevices.size());
+        Assert.assertEquals(Paths.get("/dev/loop0"), loopDevices.get("/var/lib/linstor/rsc1_00000.img"));
+        Assert.assertEquals(Paths.get("/dev/loop7"), loopDevices.get("/var/lib/linstor/rsc2_00000.img"));
+    }
+
+    @Test
+    public void testScanWithoutLoopDevices() throws Exception
+    {
+        Path emptySysBlock = Files.createDirectories(tempFolder.getRoot().toPath().resolve("empty"));
+
+        Assert.assertTrue(LoopDeviceManager.scanLoopDevices(emptySysBlock, dev).isEmpty());
+    }
+
+    @Test(expected = StorageException.class)
+    public void testScanMissingSysBlock() throws Exception
+    {
+        LoopDeviceManager.scanLoopDevices(tempFolder.getRoot().toPath().resolve("missing"), dev);
+    }
+
+    private static void write(Path file, String content) throws IOException
+    {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,132 @@
+package com.linbit.linstor.storage.utils;
+
+import com.linbit.linstor.storage.LsBlkEntry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BlockDeviceScannerTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path sysClassBlock;
+    private Path udevData;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        Path root = tempFolder.getRoot().toPath();
+        Path devices = root.resolve("devices");
+        sysClassBlock = Files.createDirectories(root.resolve("class").resolve("block"));
+        udevData = Files.createDirectories(root.resolve("udev"));
+
+        // sda: disk with a partition table and one partition that is used by a device mapper device
+        Path sda = createDevice(devices.resolve("sda"), "8:0", 20971520);
+        write(sda.resolve("queue").resolve("rotational"), "0");
+        write(sda.resolve("device").resolve("model"), "Crucial_CT275MX300SSD4  ");
+        write(udevData.resolve("b8:0"), "S:disk/by-id/x\nE:ID_SERIAL_SHORT=174719D00212\nE:ID_PART_TABLE_TYPE=gpt");
+        Path sda1 = createDevice(sda.resolve("sda1"), "8:1", 2048);
+        write(sda1.resolve("partition"), "1");
+        write(udevData.resolve("b8:1"), "E:ID_FS_TYPE=LVM2_member");
+        Path dm0 = createDevice(devices.resolve("dm-0"), "253:0", 2048);
+        write(dm0.resolve("dm").resolve("name"), "vg-lv");
+        Files.createDirectories(dm0.resolve("slaves"));
+        Files.createSymbolicLink(dm0.resolve("slaves").resolve("sda1"), sda1);
+
+        // sdb: unused disk
+        Path sdb = createDevice(devices.resolve("sdb"), "8:16", 20971520);
+        write(sdb.resolve("queue").resolve("rotational"), "1");
+
+        // sdc: disk with a file system
+        createDevice(devices.resolve("sdc"), "8:32", 20971520);
+        write(udevData.resolve("b8:32"), "E:ID_FS_TYPE=xfs");
+
+        // drbd1000
+        createDevice(devices.resolve("drbd1000"), "147:1000", 20971520);
+
+        // RAM disks and empty devices are skipped
+        createDevice(devices.resolve("ram0"), "1:0", 8192);
+        createDevice(devices.resolve("loop0"), "7:0", 0);
+
+        for (String name : new String[] {"sda", "sdb", "sdc", "dm-0", "drbd1000", "ram0", "loop0"})
+        {
+            Files.createSymbolicLink(sysClassBlock.resolve(name), devices.resolve(name));
+        }
+        Files.createSymbolicLink(sysClassBlock.resolve("sda1"), sda1);
+    }
+
+    @Test
+    public void testScan() throws Exception
+    {
+        BlockDeviceScanner.Scan scan = BlockDeviceScanner.scan(sysClassBlock, udevData);
+        Assert.assertEquals(6, scan.entries.size());
+
+        LsBlkEntry sda = find(scan.entries, "sda");
+        Assert.assertEquals("", sda.getParentName());
+        Assert.assertEquals(20971520L * 512, sda.getSize());
+        Assert.assertEquals(8, sda.getMajor());
+        Assert.assertEquals(0, sda.getMinor());
+        Assert.assertFalse(sda.isRotational());
+        Assert.assertEquals("Crucial_CT275MX300SSD4", sda.getModel());
+        Assert.assertEquals("174719D00212", sda.getSerial());
+
+        LsBlkEntry sda1 = find(scan.entries, "sda1");
+        Assert.assertEquals("sda", sda1.getParentName());
+        Assert.assertEquals("LVM2_member", sda1.getFsType());
+
+        LsBlkEntry dm0 = find(scan.entries, "vg-lv");
+        Assert.assertEquals("dm-0", dm0.getKernelName());
+        Assert.assertEquals("sda1", dm0.getParentName());
+
+        Assert.assertTrue(scan.signatureDeviceNames.contains("sda"));
+        Assert.assertTrue(scan.signatureDeviceNames.contains("sdc"));
+        Assert.assertFalse(scan.signatureDeviceNames.contains("sdb"));
+    }
+
+    @Test
+    public void testFilterScannedDevices() throws Exception
+    {
+        BlockDeviceScanner.Scan scan = BlockDeviceScanner.scan(sysClassBlock, udevData);
+        List<LsBlkEntry> filtered = LsBlkUtils.filterDeviceCandidates(scan.entries, scan.signatureDeviceNames);
+        Assert.assertEquals(1, filtered.size());
+        Assert.assertEquals("sdb", filtered.get(0).getName());
+        Assert.assertTrue(filtered.get(0).isRotational());
+    }
+
+    private static Path createDevice(Path devDir, String majMin, long sectors) throws IOException
+    {
+        write(devDir.resolve("dev"), majMin);
+        write(devDir.resolve("size"), Long.toString(sectors));
+        return devDir;
+    }
+
+    private static void write(Path file, String content) throws IOException
+    {
+        Files.createDirectories(file.getParent());
+        Files.write(file, (content + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LsBlkEntry find(List<LsBlkEntry> entries, String name)
+    {
+        LsBlkEntry found = null;
+        for (LsBlkEntry entry : entries)
+        {
+            if (entry.getName().equals(name))
+            {
+                found = entry;
+            }
+        }
+        Assert.assertNotNull("no entry named " + name, found);
+        return found;
+    }
+}
@@ -0,0 +1,99 @@
+package com.linbit.linstor.storage.utils;
+
+import com.linbit.linstor.storage.StorageException;
+import com.linbit.linstor.storage.utils.ZfsUtils.ZfsInfo;
+import com.linbit.linstor.storage.utils.ZfsUtils.ZfsInventory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ZfsUtilsTest
+{
+    // output of "zfs list -H -p -o name,used,volsize,available,volblocksize,type -t filesystem,volume,snapshot"
+    private static final String ZFS_LIST_OUT =
+        "tank\t2156920832\t-\t8589934592\t-\tfilesystem\n" +
+        "tank/data\t24576\t-\t8589934592\t-\tfilesystem\n" +
+        "tank/rsc1_00000\t1082130432\t1073741824\t9663676416\t8192\tvolume\n" +
+        "tank/rsc2_00000\t4096\t2147483648\t8589934592\t16384\tvolume\n" +
+        "tank/rsc1_00000@snap1\t0\t1073741824\t-\t8192\tsnapshot\n" +
+        "tank/broken\tnot-a-number\t1073741824\t8589934592\t8192\tvolume\n" +
+        "tank/short\t4096\tvolume\n";
+
+    // output of "zpool list -H -p -o name,size"
+    private static final String ZPOOL_LIST_OUT =
+        "tank\t10737418240\n" +
+        "scratch\t5368709120\n";
+
+    @Test
+    public void testParseVolumes()
+    {
+        ZfsInventory inventory = ZfsUtils.parseZfsInventory(ZFS_LIST_OUT, ZPOOL_LIST_OUT);
+
+        Assert.assertEquals(3, inventory.volumes.size());
+
+        ZfsInfo rsc1 = inventory.volumes.get("tank/rsc1_00000");
+        Assert.assertEquals("tank", rsc1.poolName);
+        Assert.assertEquals("rsc1_00000", rsc1.identifier);
+        Assert.assertEquals("volume", rsc1.type);
+        Assert.assertEquals("/dev/zvol/tank/rsc1_00000", rsc1.path);
+        Assert.assertEquals(1056768L, rsc1.allocatedSize);
+        Assert.assertEquals(1048576L, rsc1.usableSize);
+        Assert.assertEquals(8192L, rsc1.volBlockSize);
+
+        ZfsInfo rsc2 = inventory.volumes.get("tank/rsc2_00000");
+        Assert.assertEquals(4L, rsc2.allocatedSize);
+        Assert.assertEquals(2097152L, rsc2.usableSize);
+        Assert.assertEquals(16384L, rsc2.volBlockSize);
+
+        ZfsInfo snap = inventory.volumes.get("tank/rsc1_00000@snap1");
+        Assert.assertEquals("snapshot", snap.type);
+        Assert.assertEquals(0L, snap.allocatedSize);
+        Assert.assertEquals(1048576L, snap.usableSize);
+
+        // lines with unparsable numbers or a wrong number of columns are ignored
+        Assert.assertNull(inventory.volumes.get("tank/broken"));
+        Assert.assertNull(inventory.volumes.get("tank/short"));
+    }
+
+    @Test
+    public void testParseFilesystems() throws StorageException
+    {
+        ZfsInventory inventory = ZfsUtils.parseZfsInventory(ZFS_LIST_OUT, ZPOOL_LIST_OUT);
+
+        Assert.assertEquals(2, inventory.filesystems.size());
+        Assert.assertEquals(8388608L, inventory.getFreeSize("tank"));
+        Assert.assertEquals(8388608L, inventory.getFreeSize("tank/data"));
+        Assert.assertEquals("filesystem", inventory.filesystems.get("tank/data").type);
+    }
+
+    @Test
+    public void testParseZpoolSizes() throws StorageException
+    {
+        ZfsInventory inventory = ZfsUtils.parseZfsInventory(ZFS_LIST_OUT, ZPOOL_LIST_OUT);
+
+        Assert.assertEquals(10485760L, inventory.getZPoolSize("tank"));
+        Assert.assertEquals(5242880L, inventory.getZPoolSize("scratch"));
+    }
+
+    @Test
+    public void testParseEmptyOutput()
+    {
+        ZfsInventory inventory = ZfsUtils.parseZfsInventory("", "");
+
+        Assert.assertTrue(inventory.volumes.isEmpty());
+        Assert.assertTrue(inventory.filesystems.isEmpty());
+        Assert.assertTrue(inventory.zpoolSizes.isEmpty());
+    }
+
+    @Test(expected = StorageException.class)
+    public void testUnknownDataset() throws StorageException
+    {
+        ZfsUtils.parseZfsInventory(ZFS_LIST_OUT, ZPOOL_LIST_OUT).getFreeSize("other");
+    }
+
+    @Test(expected = StorageException.class)
+    public void testUnknownZpool() throws StorageException
+    {
+        ZfsUtils.parseZfsInventory(ZFS_LIST_OUT, ZPOOL_LIST_OUT).getZPoolSize("other");
+    }
+}
@@ -8,6 +8,7 @@ import java.util.regex.Pattern;
 
 import com.linbit.ChildProcessTimeoutException;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.LinStorMetrics;
 import com.linbit.timer.Action;
 import com.linbit.timer.Timer;
 import com.linbit.utils.StringUtils;
@@ -25,6 +26,7 @@ public class ExtCmd extends ChildProcessHandler
     private OutputReceiver  errReceiver;
     private ErrorReporter   errLog;
     private long            startTime;
+    private long            startNanos;
 
     private String[] execCommand;
     private String execCommandStr;
@@ -78,6 +80,7 @@ public class ExtCmd extends ChildProcessHandler
         pBuilder.redirectInput(stdinRedirect);
         Process child = pBuilder.start();
         startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
         setChild(child);
         outReceiver = new OutputReceiver(child.getInputStream(), errLog);
         errReceiver = new OutputReceiver(child.getErrorStream(), errLog);
@@ -89,7 +92,18 @@ public class ExtCmd extends ChildProcessHandler
 
     public OutputData syncProcess() throws IOException, ChildProcessTimeoutException
     {
-        int exitCode = waitFor();
+        String metricCommand = getMetricCommandName();
+        int exitCode;
+        try
+        {
+            exitCode = waitFor();
+        }
+        catch (ChildProcessTimeoutException timeoutExc)
+        {
+            LinStorMetrics.EXT_CMD_TIMEOUTS.labels(metricCommand).inc();
+            throw timeoutExc;
+        }
+        LinStorMetrics.EXT_CMD_DURATION.labels(metricCommand).observeSince(startNanos);
         outReceiver.finish();
         errReceiver.finish();
         OutputData outData = new OutputData(
@@ -108,6 +122,20 @@ public class ExtCmd extends ChildProcessHandler
         return outData;
     }
 
+    /**
+     * Returns the name of the executable without its path, so that the metrics do not contain arguments like
+     * resource names
+     */
+    private String getMetricCommandName()
+    {
+        String name = LinStorMetrics.UNKNOWN;
+        if (execCommand != null && execCommand.length > 0 && execCommand[0] != null)
+        {
+            name = execCommand[0].substring(execCommand[0].lastIndexOf('/') + 1);
+        }
+        return name;
+    }
+
     public static class OutputData
     {
         public final String[] executedCommand;
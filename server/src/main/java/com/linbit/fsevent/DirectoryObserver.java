@@ -16,4 +16,16 @@ public interface DirectoryObserver
      * @param filePath Path of the file that triggered the event
      */
     void directoryEvent(FileSystemWatch.DirectoryEntry watchEntry, Path filePath);
+
+    /**
+     * Called when events on the directory specified by watchEntry were lost, because the
+     * file system reported more events than could be queued
+     *
+     * Observers that depend on seeing every event have to check the directory's content again.
+     *
+     * @param watchEntry The entry that specifies the directory that is being watched
+     */
+    default void directoryOverflow(FileSystemWatch.DirectoryEntry watchEntry)
+    {
+    }
 }
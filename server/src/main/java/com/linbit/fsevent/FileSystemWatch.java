@@ -14,6 +14,7 @@ import javax.inject.Singleton;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -23,18 +24,22 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Watches file system paths for changes
@@ -74,9 +79,6 @@ public class FileSystemWatch implements Runnable, SystemService
         CHANGE
     }
 
-    // Synchronization lock for all map access (watchMap, dirMap, fileMap)
-    private final Object mapLock;
-
     // Global event id counter for nextEventId()
     private static long globalEventId = 0;
 
@@ -91,18 +93,15 @@ public class FileSystemWatch implements Runnable, SystemService
     private final AtomicBoolean stopFlag;
 
     // Map from watched directory path to the associated WatchKey object and
-    // all active watchers (FileEntry and DirectoryEntry objects)
-    private final Map<Path, WatchMapEntry> watchMap;
-
-    // Map from directory path to Entry object
-    //
-    // This map enables fast lookup of DirectoryEntry objects by path
-    private final Map<Path, Set<DirectoryEntry>> dirMap;
-
-    // Map from file path to Entry object
+    // the indexes of all active watchers (FileEntry and DirectoryEntry objects)
+    // of that directory
     //
-    // This map enables fast lookup of FileEntry objects by path
-    private final Map<Path, Set<FileEntry>> fileMap;
+    // Registering, removing and counting the watchers of a directory is done in
+    // the map's compute functions, which only lock the map entry of the directory,
+    // so that registrations for different directories do not contend with each
+    // other. The indexes of a directory are concurrent collections, so the event
+    // loop looks up the watchers of an event without any locking.
+    private final ConcurrentMap<Path, WatchMapEntry> watchMap;
 
     private final ErrorReporter errorReporter;
 
@@ -112,16 +111,12 @@ public class FileSystemWatch implements Runnable, SystemService
         errorReporter = errorReporterRef;
         serviceInstanceName = SERVICE_NAME;
 
-        mapLock = new Object();
-
         fileSys = FileSystems.getDefault();
         wSvc = fileSys.newWatchService();
         stopFlag = new AtomicBoolean();
         watchThread = null;
 
-        watchMap = new TreeMap<>();
-        dirMap = new TreeMap<>();
-        fileMap = new TreeMap<>();
+        watchMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -151,66 +146,69 @@ public class FileSystemWatch implements Runnable, SystemService
                     Kind<?> eventKind = event.kind();
                     if (eventKind == StandardWatchEventKinds.OVERFLOW)
                     {
-                        // TODO: Read all directories and compare content against
-                        //       the files that are being watched
-                        // TODO: Notify all directory observers with a placeholder
-                        //       DirectoryEntry object to inform those about the
-                        //       overflow
+                        // Events of the directory were lost. Check the watched files of the directory
+                        // again and let the directory observers check the directory's content.
+                        // Observers of files that are not auto-removed may be called again, even if they
+                        // have already been called for the same event before.
+                        WatchMapEntry wMapEntry = watchMap.get((Path) polledKey.watchable());
+                        if (wMapEntry != null)
+                        {
+                            for (Set<FileEntry> fileEntrySet : wMapEntry.fileEntries.values())
+                            {
+                                for (FileEntry watchEntry : fileEntrySet)
+                                {
+                                    if (probeFileEntry(watchEntry))
+                                    {
+                                        fileObs.add(watchEntry);
+                                    }
+                                }
+                            }
+                            for (Set<DirectoryEntry> dirEntrySet : wMapEntry.dirEntries.values())
+                            {
+                                dirObs.addAll(dirEntrySet);
+                            }
+                        }
+                        for (FileEntry watchEntry : fileObs)
+                        {
+                            watchEntry.fObserver.fileEvent(watchEntry);
+                        }
+                        fileObs.clear();
+                        for (DirectoryEntry watchEntry : dirObs)
+                        {
+                            watchEntry.dObserver.directoryOverflow(watchEntry);
+                        }
+                        dirObs.clear();
                     }
                     else
-                    if (eventKind == StandardWatchEventKinds.ENTRY_CREATE ||
-                        eventKind == StandardWatchEventKinds.ENTRY_DELETE ||
-                        eventKind == StandardWatchEventKinds.ENTRY_MODIFY)
                     {
+                        Event watchEvent = toEvent(eventKind);
                         WatchEvent<Path> pathEvent = (WatchEvent<Path>) event;
                         Path watchedPath = (Path) polledKey.watchable();
                         Path relativePath = pathEvent.context();
                         Path filePath = watchedPath.resolve(relativePath);
 
-                        synchronized (mapLock)
+                        WatchMapEntry wMapEntry = watchMap.get(watchedPath);
+                        if (watchEvent != null && wMapEntry != null)
                         {
                             // Collect all file observers
-                            Set<FileEntry> fileEntryList = fileMap.get(filePath);
-                            if (fileEntryList != null)
+                            Set<FileEntry> fileEntrySet = wMapEntry.fileEntries.get(filePath);
+                            if (fileEntrySet != null)
                             {
-                                Iterator<FileEntry> fileEntryIter = fileEntryList.iterator();
-                                while (fileEntryIter.hasNext())
+                                for (FileEntry watchEntry : fileEntrySet)
                                 {
-                                    FileEntry watchEntry = fileEntryIter.next();
-                                    if ((watchEntry.watchEvent == Event.CREATE &&
-                                        eventKind == StandardWatchEventKinds.ENTRY_CREATE) ||
-                                        (watchEntry.watchEvent == Event.DELETE &&
-                                        eventKind == StandardWatchEventKinds.ENTRY_DELETE) ||
-                                        (watchEntry.watchEvent == Event.CHANGE &&
-                                        eventKind == StandardWatchEventKinds.ENTRY_MODIFY))
+                                    // Auto-removed entries are only triggered by whoever removes them,
+                                    // so that their observers are only called once, even if the event
+                                    // races with the registration of the entry
+                                    if (watchEntry.watchEvent == watchEvent &&
+                                        (!watchEntry.remove || removeFileEntryImpl(watchEntry)))
                                     {
                                         fileObs.add(watchEntry);
-                                        if (watchEntry.remove)
-                                        {
-                                            fileEntryIter.remove();
-                                            removeWatcher(watchedPath, watchEntry);
-                                        }
                                     }
                                 }
                             }
 
                             // Collect all directory observers
-                            Set<DirectoryEntry> dirEntryList = dirMap.get(watchedPath);
-                            if (dirEntryList != null)
-                            {
-                                for (DirectoryEntry watchEntry : dirEntryList)
-                                {
-                                    if ((watchEntry.watchEvent == Event.CREATE &&
-                                        eventKind == StandardWatchEventKinds.ENTRY_CREATE) ||
-                                        (watchEntry.watchEvent == Event.DELETE &&
-                                        eventKind == StandardWatchEventKinds.ENTRY_DELETE) ||
-                                        (watchEntry.watchEvent == Event.CHANGE &&
-                                        eventKind == StandardWatchEventKinds.ENTRY_MODIFY))
-                                    {
-                                        dirObs.add(watchEntry);
-                                    }
-                                }
-                            }
+                            dirObs.addAll(wMapEntry.dirEntries.get(watchEvent));
                         }
                         // Trigger all file observers
                         for (FileEntry watchEntry : fileObs)
@@ -271,18 +269,41 @@ public class FileSystemWatch implements Runnable, SystemService
      */
     void cancelAllWatchKeys() throws IOException
     {
-        synchronized (mapLock)
+        for (WatchMapEntry entry : watchMap.values())
         {
-            Collection<WatchMapEntry> entries = watchMap.values();
-            for (WatchMapEntry entry : entries)
-            {
-                if (entry != null)
-                {
-                    entry.key.cancel();
-                }
-            }
-            wSvc.close();
+            entry.key.cancel();
+        }
+        watchMap.clear();
+        wSvc.close();
+    }
+
+    /**
+     * @return the WatchKey of the specified directory, or null if the directory is not being watched
+     */
+    WatchKey getWatchKey(Path dirPath)
+    {
+        WatchMapEntry wMapEntry = watchMap.get(dirPath);
+        return wMapEntry == null ? null : wMapEntry.key;
+    }
+
+    private static Event toEvent(Kind<?> eventKind)
+    {
+        Event watchEvent = null;
+        if (eventKind == StandardWatchEventKinds.ENTRY_CREATE)
+        {
+            watchEvent = Event.CREATE;
+        }
+        else
+        if (eventKind == StandardWatchEventKinds.ENTRY_DELETE)
+        {
+            watchEvent = Event.DELETE;
+        }
+        else
+        if (eventKind == StandardWatchEventKinds.ENTRY_MODIFY)
+        {
+            watchEvent = Event.CHANGE;
         }
+        return watchEvent;
     }
 
     /**
@@ -363,19 +384,13 @@ public class FileSystemWatch implements Runnable, SystemService
      */
     public void addFileEntry(FileEntry watchEntry) throws IOException
     {
-        boolean trigger = false;
-        synchronized (mapLock)
-        {
-            addFileEntryImpl(watchEntry);
-            trigger = probeFileEntry(watchEntry);
-        }
+        addFileEntries(getWatchPath(watchEntry), Collections.singletonList(watchEntry));
+        boolean trigger = probeFileEntry(watchEntry);
         if (trigger)
         {
             /*
              * DO NOT run this callback in the current thread
              *
-             * See AbsStorProvider#waitUntilDeviceCreated for example code
-             *
              * If a method creates an observer which notifies a later "syncObject.wait()" if the
              * event occurs, then this fileEvent is registered (this method) and the event
              * has already happened - if we call the observer right now, in the current thread
@@ -409,33 +424,37 @@ public class FileSystemWatch implements Runnable, SystemService
      */
     public void addFileEntryList(List<FileEntry> entryList) throws IOException
     {
-        List<FileEntry> triggerList = new LinkedList<>();
-        synchronized (mapLock)
+        // Group the entries by their directory, so that each directory is only registered once
+        Map<Path, List<FileEntry>> entriesByDir = new HashMap<>();
+        for (FileEntry entry : entryList)
         {
-            try
+            entriesByDir.computeIfAbsent(getWatchPath(entry), ignored -> new ArrayList<>()).add(entry);
+        }
+        try
+        {
+            // Add all file entries
+            for (Map.Entry<Path, List<FileEntry>> dirEntries : entriesByDir.entrySet())
             {
-                // Add all file entries
-                for (FileEntry entry : entryList)
-                {
-                    addFileEntry(entry);
-                }
-                // Check whether files have already been created or deleted
-                for (FileEntry entry : entryList)
-                {
-                    if (probeFileEntry(entry))
-                    {
-                        triggerList.add(entry);
-                    }
-                }
+                addFileEntries(dirEntries.getKey(), dirEntries.getValue());
             }
-            catch (IOException ioExc)
+        }
+        catch (IOException ioExc)
+        {
+            // Adding one of the entries failed, roll back
+            for (FileEntry entry : entryList)
             {
-                // Adding one of the entries failed, roll back
-                for (FileEntry entry : entryList)
-                {
-                    removeFileEntry(entry);
-                }
-                throw ioExc;
+                removeFileEntry(entry);
+            }
+            throw ioExc;
+        }
+
+        // Check whether files have already been created or deleted
+        List<FileEntry> triggerList = new ArrayList<>();
+        for (FileEntry entry : entryList)
+        {
+            if (probeFileEntry(entry))
+            {
+                triggerList.add(entry);
             }
         }
         for (FileEntry entry : triggerList)
@@ -444,7 +463,7 @@ public class FileSystemWatch implements Runnable, SystemService
         }
     }
 
-    private void addFileEntryImpl(FileEntry watchEntry) throws IOException
+    private Path getWatchPath(FileEntry watchEntry) throws IOException
     {
         Path filePath = watchEntry.watchFile;
         // TODO:
@@ -459,22 +478,33 @@ public class FileSystemWatch implements Runnable, SystemService
                 ": addFileEntry(): Cannot determine parent directory for path '" + filePath + "'"
             );
         }
+        return watchPath;
+    }
 
-        synchronized (mapLock)
+    /**
+     * Adds file entries that all watch files in the specified directory, registering the directory only once
+     */
+    private void addFileEntries(Path watchPath, List<FileEntry> watchEntries) throws IOException
+    {
+        if (Files.notExists(watchPath))
         {
-            // Add the file entry to the lookup map
-            Set<FileEntry> fileMapEntries = fileMap.get(filePath);
-            if (fileMapEntries == null)
+            for (FileEntry watchEntry : watchEntries)
             {
-                fileMapEntries = new TreeSet<>();
-                fileMap.put(filePath, fileMapEntries);
+                new NonExistingParentEntry(this, watchPath, watchEntry).handleNextEntry();
             }
-            fileMapEntries.add(watchEntry);
-
-            addWatcher(watchPath, watchEntry);
+        }
+        else
+        {
+            addWatchers(watchPath, wMapEntry -> watchEntries.forEach(wMapEntry::addFileEntry));
         }
     }
 
+    /**
+     * Checks whether the event of a file entry has already happened
+     *
+     * If the entry is configured to be automatically removed, then it is removed and only reported as triggered
+     * if it was not already removed (and therefore triggered) concurrently by the event loop
+     */
     private boolean probeFileEntry(FileEntry watchEntry)
     {
         boolean trigger = false;
@@ -497,7 +527,7 @@ public class FileSystemWatch implements Runnable, SystemService
         }
         if (trigger && watchEntry.remove)
         {
-            removeFileEntry(watchEntry);
+            trigger = removeFileEntryImpl(watchEntry);
         }
         return trigger;
     }
@@ -564,19 +594,13 @@ public class FileSystemWatch implements Runnable, SystemService
     public void addDirectoryEntry(DirectoryEntry watchEntry) throws IOException
     {
         Path watchPath = watchEntry.watchFile;
-
-        synchronized (mapLock)
+        if (Files.notExists(watchPath))
         {
-            // Add the directory to the lookup map
-            Set<DirectoryEntry> dirMapEntries = dirMap.get(watchPath);
-            if (dirMapEntries == null)
-            {
-                dirMapEntries = new TreeSet<>();
-                dirMap.put(watchPath, dirMapEntries);
-            }
-            dirMapEntries.add(watchEntry);
-
-            addWatcher(watchPath, watchEntry);
+            new NonExistingParentEntry(this, watchPath, watchEntry).handleNextEntry();
+        }
+        else
+        {
+            addWatchers(watchPath, wMapEntry -> wMapEntry.addDirectoryEntry(watchEntry));
         }
     }
 
@@ -590,25 +614,21 @@ public class FileSystemWatch implements Runnable, SystemService
      */
     public void removeFileEntry(FileEntry watchEntry)
     {
-        Path filePath = watchEntry.watchFile;
-        Path watchPath = filePath.getParent();
+        removeFileEntryImpl(watchEntry);
+    }
+
+    /**
+     * @return true if the entry was removed, false if it was not (or no longer) registered
+     */
+    private boolean removeFileEntryImpl(FileEntry watchEntry)
+    {
+        boolean removed = false;
+        Path watchPath = watchEntry.watchFile.getParent();
         if (watchPath != null)
         {
-            synchronized (mapLock)
-            {
-                Set<FileEntry> fileMapEntries = fileMap.get(filePath);
-                if (fileMapEntries != null)
-                {
-                    fileMapEntries.remove(watchEntry);
-                    if (fileMapEntries.isEmpty())
-                    {
-                        fileMap.remove(filePath);
-                    }
-                }
-
-                removeWatcher(watchPath, watchEntry);
-            }
+            removed = removeWatcher(watchPath, wMapEntry -> wMapEntry.removeFileEntry(watchEntry));
         }
+        return removed;
     }
 
     /**
@@ -621,72 +641,80 @@ public class FileSystemWatch implements Runnable, SystemService
      */
     public void removeDirectoryEntry(DirectoryEntry watchEntry)
     {
-        Path watchPath = watchEntry.watchFile;
-
-        synchronized (mapLock)
-        {
-            Set<DirectoryEntry> dirMapEntries = dirMap.get(watchPath);
-            if (dirMapEntries != null)
-            {
-                dirMapEntries.remove(watchEntry);
-                if (dirMapEntries.isEmpty())
-                {
-                    dirMap.remove(watchPath);
-                }
-            }
-        }
+        removeWatcher(watchEntry.watchFile, wMapEntry -> wMapEntry.removeDirectoryEntry(watchEntry));
     }
 
-    private void addWatcher(Path watchPath, Entry watchEntry) throws IOException
+    /**
+     * Adds watchers to the entry of the specified directory in the watchMap. If the directory
+     * is not currently being watched, the directory is registered and a new entry is created for it.
+     *
+     * @param adder Adds the watchers to the directory's entry. Called while the directory's entry is locked
+     */
+    private void addWatchers(Path watchPath, Consumer<WatchMapEntry> adder) throws IOException
     {
-        if (Files.notExists(watchPath))
-        {
-            new NonExistingParentEntry(this, watchPath, watchEntry).handleNextEntry();
-        }
-        else
+        try
         {
-            synchronized (mapLock)
-            {
-                // If the directory referenced by the FileEntry is not currently
-                // being watched, register the directory and create a new entry
-                // for it in the watchMap. Otherwise, add the FileEntry to the
-                // list of watchers associated with the corresponding watchMap
-                // entry.
-                WatchMapEntry wMapEntry = watchMap.get(watchPath);
-                if (wMapEntry == null)
+            watchMap.compute(
+                watchPath,
+                (path, wMapEntry) ->
                 {
-                    WatchKey key = watchPath.register(
-                        wSvc,
-                        StandardWatchEventKinds.ENTRY_CREATE,
-                        StandardWatchEventKinds.ENTRY_DELETE,
-                        StandardWatchEventKinds.ENTRY_MODIFY
-                    );
-                    wMapEntry = new WatchMapEntry(key);
-                    watchMap.put(watchPath, wMapEntry);
+                    WatchMapEntry entry = wMapEntry;
+                    if (entry == null)
+                    {
+                        try
+                        {
+                            WatchKey key = path.register(
+                                wSvc,
+                                StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_DELETE,
+                                StandardWatchEventKinds.ENTRY_MODIFY
+                            );
+                            entry = new WatchMapEntry(key);
+                        }
+                        catch (IOException ioExc)
+                        {
+                            throw new UncheckedIOException(ioExc);
+                        }
+                    }
+                    adder.accept(entry);
+                    return entry;
                 }
-                wMapEntry.entries.add(watchEntry);
-            }
+            );
+        }
+        catch (UncheckedIOException ioExc)
+        {
+            throw ioExc.getCause();
         }
     }
 
-    private void removeWatcher(Path watchPath, Entry watchEntry)
+    /**
+     * Removes a watcher from the entry of the specified directory in the watchMap. If no more
+     * watchers are left for the directory, the directory's WatchKey is cancelled and its entry is removed.
+     *
+     * @param remover Removes the watcher from the directory's entry and returns whether the watcher was
+     *     registered. Called while the directory's entry is locked
+     * @return the result of the remover, or false if the directory is not being watched
+     */
+    private boolean removeWatcher(Path watchPath, Predicate<WatchMapEntry> remover)
     {
-        synchronized (mapLock)
-        {
-            WatchMapEntry wMapEntry = watchMap.get(watchPath);
-            if (wMapEntry != null)
+        AtomicBoolean removed = new AtomicBoolean();
+        watchMap.computeIfPresent(
+            watchPath,
+            (path, wMapEntry) ->
             {
-                wMapEntry.entries.remove(watchEntry);
-                if (wMapEntry.entries.isEmpty())
+                WatchMapEntry entry = wMapEntry;
+                removed.set(remover.test(entry));
+                if (entry.isEmpty())
                 {
                     // No more watchers for this directory
-                    // Cancel the directory's WatchKey
-                    wMapEntry.key.cancel();
-                    // Remove the corresponding entry from the watchMap
-                    watchMap.remove(watchPath);
+                    // Cancel the directory's WatchKey and remove the corresponding entry from the watchMap
+                    entry.key.cancel();
+                    entry = null;
                 }
+                return entry;
             }
-        }
+        );
+        return removed.get();
     }
 
     @Override
@@ -977,13 +1005,79 @@ public class FileSystemWatch implements Runnable, SystemService
 
     private static class WatchMapEntry
     {
-        WatchKey key;
-        Set<Entry> entries;
+        final WatchKey key;
+
+        // Map from file path to the FileEntry objects watching the file
+        final Map<Path, Set<FileEntry>> fileEntries;
+
+        // Map from event to the DirectoryEntry objects watching the directory for the event
+        final Map<Event, Set<DirectoryEntry>> dirEntries;
+
+        // Number of all FileEntry and DirectoryEntry objects,
+        // only accessed in the watchMap's compute functions for this entry
+        int entryCount;
 
         WatchMapEntry(WatchKey keyRef)
         {
             key = keyRef;
-            entries = new TreeSet<>();
+            fileEntries = new ConcurrentHashMap<>();
+            dirEntries = new EnumMap<>(Event.class);
+            for (Event event : Event.values())
+            {
+                dirEntries.put(event, new ConcurrentSkipListSet<>());
+            }
+            entryCount = 0;
+        }
+
+        void addFileEntry(FileEntry watchEntry)
+        {
+            if (fileEntries.computeIfAbsent(watchEntry.watchFile, ignored -> new ConcurrentSkipListSet<>())
+                .add(watchEntry))
+            {
+                ++entryCount;
+            }
+        }
+
+        boolean removeFileEntry(FileEntry watchEntry)
+        {
+            boolean removed = false;
+            Set<FileEntry> fileEntrySet = fileEntries.get(watchEntry.watchFile);
+            if (fileEntrySet != null)
+            {
+                removed = fileEntrySet.remove(watchEntry);
+                if (fileEntrySet.isEmpty())
+                {
+                    fileEntries.remove(watchEntry.watchFile);
+                }
+            }
+            if (removed)
+            {
+                --entryCount;
+            }
+            return removed;
+        }
+
+        void addDirectoryEntry(DirectoryEntry watchEntry)
+        {
+            if (dirEntries.get(watchEntry.watchEvent).add(watchEntry))
+            {
+                ++entryCount;
+            }
+        }
+
+        boolean removeDirectoryEntry(DirectoryEntry watchEntry)
+        {
+            boolean removed = dirEntries.get(watchEntry.watchEvent).remove(watchEntry);
+            if (removed)
+            {
+                --entryCount;
+            }
+            return removed;
+        }
+
+        boolean isEmpty()
+        {
+            return entryCount == 0;
         }
     }
 
@@ -994,6 +1088,7 @@ public class FileSystemWatch implements Runnable, SystemService
         private final Entry origEntry;
         private final boolean isFileEntry;
         private DirectoryEntry lastDirWatchEntry = null;
+        private boolean origEntryAdded = false;
 
         NonExistingParentEntry(
             FileSystemWatch fswRef,
@@ -1007,66 +1102,57 @@ public class FileSystemWatch implements Runnable, SystemService
             isFileEntry = origEntryRef instanceof FileEntry;
         }
 
-        public void handleNextEntry()
+        public synchronized void handleNextEntry()
         {
             try
             {
-                Path watchPath = origWatchPath;
-
-                boolean useOrigEntry;
-
-                int missingParents = 0;
-                if (Files.notExists(watchPath))
+                boolean recheck = true;
+                while (recheck && !origEntryAdded)
                 {
-                    useOrigEntry = false;
+                    recheck = false;
+
+                    Path watchPath = origWatchPath;
+                    // The missing directory whose parent exists
+                    Path missingPath = null;
                     while (Files.notExists(watchPath))
                     {
-                        missingParents++;
+                        missingPath = watchPath;
                         watchPath = watchPath.getParent();
                     }
-                }
-                else
-                {
-                    useOrigEntry = true;
-                }
 
-                boolean fileEntryReached = missingParents == 0 && isFileEntry;
-                if (Files.isDirectory(watchPath) && !fileEntryReached)
-                {
-                    if (useOrigEntry)
+                    if (missingPath != null && Files.isDirectory(watchPath))
                     {
-                        fsw.newDirectoryEntry(
-                            watchPath.toString(),
-                            origEntry.watchEvent,
-                            ((DirectoryEntry) origEntry).dObserver
-                        );
+                        // Keep watching the same directory if other files were created in it
+                        if (lastDirWatchEntry == null || !lastDirWatchEntry.watchFile.equals(watchPath))
+                        {
+                            if (lastDirWatchEntry != null)
+                            {
+                                fsw.removeDirectoryEntry(lastDirWatchEntry);
+                            }
+                            lastDirWatchEntry = fsw.newDirectoryEntry(watchPath.toString(), Event.CREATE, this);
+                        }
+                        // The missing directory might have been created before its parent was watched
+                        recheck = Files.exists(missingPath);
                     }
                     else
                     {
                         if (lastDirWatchEntry != null)
                         {
                             fsw.removeDirectoryEntry(lastDirWatchEntry);
+                            lastDirWatchEntry = null;
+                        }
+                        origEntryAdded = true;
+                        // if watchPath is a not a directoy, we are done as well
+                        if (isFileEntry)
+                        {
+                            fsw.addFileEntry((FileEntry) origEntry);
+                        }
+                        else
+                        {
+                            fsw.addDirectoryEntry((DirectoryEntry) origEntry);
                         }
-                        lastDirWatchEntry = fsw.newDirectoryEntry(watchPath.toString(), Event.CREATE, this);
-                    }
-                }
-                else
-                {
-                    if (lastDirWatchEntry != null)
-                    {
-                        fsw.removeDirectoryEntry(lastDirWatchEntry);
-                    }
-                    // if watchPath is a not a directoy, we are done - no need to check useOrigEntry
-                    if (isFileEntry)
-                    {
-                        fsw.addFileEntry((FileEntry) origEntry);
-                    }
-                    else
-                    {
-                        fsw.addDirectoryEntry((DirectoryEntry) origEntry);
                     }
                 }
-
             }
             catch (IOException ioExc)
             {
@@ -1084,6 +1170,12 @@ public class FileSystemWatch implements Runnable, SystemService
         {
             handleNextEntry();
         }
+
+        @Override
+        public void directoryOverflow(DirectoryEntry watchEntry)
+        {
+            handleNextEntry();
+        }
     }
 
     private static synchronized long nextEventId()
@@ -59,6 +59,9 @@ public class InternalApiConsts
     public static final String API_CREATE_DEVICE_POOL = "CreateDevicePool";
     public static final String API_DELETE_DEVICE_POOL = "DeleteDevicePool";
 
+    public static final String API_REQUEST_METRICS = "RequestMetrics";
+    public static final String API_ANSWER_METRICS = "AnswerMetrics";
+
     public static final long API_AUTH_ERROR_HOST_MISMATCH = 1;
 
     public static final String PROP_PRIMARY_SET     = "DrbdPrimarySetOn";
@@ -98,6 +101,11 @@ public class InternalApiConsts
     public static final String DEFAULT_RSC_GRP_NAME = "DfltRscGrp";
     public static final String NODE_UNAME = "NodeUname";
 
+    // Controller properties for the compression of the controller <-> satellite messages
+    public static final String NAMESPC_NETCOM = "NetCom";
+    public static final String KEY_NETCOM_COMPRESSION = "Compression";
+    public static final String KEY_NETCOM_COMPRESSION_THRESHOLD = "CompressionThreshold";
+
     private InternalApiConsts()
     {
     }
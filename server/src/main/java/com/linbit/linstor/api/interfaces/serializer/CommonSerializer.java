@@ -37,6 +37,8 @@ public interface CommonSerializer
             int[] stltVersion,
             String nodeUname,
             List<ExtToolsInfo> layerInfoListRef,
+            String compression,
+            int compressionThreshold,
             ApiCallRc responses
         );
 
@@ -6,6 +6,7 @@ import com.linbit.linstor.core.objects.Node;
 import com.linbit.linstor.core.objects.Resource;
 import com.linbit.linstor.core.objects.Snapshot;
 import com.linbit.linstor.core.objects.StorPool;
+import com.linbit.linstor.metrics.MetricFamilySamples;
 import com.linbit.linstor.storage.LsBlkEntry;
 import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.kinds.RaidLevel;
@@ -41,6 +42,13 @@ public interface CtrlStltSerializer extends CommonSerializer
         CtrlStltSerializerBuilder primaryRequest(String rscName, String rscUuid, boolean alreadyInitialized);
 
         CtrlStltSerializerBuilder authMessage(UUID nodeUuid, String nodeName, byte[] sharedSecret);
+        CtrlStltSerializerBuilder authMessage(
+            UUID nodeUuid,
+            String nodeName,
+            byte[] sharedSecret,
+            String compression,
+            int compressionThreshold
+        );
 
         CtrlStltSerializerBuilder changedNode(UUID nodeUuid, String nodeName);
         CtrlStltSerializerBuilder changedResource(UUID rscUuid, String rscName);
@@ -111,6 +119,7 @@ public interface CtrlStltSerializer extends CommonSerializer
         CtrlStltSerializerBuilder physicalDevices(
             List<LsBlkEntry> entries
         );
+        CtrlStltSerializerBuilder metrics(List<MetricFamilySamples> familySamplesList);
         CtrlStltSerializerBuilder createDevicePool(
             List<String> devicePaths,
             DeviceProviderKind providerKindRef,
@@ -112,7 +112,6 @@ import com.linbit.linstor.storage.kinds.ExtTools;
 import com.linbit.linstor.storage.kinds.ExtToolsInfo;
 import com.linbit.utils.Pair;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -124,12 +123,13 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
 
 public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSerializerBuilder
 {
     protected final ErrorReporter errorReporter;
     protected final AccessContext serializerCtx;
-    protected final ByteArrayOutputStream baos;
+    protected final ProtoMessageBuffer msgBuffer;
     private boolean exceptionoccurred;
 
     public ProtoCommonSerializerBuilder(
@@ -143,7 +143,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
         this.errorReporter = errReporterRef;
         this.serializerCtx = serializerCtxRef;
 
-        baos = new ByteArrayOutputStream();
+        msgBuffer = new ProtoMessageBuffer();
         exceptionoccurred = false;
         if (msgContent != null || apiCallId != null)
 
@@ -170,7 +170,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
         }
         else
         {
-            ret = baos.toByteArray();
+            ret = msgBuffer.toByteArray();
         }
         return ret;
     }
@@ -204,9 +204,18 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
                 .setApiCallId(apiCallId)
                 .setMsgContent(msgContent);
         }
-        headerBuilder
-            .build()
-            .writeDelimitedTo(baos);
+        writeDelimited(
+            headerBuilder
+                .build()
+        );
+    }
+
+    /**
+     * Serializes the given message with its length prefix directly into the message buffer
+     */
+    protected void writeDelimited(MessageLite msg) throws IOException
+    {
+        msgBuffer.writeDelimited(msg);
     }
 
     protected void handleIOException(IOException exc)
@@ -229,14 +238,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
     @Override
     public CommonSerializer.CommonSerializerBuilder bytes(byte[] bytes)
     {
-        try
-        {
-            baos.write(bytes);
-        }
-        catch (IOException exc)
-        {
-            handleIOException(exc);
-        }
+        msgBuffer.write(bytes);
         return this;
     }
 
@@ -245,11 +247,12 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
     {
         try
         {
-            MsgIntAuthResponse.newBuilder()
-                .setSuccess(false)
-                .addAllResponses(serializeApiCallRc(apiCallRc))
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntAuthResponse.newBuilder()
+                    .setSuccess(false)
+                    .addAllResponses(serializeApiCallRc(apiCallRc))
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -264,22 +267,27 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
         int[] stltVersionRef,
         String uname,
         List<ExtToolsInfo> extToolsList,
+        String compression,
+        int compressionThreshold,
         ApiCallRc responses
     )
     {
         try
         {
-            MsgIntAuthResponse.newBuilder()
-                .setSuccess(true)
-                .setExpectedFullSyncId(expectedFullSyncIdRef)
-                .setLinstorVersionMajor(stltVersionRef[0])
-                .setLinstorVersionMinor(stltVersionRef[1])
-                .setLinstorVersionPatch(stltVersionRef[2])
-                .addAllResponses(serializeApiCallRc(responses))
-                .addAllExtToolsInfo(asExternalToolsList(extToolsList))
-                .setNodeUname(uname)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntAuthResponse.newBuilder()
+                    .setSuccess(true)
+                    .setExpectedFullSyncId(expectedFullSyncIdRef)
+                    .setLinstorVersionMajor(stltVersionRef[0])
+                    .setLinstorVersionMinor(stltVersionRef[1])
+                    .setLinstorVersionPatch(stltVersionRef[2])
+                    .addAllResponses(serializeApiCallRc(responses))
+                    .addAllExtToolsInfo(asExternalToolsList(extToolsList))
+                    .setNodeUname(uname)
+                    .setCompression(compression)
+                    .setCompressionThreshold(compressionThreshold)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -328,7 +336,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
         {
             for (ApiCallResponseOuterClass.ApiCallResponse protoMsg : serializeApiCallRc(apiCallRc))
             {
-                protoMsg.writeDelimitedTo(baos);
+                writeDelimited(protoMsg);
             }
         }
         catch (IOException exc)
@@ -374,7 +382,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
                 eventBuilder.setSnapshotName(eventIdentifier.getSnapshotName().displayValue);
             }
 
-            eventBuilder.build().writeDelimitedTo(baos);
+            writeDelimited(eventBuilder.build());
         }
         catch (IOException exc)
         {
@@ -388,10 +396,11 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
     {
         try
         {
-            EventVlmDiskStateOuterClass.EventVlmDiskState.newBuilder()
-                .setDiskState(diskState)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                EventVlmDiskStateOuterClass.EventVlmDiskState.newBuilder()
+                    .setDiskState(diskState)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -416,7 +425,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
                 builder.setUpToDate(usageState.getUpToDate());
             }
 
-            builder.build().writeDelimitedTo(baos);
+            writeDelimited(builder.build());
         }
         catch (IOException exc)
         {
@@ -461,7 +470,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
             {
                 bld.setTo(to.get().getTime());
             }
-            bld.addAllNodeNames(nodes).setWithContent(withContent).addAllIds(ids).build().writeDelimitedTo(baos);
+            writeDelimited(bld.addAllNodeNames(nodes).setWithContent(withContent).addAllIds(ids).build());
         }
         catch (IOException exc)
         {
@@ -487,7 +496,7 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
                 {
                     msgErrorReport.setText(errReport.getText());
                 }
-                msgErrorReport.build().writeDelimitedTo(baos);
+                writeDelimited(msgErrorReport.build());
             }
         }
         catch (IOException exc)
@@ -506,15 +515,16 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
     {
         try
         {
-            FilterOuterClass.Filter.newBuilder()
-                .addAllNodeNames(
-                    nodesFilter.stream().map(NodeName::getDisplayName).collect(Collectors.toList()))
-                .addAllStorPoolNames(
-                    storPoolFilter.stream().map(StorPoolName::getDisplayName).collect(Collectors.toList()))
-                .addAllResourceNames(
-                    resourceFilter.stream().map(ResourceName::getDisplayName).collect(Collectors.toList()))
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                FilterOuterClass.Filter.newBuilder()
+                    .addAllNodeNames(
+                        nodesFilter.stream().map(NodeName::getDisplayName).collect(Collectors.toList()))
+                    .addAllStorPoolNames(
+                        storPoolFilter.stream().map(StorPoolName::getDisplayName).collect(Collectors.toList()))
+                    .addAllResourceNames(
+                        resourceFilter.stream().map(ResourceName::getDisplayName).collect(Collectors.toList()))
+                    .build()
+            );
         }
         catch (IOException exc)
         {
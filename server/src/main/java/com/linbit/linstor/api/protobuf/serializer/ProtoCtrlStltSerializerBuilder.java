@@ -7,6 +7,7 @@ import com.linbit.linstor.api.SpaceInfo;
 import com.linbit.linstor.api.interfaces.serializer.CommonSerializer.CommonSerializerBuilder;
 import com.linbit.linstor.api.interfaces.serializer.CtrlStltSerializer;
 import com.linbit.linstor.api.protobuf.ProtoStorPoolFreeSpaceUtils;
+import com.linbit.linstor.api.protobuf.serializer.ProtoSerializationCache.Version;
 import com.linbit.linstor.core.CtrlSecurityObjects;
 import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
 import com.linbit.linstor.core.objects.NetInterface;
@@ -14,14 +15,22 @@ import com.linbit.linstor.core.objects.Node;
 import com.linbit.linstor.core.objects.NodeConnection;
 import com.linbit.linstor.core.objects.Resource;
 import com.linbit.linstor.core.objects.ResourceDefinition;
+import com.linbit.linstor.core.objects.ResourceGroup;
 import com.linbit.linstor.core.objects.Snapshot;
 import com.linbit.linstor.core.objects.SnapshotDefinition;
 import com.linbit.linstor.core.objects.SnapshotVolume;
 import com.linbit.linstor.core.objects.SnapshotVolumeDefinition;
 import com.linbit.linstor.core.objects.StorPool;
 import com.linbit.linstor.core.objects.StorPoolDefinition;
+import com.linbit.linstor.core.objects.Volume;
+import com.linbit.linstor.core.objects.VolumeDefinition;
+import com.linbit.linstor.core.objects.VolumeGroup;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.MetricFamilySamples;
 import com.linbit.linstor.propscon.Props;
+import com.linbit.linstor.proto.common.NodeOuterClass;
+import com.linbit.linstor.proto.common.RscDfnOuterClass.RscDfn;
+import com.linbit.linstor.proto.common.RscOuterClass.Rsc;
 import com.linbit.linstor.proto.common.StorPoolFreeSpaceOuterClass;
 import com.linbit.linstor.proto.common.StorPoolFreeSpaceOuterClass.StorPoolFreeSpace;
 import com.linbit.linstor.proto.javainternal.IntObjectIdOuterClass.IntObjectId;
@@ -56,12 +65,19 @@ import com.linbit.linstor.proto.javainternal.s2c.MsgIntApplyRscSuccessOuterClass
 import com.linbit.linstor.proto.javainternal.s2c.MsgIntApplyStorPoolSuccessOuterClass.MsgIntApplyStorPoolSuccess;
 import com.linbit.linstor.proto.javainternal.s2c.MsgIntPrimaryOuterClass;
 import com.linbit.linstor.proto.javainternal.s2c.MsgIntUpdateFreeSpaceOuterClass.MsgIntUpdateFreeSpace;
+import com.linbit.linstor.proto.javainternal.s2c.MsgIntMetricsOuterClass;
+import com.linbit.linstor.proto.javainternal.s2c.MsgIntMetricsOuterClass.MsgIntMetrics;
 import com.linbit.linstor.proto.javainternal.s2c.MsgPhysicalDevicesOuterClass;
 import com.linbit.linstor.proto.javainternal.s2c.MsgPhysicalDevicesOuterClass.MsgPhysicalDevices;
 import com.linbit.linstor.proto.javainternal.s2c.MsgRscFailedOuterClass.MsgRscFailed;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
 import com.linbit.linstor.storage.LsBlkEntry;
+import com.linbit.linstor.storage.interfaces.categories.resource.AbsRscLayerObject;
+import com.linbit.linstor.storage.interfaces.categories.resource.RscDfnLayerObject;
+import com.linbit.linstor.storage.interfaces.categories.resource.VlmDfnLayerObject;
+import com.linbit.linstor.storage.interfaces.categories.resource.VlmProviderObject;
+import com.linbit.linstor.storage.kinds.DeviceLayerKind;
 import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.kinds.RaidLevel;
 import com.linbit.utils.Base64;
@@ -89,12 +105,14 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     private final SnapshotSerializerHelper snapshotSerializerHelper;
     private final NodeSerializerHelper nodeSerializerHelper;
     private final CtrlSecurityObjects secObjs;
+    private final ProtoSerializationCache serializationCache;
 
     public ProtoCtrlStltSerializerBuilder(
         ErrorReporter errReporter,
         AccessContext serializerCtx,
         CtrlSecurityObjects secObjsRef,
         Props ctrlConfRef,
+        ProtoSerializationCache serializationCacheRef,
         final String apiCall,
         Long apiCallId,
         boolean isAnswer
@@ -102,6 +120,7 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         super(errReporter, serializerCtx, apiCall, apiCallId, isAnswer);
         secObjs = secObjsRef;
+        serializationCache = serializationCacheRef;
 
         ctrlSerializerHelper = new CtrlSerializerHelper(ctrlConfRef);
         rscSerializerHelper = new ResourceSerializerHelper();
@@ -114,15 +133,30 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
      */
     @Override
     public ProtoCtrlStltSerializerBuilder authMessage(UUID nodeUuid, String nodeName, byte[] sharedSecret)
+    {
+        return authMessage(nodeUuid, nodeName, sharedSecret, "", 0);
+    }
+
+    @Override
+    public ProtoCtrlStltSerializerBuilder authMessage(
+        UUID nodeUuid,
+        String nodeName,
+        byte[] sharedSecret,
+        String compression,
+        int compressionThreshold
+    )
     {
         try
         {
-            MsgIntAuthOuterClass.MsgIntAuth.newBuilder()
-                .setNodeUuid(nodeUuid.toString())
-                .setNodeName(nodeName)
-                .setSharedSecret(ByteString.copyFrom(sharedSecret))
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntAuthOuterClass.MsgIntAuth.newBuilder()
+                    .setNodeUuid(nodeUuid.toString())
+                    .setNodeName(nodeName)
+                    .setSharedSecret(ByteString.copyFrom(sharedSecret))
+                    .setCompression(compression)
+                    .setCompressionThreshold(compressionThreshold)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -175,9 +209,10 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            ctrlSerializerHelper
-                .buildApplyControllerMsg(fullSyncTimestamp, serializerid)
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                ctrlSerializerHelper
+                    .buildApplyControllerMsg(fullSyncTimestamp, serializerid)
+            );
         }
         catch (IOException exc)
         {
@@ -196,12 +231,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyNode.newBuilder()
-                .setNode(nodeSerializerHelper.buildNodeMsg(node, relatedNodes))
-                .setFullSyncId(fullSyncTimestamp)
-                .setUpdateId(serializerId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyNode.newBuilder()
+                    .setNode(nodeSerializerHelper.buildNodeMsg(node, relatedNodes))
+                    .setFullSyncId(fullSyncTimestamp)
+                    .setUpdateId(serializerId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -223,12 +259,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyDeletedNode.newBuilder()
-                .setNodeName(nodeNameStr)
-                .setFullSyncId(fullSyncTimestamp)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyDeletedNode.newBuilder()
+                    .setNodeName(nodeNameStr)
+                    .setFullSyncId(fullSyncTimestamp)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -246,12 +283,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyRsc.newBuilder()
-                .setRsc(rscSerializerHelper.buildIntResource(localResource))
-                .setFullSyncId(fullSyncTimestamp)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyRsc.newBuilder()
+                    .setRsc(rscSerializerHelper.buildIntResource(localResource))
+                    .setFullSyncId(fullSyncTimestamp)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -273,12 +311,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyDeletedRsc.newBuilder()
-                .setRscName(rscNameStr)
-                .setFullSyncId(fullSyncTimestamp)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyDeletedRsc.newBuilder()
+                    .setRscName(rscNameStr)
+                    .setFullSyncId(fullSyncTimestamp)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -296,12 +335,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyStorPool.newBuilder()
-                .setStorPool(buildIntStorPoolMsg(storPool))
-                .setFullSyncId(fullSyncTimestamp)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyStorPool.newBuilder()
+                    .setStorPool(buildIntStorPoolMsg(storPool))
+                    .setFullSyncId(fullSyncTimestamp)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -323,12 +363,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyDeletedStorPool.newBuilder()
-                .setStorPoolName(storPoolNameStr)
-                .setFullSyncId(fullSyncTimestamp)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyDeletedStorPool.newBuilder()
+                    .setStorPoolName(storPoolNameStr)
+                    .setFullSyncId(fullSyncTimestamp)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -344,12 +385,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplySnapshot.newBuilder()
-                .setSnapshot(snapshotSerializerHelper.buildSnapshotMsg(snapshot))
-                .setFullSyncId(fullSyncId)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplySnapshot.newBuilder()
+                    .setSnapshot(snapshotSerializerHelper.buildSnapshotMsg(snapshot))
+                    .setFullSyncId(fullSyncId)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -369,13 +411,14 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntSnapshotEndedDataOuterClass.MsgIntSnapshotEndedData.newBuilder()
-                .setRscName(resourceNameStr)
-                .setSnapshotName(snapshotNameStr)
-                .setFullSyncId(fullSyncId)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntSnapshotEndedDataOuterClass.MsgIntSnapshotEndedData.newBuilder()
+                    .setRscName(resourceNameStr)
+                    .setSnapshotName(snapshotNameStr)
+                    .setFullSyncId(fullSyncId)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -436,16 +479,17 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
             {
                 encodedMasterKey = Base64.encode(cryptKey);
             }
-            MsgIntApplyFullSync.newBuilder()
-                .addAllNodes(serializedNodes)
-                .addAllStorPools(serializedStorPools)
-                .addAllRscs(serializedRscs)
-                .addAllSnapshots(serializedSnapshots)
-                .setFullSyncTimestamp(fullSyncTimestamp)
-                .setMasterKey(encodedMasterKey)
-                .setCtrl(serializedCtrl)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyFullSync.newBuilder()
+                    .addAllNodes(serializedNodes)
+                    .addAllStorPools(serializedStorPools)
+                    .addAllRscs(serializedRscs)
+                    .addAllSnapshots(serializedSnapshots)
+                    .setFullSyncTimestamp(fullSyncTimestamp)
+                    .setMasterKey(encodedMasterKey)
+                    .setCtrl(serializedCtrl)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -466,12 +510,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntPrimaryOuterClass.MsgIntPrimary.newBuilder()
-                .setRscName(rscName)
-                .setRscUuid(rscUuid)
-                .setAlreadyInitialized(alreadyInitialized)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntPrimaryOuterClass.MsgIntPrimary.newBuilder()
+                    .setRscName(rscName)
+                    .setRscUuid(rscUuid)
+                    .setAlreadyInitialized(alreadyInitialized)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -485,15 +530,16 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyNodeSuccessOuterClass.MsgIntApplyNodeSuccess.newBuilder()
-                .setNodeId(
-                    IntObjectId.newBuilder()
-                        .setUuid(node.getUuid().toString())
-                        .setName(node.getName().displayValue)
-                        .build()
-                )
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyNodeSuccessOuterClass.MsgIntApplyNodeSuccess.newBuilder()
+                    .setNodeId(
+                        IntObjectId.newBuilder()
+                            .setUuid(node.getUuid().toString())
+                            .setName(node.getName().displayValue)
+                            .build()
+                    )
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -510,24 +556,25 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyRscSuccessOuterClass.MsgIntApplyRscSuccess.newBuilder()
-                .setRscId(
-                    IntObjectId.newBuilder()
-                        .setUuid(resource.getUuid().toString())
-                        .setName(resource.getDefinition().getName().displayValue)
-                        .build()
-                )
-                .addAllFreeSpace(
-                    ProtoStorPoolFreeSpaceUtils.getAllStorPoolFreeSpaces(freeSpaceMap)
-                )
-                .setLayerObject(
-                    ProtoCommonSerializerBuilder.LayerObjectSerializer.serializeLayerObject(
-                        resource.getLayerData(serializerCtx),
-                        serializerCtx
+            writeDelimited(
+                MsgIntApplyRscSuccessOuterClass.MsgIntApplyRscSuccess.newBuilder()
+                    .setRscId(
+                        IntObjectId.newBuilder()
+                            .setUuid(resource.getUuid().toString())
+                            .setName(resource.getDefinition().getName().displayValue)
+                            .build()
                     )
-                )
-                .build()
-                .writeDelimitedTo(baos);
+                    .addAllFreeSpace(
+                        ProtoStorPoolFreeSpaceUtils.getAllStorPoolFreeSpaces(freeSpaceMap)
+                    )
+                    .setLayerObject(
+                        ProtoCommonSerializerBuilder.LayerObjectSerializer.serializeLayerObject(
+                            resource.getLayerData(serializerCtx),
+                            serializerCtx
+                        )
+                    )
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -545,11 +592,12 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgRscFailed.newBuilder()
-                .setRsc(ProtoCommonSerializerBuilder.serializeResource(serializerCtx, resource))
-                .addAllResponses(ProtoCommonSerializerBuilder.serializeApiCallRc(apiCallRc))
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgRscFailed.newBuilder()
+                    .setRsc(ProtoCommonSerializerBuilder.serializeResource(serializerCtx, resource))
+                    .addAllResponses(ProtoCommonSerializerBuilder.serializeApiCallRc(apiCallRc))
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -623,10 +671,11 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
             }
 
 
-            MsgIntUpdateFreeSpace.newBuilder()
-                .addAllFreeSpace(freeSpaces)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntUpdateFreeSpace.newBuilder()
+                    .addAllFreeSpace(freeSpaces)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -644,20 +693,21 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntApplyStorPoolSuccess.newBuilder()
-                .setStorPoolName(storPool.getName().displayValue)
-                .setFreeSpace(
-                    StorPoolFreeSpaceOuterClass.StorPoolFreeSpace.newBuilder()
-                        .setStorPoolUuid(storPool.getUuid().toString())
-                        .setStorPoolName(storPool.getName().displayValue)
-                        .setFreeCapacity(spaceInfo.freeCapacity)
-                        .setTotalCapacity(spaceInfo.totalCapacity)
-                        .build()
-                    )
-                .setSupportsSnapshots(supportsSnapshotsRef)
-                .setIsPmem(storPool.isPmem())
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntApplyStorPoolSuccess.newBuilder()
+                    .setStorPoolName(storPool.getName().displayValue)
+                    .setFreeSpace(
+                        StorPoolFreeSpaceOuterClass.StorPoolFreeSpace.newBuilder()
+                            .setStorPoolUuid(storPool.getUuid().toString())
+                            .setStorPoolName(storPool.getName().displayValue)
+                            .setFreeCapacity(spaceInfo.freeCapacity)
+                            .setTotalCapacity(spaceInfo.totalCapacity)
+                            .build()
+                        )
+                    .setSupportsSnapshots(supportsSnapshotsRef)
+                    .setIsPmem(storPool.isPmem())
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -672,10 +722,11 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgReqPhysicalDevices.newBuilder()
-                .setFilter(filter)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgReqPhysicalDevices.newBuilder()
+                    .setFilter(filter)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -714,9 +765,10 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
                 );
             }
 
-            msgCreateDevicePoolBuilder
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                msgCreateDevicePoolBuilder
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -740,9 +792,10 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
                     .setProviderKind(asProviderType(providerKindRef))
                     .setPoolName(poolName);
 
-            msgDeleteDevicePoolBuilder
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                msgDeleteDevicePoolBuilder
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -756,19 +809,55 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgPhysicalDevices.newBuilder()
-                .addAllDevices(entries.stream().map(lsBlkEntry ->
-                    MsgPhysicalDevicesOuterClass.LsBlkEntry.newBuilder()
-                        .setName(lsBlkEntry.getName())
-                        .setSize(lsBlkEntry.getSize())
-                        .setRotational(lsBlkEntry.isRotational())
-                        .setKernelName(lsBlkEntry.getKernelName())
-                        .setParentName(lsBlkEntry.getParentName())
-                        .setMajor(lsBlkEntry.getMajor())
-                        .setMinor(lsBlkEntry.getMinor())
-                        .build()).collect(Collectors.toList()))
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgPhysicalDevices.newBuilder()
+                    .addAllDevices(entries.stream().map(lsBlkEntry ->
+                        MsgPhysicalDevicesOuterClass.LsBlkEntry.newBuilder()
+                            .setName(lsBlkEntry.getName())
+                            .setSize(lsBlkEntry.getSize())
+                            .setRotational(lsBlkEntry.isRotational())
+                            .setKernelName(lsBlkEntry.getKernelName())
+                            .setParentName(lsBlkEntry.getParentName())
+                            .setMajor(lsBlkEntry.getMajor())
+                            .setMinor(lsBlkEntry.getMinor())
+                            .build()).collect(Collectors.toList()))
+                    .build()
+            );
+        }
+        catch (IOException exc)
+        {
+            handleIOException(exc);
+        }
+        return this;
+    }
+
+    @Override
+    public CtrlStltSerializer.CtrlStltSerializerBuilder metrics(List<MetricFamilySamples> familySamplesList)
+    {
+        try
+        {
+            MsgIntMetrics.Builder msgBuilder = MsgIntMetrics.newBuilder();
+            for (MetricFamilySamples familySamples : familySamplesList)
+            {
+                MsgIntMetricsOuterClass.MetricFamily.Builder familyBuilder =
+                    MsgIntMetricsOuterClass.MetricFamily.newBuilder()
+                        .setName(familySamples.getName())
+                        .setType(familySamples.getType().name())
+                        .setHelp(familySamples.getHelp());
+                for (MetricFamilySamples.Sample sample : familySamples.getSamples())
+                {
+                    familyBuilder.addSamples(
+                        MsgIntMetricsOuterClass.MetricSample.newBuilder()
+                            .setName(sample.name)
+                            .addAllLabelNames(sample.labelNames)
+                            .addAllLabelValues(sample.labelValues)
+                            .setValue(sample.value)
+                            .build()
+                    );
+                }
+                msgBuilder.addFamilies(familyBuilder.build());
+            }
+            writeDelimited(msgBuilder.build());
         }
         catch (IOException exc)
         {
@@ -786,12 +875,13 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     {
         try
         {
-            MsgIntCryptKey.newBuilder()
-                .setCryptKey(ByteString.copyFrom(cryptKey))
-                .setFullSyncId(fullSyncTimestamp)
-                .setUpdateId(updateId)
-                .build()
-                .writeDelimitedTo(baos);
+            writeDelimited(
+                MsgIntCryptKey.newBuilder()
+                    .setCryptKey(ByteString.copyFrom(cryptKey))
+                    .setFullSyncId(fullSyncTimestamp)
+                    .setUpdateId(updateId)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -809,10 +899,11 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
             {
                 msgBuilder.setUuid(objUuid.toString());
             }
-            msgBuilder
-                .setName(objName)
-                .build()
-            .writeDelimitedTo(baos);
+            writeDelimited(
+                msgBuilder
+                    .setName(objName)
+                    .build()
+            );
         }
         catch (IOException exc)
         {
@@ -823,11 +914,109 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     private IntStorPool buildIntStorPoolMsg(StorPool storPool)
         throws AccessDeniedException
     {
-        StorPoolDefinition storPoolDfn = storPool.getDefinition(serializerCtx);
-        return IntStorPool.newBuilder()
-            .setStorPool(ProtoCommonSerializerBuilder.serializeStorPool(serializerCtx, storPool))
-            .setStorPoolDfn(ProtoCommonSerializerBuilder.serializeStorPoolDfn(serializerCtx, storPoolDfn))
-            .build();
+        return serializationCache.get(
+            IntStorPool.class,
+            storPool.getUuid(),
+            storPoolVersion(storPool),
+            () ->
+            {
+                StorPoolDefinition storPoolDfn = storPool.getDefinition(serializerCtx);
+                return IntStorPool.newBuilder()
+                    .setStorPool(ProtoCommonSerializerBuilder.serializeStorPool(serializerCtx, storPool))
+                    .setStorPoolDfn(ProtoCommonSerializerBuilder.serializeStorPoolDfn(serializerCtx, storPoolDfn))
+                    .build();
+            }
+        );
+    }
+
+    /*
+     * The versions have to include every object whose data ends up in the cached message
+     */
+    private Version storPoolVersion(StorPool storPool) throws AccessDeniedException
+    {
+        return addStorPool(new Version(), storPool);
+    }
+
+    private Version addStorPool(Version version, StorPool storPool) throws AccessDeniedException
+    {
+        return version
+            .add(storPool)
+            .add(storPool.getDefinition(serializerCtx))
+            .add(storPool.getFreeSpaceTracker());
+    }
+
+    private Version nodeVersion(Node node) throws AccessDeniedException
+    {
+        Version version = new Version().add(node);
+        for (NetInterface netIf : node.streamNetInterfaces(serializerCtx).collect(toList()))
+        {
+            version.add(netIf);
+        }
+        return version;
+    }
+
+    private Version rscDfnVersion(ResourceDefinition rscDfn) throws AccessDeniedException
+    {
+        ResourceGroup rscGrp = rscDfn.getResourceGroup();
+        Version version = new Version()
+            .add(rscDfn)
+            .add(rscGrp);
+        for (VolumeGroup vlmGrp : rscGrp.getVolumeGroups(serializerCtx))
+        {
+            version.add(vlmGrp);
+        }
+        for (DeviceLayerKind kind : DeviceLayerKind.values())
+        {
+            for (RscDfnLayerObject rscDfnLayerObj : rscDfn.getLayerData(serializerCtx, kind).values())
+            {
+                version.add(rscDfnLayerObj);
+            }
+        }
+        Iterator<VolumeDefinition> vlmDfnIter = rscDfn.iterateVolumeDfn(serializerCtx);
+        while (vlmDfnIter.hasNext())
+        {
+            VolumeDefinition vlmDfn = vlmDfnIter.next();
+            version.add(vlmDfn);
+            for (DeviceLayerKind kind : DeviceLayerKind.values())
+            {
+                for (VlmDfnLayerObject vlmDfnLayerObj : vlmDfn.getLayerData(serializerCtx, kind).values())
+                {
+                    version.add(vlmDfnLayerObj);
+                }
+            }
+        }
+        return version;
+    }
+
+    Version rscVersion(Resource rsc) throws AccessDeniedException
+    {
+        Version version = new Version().add(rsc);
+        for (Volume vlm : rsc.streamVolumes().collect(toList()))
+        {
+            version.add(vlm);
+        }
+        LinkedList<AbsRscLayerObject<Resource>> rscDataToExpand = new LinkedList<>();
+        rscDataToExpand.add(rsc.getLayerData(serializerCtx));
+        while (!rscDataToExpand.isEmpty())
+        {
+            AbsRscLayerObject<Resource> rscData = rscDataToExpand.removeFirst();
+            if (rscData != null)
+            {
+                version.add(rscData).add(rscData.getRscDfnLayerObject());
+                for (VlmProviderObject<Resource> vlmData : rscData.getVlmLayerObjects().values())
+                {
+                    version.add(vlmData).add(vlmData.getVlmDfnLayerObject());
+                    // the storage volumes embed their storage pool
+                    StorPool storPool = vlmData.getStorPool();
+                    if (storPool != null)
+                    {
+                        addStorPool(version, storPool);
+                    }
+                }
+                rscDataToExpand.addAll(rscData.getChildren());
+            }
+        }
+        return version;
     }
 
     private class NodeSerializerHelper
@@ -957,8 +1146,15 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
             ResourceDefinition rscDfn = localResource.getDefinition();
 
             return IntRsc.newBuilder()
-                .setLocalRsc(ProtoCommonSerializerBuilder.serializeResource(serializerCtx, localResource))
-                .setRscDfn(ProtoCommonSerializerBuilder.serializeResourceDefinition(serializerCtx, rscDfn))
+                .setLocalRsc(serializeResource(localResource))
+                .setRscDfn(
+                    serializationCache.get(
+                        RscDfn.class,
+                        rscDfn.getUuid(),
+                        rscDfnVersion(rscDfn),
+                        () -> ProtoCommonSerializerBuilder.serializeResourceDefinition(serializerCtx, rscDfn)
+                    )
+                )
                 .addAllOtherResources(buildOtherResources(otherResources))
                 .addAllRscConnections(
                     ProtoCommonSerializerBuilder.serializeResourceConnections(
@@ -979,17 +1175,35 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
             {
                 list.add(
                     IntOtherRsc.newBuilder()
-                        .setNode(ProtoCommonSerializerBuilder.serializeNode(
-                            serializerCtx,
-                            rsc.getNode())
+                        .setNode(
+                            serializationCache.get(
+                                NodeOuterClass.Node.class,
+                                rsc.getNode().getUuid(),
+                                nodeVersion(rsc.getNode()),
+                                () -> ProtoCommonSerializerBuilder.serializeNode(serializerCtx, rsc.getNode())
+                            )
                         )
-                        .setRsc(ProtoCommonSerializerBuilder.serializeResource(serializerCtx, rsc))
+                        .setRsc(serializeResource(rsc))
                         .build()
                 );
             }
 
             return list;
         }
+
+        /*
+         * The same resource is serialized as the local resource for its own satellite and as one of the
+         * other resources for all of its peers
+         */
+        private Rsc serializeResource(Resource rsc) throws AccessDeniedException
+        {
+            return serializationCache.get(
+                Rsc.class,
+                rsc.getUuid(),
+                rscVersion(rsc),
+                () -> ProtoCommonSerializerBuilder.serializeResource(serializerCtx, rsc)
+            );
+        }
     }
 
     private class SnapshotSerializerHelper
@@ -1058,12 +1272,20 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
     )
     {
         StorPool storPool = entry.getKey();
+        return buildStorPoolFreeSpace(storPool.getUuid(), storPool.getName().displayValue, entry.getValue());
+    }
 
+    public static StorPoolFreeSpace.Builder buildStorPoolFreeSpace(
+        UUID storPoolUuid,
+        String storPoolName,
+        Either<SpaceInfo, ApiRcException> spaceInfo
+    )
+    {
         StorPoolFreeSpace.Builder freeSpaceBuilder = StorPoolFreeSpace.newBuilder()
-            .setStorPoolUuid(storPool.getUuid().toString())
-            .setStorPoolName(storPool.getName().displayValue);
+            .setStorPoolUuid(storPoolUuid.toString())
+            .setStorPoolName(storPoolName);
 
-        entry.getValue().consume(
+        spaceInfo.consume(
             spaceInfo -> freeSpaceBuilder
                 .setFreeCapacity(spaceInfo.freeCapacity)
                 .setTotalCapacity(spaceInfo.totalCapacity),
@@ -0,0 +1,79 @@
+package com.linbit.linstor.api.protobuf.serializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+
+/**
+ * Output buffer for the serializer builders.
+ *
+ * Delimited messages are serialized with a {@link CodedOutputStream} directly into the backing array, after
+ * their size was computed via {@link MessageLite#getSerializedSize()}. The array is grown to the exact size
+ * required by a large write, so a message consisting of a header followed by a single (potentially large)
+ * payload ends up in an array of exactly the right size, which {@link #toByteArray()} hands out without
+ * copying it again. Unlike a {@link java.io.ByteArrayOutputStream}, the payload is therefore neither copied
+ * while the buffer grows by doubling nor once more when the final array is created.
+ */
+public class ProtoMessageBuffer
+{
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[] buf;
+    private int count;
+
+    public ProtoMessageBuffer()
+    {
+        buf = EMPTY;
+        count = 0;
+    }
+
+    /**
+     * Same as {@link MessageLite#writeDelimitedTo(java.io.OutputStream)}, but without intermediate buffers
+     */
+    public void writeDelimited(MessageLite msg) throws IOException
+    {
+        final int msgSize = msg.getSerializedSize();
+        final int totalSize = CodedOutputStream.computeUInt32SizeNoTag(msgSize) + msgSize;
+        ensureCapacity(totalSize);
+
+        CodedOutputStream codedOut = CodedOutputStream.newInstance(buf, count, totalSize);
+        codedOut.writeUInt32NoTag(msgSize);
+        msg.writeTo(codedOut);
+        codedOut.checkNoSpaceLeft();
+        count += totalSize;
+    }
+
+    public void write(byte[] bytes)
+    {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, count, bytes.length);
+        count += bytes.length;
+    }
+
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the written bytes. If the backing array is completely filled, the backing array itself is
+     * returned, so the buffer must not be used for further writes afterwards.
+     */
+    public byte[] toByteArray()
+    {
+        return count == buf.length ? buf : Arrays.copyOf(buf, count);
+    }
+
+    private void ensureCapacity(int additional)
+    {
+        final int required = Math.addExact(count, additional);
+        if (required > buf.length)
+        {
+            // exact growth for large writes (usually the payload following the header),
+            // but grow by at least a quarter so that many small consecutive writes stay amortized
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length + (buf.length >> 2)));
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.linbit.linstor.api.protobuf.serializer;
+
+import com.linbit.linstor.security.AccessDeniedException;
+import com.linbit.linstor.transaction.TransactionObject;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.protobuf.MessageLite;
+
+/**
+ * Cache for serialized parts of the controller -> satellite messages.
+ *
+ * When an object changes, every satellite that has to know about the change requests an update and gets the
+ * same node, resource definition, resource and storage pool messages serialized again and again (the resource
+ * definition and all resources of a resource definition are part of the update of every peer). This cache keeps
+ * those messages, keyed by their type and the UUID of the serialized object, so each of them is only built once.
+ *
+ * Every entry remembers the {@link Version} of the objects it was built from, that is the modification counters
+ * of the serialized object and of all other objects whose data is part of the message. An entry is only used as
+ * long as the current version of those objects is still the same, so a modification only invalidates the
+ * messages that actually contain the modified data.
+ */
+public class ProtoSerializationCache
+{
+    /**
+     * Entries of deleted objects are never looked up again, the least recently used entries are dropped once
+     * the cache has more entries than this
+     */
+    private static final int MAX_ENTRIES = 16384;
+
+    private final Map<CacheKey, CacheEntry> cache = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 3520945707464217512L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest)
+        {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private long hits;
+    private long misses;
+
+    @FunctionalInterface
+    public interface MessageBuilder<MSG extends MessageLite>
+    {
+        MSG build() throws AccessDeniedException;
+    }
+
+    /**
+     * Returns the cached message of the given type for the given object if it was built from the given version,
+     * otherwise the message is built and cached.
+     *
+     * The version has to be taken while the caller holds the read locks of the serialized objects, i.e. the
+     * same way the message itself is built.
+     */
+    public <MSG extends MessageLite> MSG get(
+        Class<MSG> msgClass,
+        UUID objUuid,
+        Version version,
+        MessageBuilder<MSG> builder
+    )
+        throws AccessDeniedException
+    {
+        CacheKey key = new CacheKey(msgClass, objUuid);
+
+        MSG msg = lookup(key, version);
+        if (msg == null)
+        {
+            msg = builder.build();
+            store(key, version, msg);
+        }
+        return msg;
+    }
+
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    public synchronized int size()
+    {
+        return cache.size();
+    }
+
+    private synchronized <MSG extends MessageLite> MSG lookup(CacheKey key, Version version)
+    {
+        MSG msg = null;
+        CacheEntry entry = cache.get(key);
+        if (entry != null && entry.version.equals(version))
+        {
+            @SuppressWarnings("unchecked")
+            MSG cachedMsg = (MSG) entry.msg;
+            msg = cachedMsg;
+            ++hits;
+        }
+        else
+        {
+            ++misses;
+        }
+        return msg;
+    }
+
+    private synchronized void store(CacheKey key, Version version, MessageLite msg)
+    {
+        cache.put(key, new CacheEntry(version, msg));
+    }
+
+    /**
+     * The modification counters of all objects a message is built from, in the order they were added.
+     *
+     * The counters of the objects only ever increase, so the same sequence of counters means that none of the
+     * objects was modified in between. Objects that are added or removed (e.g. volumes of a resource) also modify
+     * the collection of their parent object, which has to be part of the version as well.
+     */
+    public static class Version
+    {
+        private long[] counters = new long[8];
+        private int size = 0;
+
+        public Version add(TransactionObject transObj)
+        {
+            if (size == counters.length)
+            {
+                counters = Arrays.copyOf(counters, size * 2);
+            }
+            counters[size++] = transObj == null ? -1 : transObj.getModificationCount();
+            return this;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash = size;
+            for (int idx = 0; idx < size; ++idx)
+            {
+                hash = 31 * hash + Long.hashCode(counters[idx]);
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            boolean eq = obj == this;
+            if (!eq && obj instanceof Version)
+            {
+                Version other = (Version) obj;
+                eq = size == other.size;
+                for (int idx = 0; eq && idx < size; ++idx)
+                {
+                    eq = counters[idx] == other.counters[idx];
+                }
+            }
+            return eq;
+        }
+    }
+
+    private static class CacheEntry
+    {
+        private final Version version;
+        private final MessageLite msg;
+
+        CacheEntry(Version versionRef, MessageLite msgRef)
+        {
+            version = versionRef;
+            msg = msgRef;
+        }
+    }
+
+    private static class CacheKey
+    {
+        private final Class<?> msgClass;
+        private final UUID objUuid;
+
+        CacheKey(Class<?> msgClassRef, UUID objUuidRef)
+        {
+            msgClass = msgClassRef;
+            objUuid = objUuidRef;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * msgClass.hashCode() + objUuid.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            boolean eq = obj == this;
+            if (!eq && obj instanceof CacheKey)
+            {
+                CacheKey other = (CacheKey) obj;
+                eq = msgClass.equals(other.msgClass) && objUuid.equals(other.objUuid);
+            }
+            return eq;
+        }
+    }
+}
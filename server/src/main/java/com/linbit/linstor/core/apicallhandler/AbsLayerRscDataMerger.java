@@ -87,6 +87,11 @@ public abstract class AbsLayerRscDataMerger<RSC extends AbsResource<RSC>>
         {
             throw new ImplementationError(exc);
         }
+        finally
+        {
+            // sizes, device paths and states of the layer data are not transactional
+            rsc.markModified();
+        }
     }
 
     private void merge(
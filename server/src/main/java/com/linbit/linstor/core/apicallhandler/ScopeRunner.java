@@ -5,6 +5,7 @@ import com.linbit.linstor.annotation.PeerContext;
 import com.linbit.linstor.api.ApiModule;
 import com.linbit.linstor.api.LinStorScope;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.ApiCallTimer;
 import com.linbit.linstor.netcom.Peer;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.transaction.TransactionException;
@@ -86,6 +87,39 @@ public class ScopeRunner
         boolean transactional
     )
         throws Exception
+    {
+        Flux<T> ret;
+        ApiCallTimer timer = subscriberContext.getOrDefault(ApiCallTimer.class, null);
+        if (timer == null)
+        {
+            ret = runInScope(subscriberContext, scopeDescription, lockGuard, callable, transactional);
+        }
+        else
+        {
+            // bind the timer to this thread so that lock waits and commits are attributed to the API call
+            final long startNanos = System.nanoTime();
+            ApiCallTimer prevTimer = timer.bind();
+            try
+            {
+                ret = runInScope(subscriberContext, scopeDescription, lockGuard, callable, transactional);
+            }
+            finally
+            {
+                ApiCallTimer.restore(prevTimer);
+                timer.addScopeNanos(System.nanoTime() - startNanos);
+            }
+        }
+        return ret;
+    }
+
+    private <T> Flux<T> runInScope(
+        Context subscriberContext,
+        String scopeDescription,
+        LockGuard lockGuard,
+        Callable<Flux<T>> callable,
+        boolean transactional
+    )
+        throws Exception
     {
         String apiCallName = subscriberContext.get(ApiModule.API_CALL_NAME);
         AccessContext accCtx = subscriberContext.get(AccessContext.class);
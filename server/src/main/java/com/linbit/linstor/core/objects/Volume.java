@@ -577,11 +577,13 @@ public class Volume extends AbsVolume<Resource>
     public void addReports(ApiCallRc apiCallRc)
     {
         reports.addEntries(apiCallRc);
+        markModified();
     }
 
     @Override
     public void clearReports()
     {
         reports = new ApiCallRcImpl();
+        markModified();
     }
 }
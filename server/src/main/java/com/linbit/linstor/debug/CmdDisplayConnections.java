@@ -7,7 +7,9 @@ import com.linbit.linstor.ControllerPeerCtx;
 import com.linbit.linstor.core.CoreModule;
 import com.linbit.linstor.core.identifier.NodeName;
 import com.linbit.linstor.core.objects.Node;
+import com.linbit.linstor.netcom.MessageCompression;
 import com.linbit.linstor.netcom.Peer;
+import com.linbit.linstor.netcom.TcpConnectorPeer;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.Identity;
 import com.linbit.linstor.security.Privilege;
@@ -61,7 +63,7 @@ public class CmdDisplayConnections extends BaseDebugCmd
             "    ID\n" +
             "        Displays connection IDs\n" +
             "    STATS\n" +
-            "        Displays queueing and traffic statistics\n" +
+            "        Displays queueing, traffic and compression statistics\n" +
             "    CONN\n" +
             "        Displays additional information about the connection\n" +
             "    CONTEXT\n" +
@@ -263,6 +265,10 @@ public class CmdDisplayConnections extends BaseDebugCmd
                                     curPeer.outQueueCount(), curPeer.outQueueCapacity(),
                                     curPeer.msgRecvMaxSize(), curPeer.msgSentMaxSize()
                                 );
+                                if (curPeer instanceof TcpConnectorPeer)
+                                {
+                                    printCompressionStats(debugOut, ((TcpConnectorPeer) curPeer).getCompression());
+                                }
                             }
                             if (detailId)
                             {
@@ -435,6 +441,43 @@ public class CmdDisplayConnections extends BaseDebugCmd
         return result;
     }
 
+    private void printCompressionStats(PrintStream debugOut, MessageCompression compression)
+    {
+        if (compression.isEnabled())
+        {
+            debugOut.printf(
+                "    Compression: deflate, threshold %d bytes\n",
+                compression.getThreshold()
+            );
+        }
+        else
+        {
+            debugOut.println("    Compression: disabled");
+        }
+        debugOut.printf(
+            "    Compressed:   %8d msgs  %12d -> %12d bytes  ratio %6.2f  CPU %8.1f ms  Incompressible: %8d\n",
+            compression.getCompressedMsgCount(),
+            compression.getCompressedRawBytes(),
+            compression.getCompressedWireBytes(),
+            ratio(compression.getCompressedRawBytes(), compression.getCompressedWireBytes()),
+            compression.getCompressCpuNanos() / 1_000_000.0,
+            compression.getIncompressibleMsgCount()
+        );
+        debugOut.printf(
+            "    Decompressed: %8d msgs  %12d <- %12d bytes  ratio %6.2f  CPU %8.1f ms\n",
+            compression.getDecompressedMsgCount(),
+            compression.getDecompressedRawBytes(),
+            compression.getDecompressedWireBytes(),
+            ratio(compression.getDecompressedRawBytes(), compression.getDecompressedWireBytes()),
+            compression.getDecompressCpuNanos() / 1_000_000.0
+        );
+    }
+
+    private double ratio(long rawBytes, long wireBytes)
+    {
+        return wireBytes == 0 ? 1.0 : (double) rawBytes / wireBytes;
+    }
+
     @SuppressWarnings("checkstyle:magicnumber")
     private void  printPrivString(PrintStream output, PrivilegeSet privSet)
     {
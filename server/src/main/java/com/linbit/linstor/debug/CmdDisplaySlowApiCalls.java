@@ -0,0 +1,68 @@
+package com.linbit.linstor.debug;
+
+import javax.inject.Inject;
+import com.linbit.linstor.metrics.SlowApiCallTracker;
+import com.linbit.linstor.security.AccessContext;
+
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Displays the slowest recent API calls with the durations of their phases
+ */
+public class CmdDisplaySlowApiCalls extends BaseDebugCmd
+{
+    private final SlowApiCallTracker slowApiCallTracker;
+
+    @Inject
+    public CmdDisplaySlowApiCalls(SlowApiCallTracker slowApiCallTrackerRef)
+    {
+        super(
+            new String[]
+            {
+                "DspSlowApi"
+            },
+            "Display slow API calls",
+            "Displays the slowest API calls of the last minutes and the time they spent in each phase.\n" +
+            "The latencies of all API calls are available as the metric linstor_api_call_phase_duration_seconds",
+            null,
+            null
+        );
+
+        slowApiCallTracker = slowApiCallTrackerRef;
+    }
+
+    @Override
+    public void execute(
+        PrintStream debugOut,
+        PrintStream debugErr,
+        AccessContext accCtx,
+        Map<String, String> parameters
+    )
+        throws Exception
+    {
+        List<SlowApiCallTracker.SlowCall> slowCalls = slowApiCallTracker.getSlowCalls();
+        if (slowCalls.isEmpty())
+        {
+            debugOut.println("No API calls were recorded in the last minutes.");
+        }
+        else
+        {
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            for (SlowApiCallTracker.SlowCall slowCall : slowCalls)
+            {
+                debugOut.printf(
+                    "    %s %-24s %10s (%s)\n",
+                    dateFormat.format(new Date(slowCall.timestampMillis)),
+                    slowCall.apiCallName,
+                    String.format("%.3f ms", TimeUnit.NANOSECONDS.toMicros(slowCall.totalNanos) / 1000.0),
+                    slowCall.describePhases()
+                );
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ public class DebugModule extends AbstractModule
         commandsBinder.addBinding().to(CmdCloseConnection.class);
         commandsBinder.addBinding().to(CmdDisplaySystemStatus.class);
         commandsBinder.addBinding().to(CmdDisplayApis.class);
+        commandsBinder.addBinding().to(CmdDisplaySlowApiCalls.class);
         commandsBinder.addBinding().to(CmdDisplayNodes.class);
         commandsBinder.addBinding().to(CmdDisplayStorPoolDfn.class);
         commandsBinder.addBinding().to(CmdDisplayStorPool.class);
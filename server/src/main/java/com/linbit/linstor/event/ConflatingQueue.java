@@ -0,0 +1,98 @@
+package com.linbit.linstor.event;
+
+import com.linbit.linstor.metrics.Counter;
+import com.linbit.linstor.metrics.LinStorMetrics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Queue of events for a receiver that may not keep up with the events, which only keeps the latest event per key
+ * (usually the object the event is about).
+ *
+ * An event that replaces a pending event of the same key keeps the position of the replaced event, so that the
+ * pending keys are delivered in the order in which they first became pending. The receiver always gets the latest
+ * event of each key eventually, but may miss intermediate events.
+ */
+public class ConflatingQueue<K, V>
+{
+    // Guarded by this
+    private final Map<K, V> pending = new LinkedHashMap<>();
+    private long conflatedCount = 0;
+    private long droppedCount = 0;
+
+    private final Counter.Child conflatedMetric;
+    private final Counter.Child droppedMetric;
+
+    /**
+     * @param watcherType label of the kind of receiver, used for the metrics
+     */
+    public ConflatingQueue(String watcherType)
+    {
+        conflatedMetric = LinStorMetrics.EVENTS_CONFLATED.labels(watcherType);
+        droppedMetric = LinStorMetrics.EVENTS_DROPPED.labels(watcherType);
+    }
+
+    /**
+     * Adds an event, replacing the pending event of the same key, if any
+     */
+    public synchronized void offer(K key, V value)
+    {
+        V replaced = pending.put(key, value);
+        if (replaced != null)
+        {
+            ++conflatedCount;
+            conflatedMetric.inc();
+        }
+    }
+
+    /**
+     * Removes and returns the event that has been pending for the longest time, or null if no event is pending
+     */
+    public synchronized V poll()
+    {
+        V value = null;
+        Iterator<V> iterator = pending.values().iterator();
+        if (iterator.hasNext())
+        {
+            value = iterator.next();
+            iterator.remove();
+        }
+        return value;
+    }
+
+    /**
+     * Discards the pending events whose keys match the filter
+     */
+    public synchronized void drop(Predicate<K> keyFilter)
+    {
+        int sizeBefore = pending.size();
+        pending.keySet().removeIf(keyFilter);
+        int dropped = sizeBefore - pending.size();
+        droppedCount += dropped;
+        droppedMetric.inc(dropped);
+    }
+
+    public synchronized int size()
+    {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of events that were replaced by a newer event before they were taken from the queue
+     */
+    public synchronized long getConflatedCount()
+    {
+        return conflatedCount;
+    }
+
+    /**
+     * Returns the number of events that were discarded by {@link #drop(Predicate)}
+     */
+    public synchronized long getDroppedCount()
+    {
+        return droppedCount;
+    }
+}
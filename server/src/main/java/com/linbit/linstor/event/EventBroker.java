@@ -9,18 +9,32 @@ import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.netcom.Peer;
 import com.linbit.linstor.netcom.PeerNotConnectedException;
 import reactor.core.Disposable;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Signal;
+import reactor.util.function.Tuple2;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Delivers events to the watches of peers.
+ *
+ * Each event is subscribed to only once, by an {@link EventRouter}, which looks up the watches that match each
+ * signal in the {@link WatchStore}. Publishing an event therefore only costs as much as the number of matching
+ * watches, regardless of the total number of watches.
+ *
+ * The events are only queued while the routeLock is held. They are serialized for and sent to the peers after the
+ * lock was released, by one thread at a time and in the order in which they were queued, so that neither the
+ * routing of other signals nor the creation of watches has to wait for the peers.
+ */
 @Singleton
 public class EventBroker
 {
@@ -31,6 +45,18 @@ public class EventBroker
     private final Map<String, EventSerializerDescriptor> eventSerializerDescriptors;
     private final ReentrantLock watchLock;
 
+    // Serializes the routing of signals with the creation of routed watches, so that a new watch receives each
+    // value either as part of the initial state or as a routed signal, but never both or none
+    private final ReentrantLock routeLock;
+
+    // Events that were routed but not sent yet, in the order in which they were routed. Only added to while
+    // holding the routeLock, only taken from while holding the sendLock
+    private final Queue<PendingEvent> pendingEvents;
+    private final ReentrantLock sendLock;
+
+    // Guarded by watchLock
+    private final Map<String, EventRouter<?>> eventRouters;
+
     @Inject
     public EventBroker(
         ErrorReporter errorReporterRef,
@@ -47,6 +73,10 @@ public class EventBroker
         eventSerializerDescriptors = eventSerializerDescriptorsRef;
 
         watchLock = new ReentrantLock();
+        routeLock = new ReentrantLock();
+        pendingEvents = new ConcurrentLinkedQueue<>();
+        sendLock = new ReentrantLock();
+        eventRouters = new HashMap<>();
     }
 
     /**
@@ -60,34 +90,54 @@ public class EventBroker
         {
             Collection<String> eventNames = getMatchingEventNames(watch.getEventIdentifier().getEventName());
 
-            List<Flux<byte[]>> watchStreams = new ArrayList<>();
-
+            List<EventRouter<?>> routers = new ArrayList<>();
             for (String eventName : eventNames)
             {
-                EventSerializer eventSerializer = eventSerializers.get(eventName);
-                EventSerializerDescriptor eventSerializerDescriptor = eventSerializerDescriptors.get(eventName);
+                routers.add(getEventRouter(eventName));
+            }
 
-                if (eventSerializer == null || eventSerializerDescriptor == null)
+            routeLock.lock();
+            try
+            {
+                watchStore.addRoutedWatch(watch, peer);
+                for (EventRouter<?> router : routers)
                 {
-                    throw new UnknownEventException(eventName);
+                    router.sendInitialState(watch, peer);
                 }
-
-                watchStreams.add(
-                    createWatchForEvent(watch, eventSerializer.get(), eventSerializerDescriptor.getEventName()));
             }
+            finally
+            {
+                routeLock.unlock();
+            }
+        }
+        catch (LinStorDataAlreadyExistsException exc)
+        {
+            errorReporter.logError(
+                "Watch already exists for peer " + watch.getPeerId() + ", id " + watch.getPeerWatchId());
+        }
+        finally
+        {
+            watchLock.unlock();
+        }
+        sendPendingEvents();
+        errorReporter.logTrace("Create watch done");
+    }
 
-            Flux<byte[]> mergedStreams = Flux.merge(watchStreams);
-
-            Disposable disposable = mergedStreams
-                .subscribe(
-                    peer::sendMessage,
-                    exception -> errorReporter.reportError(exception, null, null, "Uncaught exception sending event")
-                );
-
+    /**
+     * Add a watch whose events are consumed locally instead of being sent to a peer, such as a REST event stream.
+     * The disposable is disposed when the watch is deleted.
+     */
+    public void createLocalWatch(Watch watch, Disposable disposable)
+    {
+        errorReporter.logTrace("Create local watch for: %s", watch.getEventIdentifier());
+        watchLock.lock();
+        try
+        {
             watchStore.addWatch(watch, disposable);
         }
         catch (LinStorDataAlreadyExistsException exc)
         {
+            disposable.dispose();
             errorReporter.logError(
                 "Watch already exists for peer " + watch.getPeerId() + ", id " + watch.getPeerWatchId());
         }
@@ -95,7 +145,6 @@ public class EventBroker
         {
             watchLock.unlock();
         }
-        errorReporter.logTrace("Create watch done");
     }
 
     public void deleteWatch(String peerId, int peerWatchId)
@@ -128,51 +177,257 @@ public class EventBroker
         errorReporter.logTrace("Event 'connection closed' end: %s", peer);
     }
 
-    private <T> Flux<byte[]> createWatchForEvent(
-        Watch watch,
-        EventSerializer.Serializer<T> eventSerializer,
-        String eventName
-    )
+    /**
+     * Returns the router of an event, subscribing to the event if this was not done yet.
+     * Must be called while holding the watchLock.
+     */
+    private EventRouter<?> getEventRouter(String eventName)
+    {
+        EventRouter<?> router = eventRouters.get(eventName);
+        if (router == null)
+        {
+            EventSerializer eventSerializer = eventSerializers.get(eventName);
+            EventSerializerDescriptor eventSerializerDescriptor = eventSerializerDescriptors.get(eventName);
+
+            if (eventSerializer == null || eventSerializerDescriptor == null)
+            {
+                throw new UnknownEventException(eventName);
+            }
+
+            router = createEventRouter(eventSerializer.get(), eventSerializerDescriptor.getEventName());
+            eventRouters.put(eventName, router);
+        }
+        return router;
+    }
+
+    private <T> EventRouter<T> createEventRouter(EventSerializer.Serializer<T> eventSerializer, String eventName)
     {
-        return eventSerializer.getEvent()
-            .watchForStreams(watch.getEventIdentifier().getObjectIdentifier())
-            .map(objectSignal -> serializeSignal(watch.getPeerWatchId(), eventSerializer, eventName, objectSignal));
+        EventRouter<T> router = new EventRouter<>(eventSerializer, eventName);
+        eventSerializer.getEvent()
+            .watchForStreams(ObjectIdentifier.global())
+            .subscribe(
+                router::route,
+                exception -> errorReporter.reportError(exception, null, null, "Uncaught exception routing event")
+            );
+        return router;
     }
 
-    private <T> byte[] serializeSignal(
+    private byte[] buildEventMessage(
         Integer peerWatchId,
-        EventSerializer.Serializer<T> eventSerializer,
-        String eventName,
-        ObjectSignal<T> objectSignal
+        EventIdentifier eventIdentifier,
+        String eventStreamAction,
+        byte[] eventValue
     )
     {
-        EventIdentifier eventIdentifier = new EventIdentifier(eventName, objectSignal.getObjectIdentifier());
-        Signal<T> signal = objectSignal.getSignal();
+        CommonSerializer.CommonSerializerBuilder builder = commonSerializer.onewayBuilder(ApiConsts.API_EVENT)
+            .event(peerWatchId, eventIdentifier, eventStreamAction);
+        if (eventValue != null)
+        {
+            builder.bytes(eventValue);
+        }
+        return builder.build();
+    }
 
-        CommonSerializer.CommonSerializerBuilder builder = commonSerializer.onewayBuilder(ApiConsts.API_EVENT);
-        if (signal.isOnNext())
+    /**
+     * Sends the pending events in the order in which they were queued. Only one thread sends at a time, other
+     * threads leave the events they queued to the thread that is currently sending.
+     */
+    private void sendPendingEvents()
+    {
+        // An event that is queued after the sending thread took the last one is found by the check of the loop
+        // condition of that thread after it released the sendLock
+        while (!pendingEvents.isEmpty() && sendLock.tryLock())
         {
-            builder
-                .event(peerWatchId, eventIdentifier, ApiConsts.EVENT_STREAM_VALUE)
-                .bytes(eventSerializer.writeEventValue(signal.get()));
+            try
+            {
+                PendingEvent pendingEvent = pendingEvents.poll();
+                while (pendingEvent != null)
+                {
+                    try
+                    {
+                        pendingEvent.peer.sendMessage(
+                            buildEventMessage(
+                                pendingEvent.watch.getPeerWatchId(),
+                                pendingEvent.eventIdentifier,
+                                pendingEvent.eventStreamAction,
+                                pendingEvent.eventValue
+                            )
+                        );
+                    }
+                    catch (RuntimeException exc)
+                    {
+                        // Keep sending the other events
+                        errorReporter.reportError(exc, null, null, "Uncaught exception sending event");
+                    }
+                    pendingEvent = pendingEvents.poll();
+                }
+            }
+            finally
+            {
+                sendLock.unlock();
+            }
         }
-        else if (signal.isOnComplete())
+    }
+
+    private Collection<String> getMatchingEventNames(String eventName)
+    {
+        return eventName == null || eventName.isEmpty() ? eventSerializers.keySet() : Collections.singleton(eventName);
+    }
+
+    /**
+     * Routes the signals of one event to the matching routed watches
+     */
+    private class EventRouter<T>
+    {
+        private final EventSerializer.Serializer<T> eventSerializer;
+        private final String eventName;
+
+        // Latest value of each open stream, sent to new watches as their initial state. Indexed by each of the
+        // objects a watch for the stream may be created for, i.e. the stream's object and its ancestors, so that
+        // a new watch only visits the values it receives. Guarded by routeLock
+        private final Map<ObjectIdentifier, Map<ObjectIdentifier, T>> latestValuesByWatchedObject = new HashMap<>();
+
+        EventRouter(EventSerializer.Serializer<T> eventSerializerRef, String eventNameRef)
+        {
+            eventSerializer = eventSerializerRef;
+            eventName = eventNameRef;
+        }
+
+        void route(ObjectSignal<T> objectSignal)
+        {
+            ObjectIdentifier objectIdentifier = objectSignal.getObjectIdentifier();
+            EventIdentifier eventIdentifier = new EventIdentifier(eventName, objectIdentifier);
+            Signal<T> signal = objectSignal.getSignal();
+
+            routeLock.lock();
+            try
+            {
+                String eventStreamAction;
+                byte[] eventValue = null;
+                if (signal.isOnNext())
+                {
+                    putLatestValue(objectIdentifier, signal.get());
+                    eventStreamAction = ApiConsts.EVENT_STREAM_VALUE;
+                    eventValue = eventSerializer.writeEventValue(signal.get());
+                }
+                else if (signal.isOnComplete())
+                {
+                    removeLatestValue(objectIdentifier);
+                    eventStreamAction = ApiConsts.EVENT_STREAM_CLOSE_REMOVED;
+                }
+                else if (signal.isOnError() && signal.getThrowable() instanceof PeerNotConnectedException)
+                {
+                    removeLatestValue(objectIdentifier);
+                    eventStreamAction = ApiConsts.EVENT_STREAM_CLOSE_NO_CONNECTION;
+                }
+                else
+                {
+                    removeLatestValue(objectIdentifier);
+                    eventStreamAction = null;
+                    errorReporter.reportError(new ImplementationError("Unexpected event signal " + signal));
+                }
+
+                if (eventStreamAction != null)
+                {
+                    for (Tuple2<Watch, Peer> routedWatch : watchStore.getRoutedWatches(eventIdentifier))
+                    {
+                        pendingEvents.add(
+                            new PendingEvent(
+                                routedWatch.getT1(),
+                                routedWatch.getT2(),
+                                eventIdentifier,
+                                eventStreamAction,
+                                eventValue
+                            )
+                        );
+                    }
+                }
+            }
+            catch (RuntimeException exc)
+            {
+                // Keep routing the other signals of this event
+                errorReporter.reportError(exc, null, null, "Uncaught exception routing event");
+            }
+            finally
+            {
+                routeLock.unlock();
+            }
+            sendPendingEvents();
+        }
+
+        /**
+         * Queues the latest value of each open stream that matches the watch.
+         * Must be called while holding the routeLock.
+         */
+        void sendInitialState(Watch watch, Peer peer)
         {
-            builder.event(peerWatchId, eventIdentifier, ApiConsts.EVENT_STREAM_CLOSE_REMOVED);
+            Map<ObjectIdentifier, T> latestValues = latestValuesByWatchedObject.get(
+                watch.getEventIdentifier().getObjectIdentifier()
+            );
+            if (latestValues != null)
+            {
+                for (Map.Entry<ObjectIdentifier, T> entry : latestValues.entrySet())
+                {
+                    pendingEvents.add(
+                        new PendingEvent(
+                            watch,
+                            peer,
+                            new EventIdentifier(eventName, entry.getKey()),
+                            ApiConsts.EVENT_STREAM_VALUE,
+                            eventSerializer.writeEventValue(entry.getValue())
+                        )
+                    );
+                }
+            }
         }
-        else if (signal.isOnError() && signal.getThrowable() instanceof PeerNotConnectedException)
+
+        private void putLatestValue(ObjectIdentifier objectIdentifier, T value)
         {
-            builder.event(peerWatchId, eventIdentifier, ApiConsts.EVENT_STREAM_CLOSE_NO_CONNECTION);
+            for (ObjectIdentifier watchedObject : objectIdentifier.getSelfAndAncestors())
+            {
+                latestValuesByWatchedObject.computeIfAbsent(watchedObject, ignored -> new HashMap<>())
+                    .put(objectIdentifier, value);
+            }
         }
-        else
+
+        private void removeLatestValue(ObjectIdentifier objectIdentifier)
         {
-            throw new ImplementationError("Unexpected event signal " + signal);
+            for (ObjectIdentifier watchedObject : objectIdentifier.getSelfAndAncestors())
+            {
+                Map<ObjectIdentifier, T> latestValues = latestValuesByWatchedObject.get(watchedObject);
+                if (latestValues != null)
+                {
+                    latestValues.remove(objectIdentifier);
+                    if (latestValues.isEmpty())
+                    {
+                        latestValuesByWatchedObject.remove(watchedObject);
+                    }
+                }
+            }
         }
-        return builder.build();
     }
 
-    private Collection<String> getMatchingEventNames(String eventName)
+    private static class PendingEvent
     {
-        return eventName == null || eventName.isEmpty() ? eventSerializers.keySet() : Collections.singleton(eventName);
+        private final Watch watch;
+        private final Peer peer;
+        private final EventIdentifier eventIdentifier;
+        private final String eventStreamAction;
+        private final byte[] eventValue;
+
+        PendingEvent(
+            Watch watchRef,
+            Peer peerRef,
+            EventIdentifier eventIdentifierRef,
+            String eventStreamActionRef,
+            byte[] eventValueRef
+        )
+        {
+            watch = watchRef;
+            peer = peerRef;
+            eventIdentifier = eventIdentifierRef;
+            eventStreamAction = eventStreamActionRef;
+            eventValue = eventValueRef;
+        }
     }
 }
@@ -2,10 +2,6 @@ package com.linbit.linstor.event;
 
 import com.linbit.ImplementationError;
 import com.linbit.linstor.LinStorDataAlreadyExistsException;
-import com.linbit.linstor.core.identifier.NodeName;
-import com.linbit.linstor.core.identifier.ResourceName;
-import com.linbit.linstor.core.identifier.SnapshotName;
-import com.linbit.linstor.core.identifier.VolumeNumber;
 import com.linbit.linstor.netcom.PeerNotConnectedException;
 import reactor.core.publisher.ConnectableFlux;
 import reactor.core.publisher.Flux;
@@ -16,10 +12,7 @@ import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -144,7 +137,7 @@ public class GenericEvent<T> implements LinstorTriggerableEvent<T>
                 sink = processor.sink();
                 sinks.put(objectIdentifier, sink);
 
-                List<ObjectIdentifier> matchingWaitObjects = matchingObjects(objectIdentifier);
+                List<ObjectIdentifier> matchingWaitObjects = objectIdentifier.getSelfAndAncestors();
 
                 waiterSet = new HashSet<>();
                 for (ObjectIdentifier waitObject : matchingWaitObjects)
@@ -195,42 +188,6 @@ public class GenericEvent<T> implements LinstorTriggerableEvent<T>
         }
     }
 
-    /**
-     * Get all ancestor objects, including the object itself.
-     */
-    private List<ObjectIdentifier> matchingObjects(ObjectIdentifier objectIdentifier)
-    {
-        List<NodeName> nodeNames = objectIdentifier.getNodeName() == null ?
-            Collections.singletonList(null) : Arrays.asList(null, objectIdentifier.getNodeName());
-
-        List<ResourceName> resourceNames = objectIdentifier.getResourceName() == null ?
-            Collections.singletonList(null) : Arrays.asList(null, objectIdentifier.getResourceName());
-
-        List<ObjectIdentifier> objectIdentifiers = new ArrayList<>();
-        for (NodeName nodeName : nodeNames)
-        {
-            for (ResourceName resourceName : resourceNames)
-            {
-                List<VolumeNumber> volumeNumbers =
-                    (resourceName == null || objectIdentifier.getVolumeNumber() == null) ?
-                        Collections.singletonList(null) : Arrays.asList(null, objectIdentifier.getVolumeNumber());
-
-                for (VolumeNumber volumeNumber : volumeNumbers)
-                {
-                    List<SnapshotName> snapshotNames =
-                        (resourceName == null || volumeNumber != null || objectIdentifier.getSnapshotName() == null) ?
-                            Collections.singletonList(null) : Arrays.asList(null, objectIdentifier.getSnapshotName());
-
-                    for (SnapshotName snapshotName : snapshotNames)
-                    {
-                        objectIdentifiers.add(new ObjectIdentifier(nodeName, resourceName, volumeNumber, snapshotName));
-                    }
-                }
-            }
-        }
-        return objectIdentifiers;
-    }
-
     private FluxSink<T> removeStream(ObjectIdentifier objectIdentifier)
     {
         FluxSink<T> sink;
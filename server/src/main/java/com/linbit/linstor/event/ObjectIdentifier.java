@@ -5,6 +5,10 @@ import com.linbit.linstor.core.identifier.ResourceName;
 import com.linbit.linstor.core.identifier.SnapshotName;
 import com.linbit.linstor.core.identifier.VolumeNumber;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public class ObjectIdentifier
@@ -112,6 +116,44 @@ public class ObjectIdentifier
         return snapshotName;
     }
 
+    /**
+     * Get all ancestor objects, including the object itself.
+     */
+    public List<ObjectIdentifier> getSelfAndAncestors()
+    {
+        List<NodeName> nodeNames = nodeName == null ?
+            Collections.singletonList(null) : Arrays.asList(null, nodeName);
+
+        List<ResourceName> resourceNames = resourceName == null ?
+            Collections.singletonList(null) : Arrays.asList(null, resourceName);
+
+        List<ObjectIdentifier> objectIdentifiers = new ArrayList<>();
+        for (NodeName ancestorNodeName : nodeNames)
+        {
+            for (ResourceName ancestorResourceName : resourceNames)
+            {
+                List<VolumeNumber> volumeNumbers =
+                    (ancestorResourceName == null || volumeNumber == null) ?
+                        Collections.singletonList(null) : Arrays.asList(null, volumeNumber);
+
+                for (VolumeNumber ancestorVolumeNumber : volumeNumbers)
+                {
+                    List<SnapshotName> snapshotNames =
+                        (ancestorResourceName == null || ancestorVolumeNumber != null || snapshotName == null) ?
+                            Collections.singletonList(null) : Arrays.asList(null, snapshotName);
+
+                    for (SnapshotName ancestorSnapshotName : snapshotNames)
+                    {
+                        objectIdentifiers.add(new ObjectIdentifier(
+                            ancestorNodeName, ancestorResourceName, ancestorVolumeNumber, ancestorSnapshotName
+                        ));
+                    }
+                }
+            }
+        }
+        return objectIdentifiers;
+    }
+
     @Override
     // Single exit point exception: Automatically generated code
     @SuppressWarnings("DescendantToken")
@@ -13,17 +13,33 @@ public class Watch
 
     private final EventIdentifier eventIdentifier;
 
+    // Only the latest event of each object is sent, once the watcher can take it, see ConflatingQueue. Only used
+    // by the REST event streams
+    private final boolean conflating;
+
     public Watch(
         UUID uuidRef,
         String peerIdRef,
         Integer peerWatchIdRef,
         EventIdentifier eventIdentifierRef
     )
+    {
+        this(uuidRef, peerIdRef, peerWatchIdRef, eventIdentifierRef, false);
+    }
+
+    public Watch(
+        UUID uuidRef,
+        String peerIdRef,
+        Integer peerWatchIdRef,
+        EventIdentifier eventIdentifierRef,
+        boolean conflatingRef
+    )
     {
         uuid = uuidRef;
         peerId = peerIdRef;
         peerWatchId = peerWatchIdRef;
         eventIdentifier = eventIdentifierRef;
+        conflating = conflatingRef;
     }
 
     public UUID getUuid()
@@ -46,6 +62,11 @@ public class Watch
         return eventIdentifier;
     }
 
+    public boolean isConflating()
+    {
+        return conflating;
+    }
+
     @Override
     // Single exit point exception: Automatically generated code
     @SuppressWarnings("DescendantToken")
@@ -1,19 +1,38 @@
 package com.linbit.linstor.event;
 
 import com.linbit.linstor.LinStorDataAlreadyExistsException;
+import com.linbit.linstor.netcom.Peer;
 import reactor.core.Disposable;
+import reactor.util.function.Tuple2;
+
+import java.util.List;
 
 /**
- * Not thread-safe; external synchronization is expected.
+ * Not thread-safe for modifications; external synchronization is expected.
+ * Lookups of routed watches may be performed concurrently with modifications.
  */
 public interface WatchStore
 {
     /**
-     * Add a watch.
+     * Add a watch whose events are delivered by a separate subscription, which is disposed when the watch is
+     * removed.
      */
     void addWatch(Watch watch, Disposable disposable)
         throws LinStorDataAlreadyExistsException;
 
+    /**
+     * Add a watch whose events are routed to the peer by the {@link EventBroker}.
+     */
+    void addRoutedWatch(Watch watch, Peer peer)
+        throws LinStorDataAlreadyExistsException;
+
+    /**
+     * Get the routed watches which match an event stream, that is the watches for the same event or for all events,
+     * and for the same object or one of its ancestors.
+     * The cost depends on the number of matching watches, not on the total number of watches.
+     */
+    List<Tuple2<Watch, Peer>> getRoutedWatches(EventIdentifier eventIdentifier);
+
     /**
      * Remove all watchs for a peer.
      */
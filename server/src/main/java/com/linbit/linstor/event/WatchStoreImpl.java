@@ -1,21 +1,29 @@
 package com.linbit.linstor.event;
 
 import com.linbit.linstor.LinStorDataAlreadyExistsException;
+import com.linbit.linstor.netcom.Peer;
 import reactor.core.Disposable;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Singleton
 public class WatchStoreImpl implements WatchStore
 {
-    private final Map<String, Map<Integer, Tuple2<Watch, Disposable>>> watchesByPeer = new HashMap<>();
+    private final Map<String, Map<Integer, WatchEntry>> watchesByPeer = new HashMap<>();
+
+    // Routed watches by the identifier they watch, with null as event name for watches of all events.
+    // The lists are replaced instead of modified, so that lookups do not require any locking.
+    private final Map<EventIdentifier, List<Tuple2<Watch, Peer>>> routedWatchIndex = new ConcurrentHashMap<>();
 
     @Inject
     public WatchStoreImpl()
@@ -26,7 +34,77 @@ public class WatchStoreImpl implements WatchStore
     public void addWatch(Watch watch, Disposable disposable)
         throws LinStorDataAlreadyExistsException
     {
-        Map<Integer, Tuple2<Watch, Disposable>> peerWatches = watchesByPeer.get(watch.getPeerId());
+        putWatch(new WatchEntry(watch, disposable, null));
+    }
+
+    @Override
+    public void addRoutedWatch(Watch watch, Peer peer)
+        throws LinStorDataAlreadyExistsException
+    {
+        if (putWatch(new WatchEntry(watch, null, peer)))
+        {
+            routedWatchIndex.compute(
+                indexKey(watch.getEventIdentifier()),
+                (ignored, routedWatches) ->
+                {
+                    List<Tuple2<Watch, Peer>> newRoutedWatches = routedWatches == null ?
+                        new ArrayList<>(1) : new ArrayList<>(routedWatches);
+                    newRoutedWatches.add(Tuples.of(watch, peer));
+                    return Collections.unmodifiableList(newRoutedWatches);
+                }
+            );
+        }
+    }
+
+    @Override
+    public List<Tuple2<Watch, Peer>> getRoutedWatches(EventIdentifier eventIdentifier)
+    {
+        String eventName = indexKey(eventIdentifier).getEventName();
+        List<Tuple2<Watch, Peer>> result = new ArrayList<>();
+        List<ObjectIdentifier> objectIdentifiers = eventIdentifier.getObjectIdentifier().getSelfAndAncestors();
+        for (ObjectIdentifier objectIdentifier : objectIdentifiers)
+        {
+            if (eventName != null)
+            {
+                addRoutedWatches(result, new EventIdentifier(eventName, objectIdentifier));
+            }
+            addRoutedWatches(result, new EventIdentifier(null, objectIdentifier));
+        }
+        return result;
+    }
+
+    @Override
+    public void removeWatchesForPeer(String peerId)
+    {
+        Map<Integer, WatchEntry> watchesForPeer = watchesByPeer.remove(peerId);
+        if (watchesForPeer != null)
+        {
+            removeWatches(watchesForPeer.values());
+        }
+    }
+
+    @Override
+    public void removeWatchForPeerAndId(String peerId, Integer peerWatchId)
+    {
+        Map<Integer, WatchEntry> watchesForPeer = watchesByPeer.get(peerId);
+        if (watchesForPeer != null)
+        {
+            WatchEntry watchEntry = watchesForPeer.remove(peerWatchId);
+            if (watchEntry != null)
+            {
+                removeWatches(Collections.singleton(watchEntry));
+            }
+        }
+    }
+
+    /**
+     * @return True if the watch was stored, which is only the case if it has a peer ID and a peer watch ID
+     */
+    private boolean putWatch(WatchEntry watchEntry)
+        throws LinStorDataAlreadyExistsException
+    {
+        Watch watch = watchEntry.watch;
+        Map<Integer, WatchEntry> peerWatches = watchesByPeer.get(watch.getPeerId());
         if (peerWatches != null)
         {
             if (peerWatches.containsKey(watch.getPeerWatchId()))
@@ -35,44 +113,71 @@ public class WatchStoreImpl implements WatchStore
             }
         }
 
+        boolean stored = false;
         String peerId = watch.getPeerId();
         Integer peerWatchId = watch.getPeerWatchId();
         if (peerId != null && peerWatchId != null)
         {
             watchesByPeer.computeIfAbsent(peerId, ignored -> new HashMap<>())
-                .put(peerWatchId, Tuples.of(watch, disposable));
+                .put(peerWatchId, watchEntry);
+            stored = true;
         }
+        return stored;
     }
 
-    @Override
-    public void removeWatchesForPeer(String peerId)
+    private void addRoutedWatches(List<Tuple2<Watch, Peer>> result, EventIdentifier indexKey)
     {
-        Map<Integer, Tuple2<Watch, Disposable>> watchesForPeer = watchesByPeer.remove(peerId);
-        if (watchesForPeer != null)
+        List<Tuple2<Watch, Peer>> routedWatches = routedWatchIndex.get(indexKey);
+        if (routedWatches != null)
         {
-            removeWatches(watchesForPeer.values());
+            result.addAll(routedWatches);
         }
     }
 
-    @Override
-    public void removeWatchForPeerAndId(String peerId, Integer peerWatchId)
+    private void removeWatches(Collection<WatchEntry> watchEntries)
     {
-        Map<Integer, Tuple2<Watch, Disposable>> watchesForPeer = watchesByPeer.get(peerId);
-        if (watchesForPeer != null)
+        for (WatchEntry watchEntry : watchEntries)
         {
-            Tuple2<Watch, Disposable> watch = watchesForPeer.remove(peerWatchId);
-            if (watch != null)
+            if (watchEntry.peer == null)
             {
-                removeWatches(Collections.singleton(watch));
+                watchEntry.disposable.dispose();
+            }
+            else
+            {
+                routedWatchIndex.computeIfPresent(
+                    indexKey(watchEntry.watch.getEventIdentifier()),
+                    (ignored, routedWatches) ->
+                    {
+                        List<Tuple2<Watch, Peer>> newRoutedWatches = new ArrayList<>(routedWatches);
+                        newRoutedWatches.removeIf(routedWatch -> routedWatch.getT1().equals(watchEntry.watch));
+                        return newRoutedWatches.isEmpty() ? null : Collections.unmodifiableList(newRoutedWatches);
+                    }
+                );
             }
         }
     }
 
-    private void removeWatches(Collection<Tuple2<Watch, Disposable>> watches)
+    private static EventIdentifier indexKey(EventIdentifier eventIdentifier)
+    {
+        String eventName = eventIdentifier.getEventName();
+        return eventName == null || eventName.isEmpty() ?
+            new EventIdentifier(null, eventIdentifier.getObjectIdentifier()) :
+            eventIdentifier;
+    }
+
+    private static class WatchEntry
     {
-        for (Tuple2<Watch, Disposable> watchAndDisposable : watches)
+        private final Watch watch;
+        // Only set for watches that are not routed
+        private final Disposable disposable;
+        // Only set for routed watches
+        private final Peer peer;
+
+        WatchEntry(Watch watchRef, Disposable disposableRef, Peer peerRef)
         {
-            watchAndDisposable.getT2().dispose();
+            watch = watchRef;
+            disposable = disposableRef;
+            peer = peerRef;
         }
     }
 }
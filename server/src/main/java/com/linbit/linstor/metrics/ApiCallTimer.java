@@ -0,0 +1,134 @@
+package com.linbit.linstor.metrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the time a single API call spends in each of its phases.
+ *
+ * The timer is passed along in the subscriber context of the API call. While the API call executes code in a scope
+ * (see {@link com.linbit.linstor.core.apicallhandler.ScopeRunner}), the timer is bound to the executing thread,
+ * so that lock waits and database commits, which do not know about the API call, can be attributed to it.
+ */
+public class ApiCallTimer
+{
+    public enum Phase
+    {
+        // from receiving the message until the API call starts
+        QUEUE("queue"),
+        // waiting for LockGuard locks
+        LOCK_WAIT("lock_wait"),
+        // running in a scope, without lock waits and commits
+        EXECUTION("execution"),
+        // committing transactions
+        COMMIT("commit"),
+        // the time the API call is not running in a scope, which is usually waiting for satellites
+        SATELLITE_WAIT("satellite_wait");
+
+        public final String label;
+
+        Phase(String labelRef)
+        {
+            label = labelRef;
+        }
+    }
+
+    private static final ThreadLocal<ApiCallTimer> CURRENT = new ThreadLocal<>();
+
+    private final SlowApiCallTracker tracker;
+    private final String apiCallName;
+    private final long startNanos;
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private volatile long totalNanos;
+
+    ApiCallTimer(SlowApiCallTracker trackerRef, String apiCallNameRef, long queuedNanos)
+    {
+        tracker = trackerRef;
+        apiCallName = apiCallNameRef;
+        startNanos = System.nanoTime();
+        phaseNanos.set(Phase.QUEUE.ordinal(), Math.max(queuedNanos, 0));
+    }
+
+    public String getApiCallName()
+    {
+        return apiCallName;
+    }
+
+    public long getPhaseNanos(Phase phase)
+    {
+        return phaseNanos.get(phase.ordinal());
+    }
+
+    /**
+     * Total duration including the queue time; only valid after {@link #finish()}
+     */
+    public long getTotalNanos()
+    {
+        return totalNanos;
+    }
+
+    /**
+     * Binds this timer to the current thread, returns the previously bound timer, which must be restored with
+     * {@link #restore(ApiCallTimer)}
+     */
+    public ApiCallTimer bind()
+    {
+        ApiCallTimer prev = CURRENT.get();
+        CURRENT.set(this);
+        return prev;
+    }
+
+    public static void restore(ApiCallTimer prev)
+    {
+        if (prev == null)
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(prev);
+        }
+    }
+
+    /**
+     * Adds the given time to a phase of the timer that is bound to the current thread, if any
+     */
+    public static void addToCurrent(Phase phase, long nanos)
+    {
+        ApiCallTimer timer = CURRENT.get();
+        if (timer != null)
+        {
+            timer.phaseNanos.addAndGet(phase.ordinal(), nanos);
+        }
+    }
+
+    /**
+     * Records the time spent in a scope. Lock waits and commits within the scope must already have been added.
+     */
+    public void addScopeNanos(long nanos)
+    {
+        phaseNanos.addAndGet(Phase.EXECUTION.ordinal(), nanos);
+    }
+
+    /**
+     * Ends the measurement and records the phases in the metrics. Only the first call has any effect.
+     */
+    public void finish()
+    {
+        if (finished.compareAndSet(false, true))
+        {
+            long runNanos = System.nanoTime() - startNanos;
+            long scopeNanos = phaseNanos.get(Phase.EXECUTION.ordinal());
+            long lockNanos = phaseNanos.get(Phase.LOCK_WAIT.ordinal());
+            long commitNanos = phaseNanos.get(Phase.COMMIT.ordinal());
+
+            phaseNanos.set(Phase.EXECUTION.ordinal(), Math.max(scopeNanos - lockNanos - commitNanos, 0));
+            phaseNanos.set(Phase.SATELLITE_WAIT.ordinal(), Math.max(runNanos - scopeNanos, 0));
+            totalNanos = phaseNanos.get(Phase.QUEUE.ordinal()) + runNanos;
+
+            tracker.record(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.linbit.linstor.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing count of events
+ */
+public class Counter extends MetricFamily<Counter.Child>
+{
+    Counter(String name, String help, String... labelNames)
+    {
+        super(name, help, Type.COUNTER, labelNames);
+    }
+
+    @Override
+    protected Child newChild()
+    {
+        return new Child();
+    }
+
+    @Override
+    protected void collect(List<String> labelValues, Child child, MetricFamilySamples samples)
+    {
+        samples.add(new MetricFamilySamples.Sample(getName(), getLabelNames(), labelValues, child.get()));
+    }
+
+    public static class Child
+    {
+        private final LongAdder value = new LongAdder();
+
+        public void inc()
+        {
+            value.increment();
+        }
+
+        public void inc(long amount)
+        {
+            value.add(amount);
+        }
+
+        public long get()
+        {
+            return value.sum();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.linbit.linstor.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Current value that can go up and down, like the length of a queue
+ */
+public class Gauge extends MetricFamily<Gauge.Child>
+{
+    Gauge(String name, String help, String... labelNames)
+    {
+        super(name, help, Type.GAUGE, labelNames);
+    }
+
+    @Override
+    protected Child newChild()
+    {
+        return new Child();
+    }
+
+    @Override
+    protected void collect(List<String> labelValues, Child child, MetricFamilySamples samples)
+    {
+        samples.add(new MetricFamilySamples.Sample(getName(), getLabelNames(), labelValues, child.get()));
+    }
+
+    public static class Child
+    {
+        private final LongAdder value = new LongAdder();
+
+        public void inc()
+        {
+            value.increment();
+        }
+
+        public void dec()
+        {
+            value.decrement();
+        }
+
+        public void add(long amount)
+        {
+            value.add(amount);
+        }
+
+        public long get()
+        {
+            return value.sum();
+        }
+    }
+}
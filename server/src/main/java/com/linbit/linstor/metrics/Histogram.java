@@ -0,0 +1,129 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.ImplementationError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of observed values (usually durations in seconds) over a fixed set of buckets
+ */
+public class Histogram extends MetricFamily<Histogram.Child>
+{
+    public static final double[] DEFAULT_DURATION_BUCKETS = {
+        0.0001, 0.0005, 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+    };
+
+    private static final String LABEL_LE = "le";
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double[] upperBounds;
+
+    Histogram(String name, String help, double[] upperBoundsRef, String... labelNames)
+    {
+        super(name, help, Type.HISTOGRAM, labelNames);
+        for (int idx = 1; idx < upperBoundsRef.length; ++idx)
+        {
+            if (upperBoundsRef[idx - 1] >= upperBoundsRef[idx])
+            {
+                throw new ImplementationError("Histogram buckets of '" + name + "' are not in increasing order");
+            }
+        }
+        upperBounds = upperBoundsRef.clone();
+    }
+
+    @Override
+    protected Child newChild()
+    {
+        return new Child(upperBounds);
+    }
+
+    @Override
+    protected void collect(List<String> labelValues, Child child, MetricFamilySamples samples)
+    {
+        List<String> bucketLabelNames = new ArrayList<>(getLabelNames());
+        bucketLabelNames.add(LABEL_LE);
+
+        long cumulativeCount = 0;
+        for (int idx = 0; idx <= upperBounds.length; ++idx)
+        {
+            cumulativeCount += child.buckets[idx].sum();
+            List<String> bucketLabelValues = new ArrayList<>(labelValues);
+            bucketLabelValues.add(
+                idx < upperBounds.length ? MetricsTextFormat.formatDouble(upperBounds[idx]) : "+Inf"
+            );
+            samples.add(
+                new MetricFamilySamples.Sample(
+                    getName() + "_bucket",
+                    bucketLabelNames,
+                    bucketLabelValues,
+                    cumulativeCount
+                )
+            );
+        }
+        // derive the count from the buckets so that it matches the "+Inf" bucket of this snapshot
+        List<String> labelNames = getLabelNames();
+        samples.add(new MetricFamilySamples.Sample(getName() + "_count", labelNames, labelValues, cumulativeCount));
+        samples.add(new MetricFamilySamples.Sample(getName() + "_sum", labelNames, labelValues, child.sum.sum()));
+    }
+
+    public static class Child
+    {
+        private final double[] upperBounds;
+        // one more than upperBounds for the "+Inf" bucket
+        private final LongAdder[] buckets;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Child(double[] upperBoundsRef)
+        {
+            upperBounds = upperBoundsRef;
+            buckets = new LongAdder[upperBounds.length + 1];
+            for (int idx = 0; idx < buckets.length; ++idx)
+            {
+                buckets[idx] = new LongAdder();
+            }
+        }
+
+        public void observe(double value)
+        {
+            int idx = 0;
+            while (idx < upperBounds.length && value > upperBounds[idx])
+            {
+                ++idx;
+            }
+            buckets[idx].increment();
+            sum.add(value);
+        }
+
+        public void observeNanos(long nanos)
+        {
+            observe(nanos / NANOS_PER_SECOND);
+        }
+
+        /**
+         * Observes the time elapsed since the given {@link System#nanoTime()}
+         */
+        public void observeSince(long startNanos)
+        {
+            observeNanos(System.nanoTime() - startNanos);
+        }
+
+        public long getCount()
+        {
+            long count = 0;
+            for (LongAdder bucket : buckets)
+            {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public double getSum()
+        {
+            return sum.sum();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.linbit.linstor.metrics;
+
+/**
+ * Metrics that are collected by the controller as well as by the satellites
+ */
+public class LinStorMetrics
+{
+    public static final String LABEL_API_CALL = "api_call";
+    public static final String LABEL_LOCK = "lock";
+    public static final String LABEL_PHASE = "phase";
+    public static final String LABEL_COMMAND = "command";
+    public static final String LABEL_NODE = "node";
+    public static final String LABEL_WATCHER = "watcher";
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+
+    public static final Histogram API_CALL_DURATION = REGISTRY.histogram(
+        "linstor_api_call_duration_seconds",
+        "Duration of API calls from receiving the message until the response flux terminated",
+        Histogram.DEFAULT_DURATION_BUCKETS,
+        LABEL_API_CALL
+    );
+    public static final Histogram API_CALL_PHASE_DURATION = REGISTRY.histogram(
+        "linstor_api_call_phase_duration_seconds",
+        "Time API calls spent in each phase: queue, lock_wait, execution, commit and satellite_wait",
+        Histogram.DEFAULT_DURATION_BUCKETS,
+        LABEL_API_CALL,
+        LABEL_PHASE
+    );
+
+    public static final Counter MESSAGES_RECEIVED = REGISTRY.counter(
+        "linstor_messages_received_total",
+        "Number of messages received from peers"
+    );
+    public static final Counter MESSAGES_SENT = REGISTRY.counter(
+        "linstor_messages_sent_total",
+        "Number of messages queued for sending to peers"
+    );
+    public static final Counter BYTES_RECEIVED = REGISTRY.counter(
+        "linstor_message_bytes_received_total",
+        "Number of message bytes received from peers, excluding headers"
+    );
+    public static final Counter BYTES_SENT = REGISTRY.counter(
+        "linstor_message_bytes_sent_total",
+        "Number of message bytes queued for sending to peers, excluding headers"
+    );
+    public static final Gauge OUTBOUND_QUEUE_LENGTH = REGISTRY.gauge(
+        "linstor_peer_outbound_queue_length",
+        "Number of messages waiting to be sent to peers"
+    );
+    public static final Gauge INBOUND_QUEUE_LENGTH = REGISTRY.gauge(
+        "linstor_peer_inbound_queue_length",
+        "Number of received messages waiting to be processed"
+    );
+
+    public static final Histogram LOCK_WAIT = REGISTRY.histogram(
+        "linstor_lock_wait_seconds",
+        "Time spent waiting to acquire locks",
+        Histogram.DEFAULT_DURATION_BUCKETS,
+        LABEL_LOCK
+    );
+
+    public static final Histogram DEVMGR_PHASE_DURATION = REGISTRY.histogram(
+        "linstor_devmgr_phase_duration_seconds",
+        "Duration of the phases of the satellite's device manager runs",
+        Histogram.DEFAULT_DURATION_BUCKETS,
+        LABEL_PHASE
+    );
+
+    public static final Histogram GROUP_SNAPSHOT_PHASE_DURATION = REGISTRY.histogram(
+        "linstor_group_snapshot_phase_duration_seconds",
+        "Duration of the phases of group snapshots; the io_suspended phase lasts from suspending IO until IO " +
+            "was resumed on all resources",
+        Histogram.DEFAULT_DURATION_BUCKETS,
+        LABEL_PHASE
+    );
+
+    public static final Histogram EXT_CMD_DURATION = REGISTRY.histogram(
+        "linstor_ext_cmd_duration_seconds",
+        "Duration of external commands",
+        Histogram.DEFAULT_DURATION_BUCKETS,
+        LABEL_COMMAND
+    );
+    public static final Counter EXT_CMD_TIMEOUTS = REGISTRY.counter(
+        "linstor_ext_cmd_timeouts_total",
+        "Number of external commands that were killed after a timeout",
+        LABEL_COMMAND
+    );
+
+    public static final Counter EVENTS_CONFLATED = REGISTRY.counter(
+        "linstor_events_conflated_total",
+        "Number of events for conflating watches that were replaced by a newer event of the same object " +
+            "before they were sent",
+        LABEL_WATCHER
+    );
+    public static final Counter EVENTS_DROPPED = REGISTRY.counter(
+        "linstor_events_dropped_total",
+        "Number of pending events for conflating watches that were discarded because the watch was removed",
+        LABEL_WATCHER
+    );
+
+    public static final Counter WIPED_BYTES = REGISTRY.counter(
+        "linstor_wipe_zeroed_bytes_total",
+        "Number of bytes that were zeroed by asynchronous wipes of deleted volumes"
+    );
+    public static final Gauge WIPES_PENDING = REGISTRY.gauge(
+        "linstor_wipes_pending",
+        "Number of deleted volumes that are queued or being wiped before their space is freed"
+    );
+
+    /**
+     * Unlabeled families only have a single child
+     */
+    public static final Counter.Child MESSAGES_RECEIVED_ALL = MESSAGES_RECEIVED.labels();
+    public static final Counter.Child MESSAGES_SENT_ALL = MESSAGES_SENT.labels();
+    public static final Counter.Child BYTES_RECEIVED_ALL = BYTES_RECEIVED.labels();
+    public static final Counter.Child BYTES_SENT_ALL = BYTES_SENT.labels();
+    public static final Gauge.Child OUTBOUND_QUEUE_LENGTH_ALL = OUTBOUND_QUEUE_LENGTH.labels();
+    public static final Gauge.Child INBOUND_QUEUE_LENGTH_ALL = INBOUND_QUEUE_LENGTH.labels();
+    public static final Counter.Child WIPED_BYTES_ALL = WIPED_BYTES.labels();
+    public static final Gauge.Child WIPES_PENDING_ALL = WIPES_PENDING.labels();
+
+    private LinStorMetrics()
+    {
+    }
+}
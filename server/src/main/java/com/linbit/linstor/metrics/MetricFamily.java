@@ -0,0 +1,104 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.ImplementationError;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A named metric with a fixed set of label names. Each combination of label values has its own child
+ * (e.g. a single counter), which is created on first use.
+ *
+ * @param <CHILD> the type of the children
+ */
+public abstract class MetricFamily<CHILD>
+{
+    public enum Type
+    {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("histogram");
+
+        public final String exposition;
+
+        Type(String expositionRef)
+        {
+            exposition = expositionRef;
+        }
+    }
+
+    private final String name;
+    private final String help;
+    private final Type type;
+    private final List<String> labelNames;
+
+    private final Map<List<String>, CHILD> children = new ConcurrentHashMap<>();
+
+    protected MetricFamily(String nameRef, String helpRef, Type typeRef, String... labelNamesRef)
+    {
+        name = nameRef;
+        help = helpRef;
+        type = typeRef;
+        labelNames = Collections.unmodifiableList(Arrays.asList(labelNamesRef));
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getHelp()
+    {
+        return help;
+    }
+
+    public Type getType()
+    {
+        return type;
+    }
+
+    public List<String> getLabelNames()
+    {
+        return labelNames;
+    }
+
+    /**
+     * Returns the child for the given label values, creating it if necessary
+     */
+    public CHILD labels(String... labelValues)
+    {
+        if (labelValues.length != labelNames.size())
+        {
+            throw new ImplementationError(
+                "Metric '" + name + "' expects " + labelNames.size() + " label values, got " + labelValues.length
+            );
+        }
+        List<String> key = Arrays.asList(labelValues);
+        CHILD child = children.get(key);
+        if (child == null)
+        {
+            child = children.computeIfAbsent(key, ignored -> newChild());
+        }
+        return child;
+    }
+
+    protected abstract CHILD newChild();
+
+    /**
+     * Appends the samples of the given child
+     */
+    protected abstract void collect(List<String> labelValues, CHILD child, MetricFamilySamples samples);
+
+    MetricFamilySamples collect()
+    {
+        MetricFamilySamples samples = new MetricFamilySamples(name, type, help);
+        for (Map.Entry<List<String>, CHILD> entry : children.entrySet())
+        {
+            collect(entry.getKey(), entry.getValue(), samples);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,85 @@
+package com.linbit.linstor.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of the values of a metric family, as exported to the text exposition format or sent from a satellite
+ * to the controller
+ */
+public class MetricFamilySamples
+{
+    private final String name;
+    private final MetricFamily.Type type;
+    private final String help;
+    private final List<Sample> samples = new ArrayList<>();
+
+    public MetricFamilySamples(String nameRef, MetricFamily.Type typeRef, String helpRef)
+    {
+        name = nameRef;
+        type = typeRef;
+        help = helpRef;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public MetricFamily.Type getType()
+    {
+        return type;
+    }
+
+    public String getHelp()
+    {
+        return help;
+    }
+
+    public List<Sample> getSamples()
+    {
+        return Collections.unmodifiableList(samples);
+    }
+
+    public void add(Sample sample)
+    {
+        samples.add(sample);
+    }
+
+    public void addAll(List<Sample> samplesRef)
+    {
+        samples.addAll(samplesRef);
+    }
+
+    public static class Sample
+    {
+        // the name of the family, followed by a suffix like "_bucket" for the parts of a histogram
+        public final String name;
+        public final List<String> labelNames;
+        public final List<String> labelValues;
+        public final double value;
+
+        public Sample(String nameRef, List<String> labelNamesRef, List<String> labelValuesRef, double valueRef)
+        {
+            name = nameRef;
+            labelNames = labelNamesRef;
+            labelValues = labelValuesRef;
+            value = valueRef;
+        }
+
+        /**
+         * Returns a copy of this sample with an additional label, which is inserted as the first label
+         */
+        public Sample withLabel(String labelName, String labelValue)
+        {
+            List<String> names = new ArrayList<>(labelNames.size() + 1);
+            List<String> values = new ArrayList<>(labelValues.size() + 1);
+            names.add(labelName);
+            values.add(labelValue);
+            names.addAll(labelNames);
+            values.addAll(labelValues);
+            return new Sample(name, names, values, value);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.ImplementationError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collection of metric families, identified by their names.
+ *
+ * Low level code like {@link com.linbit.locks.LockGuard} or {@link com.linbit.extproc.ExtCmd} is not created
+ * by dependency injection, therefore the metrics of a LINSTOR process are registered in the static
+ * {@link #getDefault()} registry.
+ */
+public class MetricsRegistry
+{
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, MetricFamily<?>> families = new TreeMap<>();
+
+    public static MetricsRegistry getDefault()
+    {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name, String help, String... labelNames)
+    {
+        return register(new Counter(name, help, labelNames));
+    }
+
+    public Gauge gauge(String name, String help, String... labelNames)
+    {
+        return register(new Gauge(name, help, labelNames));
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labelNames)
+    {
+        return register(new Histogram(name, help, buckets, labelNames));
+    }
+
+    public synchronized List<MetricFamilySamples> collect()
+    {
+        List<MetricFamilySamples> samples = new ArrayList<>(families.size());
+        for (MetricFamily<?> family : families.values())
+        {
+            samples.add(family.collect());
+        }
+        return samples;
+    }
+
+    private synchronized <FAMILY extends MetricFamily<?>> FAMILY register(FAMILY family)
+    {
+        if (families.containsKey(family.getName()))
+        {
+            throw new ImplementationError("Metric '" + family.getName() + "' is already registered");
+        }
+        families.put(family.getName(), family);
+        return family;
+    }
+}
@@ -0,0 +1,117 @@
+package com.linbit.linstor.metrics;
+
+import java.util.List;
+
+/**
+ * Writes metrics in the Prometheus text exposition format (version 0.0.4)
+ */
+public class MetricsTextFormat
+{
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    public static String write(List<MetricFamilySamples> familySamplesList)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (MetricFamilySamples familySamples : familySamplesList)
+        {
+            sb.append("# HELP ").append(familySamples.getName()).append(' ');
+            appendEscapedHelp(sb, familySamples.getHelp());
+            sb.append('\n');
+            sb.append("# TYPE ").append(familySamples.getName()).append(' ')
+                .append(familySamples.getType().exposition).append('\n');
+
+            for (MetricFamilySamples.Sample sample : familySamples.getSamples())
+            {
+                sb.append(sample.name);
+                if (!sample.labelNames.isEmpty())
+                {
+                    sb.append('{');
+                    for (int idx = 0; idx < sample.labelNames.size(); ++idx)
+                    {
+                        if (idx > 0)
+                        {
+                            sb.append(',');
+                        }
+                        sb.append(sample.labelNames.get(idx)).append("=\"");
+                        appendEscapedLabelValue(sb, sample.labelValues.get(idx));
+                        sb.append('"');
+                    }
+                    sb.append('}');
+                }
+                sb.append(' ').append(formatDouble(sample.value)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    static String formatDouble(double value)
+    {
+        String str;
+        if (value == Double.POSITIVE_INFINITY)
+        {
+            str = "+Inf";
+        }
+        else
+        if (value == Double.NEGATIVE_INFINITY)
+        {
+            str = "-Inf";
+        }
+        else
+        if (value == Math.rint(value) && Math.abs(value) < 1e15)
+        {
+            str = Long.toString((long) value);
+        }
+        else
+        {
+            str = Double.toString(value);
+        }
+        return str;
+    }
+
+    private static void appendEscapedHelp(StringBuilder sb, String help)
+    {
+        for (int idx = 0; idx < help.length(); ++idx)
+        {
+            char chr = help.charAt(idx);
+            switch (chr)
+            {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    sb.append(chr);
+                    break;
+            }
+        }
+    }
+
+    private static void appendEscapedLabelValue(StringBuilder sb, String value)
+    {
+        for (int idx = 0; idx < value.length(); ++idx)
+        {
+            char chr = value.charAt(idx);
+            switch (chr)
+            {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                default:
+                    sb.append(chr);
+                    break;
+            }
+        }
+    }
+
+    private MetricsTextFormat()
+    {
+    }
+}
@@ -0,0 +1,319 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.ImplementationError;
+import com.linbit.InvalidNameException;
+import com.linbit.ServiceName;
+import com.linbit.SystemService;
+import com.linbit.linstor.LinStorException;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.ApiCallTimer.Phase;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.event.Level;
+
+/**
+ * Records the phases of finished API calls in {@link LinStorMetrics#API_CALL_PHASE_DURATION} and
+ * {@link LinStorMetrics#API_CALL_DURATION}, and keeps the slowest API calls of the recent past.
+ *
+ * While the service is started, every {@link #SLOW_CALL_WINDOW_MILLIS} the slowest API call of the past window is
+ * written to an error report with its phase breakdown, if it took longer than {@link #SLOW_CALL_REPORT_MILLIS}.
+ * API calls are recorded regardless of whether the service is started.
+ */
+@Singleton
+public class SlowApiCallTracker implements SystemService
+{
+    public static final int MAX_SLOW_CALLS = 10;
+
+    private static final ServiceName SERVICE_NAME;
+    private static final String SERVICE_INFO = "Slow API call tracking";
+
+    private static final long SLOW_CALL_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long SLOW_CALL_REPORT_MILLIS = 1000;
+
+    private static final Comparator<SlowCall> SLOWEST_FIRST =
+        Comparator.comparingLong((SlowCall slowCall) -> slowCall.totalNanos).reversed();
+
+    static
+    {
+        try
+        {
+            SERVICE_NAME = new ServiceName("SlowApiCallTracker");
+        }
+        catch (InvalidNameException nameExc)
+        {
+            throw new ImplementationError(
+                String.format(
+                    "%s class contains an invalid name constant",
+                    SlowApiCallTracker.class.getName()
+                ),
+                nameExc
+            );
+        }
+    }
+
+    private final ErrorReporter errorReporter;
+
+    private ServiceName serviceInstanceName;
+    // Guarded by this, null if the service was never started
+    private ScheduledExecutorService windowExecutor;
+
+    private final Object slowCallsLock = new Object();
+    private final List<SlowCall> slowCalls = new ArrayList<>();
+    private final List<SlowCall> prevSlowCalls = new ArrayList<>();
+    // API calls faster than this can be skipped without locking, as they would not be added to slowCalls anyways
+    private volatile long slowCallMinNanos = 0;
+
+    @Inject
+    public SlowApiCallTracker(ErrorReporter errorReporterRef)
+    {
+        errorReporter = errorReporterRef;
+        serviceInstanceName = SERVICE_NAME;
+    }
+
+    @Override
+    public ServiceName getServiceName()
+    {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public String getServiceInfo()
+    {
+        return SERVICE_INFO;
+    }
+
+    @Override
+    public synchronized ServiceName getInstanceName()
+    {
+        return serviceInstanceName;
+    }
+
+    @Override
+    public synchronized boolean isStarted()
+    {
+        return windowExecutor != null && !windowExecutor.isShutdown();
+    }
+
+    @Override
+    public synchronized void setServiceInstanceName(ServiceName instanceName)
+    {
+        if (instanceName == null)
+        {
+            serviceInstanceName = SERVICE_NAME;
+        }
+        else
+        {
+            serviceInstanceName = instanceName;
+        }
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        if (!isStarted())
+        {
+            String threadName = serviceInstanceName.displayValue;
+            windowExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable ->
+                {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+            windowExecutor.scheduleAtFixedRate(
+                this::endWindow,
+                SLOW_CALL_WINDOW_MILLIS,
+                SLOW_CALL_WINDOW_MILLIS,
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    @Override
+    public synchronized void shutdown()
+    {
+        if (windowExecutor != null)
+        {
+            windowExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void awaitShutdown(long timeout) throws InterruptedException
+    {
+        ScheduledExecutorService executor;
+        synchronized (this)
+        {
+            executor = windowExecutor;
+        }
+        if (executor != null)
+        {
+            executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @param queuedNanos time the API call waited before it was started, or 0 if unknown
+     */
+    public ApiCallTimer startTimer(String apiCallName, long queuedNanos)
+    {
+        return new ApiCallTimer(this, apiCallName, queuedNanos);
+    }
+
+    void record(ApiCallTimer timer)
+    {
+        String apiCallName = timer.getApiCallName();
+        for (Phase phase : Phase.values())
+        {
+            LinStorMetrics.API_CALL_PHASE_DURATION.labels(apiCallName, phase.label)
+                .observeNanos(timer.getPhaseNanos(phase));
+        }
+        // the queue time is not part of the API call's duration
+        LinStorMetrics.API_CALL_DURATION.labels(apiCallName)
+            .observeNanos(timer.getTotalNanos() - timer.getPhaseNanos(Phase.QUEUE));
+
+        if (timer.getTotalNanos() >= slowCallMinNanos)
+        {
+            recordSlowCall(timer);
+        }
+    }
+
+    private void recordSlowCall(ApiCallTimer timer)
+    {
+        synchronized (slowCallsLock)
+        {
+            if (slowCalls.size() < MAX_SLOW_CALLS || timer.getTotalNanos() > slowCallMinNanos)
+            {
+                slowCalls.add(new SlowCall(timer, System.currentTimeMillis()));
+                slowCalls.sort(SLOWEST_FIRST);
+                if (slowCalls.size() > MAX_SLOW_CALLS)
+                {
+                    slowCalls.remove(MAX_SLOW_CALLS);
+                }
+                if (slowCalls.size() == MAX_SLOW_CALLS)
+                {
+                    slowCallMinNanos = slowCalls.get(MAX_SLOW_CALLS - 1).totalNanos;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the window executor, starts a new window and reports the slowest API call of the past window
+     */
+    void endWindow()
+    {
+        try
+        {
+            SlowCall reportCall = null;
+            synchronized (slowCallsLock)
+            {
+                if (!slowCalls.isEmpty() &&
+                    slowCalls.get(0).totalNanos >= TimeUnit.MILLISECONDS.toNanos(SLOW_CALL_REPORT_MILLIS))
+                {
+                    reportCall = slowCalls.get(0);
+                }
+                prevSlowCalls.clear();
+                prevSlowCalls.addAll(slowCalls);
+                slowCalls.clear();
+                slowCallMinNanos = 0;
+            }
+
+            if (reportCall != null)
+            {
+                reportSlowCall(reportCall);
+            }
+        }
+        catch (Exception exc)
+        {
+            // an exception would cancel the periodic execution
+            errorReporter.reportError(exc);
+        }
+    }
+
+    private void reportSlowCall(SlowCall slowCall)
+    {
+        errorReporter.reportProblem(
+            Level.WARN,
+            new LinStorException(
+                "Slow API call '" + slowCall.apiCallName + "': " +
+                    TimeUnit.NANOSECONDS.toMillis(slowCall.totalNanos) + "ms",
+                "The API call '" + slowCall.apiCallName + "' was the slowest API call in the last " +
+                    TimeUnit.MILLISECONDS.toMinutes(SLOW_CALL_WINDOW_MILLIS) + " minutes",
+                null,
+                null,
+                "Phases: " + slowCall.describePhases()
+            ),
+            null,
+            null,
+            null
+        );
+    }
+
+    /**
+     * Returns up to {@link #MAX_SLOW_CALLS} of the slowest API calls of the current and the previous window,
+     * slowest first
+     */
+    public List<SlowCall> getSlowCalls()
+    {
+        List<SlowCall> result;
+        synchronized (slowCallsLock)
+        {
+            result = new ArrayList<>(slowCalls);
+            result.addAll(prevSlowCalls);
+        }
+        result.sort(SLOWEST_FIRST);
+        return result.size() > MAX_SLOW_CALLS ? result.subList(0, MAX_SLOW_CALLS) : result;
+    }
+
+    public static class SlowCall
+    {
+        public final String apiCallName;
+        public final long timestampMillis;
+        public final long totalNanos;
+        private final long[] phaseNanos;
+
+        SlowCall(ApiCallTimer timer, long timestampMillisRef)
+        {
+            apiCallName = timer.getApiCallName();
+            timestampMillis = timestampMillisRef;
+            totalNanos = timer.getTotalNanos();
+            Phase[] phases = Phase.values();
+            phaseNanos = new long[phases.length];
+            for (Phase phase : phases)
+            {
+                phaseNanos[phase.ordinal()] = timer.getPhaseNanos(phase);
+            }
+        }
+
+        public long getPhaseNanos(Phase phase)
+        {
+            return phaseNanos[phase.ordinal()];
+        }
+
+        public String describePhases()
+        {
+            StringBuilder sb = new StringBuilder();
+            for (Phase phase : Phase.values())
+            {
+                if (sb.length() > 0)
+                {
+                    sb.append(", ");
+                }
+                sb.append(phase.label).append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMillis(phaseNanos[phase.ordinal()])).append("ms");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -24,6 +24,19 @@ public interface Message
     int LENGTH_FIELD_SIZE = 4;
     int LENGTH_FIELD_OFFSET = 4;
 
+    // Header field for message flags: 4 bytes (32 bits)
+    // Peers that do not know about the flags ignore this field, therefore flags that change
+    // the interpretation of the data must only be set after they were negotiated with the peer
+    int FLAGS_FIELD_SIZE = 4;
+    int FLAGS_FIELD_OFFSET = 8;
+
+    // Header field for the length of the uncompressed data of a compressed message: 4 bytes (32 bits)
+    int RAW_LENGTH_FIELD_SIZE = 4;
+    int RAW_LENGTH_FIELD_OFFSET = 12;
+
+    // The message data is compressed by a java.util.zip.Deflater
+    int FLAG_DEFLATE = 0x1;
+
     byte[] getData() throws IllegalMessageStateException;
 
     void setData(byte[] data) throws IllegalMessageStateException;
@@ -0,0 +1,249 @@
+package com.linbit.linstor.netcom;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Per-connection compression of the message data
+ *
+ * Outbound messages are only compressed after both peers agreed on the compression during the authentication
+ * (see {@link #enable(int)}), and only if their data is at least as large as the negotiated threshold. Inbound
+ * messages are decompressed whenever their header carries the {@link Message#FLAG_DEFLATE} flag.
+ *
+ * The statistics are displayed by the debug console's DspCon command.
+ */
+public class MessageCompression
+{
+    public static final String ALGORITHM_DEFLATE = "deflate";
+    public static final String ALGORITHM_NONE = "none";
+
+    public static final int DEFAULT_THRESHOLD = 64 * 1024;
+
+    // Limits the memory a (malicious or broken) peer can make us allocate for the uncompressed data
+    public static final int MAX_RAW_DATA_SIZE = 16 * Message.DEFAULT_MAX_DATA_SIZE;
+
+    // The compressed data must be at least 1/8 smaller than the uncompressed data, otherwise the
+    // uncompressed data is sent
+    private static final int MIN_SAVINGS_SHIFT = 3;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    // < 0 if compression of outbound messages is disabled
+    private volatile int threshold = -1;
+
+    private final AtomicLong compressedMsgCount = new AtomicLong();
+    private final AtomicLong compressedRawBytes = new AtomicLong();
+    private final AtomicLong compressedWireBytes = new AtomicLong();
+    private final AtomicLong compressCpuNanos = new AtomicLong();
+    private final AtomicLong incompressibleMsgCount = new AtomicLong();
+
+    private final AtomicLong decompressedMsgCount = new AtomicLong();
+    private final AtomicLong decompressedRawBytes = new AtomicLong();
+    private final AtomicLong decompressedWireBytes = new AtomicLong();
+    private final AtomicLong decompressCpuNanos = new AtomicLong();
+
+    public static boolean isSupported(String algorithm)
+    {
+        return ALGORITHM_DEFLATE.equalsIgnoreCase(algorithm);
+    }
+
+    /**
+     * Enables compression of outbound messages with at least thresholdRef bytes of data
+     */
+    public void enable(int thresholdRef)
+    {
+        threshold = Math.max(0, thresholdRef);
+    }
+
+    public void disable()
+    {
+        threshold = -1;
+    }
+
+    public boolean isEnabled()
+    {
+        return threshold >= 0;
+    }
+
+    public int getThreshold()
+    {
+        return threshold;
+    }
+
+    /**
+     * Sets the data of an outbound message, compressed if compression is enabled and worth it
+     */
+    public void setData(Message msg, byte[] data) throws IllegalMessageStateException
+    {
+        int thresholdCopy = threshold;
+        byte[] compressed = null;
+        if (thresholdCopy >= 0 && data.length >= thresholdCopy && data.length <= MAX_RAW_DATA_SIZE)
+        {
+            compressed = deflate(data);
+        }
+
+        if (compressed == null)
+        {
+            msg.setData(data);
+        }
+        else
+        {
+            msg.setData(compressed);
+            ByteBuffer headerBuffer = msg.getHeaderBuffer();
+            headerBuffer.putInt(Message.FLAGS_FIELD_OFFSET, Message.FLAG_DEFLATE);
+            headerBuffer.putInt(Message.RAW_LENGTH_FIELD_OFFSET, data.length);
+        }
+    }
+
+    /**
+     * Returns the uncompressed data of an inbound message
+     */
+    public byte[] inflate(byte[] wireData, int rawSize) throws IllegalMessageStateException
+    {
+        if (rawSize < 0 || rawSize > MAX_RAW_DATA_SIZE)
+        {
+            throw new IllegalMessageStateException(
+                "Invalid uncompressed size " + rawSize + " of a compressed message"
+            );
+        }
+
+        long cpuStart = cpuNanos();
+        byte[] rawData = new byte[rawSize];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(wireData);
+            int offset = 0;
+            boolean corrupt = false;
+            while (!corrupt && offset < rawSize && !inflater.finished())
+            {
+                int count = inflater.inflate(rawData, offset, rawSize - offset);
+                corrupt = count == 0 && (inflater.needsInput() || inflater.needsDictionary());
+                offset += count;
+            }
+            if (!corrupt && !inflater.finished())
+            {
+                // the end of the stream might not have been processed yet if the data exactly filled the array
+                corrupt = inflater.inflate(new byte[1]) != 0;
+            }
+            if (corrupt || offset != rawSize || !inflater.finished())
+            {
+                throw new IllegalMessageStateException(
+                    "Compressed message does not match its uncompressed size of " + rawSize + " bytes"
+                );
+            }
+        }
+        catch (DataFormatException dataFormatExc)
+        {
+            throw new IllegalMessageStateException("Received corrupt compressed message", dataFormatExc);
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        decompressedMsgCount.incrementAndGet();
+        decompressedRawBytes.addAndGet(rawSize);
+        decompressedWireBytes.addAndGet(wireData.length);
+        decompressCpuNanos.addAndGet(cpuNanos() - cpuStart);
+        return rawData;
+    }
+
+    private byte[] deflate(byte[] data)
+    {
+        long cpuStart = cpuNanos();
+        byte[] compressed = null;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            deflater.setInput(data);
+            deflater.finish();
+
+            byte[] buffer = new byte[data.length - (data.length >> MIN_SAVINGS_SHIFT)];
+            int offset = 0;
+            while (!deflater.finished() && offset < buffer.length)
+            {
+                offset += deflater.deflate(buffer, offset, buffer.length - offset);
+            }
+            if (deflater.finished())
+            {
+                compressed = Arrays.copyOf(buffer, offset);
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        compressCpuNanos.addAndGet(cpuNanos() - cpuStart);
+        if (compressed == null)
+        {
+            incompressibleMsgCount.incrementAndGet();
+        }
+        else
+        {
+            compressedMsgCount.incrementAndGet();
+            compressedRawBytes.addAndGet(data.length);
+            compressedWireBytes.addAndGet(compressed.length);
+        }
+        return compressed;
+    }
+
+    private static long cpuNanos()
+    {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ?
+            THREAD_MX_BEAN.getCurrentThreadCpuTime() :
+            System.nanoTime();
+    }
+
+    public long getCompressedMsgCount()
+    {
+        return compressedMsgCount.get();
+    }
+
+    public long getCompressedRawBytes()
+    {
+        return compressedRawBytes.get();
+    }
+
+    public long getCompressedWireBytes()
+    {
+        return compressedWireBytes.get();
+    }
+
+    public long getCompressCpuNanos()
+    {
+        return compressCpuNanos.get();
+    }
+
+    public long getIncompressibleMsgCount()
+    {
+        return incompressibleMsgCount.get();
+    }
+
+    public long getDecompressedMsgCount()
+    {
+        return decompressedMsgCount.get();
+    }
+
+    public long getDecompressedRawBytes()
+    {
+        return decompressedRawBytes.get();
+    }
+
+    public long getDecompressedWireBytes()
+    {
+        return decompressedWireBytes.get();
+    }
+
+    public long getDecompressCpuNanos()
+    {
+        return decompressCpuNanos.get();
+    }
+}
@@ -18,9 +18,19 @@ public class MessageData implements Message
 
     private boolean forSend;
 
+    // Decompresses the data of inbound messages that were compressed by the peer
+    private final MessageCompression compression;
+    private byte[] rawDataBytes;
+
     public MessageData(boolean forSendRef)
+    {
+        this(forSendRef, null);
+    }
+
+    public MessageData(boolean forSendRef, MessageCompression compressionRef)
     {
         forSend = forSendRef;
+        compression = compressionRef;
 
         headerBytes = new byte[HEADER_SIZE];
         headerBuffer = ByteBuffer.wrap(headerBytes);
@@ -36,13 +46,29 @@ public class MessageData implements Message
                 "Attempt to fetch content data from a message that is not ready for processing"
             );
         }
-        return dataBytes;
+        byte[] data = dataBytes;
+        if (!forSend && (headerBuffer.getInt(FLAGS_FIELD_OFFSET) & FLAG_DEFLATE) != 0)
+        {
+            if (rawDataBytes == null)
+            {
+                if (compression == null)
+                {
+                    throw new IllegalMessageStateException(
+                        "Received a compressed message on a connection that does not support compression"
+                    );
+                }
+                rawDataBytes = compression.inflate(dataBytes, headerBuffer.getInt(RAW_LENGTH_FIELD_OFFSET));
+            }
+            data = rawDataBytes;
+        }
+        return data;
     }
 
     @Override
     public void setData(byte[] data) throws IllegalMessageStateException
     {
         dataBytes = data;
+        rawDataBytes = null;
         dataBuffer = ByteBuffer.wrap(data);
         if (forSend)
         {
@@ -60,6 +86,7 @@ public class MessageData implements Message
     {
         Arrays.fill(headerBytes, (byte) 0);
         dataBytes = null;
+        rawDataBytes = null;
         dataBuffer = null;
     }
 
@@ -38,7 +38,10 @@ import reactor.core.publisher.Flux;
  */
 public interface Peer
 {
+    // Limits for the received messages of a peer that were not processed yet.
+    // No more messages are read from the peer while either limit is reached.
     int MAX_INCOMING_QUEUE_SIZE = 1000;
+    long MAX_INCOMING_QUEUE_BYTES = 2L * Message.DEFAULT_MAX_DATA_SIZE;
 
     enum ConnectionStatus
     {
@@ -414,5 +417,13 @@ public interface Peer
      */
     Message nextCurrentMsgIn();
 
+    /**
+     * Called when the processing of a message that was received from this peer has finished.
+     * Returns the credits of the message, which may allow reading further messages from the peer.
+     *
+     * @param msgSize the size of the message as it was received
+     */
+    void inMessageProcessed(long msgSize);
+
     ExtToolsManager getExtToolsManager();
 }
@@ -364,6 +364,11 @@ public class PeerOffline implements Peer
         return null;
     }
 
+    @Override
+    public void inMessageProcessed(long msgSize)
+    {
+    }
+
     @Override
     public ExtToolsManager getExtToolsManager()
     {
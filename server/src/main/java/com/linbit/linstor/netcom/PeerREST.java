@@ -337,6 +337,11 @@ public class PeerREST implements Peer
         return null;
     }
 
+    @Override
+    public void inMessageProcessed(long msgSize)
+    {
+    }
+
     @Override
     public ExtToolsManager getExtToolsManager()
     {
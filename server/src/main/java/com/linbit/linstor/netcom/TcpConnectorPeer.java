@@ -8,6 +8,7 @@ import com.linbit.ServiceName;
 import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
 import com.linbit.linstor.core.objects.Node;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.LinStorMetrics;
 import com.linbit.linstor.satellitestate.SatelliteState;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
@@ -134,8 +135,16 @@ public class TcpConnectorPeer implements Peer
     protected Phase currentWritePhase = Phase.HEADER;
 
     private final Queue<Message> finishedMsgInQueue;
+    // set once the connection is closing, the messages still queued are no longer counted as queued
+    private boolean finishedMsgInQueueUncounted = false;
     private int opInterest = OP_READ;
 
+    // Received messages that were not processed yet, see MAX_INCOMING_QUEUE_SIZE and MAX_INCOMING_QUEUE_BYTES
+    private final AtomicLong pendingInMsgCount = new AtomicLong();
+    private final AtomicLong pendingInBytes = new AtomicLong();
+    // Guarded by this
+    private boolean readSuspended = false;
+
     private final AtomicLong nextIncomingMessageSeq = new AtomicLong();
     private final FluxSink<Tuple2<Long, Publisher<?>>> incomingMessageSink;
 
@@ -144,6 +153,8 @@ public class TcpConnectorPeer implements Peer
 
     private ExtToolsManager externalToolsManager = new ExtToolsManager();
 
+    private final MessageCompression compression = new MessageCompression();
+
     protected TcpConnectorPeer(
         ErrorReporter errorReporterRef,
         CommonSerializer commonSerializerRef,
@@ -271,7 +282,7 @@ public class TcpConnectorPeer implements Peer
         {
             currentReadPhase = Phase.HEADER;
         }
-        return new MessageData(forSend);
+        return new MessageData(forSend, compression);
     }
 
     @Override
@@ -288,6 +299,8 @@ public class TcpConnectorPeer implements Peer
                 {
                     msgSentSizePeak = msgSize;
                 }
+                LinStorMetrics.MESSAGES_SENT_ALL.inc();
+                LinStorMetrics.BYTES_SENT_ALL.inc(msgSize);
 
                 // Queue the message for sending
                 if (msgOut == null)
@@ -297,6 +310,7 @@ public class TcpConnectorPeer implements Peer
                 else
                 {
                     msgOutQueue.add(msg);
+                    LinStorMetrics.OUTBOUND_QUEUE_LENGTH_ALL.inc();
                 }
 
                 try
@@ -344,7 +358,7 @@ public class TcpConnectorPeer implements Peer
         try
         {
             Message msg = createMessage();
-            msg.setData(data);
+            compression.setData(msg, data);
             isConnected = sendMessage(msg);
         }
         catch (IllegalMessageStateException exc)
@@ -480,6 +494,22 @@ public class TcpConnectorPeer implements Peer
         // deactivate all interest in READ or WRITE operations
         setOpInterest(0);
 
+        synchronized (this)
+        {
+            // the queued messages will never be sent, drop them so that they no longer count as queued
+            LinStorMetrics.OUTBOUND_QUEUE_LENGTH_ALL.add(-msgOutQueue.size());
+            msgOutQueue.clear();
+        }
+
+        synchronized (finishedMsgInQueue)
+        {
+            if (!finishedMsgInQueueUncounted)
+            {
+                finishedMsgInQueueUncounted = true;
+                LinStorMetrics.INBOUND_QUEUE_LENGTH_ALL.add(-finishedMsgInQueue.size());
+            }
+        }
+
         synchronized (openRpcs)
         {
             // preventing ConcurrentModificationException with "#apiCall's fluxSink.onDispose(...openRpcs.remove(...))
@@ -564,7 +594,11 @@ public class TcpConnectorPeer implements Peer
         synchronized (this)
         {
             msgOut = msgOutQueue.pollFirst();
-            if (msgOut == null)
+            if (msgOut != null)
+            {
+                LinStorMetrics.OUTBOUND_QUEUE_LENGTH_ALL.dec();
+            }
+            else
             {
                 try
                 {
@@ -802,20 +836,61 @@ public class TcpConnectorPeer implements Peer
     @Override
     public boolean hasNextMsgIn()
     {
-        return !finishedMsgInQueue.isEmpty();
+        boolean hasNext;
+        synchronized (finishedMsgInQueue)
+        {
+            hasNext = !finishedMsgInQueue.isEmpty();
+        }
+        return hasNext;
     }
 
     @Override
     public Message nextCurrentMsgIn()
     {
-        Message message = finishedMsgInQueue.poll();
-        if (finishedMsgInQueue.size() < MAX_INCOMING_QUEUE_SIZE && !isInterestOpEnabled(OP_READ))
+        Message message;
+        synchronized (finishedMsgInQueue)
         {
-            enableOpInterest(OP_READ);
+            message = finishedMsgInQueue.poll();
+            if (message != null && !finishedMsgInQueueUncounted)
+            {
+                LinStorMetrics.INBOUND_QUEUE_LENGTH_ALL.dec();
+            }
         }
         return message;
     }
 
+    @Override
+    public void inMessageProcessed(long msgSize)
+    {
+        pendingInMsgCount.decrementAndGet();
+        pendingInBytes.addAndGet(-msgSize);
+
+        synchronized (this)
+        {
+            // resume reading only once a good part of the credits were returned,
+            // instead of switching OP_READ on and off for every single message
+            if (readSuspended &&
+                pendingInMsgCount.get() < MAX_INCOMING_QUEUE_SIZE / 2 &&
+                pendingInBytes.get() < MAX_INCOMING_QUEUE_BYTES / 2)
+            {
+                readSuspended = false;
+                if (connected)
+                {
+                    try
+                    {
+                        enableOpInterest(OP_READ);
+                        connector.wakeup();
+                    }
+                    catch (IllegalStateException illState)
+                    {
+                        // No-op; Subclasses of illState can be thrown
+                        // when the connection has been closed
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public String toString()
     {
@@ -968,14 +1043,18 @@ public class TcpConnectorPeer implements Peer
 
     protected void addToQueue(Message msg)
     {
+        long msgSize;
         try
         {
             // This method is single-threaded, no need to synchronize
-            long msgSize = msg.getData().length;
+            // Size on the wire, the data of compressed messages is decompressed by the worker threads
+            msgSize = msg.getDataBuffer().limit();
             if (msgSize > msgRecvSizePeak)
             {
                 msgRecvSizePeak = msgSize;
             }
+            LinStorMetrics.MESSAGES_RECEIVED_ALL.inc();
+            LinStorMetrics.BYTES_RECEIVED_ALL.inc(msgSize);
         }
         catch (IllegalMessageStateException exc)
         {
@@ -985,20 +1064,38 @@ public class TcpConnectorPeer implements Peer
             );
         }
 
-        finishedMsgInQueue.add(msg);
-        if (finishedMsgInQueue.size() >= MAX_INCOMING_QUEUE_SIZE)
+        synchronized (finishedMsgInQueue)
+        {
+            finishedMsgInQueue.add(msg);
+            if (!finishedMsgInQueueUncounted)
+            {
+                LinStorMetrics.INBOUND_QUEUE_LENGTH_ALL.inc();
+            }
+        }
+        long pendingCount = pendingInMsgCount.incrementAndGet();
+        long pendingBytes = pendingInBytes.addAndGet(msgSize);
+        if (pendingCount >= MAX_INCOMING_QUEUE_SIZE || pendingBytes >= MAX_INCOMING_QUEUE_BYTES)
         {
             /*
-             * we reached MAX_INCOMING_QUEUE_SIZE. if we would allow
-             * unlimited messages, the queue could get full which either
-             * throw an out of memory error eventually or the queue.add will block.
-             * Latter would block the whole tcpConnectorService-thread.
+             * The peer has used up its credits. If we would allow unlimited
+             * messages, a peer that sends faster than its messages can be
+             * processed would eventually cause an out of memory error.
              *
-             * Therefore we stop listening to OP_READ. This will be reverted
-             * when a message which is ready to process is consumed (i.e.
-             * leaves our queue).
+             * Therefore we stop listening to OP_READ for this peer only, which
+             * lets the TCP buffers fill up and slows the peer down. Reading is
+             * resumed by inMessageProcessed once enough of the pending messages
+             * were processed.
              */
-            disableInterestOp(OP_READ);
+            synchronized (this)
+            {
+                // check again, the credits may have been returned in the meantime
+                if (pendingInMsgCount.get() >= MAX_INCOMING_QUEUE_SIZE ||
+                    pendingInBytes.get() >= MAX_INCOMING_QUEUE_BYTES)
+                {
+                    readSuspended = true;
+                    disableInterestOp(OP_READ);
+                }
+            }
         }
     }
 
@@ -1007,4 +1104,9 @@ public class TcpConnectorPeer implements Peer
     {
         return externalToolsManager;
     }
+
+    public MessageCompression getCompression()
+    {
+        return compression;
+    }
 }
@@ -0,0 +1,564 @@
+package com.linbit.linstor.numberpool;
+
+import com.linbit.ExhaustedPoolException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Number allocation pool based on bitmaps that are modified with compare-and-set operations instead of locks
+ *
+ * The numbers are managed in blocks of {@link #BLOCK_BITS} numbers. Each block is a bitmap of 64 long values,
+ * which is only created when a number of the block is allocated for the first time. A summary bitmap with one bit
+ * per block marks the blocks that are full, so that searches for unallocated numbers can skip them.
+ *
+ * The bits of the summary bitmap are hints: a bit is only set after the block was observed as full, and it is
+ * checked again after setting it, so that a concurrent deallocation can not leave a block with unallocated numbers
+ * marked as full.
+ *
+ * Each operation on a single number is atomic. Operations on multiple numbers, such as {@link #allocateAll(int[])},
+ * are not atomic as a whole, and {@link #clear()} discards the effect of operations that run concurrently.
+ */
+public class ConcurrentBitmapPool implements NumberPool
+{
+    // These constants are tightly linked to the fact that the implementation uses values of type long
+    // as bitmap elements. Do not change any of these values.
+    private static final int ELEM_BITS      = 64;
+    private static final int MASK_ELEM      = 0x3F;
+    private static final int SH_ELEM        = 6;
+    private static final int BLOCK_BITS     = 4096;
+    private static final int MASK_BLOCK     = 0xFFF;
+    private static final int SH_BLOCK       = 12;
+    private static final int BLOCK_ELEMS    = BLOCK_BITS / ELEM_BITS;
+
+    public static final int MAX_CAPACITY = BitmapPool.MAX_CAPACITY;
+
+    private static final long ELEM_FULL = -1L;
+    private static final int POOL_EXHAUSTED = -1;
+
+    private final int poolSize;
+    private final int blockCount;
+
+    private volatile PoolState state;
+
+    /**
+     * Initializes a pool of the specified size
+     *
+     * @param size The number of items managed by this pool, where one item is one number
+     */
+    public ConcurrentBitmapPool(final int size)
+    {
+        if (size >= 1 && size <= MAX_CAPACITY)
+        {
+            poolSize = size;
+            blockCount = (int) ((size + (long) MASK_BLOCK) >>> SH_BLOCK);
+            state = new PoolState();
+        }
+        else
+        {
+            throw new IllegalArgumentException("poolSize = " + size);
+        }
+    }
+
+    /**
+     * Clears the pool by resetting the state of all numbers to unallocated
+     */
+    @Override
+    public void clear()
+    {
+        state = new PoolState();
+    }
+
+    /**
+     * Determines whether a number is allocated or free for allocation
+     *
+     * @param nr the number to check for its allocation status
+     * @return true if the number is allocated, false otherwise
+     */
+    @Override
+    public boolean isAllocated(final int nr)
+    {
+        checkNumber(nr);
+        AtomicLongArray block = state.blocks.get(nr >>> SH_BLOCK);
+        return block != null && (block.get((nr & MASK_BLOCK) >>> SH_ELEM) & (1L << (nr & MASK_ELEM))) != 0;
+    }
+
+    /**
+     * Allocates a number
+     *
+     * @param nr the number to allocate
+     * @return true if the number was allocated by this call, false if it had already been allocated
+     */
+    @Override
+    public boolean allocate(final int nr)
+    {
+        checkNumber(nr);
+        return uncheckedAllocate(state, nr);
+    }
+
+    /**
+     * Deallocates a number
+     *
+     * @param nr the number to deallocate
+     */
+    @Override
+    public void deallocate(final int nr)
+    {
+        checkNumber(nr);
+        uncheckedDeallocate(state, nr);
+    }
+
+    /**
+     * Allocates multiple numbers and returns the allocation result for each of the numbers
+     *
+     * For each number in the list, allocation is attempted. The method returns a map, where
+     * each number is allocated to a boolean value indicating the of the allocation attempt
+     * for that number. True indicates that the number had been unallocated before calling
+     * this method, and has been allocated by this call; false indicates that the number
+     * had already been allocated before calling this method.
+     *
+     * @param nrList list of numbers to allocate
+     * @return Map of number to allocation status
+     */
+    @Override
+    public Map<Integer, Boolean> multiAllocate(final List<Integer> nrList)
+    {
+        for (int nr : nrList)
+        {
+            checkNumber(nr);
+        }
+        PoolState curState = state;
+        Map<Integer, Boolean> resultMap = new TreeMap<>();
+        for (int nr : nrList)
+        {
+            resultMap.put(nr, uncheckedAllocate(curState, nr));
+        }
+        return resultMap;
+    }
+
+    /**
+     * Allocates all specified numbers
+     *
+     * @param nrList array of numbers to allocate
+     */
+    @Override
+    public void allocateAll(final int[] nrList)
+    {
+        for (int nr : nrList)
+        {
+            checkNumber(nr);
+        }
+        PoolState curState = state;
+        for (int nr : nrList)
+        {
+            uncheckedAllocate(curState, nr);
+        }
+    }
+
+    /**
+     * Deallocates all specified numbers
+     *
+     * @param nrList array of numbers to deallocate
+     */
+    @Override
+    public void deallocateAll(final int[] nrList)
+    {
+        for (int nr : nrList)
+        {
+            checkNumber(nr);
+        }
+        PoolState curState = state;
+        for (int nr : nrList)
+        {
+            uncheckedDeallocate(curState, nr);
+        }
+    }
+
+    /**
+     * Finds the first unallocated number within the range rangeStart - rangeEnd (inclusively)
+     *
+     * @param rangeStart The lowest-value number in the allocation range
+     * @param rangeEnd The highest-value number in the allocation range
+     * @return the lowest-value unallocated number in the specified allocation range
+     * @throws ExhaustedPoolException if all numbers within the specified allocation range are allocated
+     */
+    @Override
+    public int findUnallocated(final int rangeStart, final int rangeEnd)
+        throws ExhaustedPoolException
+    {
+        checkRange(rangeStart, rangeEnd);
+        return checkExhausted(uncheckedFind(state, rangeStart, rangeEnd, false));
+    }
+
+    /**
+     * Finds the  first unallocated number within the range rangeStart - rangeEnd, starting at the
+     * specified offset. If all numbers greater than offset are allocated, the search continues
+     * at rangeStart.
+     *
+     * Offset is an absolute value (not relative to rangeStart or rangeEnd).
+     *
+     * @param rangeStart The lowest-value number in the allocation range
+     * @param rangeEnd The highest-value number in the allocation range
+     * @param offset Start offset for the search for unallocated numbers
+     * @return An unallocated number within the specified allocation range,
+     *         preferably greater than or equal to offset
+     * @throws ExhaustedPoolException if all numbers within the specified allocation range are allocated
+     */
+    @Override
+    public int findUnallocatedFromOffset(final int rangeStart, final int rangeEnd, final int offset)
+        throws ExhaustedPoolException
+    {
+        checkRange(rangeStart, rangeEnd);
+        return checkExhausted(uncheckedFindFromOffset(state, rangeStart, rangeEnd, offset, false));
+    }
+
+    /**
+     * Allocates the first unallocated number within the range rangeStart - rangeEnd (inclusively)
+     *
+     * @param rangeStart The lowest-value number in the allocation range
+     * @param rangeEnd The highest-value number in the allocation range
+     * @return the lowest-value unallocated number in the specified allocation range
+     * @throws ExhaustedPoolException if all numbers within the specified allocation range are allocated
+     */
+    @Override
+    public int autoAllocate(final int rangeStart, final int rangeEnd)
+        throws ExhaustedPoolException
+    {
+        checkRange(rangeStart, rangeEnd);
+        return checkExhausted(uncheckedFind(state, rangeStart, rangeEnd, true));
+    }
+
+    /**
+     * Allocates the  first unallocated number within the range rangeStart - rangeEnd, starting at the
+     * specified offset. If all numbers greater than offset are allocated, the search continues
+     * at rangeStart.
+     *
+     * Offset is an absolute value (not relative to rangeStart or rangeEnd).
+     *
+     * @param rangeStart The lowest-value number in the allocation range
+     * @param rangeEnd The highest-value number in the allocation range
+     * @param offset Start offset for the search for unallocated numbers
+     * @return An unallocated number within the specified allocation range,
+     *         preferably greater than or equal to offset
+     * @throws ExhaustedPoolException if all numbers within the specified allocation range are allocated
+     */
+    @Override
+    public int autoAllocateFromOffset(final int rangeStart, final int rangeEnd, final int offset)
+        throws ExhaustedPoolException
+    {
+        checkRange(rangeStart, rangeEnd);
+        if (!(rangeStart <= offset && offset <= rangeEnd))
+        {
+            throw new IllegalArgumentException();
+        }
+        return checkExhausted(uncheckedFindFromOffset(state, rangeStart, rangeEnd, offset, true));
+    }
+
+    private void checkNumber(final int nr)
+    {
+        if (!(nr >= 0 && nr < poolSize))
+        {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    private void checkRange(final int rangeStart, final int rangeEnd)
+    {
+        if (!(rangeStart >= 0 && rangeEnd < poolSize && rangeStart <= rangeEnd))
+        {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    private static int checkExhausted(final int result)
+        throws ExhaustedPoolException
+    {
+        if (result == POOL_EXHAUSTED)
+        {
+            throw new ExhaustedPoolException();
+        }
+        return result;
+    }
+
+    private int uncheckedFindFromOffset(
+        final PoolState curState,
+        final int rangeStart,
+        final int rangeEnd,
+        final int offset,
+        final boolean allocFlag
+    )
+    {
+        int result;
+        if (offset > rangeStart)
+        {
+            result = uncheckedFind(curState, offset, rangeEnd, allocFlag);
+            if (result == POOL_EXHAUSTED)
+            {
+                result = uncheckedFind(curState, rangeStart, Math.min(offset - 1, rangeEnd), allocFlag);
+            }
+        }
+        else
+        {
+            result = uncheckedFind(curState, rangeStart, rangeEnd, allocFlag);
+        }
+        return result;
+    }
+
+    /**
+     * Finds, and optionally allocates, the lowest unallocated number within rangeStart - rangeEnd (inclusively)
+     *
+     * @return the number, or {@link #POOL_EXHAUSTED}
+     */
+    private int uncheckedFind(
+        final PoolState curState,
+        final int rangeStart,
+        final int rangeEnd,
+        final boolean allocFlag
+    )
+    {
+        int result = POOL_EXHAUSTED;
+        int nr = rangeStart;
+        while (result == POOL_EXHAUSTED && nr <= rangeEnd)
+        {
+            int blockIdx = curState.nextNonFullBlock(nr >>> SH_BLOCK);
+            if (blockIdx == POOL_EXHAUSTED || (long) blockIdx << SH_BLOCK > rangeEnd)
+            {
+                break;
+            }
+            nr = Math.max(nr, blockIdx << SH_BLOCK);
+
+            AtomicLongArray block = curState.blocks.get(blockIdx);
+            int candidate = block == null ? nr : findInBlock(block, nr, rangeEnd);
+            if (candidate == POOL_EXHAUSTED)
+            {
+                // continue with the next block; the last block ends at the pool size, which is below the
+                // integer limit, so this does not overflow
+                nr = (blockIdx + 1) << SH_BLOCK;
+            }
+            else
+            if (!allocFlag || uncheckedAllocate(curState, candidate))
+            {
+                result = candidate;
+            }
+            else
+            {
+                // lost the race for the candidate, continue searching after it
+                nr = candidate + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the lowest unallocated number in the block that is greater than or equal to nr and less than or equal
+     * to rangeEnd
+     *
+     * @return the number, or {@link #POOL_EXHAUSTED}
+     */
+    private static int findInBlock(final AtomicLongArray block, final int nr, final int rangeEnd)
+    {
+        int result = POOL_EXHAUSTED;
+        int blockBase = nr & ~MASK_BLOCK;
+        int elemIdx = (nr & MASK_BLOCK) >>> SH_ELEM;
+        long freeBits = ~block.get(elemIdx) & (ELEM_FULL << (nr & MASK_ELEM));
+        while (true)
+        {
+            if (freeBits != 0L)
+            {
+                int candidate = blockBase + (elemIdx << SH_ELEM) + Long.numberOfTrailingZeros(freeBits);
+                if (candidate <= rangeEnd)
+                {
+                    result = candidate;
+                }
+                break;
+            }
+            ++elemIdx;
+            if (elemIdx >= BLOCK_ELEMS || blockBase + (elemIdx << SH_ELEM) > rangeEnd)
+            {
+                break;
+            }
+            freeBits = ~block.get(elemIdx);
+        }
+        return result;
+    }
+
+    /**
+     * Marks the specified number as allocated
+     *
+     * @return true if the number was allocated by this call, false if it had already been allocated
+     */
+    private boolean uncheckedAllocate(final PoolState curState, final int nr)
+    {
+        int blockIdx = nr >>> SH_BLOCK;
+        AtomicLongArray block = curState.getOrCreateBlock(blockIdx);
+        int elemIdx = (nr & MASK_BLOCK) >>> SH_ELEM;
+        long bitMask = 1L << (nr & MASK_ELEM);
+
+        boolean allocated = false;
+        long elem = block.get(elemIdx);
+        while ((elem & bitMask) == 0L)
+        {
+            long newElem = elem | bitMask;
+            if (block.compareAndSet(elemIdx, elem, newElem))
+            {
+                allocated = true;
+                if (newElem == ELEM_FULL && isBlockFull(block))
+                {
+                    curState.setBlockFull(blockIdx);
+                    // a concurrent deallocation may have happened before the full flag was set, and may
+                    // therefore not have cleared it
+                    if (!isBlockFull(block))
+                    {
+                        curState.clearBlockFull(blockIdx);
+                    }
+                }
+                break;
+            }
+            elem = block.get(elemIdx);
+        }
+        return allocated;
+    }
+
+    /**
+     * Marks the specified number as unallocated
+     */
+    private void uncheckedDeallocate(final PoolState curState, final int nr)
+    {
+        int blockIdx = nr >>> SH_BLOCK;
+        AtomicLongArray block = curState.blocks.get(blockIdx);
+        if (block != null)
+        {
+            int elemIdx = (nr & MASK_BLOCK) >>> SH_ELEM;
+            long bitMask = 1L << (nr & MASK_ELEM);
+
+            long elem = block.get(elemIdx);
+            while ((elem & bitMask) != 0L)
+            {
+                if (block.compareAndSet(elemIdx, elem, elem & ~bitMask))
+                {
+                    if (elem == ELEM_FULL)
+                    {
+                        curState.clearBlockFull(blockIdx);
+                    }
+                    break;
+                }
+                elem = block.get(elemIdx);
+            }
+        }
+    }
+
+    private static boolean isBlockFull(final AtomicLongArray block)
+    {
+        boolean full = true;
+        for (int elemIdx = 0; full && elemIdx < BLOCK_ELEMS; ++elemIdx)
+        {
+            full = block.get(elemIdx) == ELEM_FULL;
+        }
+        return full;
+    }
+
+    /**
+     * The bitmaps of the pool, which are replaced as a whole by {@link ConcurrentBitmapPool#clear()}
+     */
+    private class PoolState
+    {
+        // null for blocks in which no number was ever allocated
+        private final AtomicReferenceArray<AtomicLongArray> blocks;
+        // one bit per block, set if the block is full; the bits of nonexistent blocks at the end are set
+        private final AtomicLongArray fullBlocks;
+
+        PoolState()
+        {
+            blocks = new AtomicReferenceArray<>(blockCount);
+
+            int fullBlocksElems = (blockCount + MASK_ELEM) >>> SH_ELEM;
+            fullBlocks = new AtomicLongArray(fullBlocksElems);
+            int lastBits = blockCount & MASK_ELEM;
+            if (lastBits != 0)
+            {
+                fullBlocks.set(fullBlocksElems - 1, ELEM_FULL << lastBits);
+            }
+        }
+
+        AtomicLongArray getOrCreateBlock(final int blockIdx)
+        {
+            AtomicLongArray block = blocks.get(blockIdx);
+            if (block == null)
+            {
+                AtomicLongArray newBlock = new AtomicLongArray(BLOCK_ELEMS);
+                if (blockIdx == blockCount - 1)
+                {
+                    // mark the numbers beyond the end of the pool as allocated
+                    int lastNr = poolSize & MASK_BLOCK;
+                    if (lastNr != 0)
+                    {
+                        int elemIdx = lastNr >>> SH_ELEM;
+                        int lastBits = lastNr & MASK_ELEM;
+                        if (lastBits != 0)
+                        {
+                            newBlock.set(elemIdx, ELEM_FULL << lastBits);
+                            ++elemIdx;
+                        }
+                        for (; elemIdx < BLOCK_ELEMS; ++elemIdx)
+                        {
+                            newBlock.set(elemIdx, ELEM_FULL);
+                        }
+                    }
+                }
+                block = blocks.compareAndSet(blockIdx, null, newBlock) ? newBlock : blocks.get(blockIdx);
+            }
+            return block;
+        }
+
+        /**
+         * Returns the index of the first block at or after blockIdx that is not marked as full, or
+         * {@link #POOL_EXHAUSTED}
+         */
+        int nextNonFullBlock(final int blockIdx)
+        {
+            int result = POOL_EXHAUSTED;
+            int elemIdx = blockIdx >>> SH_ELEM;
+            long nonFullBits = ~fullBlocks.get(elemIdx) & (ELEM_FULL << (blockIdx & MASK_ELEM));
+            while (true)
+            {
+                if (nonFullBits != 0L)
+                {
+                    result = (elemIdx << SH_ELEM) + Long.numberOfTrailingZeros(nonFullBits);
+                    break;
+                }
+                ++elemIdx;
+                if (elemIdx >= fullBlocks.length())
+                {
+                    break;
+                }
+                nonFullBits = ~fullBlocks.get(elemIdx);
+            }
+            return result;
+        }
+
+        void setBlockFull(final int blockIdx)
+        {
+            int elemIdx = blockIdx >>> SH_ELEM;
+            long bitMask = 1L << (blockIdx & MASK_ELEM);
+            long elem = fullBlocks.get(elemIdx);
+            while ((elem & bitMask) == 0L && !fullBlocks.compareAndSet(elemIdx, elem, elem | bitMask))
+            {
+                elem = fullBlocks.get(elemIdx);
+            }
+        }
+
+        void clearBlockFull(final int blockIdx)
+        {
+            int elemIdx = blockIdx >>> SH_ELEM;
+            long bitMask = 1L << (blockIdx & MASK_ELEM);
+            long elem = fullBlocks.get(elemIdx);
+            while ((elem & bitMask) != 0L && !fullBlocks.compareAndSet(elemIdx, elem, elem & ~bitMask))
+            {
+                elem = fullBlocks.get(elemIdx);
+            }
+        }
+    }
+}
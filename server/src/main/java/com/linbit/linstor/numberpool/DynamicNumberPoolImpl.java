@@ -47,7 +47,7 @@ public class DynamicNumberPoolImpl implements DynamicNumberPool
         defaultMin = defaultMinRef;
         defaultMax = defaultMaxRef;
 
-        numberPool = new BitmapPool(hardMax + 1);
+        numberPool = new ConcurrentBitmapPool(hardMax + 1);
     }
 
     @Override
@@ -39,7 +39,7 @@ public class NumberPoolModule extends AbstractModule
     private static final int DEFAULT_TCP_PORT_MAX = 7999;
 
     private static final int LAYER_RSC_ID_MIN = 0;
-    private static final int LAYER_RSC_ID_MAX = BitmapPool.MAX_CAPACITY - 1;
+    private static final int LAYER_RSC_ID_MAX = ConcurrentBitmapPool.MAX_CAPACITY - 1;
     private static final String LAYER_RSC_ID_ELEMENT_NAME = "Layer Resource Id";
 
     @Override
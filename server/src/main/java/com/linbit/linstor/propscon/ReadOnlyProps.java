@@ -238,6 +238,12 @@ public class ReadOnlyProps implements Props
         return propsMap.hasTransMgr();
     }
 
+    @Override
+    public long getModificationCount()
+    {
+        return propsMap.getModificationCount();
+    }
+
     @Override
     public void commit()
     {
@@ -19,6 +19,9 @@ import com.linbit.linstor.core.apicallhandler.response.ApiAccessDeniedException;
 import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
 import com.linbit.linstor.core.apicallhandler.response.ResponseUtils;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.ApiCallTimer;
+import com.linbit.linstor.metrics.LinStorMetrics;
+import com.linbit.linstor.metrics.SlowApiCallTracker;
 import com.linbit.linstor.netcom.IllegalMessageStateException;
 import com.linbit.linstor.netcom.Message;
 import com.linbit.linstor.netcom.MessageProcessor;
@@ -32,6 +35,7 @@ import com.linbit.linstor.security.Authentication;
 import com.linbit.linstor.security.Identity;
 import com.linbit.linstor.transaction.TransactionException;
 import com.linbit.locks.LockGuard;
+import com.linbit.utils.FairTaskScheduler;
 import com.linbit.utils.MathUtils;
 import org.slf4j.event.Level;
 import reactor.core.publisher.EmitterProcessor;
@@ -63,8 +67,10 @@ public class CommonMessageProcessor implements MessageProcessor
     private final ErrorReporter errorLog;
     private final ScopeRunner scopeRunner;
     private final CommonSerializer commonSerializer;
+    private final SlowApiCallTracker slowApiCallTracker;
 
     private final FluxSink<Runnable> workerPool;
+    private final FairTaskScheduler<Peer> messageScheduler;
 
     private final Map<String, ApiEntry> apiCallMap;
 
@@ -74,12 +80,16 @@ public class CommonMessageProcessor implements MessageProcessor
     public static final int MAX_QUEUE_SIZE = 4 * MAX_THR_COUNT;
     public static final int THR_QUEUE_FACTOR = 4;
 
+    // Size of the received messages a peer may have processed before the next peer is served
+    public static final long SCHEDULER_QUANTUM_BYTES = 16 * 1024;
+
     @Inject
     public CommonMessageProcessor(
         ErrorReporter errorLogRef,
         Scheduler scheduler,
         ScopeRunner scopeRunnerRef,
         CommonSerializer commonSerializerRef,
+        SlowApiCallTracker slowApiCallTrackerRef,
         Map<String, BaseApiCall> apiCalls,
         Map<String, ApiCallDescriptor> apiCallDescriptors
     )
@@ -87,6 +97,7 @@ public class CommonMessageProcessor implements MessageProcessor
         errorLog = errorLogRef;
         scopeRunner = scopeRunnerRef;
         commonSerializer = commonSerializerRef;
+        slowApiCallTracker = slowApiCallTrackerRef;
 
         int queueSize = MathUtils.bounds(
             MIN_QUEUE_SIZE,
@@ -102,8 +113,15 @@ public class CommonMessageProcessor implements MessageProcessor
         // letting the TCP buffer fill up.
         // Many messages from a single peer will still be queued in an unbounded
         // fashion as part of the message re-ordering.
+        //
+        // The blocking is no longer reached, because the messages are handed to the worker pool by the
+        // messageScheduler, which serves the peers in turn. A message occupies one of the scheduler's queueSize
+        // slots until its in-order processing started, so the processor's buffer never fills up.
+        // How many messages a peer may have waiting for processing is limited by the peer, which stops reading
+        // from its connection when it runs out of credits (see Peer.MAX_INCOMING_QUEUE_BYTES).
         FluxProcessor<Runnable, Runnable> processor = EmitterProcessor.create(queueSize);
         workerPool = processor.sink();
+        messageScheduler = new FairTaskScheduler<>(queueSize, SCHEDULER_QUANTUM_BYTES, workerPool::next);
         processor
             // minimal prefetch because we control queueing via queueSize
             .parallel(thrCount, 1)
@@ -151,15 +169,33 @@ public class CommonMessageProcessor implements MessageProcessor
     public void processMessage(final Message msg, final TcpConnector connector, final Peer peer)
     {
         int msgType;
+        long msgSize = 0;
+        boolean scheduled = false;
         try
         {
             peer.pongReceived();
+            msgSize = msg.getDataBuffer().limit();
             msgType = msg.getType();
             switch (msgType)
             {
                 case MessageTypes.DATA:
                     long peerSeq = peer.getNextIncomingMessageSeq();
-                    workerPool.next(() -> this.doProcessMessage(msg, connector, peer, peerSeq));
+                    long receivedNanos = System.nanoTime();
+                    long dataMsgSize = msgSize;
+                    messageScheduler.submitAsync(
+                        peer,
+                        msgSize,
+                        finished -> this.doProcessMessage(
+                            msg,
+                            connector,
+                            peer,
+                            peerSeq,
+                            receivedNanos,
+                            dataMsgSize,
+                            finished
+                        )
+                    );
+                    scheduled = true;
                     break;
                 case MessageTypes.PING:
                     peer.sendPong();
@@ -206,18 +242,43 @@ public class CommonMessageProcessor implements MessageProcessor
                 null
             );
         }
+        finally
+        {
+            if (!scheduled)
+            {
+                peer.inMessageProcessed(msgSize);
+            }
+        }
     }
 
     /**
      * Called on a worker pool thread.
      */
-    private void doProcessMessage(Message msg, TcpConnector connector, Peer peer, long peerSeq)
+    private void doProcessMessage(
+        Message msg,
+        TcpConnector connector,
+        Peer peer,
+        long peerSeq,
+        long receivedNanos,
+        long msgSize,
+        Runnable finished
+    )
     {
-        peer.processInOrder(peerSeq, Flux.defer(() ->
-            peer.isConnected(false) ?
-                this.doProcessInOrderMessage(msg, connector, peer, peerSeq) :
-                Flux.empty()
-        ));
+        // The credits of the peer and the slot of the messageScheduler are released once the in-order processing
+        // of the message starts, not when it completed. An API call may wait for answers of the same peer, which
+        // could otherwise not be received or scheduled while the API calls waiting for them use up all credits
+        // or slots.
+        peer.processInOrder(
+            peerSeq,
+            Flux.defer(() ->
+            {
+                peer.inMessageProcessed(msgSize);
+                finished.run();
+                return peer.isConnected(false) ?
+                    this.doProcessInOrderMessage(msg, connector, peer, peerSeq, receivedNanos) :
+                    Flux.empty();
+            })
+        );
     }
 
     /**
@@ -225,12 +286,18 @@ public class CommonMessageProcessor implements MessageProcessor
      * The messages from each peer are guaranteed to be delivered in the same order as in the incoming stream.
      * In particular, no two messages from a given peer will be processed at the same time.
      */
-    private Flux<?> doProcessInOrderMessage(Message msg, TcpConnector connector, Peer peer, long peerSeq)
+    private Flux<?> doProcessInOrderMessage(
+        Message msg,
+        TcpConnector connector,
+        Peer peer,
+        long peerSeq,
+        long receivedNanos
+    )
     {
         Flux<?> flux = Flux.empty();
         try
         {
-            flux = handleDataMessage(msg, connector, peer, peerSeq)
+            flux = handleDataMessage(msg, connector, peer, peerSeq, receivedNanos)
                 .doOnError(exc -> errorLog.reportError(
                     Level.ERROR,
                     exc,
@@ -257,7 +324,8 @@ public class CommonMessageProcessor implements MessageProcessor
         final Message msg,
         final TcpConnector connector,
         final Peer peer,
-        long peerSeq
+        long peerSeq,
+        long receivedNanos
     )
         throws IllegalMessageStateException, IOException
     {
@@ -276,7 +344,15 @@ public class CommonMessageProcessor implements MessageProcessor
                 case ONEWAY:
                     // fall-through
                 case API_CALL:
-                    flux = callApi(connector, peer, header, msgDataIn, msgType == MsgType.API_CALL, peerSeq);
+                    flux = callApi(
+                        connector,
+                        peer,
+                        header,
+                        msgDataIn,
+                        msgType == MsgType.API_CALL,
+                        peerSeq,
+                        receivedNanos
+                    );
                     break;
                 case ANSWER:
                     handleAnswer(peer, header, msgDataIn, peerSeq);
@@ -367,16 +443,21 @@ public class CommonMessageProcessor implements MessageProcessor
         MsgHeaderOuterClass.MsgHeader header,
         ByteArrayInputStream msgDataIn,
         boolean respond,
-        long peerSeq
+        long peerSeq,
+        long receivedNanos
     )
     {
+        final long startNanos = System.nanoTime();
         Flux<byte[]> messageFlux;
+        ApiCallTimer timer = null;
         String apiCallName = header.getMsgContent();
 
         String apiCallDescription = respond ? "API call " + getApiCallId(header) : "oneway call";
         errorLog.logDebug("Peer %s, %s '%s' start (seq %d)", peer, apiCallDescription, apiCallName, peerSeq);
 
         ApiEntry apiMapEntry = apiCallMap.get(apiCallName);
+        // only known API names are used as label values, to keep the number of metric children bounded
+        String metricApiCallName = apiMapEntry != null ? apiCallName : LinStorMetrics.UNKNOWN;
 
         if (apiMapEntry != null)
         {
@@ -389,6 +470,7 @@ public class CommonMessageProcessor implements MessageProcessor
                 peerAccCtx.subjectId != Identity.PUBLIC_ID)
             {
                 Long apiCallId = respond ? getApiCallId(header) : 0L;
+                timer = slowApiCallTracker.startTimer(apiCallName, startNanos - receivedNanos);
 
                 messageFlux = execute(apiMapEntry, apiCallName, apiCallId, msgDataIn, respond)
                     .checkpoint("Fallback error handling wrapper")
@@ -412,7 +494,8 @@ public class CommonMessageProcessor implements MessageProcessor
                         ApiModule.API_CALL_NAME, apiCallName,
                         AccessContext.class, peerAccCtx,
                         Peer.class, peer,
-                        ApiModule.API_CALL_ID, apiCallId
+                        ApiModule.API_CALL_ID, apiCallId,
+                        ApiCallTimer.class, timer
                     ));
             }
             else
@@ -476,8 +559,22 @@ public class CommonMessageProcessor implements MessageProcessor
                 .doOnNext(ignored ->
                     errorLog.logDebug("Dropping message generated for oneway call '" + apiCallName + "'"));
 
-        return flux.doOnTerminate(() ->
-            errorLog.logDebug("Peer %s, %s '%s' end", peer, apiCallDescription, apiCallName));
+        ApiCallTimer apiCallTimer = timer;
+        return flux
+            .doOnTerminate(() ->
+                errorLog.logDebug("Peer %s, %s '%s' end", peer, apiCallDescription, apiCallName))
+            .doFinally(ignored ->
+            {
+                if (apiCallTimer != null)
+                {
+                    // also records the API call's duration
+                    apiCallTimer.finish();
+                }
+                else
+                {
+                    LinStorMetrics.API_CALL_DURATION.labels(metricApiCallName).observeSince(startNanos);
+                }
+            });
     }
 
     private Flux<byte[]> execute(
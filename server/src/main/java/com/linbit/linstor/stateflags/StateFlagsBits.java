@@ -198,6 +198,12 @@ public class StateFlagsBits<PRIMARY_KEY, FLAG extends Flags> extends AbsTransact
         return changedStateFlags;
     }
 
+    @Override
+    protected Object getModificationOwner()
+    {
+        return pk;
+    }
+
     @Override
     public void commitImpl()
     {
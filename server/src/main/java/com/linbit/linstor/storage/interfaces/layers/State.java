@@ -68,4 +68,11 @@ public class State implements TransactionObject
     {
         // no-op
     }
+
+    @Override
+    public long getModificationCount()
+    {
+        // immutable
+        return 0;
+    }
 }
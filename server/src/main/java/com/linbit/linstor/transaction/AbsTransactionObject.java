@@ -5,6 +5,8 @@ import com.linbit.linstor.propscon.PropsContainer;
 
 import javax.inject.Provider;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Interface for objects that can apply or undo one or multiple
  * previously performed changes.<br>
@@ -20,6 +22,7 @@ public abstract class AbsTransactionObject implements TransactionObject
     private static final boolean DEBUG_MODE = false;
 
     private final Provider<? extends TransactionMgr> transMgrProvider;
+    private final AtomicLong modificationCount = new AtomicLong();
 
     private TransactionMgr activeTransMgr = null;
     private boolean inCommit = false;
@@ -125,6 +128,7 @@ public abstract class AbsTransactionObject implements TransactionObject
             inRollback = true;
             rollbackImpl();
             inRollback = false;
+            markModified();
         }
         if (DEBUG_MODE)
         {
@@ -153,8 +157,39 @@ public abstract class AbsTransactionObject implements TransactionObject
         return !hasTransMgr() && isDirty();
     }
 
+    @Override
+    public long getModificationCount()
+    {
+        return modificationCount.get();
+    }
+
+    /**
+     * Increases the modification counter of this object.
+     * Modifications of transactional data do this implicitly, modifications of data that is not managed by a
+     * transaction (for example the volatile data of layer objects) have to call this method explicitly.
+     */
+    public final void markModified()
+    {
+        modificationCount.incrementAndGet();
+        Object owner = getModificationOwner();
+        if (owner instanceof AbsTransactionObject)
+        {
+            ((AbsTransactionObject) owner).markModified();
+        }
+    }
+
+    /**
+     * This method can be overridden by data-structures that belong to another object (like the properties or
+     * flags of a resource), so that their modifications also increase the modification counter of that object
+     */
+    protected Object getModificationOwner()
+    {
+        return null;
+    }
+
     protected final void activateTransMgr()
     {
+        markModified();
         getObjectToRegister().setConnection(transMgrProvider.get());
     }
 }
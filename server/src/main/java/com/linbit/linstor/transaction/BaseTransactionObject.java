@@ -52,6 +52,28 @@ public abstract class BaseTransactionObject extends AbsTransactionObject
         return dirty;
     }
 
+    /**
+     * Includes the modification counters of the own data of this object (properties, flags, collections, ...).
+     * Other objects that are only referenced by {@link #transObjs} (e.g. the node of a resource) are not
+     * included, those have to be checked separately if needed.
+     */
+    @Override
+    public long getModificationCount()
+    {
+        long count = super.getModificationCount();
+        if (transObjs != null)
+        {
+            for (TransactionObject transObj : transObjs)
+            {
+                if (transObj != null && !(transObj instanceof BaseTransactionObject))
+                {
+                    count += transObj.getModificationCount();
+                }
+            }
+        }
+        return count;
+    }
+
     @Override
     public boolean isDirtyWithoutTransMgr()
     {
@@ -5,6 +5,7 @@ import static com.ibm.etcd.client.KeyUtils.bs;
 import com.linbit.ImplementationError;
 import com.linbit.linstor.ControllerETCDDatabase;
 import com.linbit.linstor.LinStorDBRuntimeException;
+import com.linbit.linstor.metrics.ApiCallTimer;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -58,24 +59,32 @@ public class ControllerETCDTransactionMgr implements TransactionMgrETCD
     @Override
     public void commit() throws TransactionException
     {
-        removeDuplucateRequests();
-
-        // TODO check for errors
-        TxnResponse txnResponse = currentTransaction.sync();
-        if (txnResponse.getSucceeded())
+        final long startNanos = System.nanoTime();
+        try
         {
-            transactionObjectCollection.commitAll();
+            removeDuplucateRequests();
+
+            // TODO check for errors
+            TxnResponse txnResponse = currentTransaction.sync();
+            if (txnResponse.getSucceeded())
+            {
+                transactionObjectCollection.commitAll();
 
-            clearTransactionObjects();
+                clearTransactionObjects();
 
-            currentTransaction = getClient().batch();
+                currentTransaction = getClient().batch();
+            }
+            else
+            {
+                currentTransaction = getClient().batch();
+                throw new TransactionException("ETCD commit failed.",
+                    new LinStorDBRuntimeException(txnResponse.toString())
+                );
+            }
         }
-        else
+        finally
         {
-            currentTransaction = getClient().batch();
-            throw new TransactionException("ETCD commit failed.",
-                new LinStorDBRuntimeException(txnResponse.toString())
-            );
+            ApiCallTimer.addToCurrent(ApiCallTimer.Phase.COMMIT, System.nanoTime() - startNanos);
         }
     }
 
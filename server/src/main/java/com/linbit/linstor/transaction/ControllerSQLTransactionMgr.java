@@ -1,6 +1,7 @@
 package com.linbit.linstor.transaction;
 
 import com.linbit.linstor.ControllerSQLDatabase;
+import com.linbit.linstor.metrics.ApiCallTimer;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -27,6 +28,7 @@ public class ControllerSQLTransactionMgr implements TransactionMgrSQL
     @Override
     public void commit() throws TransactionException
     {
+        final long startNanos = System.nanoTime();
         try
         {
             dbCon.commit();
@@ -35,6 +37,10 @@ public class ControllerSQLTransactionMgr implements TransactionMgrSQL
         {
             throw new TransactionException("Database commit failed.", sqlExc);
         }
+        finally
+        {
+            ApiCallTimer.addToCurrent(ApiCallTimer.Phase.COMMIT, System.nanoTime() - startNanos);
+        }
 
         transactionObjectCollection.commitAll();
 
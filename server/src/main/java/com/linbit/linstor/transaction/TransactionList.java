@@ -60,6 +60,12 @@ public class TransactionList<PARENT, VALUE>
         return isDirty;
     }
 
+    @Override
+    protected Object getModificationOwner()
+    {
+        return parent;
+    }
+
     @Override
     protected void commitImpl()
     {
@@ -44,4 +44,10 @@ public interface TransactionObject
      */
     void commit();
 
+    /**
+     * Returns a counter that is increased with every modification and every rollback of this object.
+     * Data derived from this object (e.g. serialized messages) is up to date as long as the counter did not change
+     */
+    long getModificationCount();
+
 }
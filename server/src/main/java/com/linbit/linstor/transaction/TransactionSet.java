@@ -48,6 +48,12 @@ public class TransactionSet<PARENT, VALUE extends TransactionObject>
         return !oldValues.isEmpty();
     }
 
+    @Override
+    protected Object getModificationOwner()
+    {
+        return parent;
+    }
+
     @Override
     protected void commitImpl()
     {
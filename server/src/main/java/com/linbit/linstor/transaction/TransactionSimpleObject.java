@@ -43,6 +43,12 @@ public class TransactionSimpleObject<PARENT, ELEMENT> extends AbsTransactionObje
             activateTransMgr();
             dbDriver.update(parent, obj);
         }
+        else
+        if (!Objects.equals(obj, object))
+        {
+            // reverted to the committed value
+            markModified();
+        }
         ELEMENT oldObj = object;
         object = obj;
         return oldObj;
@@ -63,6 +69,12 @@ public class TransactionSimpleObject<PARENT, ELEMENT> extends AbsTransactionObje
         }
     }
 
+    @Override
+    protected Object getModificationOwner()
+    {
+        return parent;
+    }
+
     @Override
     public void commitImpl()
     {
@@ -1,15 +1,24 @@
 package com.linbit.locks;
 
+import com.linbit.linstor.metrics.ApiCallTimer;
+import com.linbit.linstor.metrics.Histogram;
+import com.linbit.linstor.metrics.LinStorMetrics;
+
 import java.util.concurrent.locks.Lock;
 
 public class LockGuard implements AutoCloseable
 {
     private static final boolean EXC_UNLOCK_CURRENT = true;
 
+    // Name used for the wait time metric of locks that are not created by the LockGuardFactory
+    static final String UNNAMED_LOCK = "other";
+
     private boolean acquired = false;
 
     private final Lock[] lockBundle;
 
+    private final Histogram.Child waitMetric;
+
     /**
      * Constructs a new LockGuard instance
      *
@@ -27,8 +36,21 @@ public class LockGuard implements AutoCloseable
      * @param locksRef array of locks to be managed by the new LockGuard instance
      */
     LockGuard(final boolean deferred, final Lock... locksRef)
+    {
+        this(UNNAMED_LOCK, deferred, locksRef);
+    }
+
+    /**
+     * Constructs a new LockGuard instance, see {@link #LockGuard(boolean, Lock...)}
+     *
+     * @param lockName label under which the time spent waiting for the locks is recorded
+     * @param deferred control flag for the immediate or deferred acquisition of the specified locks
+     * @param locksRef array of locks to be managed by the new LockGuard instance
+     */
+    LockGuard(final String lockName, final boolean deferred, final Lock... locksRef)
     {
         lockBundle = locksRef;
+        waitMetric = LinStorMetrics.LOCK_WAIT.labels(lockName);
         if (!deferred)
         {
             lock();
@@ -43,6 +65,7 @@ public class LockGuard implements AutoCloseable
      */
     public final void lock()
     {
+        final long waitStart = System.nanoTime();
         // Attempt to acquire all locks
         int idx = 0;
         try
@@ -80,6 +103,9 @@ public class LockGuard implements AutoCloseable
             // Rethrow the exception that caused the lock() call to fail
             throw exc;
         }
+        final long waitNanos = System.nanoTime() - waitStart;
+        waitMetric.observeNanos(waitNanos);
+        ApiCallTimer.addToCurrent(ApiCallTimer.Phase.LOCK_WAIT, waitNanos);
         acquired = true;
     }
 
@@ -224,9 +224,16 @@ public class LockGuardFactory
             }
 
             Lock[] lockArr = new Lock[locks.size()];
+            StringBuilder lockName = new StringBuilder();
             int lockIdx = 0;
             for (Entry<LockObj, LockType> entry : locks.entrySet())
             {
+                if (lockIdx > 0)
+                {
+                    lockName.append(',');
+                }
+                lockName.append(entry.getKey().name()).append(':').append(entry.getValue().name());
+
                 Lock lock;
                 if (entry.getValue() == LockType.READ)
                 {
@@ -239,7 +246,7 @@ public class LockGuardFactory
                 lockArr[lockIdx] = lock;
                 ++lockIdx;
             }
-            return new LockGuard(defer, lockArr);
+            return new LockGuard(lockName.toString(), defer, lockArr);
         }
     }
 }
@@ -0,0 +1,198 @@
+package com.linbit.utils;
+
+import com.linbit.ImplementationError;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Hands tasks that are submitted on behalf of different sources (e.g. peers) to an executor, with a limit on the
+ * number of tasks that run concurrently.
+ *
+ * The sources are served in deficit round-robin order, weighted by the cost of their tasks (e.g. the size of the
+ * message that is processed by the task). Each source that has queued tasks may run tasks worth about
+ * {@code quantum} before the next source is served, so a source with a large backlog does not delay the tasks of
+ * the other sources by more than one round.
+ * The tasks of one source are started in the order in which they were submitted.
+ *
+ * A task that was submitted with {@link #submitAsync(Object, long, Consumer)} counts as running until it reports
+ * that it finished, which allows to limit the number of tasks that continue asynchronously after returning.
+ */
+public class FairTaskScheduler<K>
+{
+    private final int maxRunning;
+    private final long quantum;
+    private final Consumer<Runnable> executor;
+
+    // Guarded by this
+    private final Map<K, SourceQueue> sourceQueues = new HashMap<>();
+    private final Deque<SourceQueue> activeSources = new ArrayDeque<>();
+    private int running = 0;
+
+    /**
+     * @param maxRunningRef maximum number of tasks that were handed to the executor and did not finish yet
+     * @param quantumRef cost of the tasks a source may run per round
+     * @param executorRef runs the tasks; called without holding any locks of the scheduler
+     */
+    public FairTaskScheduler(int maxRunningRef, long quantumRef, Consumer<Runnable> executorRef)
+    {
+        if (maxRunningRef < 1 || quantumRef < 1)
+        {
+            throw new ImplementationError(
+                "Invalid FairTaskScheduler parameters: maxRunning " + maxRunningRef + ", quantum " + quantumRef
+            );
+        }
+        maxRunning = maxRunningRef;
+        quantum = quantumRef;
+        executor = executorRef;
+    }
+
+    public void submit(K source, long cost, Runnable task)
+    {
+        submitAsync(
+            source,
+            cost,
+            finished ->
+            {
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    finished.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * Submits a task that finishes asynchronously. The task is given a callback that it has to call once it
+     * finished, e.g. when the processing that it started completed. Until then, the task counts against the
+     * limit of running tasks. If the task throws an exception, it is considered to be finished.
+     */
+    public void submitAsync(K source, long cost, Consumer<Runnable> task)
+    {
+        synchronized (this)
+        {
+            SourceQueue sourceQueue = sourceQueues.get(source);
+            if (sourceQueue == null)
+            {
+                sourceQueue = new SourceQueue(source);
+                sourceQueues.put(source, sourceQueue);
+                activeSources.addLast(sourceQueue);
+            }
+            sourceQueue.tasks.addLast(new QueuedTask(Math.max(cost, 1), task));
+        }
+        dispatch();
+    }
+
+    /**
+     * Returns the number of tasks of the given source that were not started yet
+     */
+    public synchronized int getQueuedCount(K source)
+    {
+        SourceQueue sourceQueue = sourceQueues.get(source);
+        return sourceQueue == null ? 0 : sourceQueue.tasks.size();
+    }
+
+    private void dispatch()
+    {
+        Runnable task = pollNextTask();
+        while (task != null)
+        {
+            executor.accept(task);
+            task = pollNextTask();
+        }
+    }
+
+    private synchronized Runnable pollNextTask()
+    {
+        Runnable nextTask = null;
+        if (running < maxRunning)
+        {
+            while (nextTask == null && !activeSources.isEmpty())
+            {
+                SourceQueue sourceQueue = activeSources.peekFirst();
+                QueuedTask queuedTask = sourceQueue.tasks.peekFirst();
+                if (sourceQueue.deficit < queuedTask.cost)
+                {
+                    // the source has used up its share of this round, continue with the next source
+                    sourceQueue.deficit += quantum;
+                    activeSources.addLast(activeSources.pollFirst());
+                }
+                else
+                {
+                    sourceQueue.deficit -= queuedTask.cost;
+                    sourceQueue.tasks.pollFirst();
+                    if (sourceQueue.tasks.isEmpty())
+                    {
+                        activeSources.pollFirst();
+                        sourceQueues.remove(sourceQueue.source);
+                    }
+                    ++running;
+                    nextTask = () -> runTask(queuedTask.task);
+                }
+            }
+        }
+        return nextTask;
+    }
+
+    private void runTask(Consumer<Runnable> task)
+    {
+        AtomicBoolean finished = new AtomicBoolean();
+        Runnable finishedCallback = () ->
+        {
+            // only the first call releases the slot of the task
+            if (finished.compareAndSet(false, true))
+            {
+                synchronized (this)
+                {
+                    --running;
+                }
+                dispatch();
+            }
+        };
+        boolean started = false;
+        try
+        {
+            task.accept(finishedCallback);
+            started = true;
+        }
+        finally
+        {
+            if (!started)
+            {
+                finishedCallback.run();
+            }
+        }
+    }
+
+    private class SourceQueue
+    {
+        private final K source;
+        private final Deque<QueuedTask> tasks = new ArrayDeque<>();
+        private long deficit = 0;
+
+        SourceQueue(K sourceRef)
+        {
+            source = sourceRef;
+        }
+    }
+
+    private static class QueuedTask
+    {
+        private final long cost;
+        private final Consumer<Runnable> task;
+
+        QueuedTask(long costRef, Consumer<Runnable> taskRef)
+        {
+            cost = costRef;
+            task = taskRef;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.linbit.fsevent;
+
+import com.linbit.fsevent.FileSystemWatch.FileEntry;
+import com.linbit.linstor.testutils.BenchmarkHarness;
+import com.linbit.linstor.testutils.EmptyErrorReporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Registers 10000 file creation watches spread over 100 directories, from several threads concurrently, either one
+ * entry at a time or as one batch per thread, and measures how long the registration takes and how long it takes
+ * until all observers are called after the files were created.
+ *
+ * Run with {@link BenchmarkHarness}, the parameter is the number of watches.
+ */
+public class FileSystemWatchBenchmark
+{
+    private static final int DEFAULT_WATCH_COUNT = 10_000;
+    private static final int DIR_COUNT = 100;
+    private static final int[] THREAD_COUNTS = {1, 4, 16};
+    private static final long FIRE_TIMEOUT_SECONDS = 60;
+
+    public static void main(String[] args) throws Exception
+    {
+        int watchCount = BenchmarkHarness.intArg(args, DEFAULT_WATCH_COUNT);
+
+        FileSystemWatch fsWatch = new FileSystemWatch(new EmptyErrorReporter());
+        fsWatch.start();
+        try
+        {
+            BenchmarkHarness harness = new BenchmarkHarness("mode", "threads", "register ms", "fire ms", "missed");
+            for (int threadCount : THREAD_COUNTS)
+            {
+                for (boolean batched : new boolean[] {false, true})
+                {
+                    long[] phaseNanos = new long[2];
+                    long missed = harness.measure(
+                        1,
+                        1,
+                        () -> run(fsWatch, watchCount, threadCount, batched, phaseNanos)
+                    ).resultSum;
+                    harness.printRow(
+                        batched ? "batched" : "single",
+                        threadCount,
+                        phaseNanos[0] / 1_000_000.0,
+                        phaseNanos[1] / 1_000_000.0,
+                        missed
+                    );
+                }
+            }
+        }
+        finally
+        {
+            fsWatch.shutdown();
+            fsWatch.cancelAllWatchKeys();
+        }
+    }
+
+    /**
+     * @param phaseNanos receives the time the registration took and the time until all observers were called
+     * @return the number of observers that were not called within {@link #FIRE_TIMEOUT_SECONDS}
+     */
+    private static long run(
+        FileSystemWatch fsWatch,
+        int watchCount,
+        int threadCount,
+        boolean batched,
+        long[] phaseNanos
+    )
+        throws IOException, InterruptedException
+    {
+        Path baseDir = Files.createTempDirectory("fswatch-benchmark");
+        try
+        {
+            List<List<FileEntry>> entriesPerThread = new ArrayList<>();
+            for (int threadIdx = 0; threadIdx < threadCount; ++threadIdx)
+            {
+                entriesPerThread.add(new ArrayList<>());
+            }
+            CountDownLatch firedLatch = new CountDownLatch(watchCount);
+            List<Path> files = new ArrayList<>();
+            for (int idx = 0; idx < watchCount; ++idx)
+            {
+                Path dir = Files.createDirectories(baseDir.resolve("dir" + (idx % DIR_COUNT)));
+                Path file = dir.resolve("file" + idx);
+                files.add(file);
+                entriesPerThread.get(idx % threadCount).add(
+                    new FileEntry(file, FileSystemWatch.Event.CREATE, watchEntry -> firedLatch.countDown())
+                );
+            }
+
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (List<FileEntry> entries : entriesPerThread)
+            {
+                Thread thread = new Thread(() ->
+                {
+                    try
+                    {
+                        startLatch.await();
+                        if (batched)
+                        {
+                            fsWatch.addFileEntryList(entries);
+                        }
+                        else
+                        {
+                            for (FileEntry entry : entries)
+                            {
+                                fsWatch.addFileEntry(entry);
+                            }
+                        }
+                    }
+                    catch (Exception exc)
+                    {
+                        throw new RuntimeException(exc);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+
+            long startNanos = System.nanoTime();
+            startLatch.countDown();
+            for (Thread thread : threads)
+            {
+                thread.join();
+            }
+            long registeredNanos = System.nanoTime();
+
+            for (Path file : files)
+            {
+                Files.createFile(file);
+            }
+            firedLatch.await(FIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long firedNanos = System.nanoTime();
+
+            phaseNanos[0] = registeredNanos - startNanos;
+            phaseNanos[1] = firedNanos - registeredNanos;
+            return firedLatch.getCount();
+        }
+        finally
+        {
+            try (Stream<Path> paths = Files.walk(baseDir))
+            {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
@@ -5,10 +5,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -20,6 +26,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import com.linbit.fsevent.FileSystemWatch.DirectoryEntry;
 import com.linbit.fsevent.FileSystemWatch.FileEntry;
 import com.linbit.fsevent.FileSystemWatch.FileEntryGroup;
 import com.linbit.fsevent.FileSystemWatch.FileEntryGroupBuilder;
@@ -705,6 +712,222 @@ public class FileSystemWatchTest
         }
     }
 
+    /**
+     * Registers the directory of a watched file and releases it once the entry fired
+     */
+    @Test
+    public void registerAndFireTest() throws Exception
+    {
+        Path root = testFolder.getRoot().toPath();
+        String testFile = testFilePath("testfile.txt");
+
+        CountingObserver rec = new CountingObserver();
+        fsw.newFileEntry(testFile, FileSystemWatch.Event.CREATE, rec);
+        WatchKey key = fsw.getWatchKey(root);
+        assertThat(key).isNotNull();
+
+        createFile(testFile);
+        assertThat(rec.await(TEST_DELAY)).isTrue();
+
+        // the auto-removed entry was the last watcher of the directory
+        assertThat(fsw.getWatchKey(root)).isNull();
+        assertThat(key.isValid()).isFalse();
+
+        Delay.sleep(TEST_DELAY);
+        assertThat(rec.getCallCount()).isEqualTo(1);
+    }
+
+    /**
+     * Removing the last entry of a directory cancels the directory's WatchKey
+     */
+    @Test
+    public void removeCancelsWatchKeyTest() throws Exception
+    {
+        Path root = testFolder.getRoot().toPath();
+
+        FileEntry fileEntry = fsw.newFileEntry(
+            testFilePath("testfile.txt"),
+            FileSystemWatch.Event.CREATE,
+            new CountingObserver()
+        );
+        DirectoryEntry dirEntry = fsw.newDirectoryEntry(
+            root.toString(),
+            FileSystemWatch.Event.CREATE,
+            new DirectoryObserver()
+            {
+                @Override
+                public void directoryEvent(DirectoryEntry watchEntry, Path filePath)
+                {
+                }
+
+                @Override
+                public void directoryOverflow(DirectoryEntry watchEntry)
+                {
+                }
+            }
+        );
+        WatchKey key = fsw.getWatchKey(root);
+        assertThat(key).isNotNull();
+
+        fsw.removeFileEntry(fileEntry);
+        assertThat(fsw.getWatchKey(root)).isSameAs(key);
+        assertThat(key.isValid()).isTrue();
+
+        fsw.removeDirectoryEntry(dirEntry);
+        assertThat(fsw.getWatchKey(root)).isNull();
+        assertThat(key.isValid()).isFalse();
+    }
+
+    /**
+     * Entries of a list whose files already exist fire exactly once, and are not fired again by later events
+     */
+    @Test
+    public void existingFilesListFiresOnceTest() throws Exception
+    {
+        String existingFileOne = testFilePath("file1");
+        String existingFileTwo = testFilePath("file2");
+        String newFile = testFilePath("file3");
+        createFile(existingFileOne);
+        createFile(existingFileTwo);
+
+        CountingObserver recOne = new CountingObserver();
+        CountingObserver recTwo = new CountingObserver();
+        CountingObserver recNew = new CountingObserver();
+        fsw.addFileEntryList(
+            Arrays.asList(
+                new FileEntry(Paths.get(existingFileOne), FileSystemWatch.Event.CREATE, recOne),
+                new FileEntry(Paths.get(existingFileTwo), FileSystemWatch.Event.CREATE, recTwo),
+                new FileEntry(Paths.get(newFile), FileSystemWatch.Event.CREATE, recNew)
+            )
+        );
+        assertThat(recOne.getCallCount()).isEqualTo(1);
+        assertThat(recTwo.getCallCount()).isEqualTo(1);
+        assertThat(recNew.getCallCount()).isEqualTo(0);
+
+        deleteFile(existingFileOne);
+        createFile(existingFileOne);
+        createFile(newFile);
+
+        assertThat(recNew.await(TEST_DELAY)).isTrue();
+        Delay.sleep(TEST_DELAY);
+
+        assertThat(recOne.getCallCount()).isEqualTo(1);
+        assertThat(recTwo.getCallCount()).isEqualTo(1);
+        assertThat(recNew.getCallCount()).isEqualTo(1);
+        assertThat(fsw.getWatchKey(testFolder.getRoot().toPath())).isNull();
+    }
+
+    /**
+     * If the registration of a directory fails, the entries of the other directories are removed again
+     */
+    @Test
+    public void listRollbackReleasesWatchKeysTest() throws Exception
+    {
+        Path root = testFolder.getRoot().toPath();
+        String createFile = testFilePath("file1");
+        // the parent exists, but is not a directory
+        String notADirectory = testFilePath("not-a-directory");
+        createFile(notADirectory);
+
+        CountingObserver rec = new CountingObserver();
+        boolean threw = false;
+        try
+        {
+            fsw.addFileEntryList(
+                Arrays.asList(
+                    new FileEntry(Paths.get(createFile), FileSystemWatch.Event.CREATE, rec),
+                    new FileEntry(Paths.get(notADirectory, "file2"), FileSystemWatch.Event.CREATE, rec)
+                )
+            );
+        }
+        catch (IOException ignored)
+        {
+            threw = true;
+        }
+        assertThat(threw).isTrue();
+        assertThat(fsw.getWatchKey(root)).isNull();
+
+        createFile(createFile);
+        Delay.sleep(TEST_DELAY);
+
+        assertThat(rec.getCallCount()).isEqualTo(0);
+    }
+
+    /**
+     * The missing parent directories of a watched file are created while the entry is being registered
+     */
+    @Test
+    public void parentCreatedDuringRegistrationTest() throws Exception
+    {
+        final int rounds = 20;
+        List<CountingObserver> recList = new ArrayList<>();
+        for (int round = 0; round < rounds; ++round)
+        {
+            Path missingDir = testFolder.getRoot().toPath().resolve("dir" + round);
+            Path testFile = missingDir.resolve("subdir").resolve("testfile");
+
+            Thread creator = new Thread(
+                () ->
+                {
+                    try
+                    {
+                        Files.createDirectories(testFile.getParent());
+                        Files.createFile(testFile);
+                    }
+                    catch (IOException exc)
+                    {
+                        exc.printStackTrace();
+                    }
+                }
+            );
+            CountingObserver rec = new CountingObserver();
+            recList.add(rec);
+
+            creator.start();
+            fsw.newFileEntry(testFile.toString(), FileSystemWatch.Event.CREATE, rec);
+            creator.join();
+
+            assertThat(rec.await(TEST_DELAY)).isTrue();
+        }
+        Delay.sleep(TEST_DELAY);
+
+        for (CountingObserver rec : recList)
+        {
+            assertThat(rec.getCallCount()).isEqualTo(1);
+        }
+        // no watches of the missing directories are left behind
+        assertThat(fsw.getWatchKey(testFolder.getRoot().toPath())).isNull();
+        for (int round = 0; round < rounds; ++round)
+        {
+            Path missingDir = testFolder.getRoot().toPath().resolve("dir" + round);
+            assertThat(fsw.getWatchKey(missingDir)).isNull();
+            assertThat(fsw.getWatchKey(missingDir.resolve("subdir"))).isNull();
+        }
+    }
+
+    private static class CountingObserver implements FileObserver
+    {
+        private final AtomicInteger callCount = new AtomicInteger();
+        private final CountDownLatch called = new CountDownLatch(1);
+
+        @Override
+        public void fileEvent(FileEntry watchEntry)
+        {
+            callCount.incrementAndGet();
+            called.countDown();
+        }
+
+        public boolean await(long timeout) throws InterruptedException
+        {
+            return called.await(timeout, TimeUnit.MILLISECONDS);
+        }
+
+        public int getCallCount()
+        {
+            return callCount.get();
+        }
+    }
+
     private static class FileEventReceiver implements FileObserver
     {
         Set<String> expected = new TreeSet<>();
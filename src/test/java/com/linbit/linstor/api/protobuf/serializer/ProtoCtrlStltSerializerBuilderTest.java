@@ -0,0 +1,113 @@
+package com.linbit.linstor.api.protobuf.serializer;
+
+import com.linbit.linstor.api.protobuf.serializer.ProtoSerializationCache.Version;
+import com.linbit.linstor.core.CtrlSecurityObjects;
+import com.linbit.linstor.core.identifier.VolumeNumber;
+import com.linbit.linstor.core.objects.FreeSpaceTracker;
+import com.linbit.linstor.core.objects.Resource;
+import com.linbit.linstor.core.objects.StorPool;
+import com.linbit.linstor.core.objects.StorPoolDefinition;
+import com.linbit.linstor.propscon.Props;
+import com.linbit.linstor.proto.MsgHeaderOuterClass.MsgHeader;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.linstor.security.DummySecurityInitializer;
+import com.linbit.linstor.storage.interfaces.categories.resource.AbsRscLayerObject;
+import com.linbit.linstor.storage.interfaces.categories.resource.VlmProviderObject;
+import com.linbit.linstor.testutils.EmptyErrorReporter;
+import com.linbit.linstor.transaction.TransactionObject;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProtoCtrlStltSerializerBuilderTest
+{
+    private static final AccessContext SYS_CTX = DummySecurityInitializer.getSystemAccessContext();
+
+    private ProtoSerializationCache cache;
+    private ProtoCtrlStltSerializerBuilder builder;
+
+    private Resource rsc;
+    private StorPool storPool;
+    private StorPoolDefinition storPoolDfn;
+    private FreeSpaceTracker freeSpaceTracker;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception
+    {
+        cache = new ProtoSerializationCache();
+        builder = new ProtoCtrlStltSerializerBuilder(
+            new EmptyErrorReporter(),
+            SYS_CTX,
+            mock(CtrlSecurityObjects.class),
+            mock(Props.class),
+            cache,
+            null,
+            null,
+            false
+        );
+
+        storPool = mock(StorPool.class);
+        storPoolDfn = mock(StorPoolDefinition.class);
+        freeSpaceTracker = mock(FreeSpaceTracker.class);
+        when(storPool.getDefinition(SYS_CTX)).thenReturn(storPoolDfn);
+        when(storPool.getFreeSpaceTracker()).thenReturn(freeSpaceTracker);
+
+        VlmProviderObject<Resource> vlmData = mock(VlmProviderObject.class);
+        when(vlmData.getStorPool()).thenReturn(storPool);
+        AbsRscLayerObject<Resource> rscData = mock(AbsRscLayerObject.class);
+        doReturn(Collections.singletonMap(new VolumeNumber(0), vlmData)).when(rscData).getVlmLayerObjects();
+
+        rsc = mock(Resource.class);
+        when(rsc.streamVolumes()).thenAnswer(ignored -> Stream.empty());
+        when(rsc.getLayerData(SYS_CTX)).thenReturn(rscData);
+    }
+
+    /**
+     * The storage volumes of a resource embed their storage pool, so a modified storage pool, storage pool
+     * definition or free space tracker must not return the cached resource message.
+     */
+    @Test
+    public void storPoolModificationInvalidatesRsc() throws Exception
+    {
+        UUID rscUuid = UUID.randomUUID();
+        AtomicInteger buildCount = new AtomicInteger();
+
+        cache.get(MsgHeader.class, rscUuid, builder.rscVersion(rsc), () -> build(buildCount));
+        cache.get(MsgHeader.class, rscUuid, builder.rscVersion(rsc), () -> build(buildCount));
+        assertEquals(1, buildCount.get());
+
+        int expectedBuildCount = 1;
+        for (TransactionObject storPoolObj : Arrays.asList(storPool, storPoolDfn, freeSpaceTracker))
+        {
+            Version prevVersion = builder.rscVersion(rsc);
+            when(storPoolObj.getModificationCount()).thenReturn(1L);
+            assertNotEquals(prevVersion, builder.rscVersion(rsc));
+
+            cache.get(MsgHeader.class, rscUuid, builder.rscVersion(rsc), () -> build(buildCount));
+            ++expectedBuildCount;
+            assertEquals(expectedBuildCount, buildCount.get());
+        }
+    }
+
+    private static MsgHeader build(AtomicInteger buildCount)
+    {
+        buildCount.incrementAndGet();
+        return MsgHeader.newBuilder()
+            .setMsgType(MsgHeader.MsgType.ONEWAY)
+            .setMsgContent("rsc")
+            .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.linbit.linstor.api.protobuf.serializer;
+
+import com.linbit.linstor.proto.MsgHeaderOuterClass.MsgHeader;
+import com.linbit.linstor.testutils.BenchmarkHarness;
+import com.linbit.linstor.testutils.BenchmarkHarness.Measurement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Compares the allocations and the runtime of serializing a header followed by a payload the way the serializer
+ * builders used to (writeDelimitedTo a ByteArrayOutputStream, followed by toByteArray()) with the
+ * {@link ProtoMessageBuffer}.
+ *
+ * Run with {@link BenchmarkHarness}, the parameter is the number of messages per payload size of up to 1 MiB.
+ */
+public class ProtoMessageBufferBenchmark
+{
+    private static final int[] PAYLOAD_SIZES = {1 << 10, 64 << 10, 1 << 20, 16 << 20};
+    private static final int DEFAULT_ITERATIONS = 200;
+    private static final int WARMUP_ITERATIONS = 20;
+
+    private interface Serializer
+    {
+        byte[] serialize(MsgHeader header, MsgHeader payload) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int iterations = BenchmarkHarness.intArg(args, DEFAULT_ITERATIONS);
+
+        Serializer byteArrayOutputStream = (header, payload) ->
+        {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            header.writeDelimitedTo(baos);
+            payload.writeDelimitedTo(baos);
+            return baos.toByteArray();
+        };
+        Serializer protoMessageBuffer = (header, payload) ->
+        {
+            ProtoMessageBuffer buffer = new ProtoMessageBuffer();
+            buffer.writeDelimited(header);
+            buffer.writeDelimited(payload);
+            return buffer.toByteArray();
+        };
+
+        BenchmarkHarness harness = new BenchmarkHarness(
+            "payload", "serializer", "bytes/msg", "alloc/msg", "us/msg"
+        );
+        for (int payloadSize : PAYLOAD_SIZES)
+        {
+            MsgHeader header = ProtoMessageBufferTest.header("FullSync", 1);
+            MsgHeader payload = ProtoMessageBufferTest.payload(payloadSize);
+            int iters = Math.max(1, (int) ((long) iterations * (1 << 20) / Math.max(payloadSize, 1 << 20)));
+
+            run(harness, "ByteArrayOutputStream", byteArrayOutputStream, header, payload, payloadSize, iters);
+            run(harness, "ProtoMessageBuffer", protoMessageBuffer, header, payload, payloadSize, iters);
+        }
+    }
+
+    private static void run(
+        BenchmarkHarness harness,
+        String name,
+        Serializer serializer,
+        MsgHeader header,
+        MsgHeader payload,
+        int payloadSize,
+        int iterations
+    )
+        throws Exception
+    {
+        Measurement measurement = harness.measure(
+            WARMUP_ITERATIONS,
+            iterations,
+            () -> serializer.serialize(header, payload).length
+        );
+        harness.printRow(
+            payloadSize,
+            name,
+            (long) measurement.resultPerRun(),
+            measurement.allocatedBytesPerRun(),
+            measurement.microsPerRun()
+        );
+    }
+}
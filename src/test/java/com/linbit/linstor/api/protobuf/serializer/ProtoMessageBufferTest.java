@@ -0,0 +1,103 @@
+package com.linbit.linstor.api.protobuf.serializer;
+
+import com.linbit.linstor.proto.MsgHeaderOuterClass.MsgHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ProtoMessageBufferTest
+{
+    @Test
+    public void sameOutputAsWriteDelimitedTo() throws IOException
+    {
+        MsgHeader header = header("ApplyRsc", 42);
+        MsgHeader payload = payload(100_000);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        header.writeDelimitedTo(baos);
+        payload.writeDelimitedTo(baos);
+        baos.write(new byte[] {1, 2, 3});
+
+        ProtoMessageBuffer buffer = new ProtoMessageBuffer();
+        buffer.writeDelimited(header);
+        buffer.writeDelimited(payload);
+        buffer.write(new byte[] {1, 2, 3});
+
+        assertArrayEquals(baos.toByteArray(), buffer.toByteArray());
+    }
+
+    @Test
+    public void parseBack() throws IOException
+    {
+        MsgHeader header = header("Ping", 1);
+        MsgHeader payload = payload(5_000);
+
+        ProtoMessageBuffer buffer = new ProtoMessageBuffer();
+        buffer.writeDelimited(header);
+        buffer.writeDelimited(payload);
+
+        ByteArrayInputStream bais = new ByteArrayInputStream(buffer.toByteArray());
+        assertEquals(header, MsgHeader.parseDelimitedFrom(bais));
+        assertEquals(payload, MsgHeader.parseDelimitedFrom(bais));
+        assertNull(MsgHeader.parseDelimitedFrom(bais));
+    }
+
+    @Test
+    public void largePayloadIsNotCopied() throws IOException
+    {
+        ProtoMessageBuffer buffer = new ProtoMessageBuffer();
+        buffer.writeDelimited(header("FullSync", 7));
+        buffer.writeDelimited(payload(1 << 20));
+
+        byte[] first = buffer.toByteArray();
+        assertEquals(buffer.size(), first.length);
+        assertSame(first, buffer.toByteArray());
+    }
+
+    @Test
+    public void manySmallWrites()
+    {
+        ProtoMessageBuffer buffer = new ProtoMessageBuffer();
+        byte[] expected = new byte[10_000];
+        for (int idx = 0; idx < expected.length; ++idx)
+        {
+            expected[idx] = (byte) idx;
+            buffer.write(new byte[] {(byte) idx});
+        }
+        assertArrayEquals(expected, buffer.toByteArray());
+    }
+
+    @Test
+    public void empty()
+    {
+        assertEquals(0, new ProtoMessageBuffer().toByteArray().length);
+    }
+
+    static MsgHeader header(String msgContent, long apiCallId)
+    {
+        return MsgHeader.newBuilder()
+            .setMsgType(MsgHeader.MsgType.API_CALL)
+            .setApiCallId(apiCallId)
+            .setMsgContent(msgContent)
+            .build();
+    }
+
+    static MsgHeader payload(int size)
+    {
+        char[] content = new char[size];
+        Arrays.fill(content, 'x');
+        return MsgHeader.newBuilder()
+            .setMsgType(MsgHeader.MsgType.ONEWAY)
+            .setMsgContent(new String(content))
+            .build();
+    }
+}
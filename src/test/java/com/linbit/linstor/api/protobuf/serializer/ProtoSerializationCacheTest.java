@@ -0,0 +1,118 @@
+package com.linbit.linstor.api.protobuf.serializer;
+
+import com.linbit.linstor.api.protobuf.serializer.ProtoSerializationCache.Version;
+import com.linbit.linstor.proto.MsgHeaderOuterClass.MsgHeader;
+import com.linbit.linstor.security.AccessDeniedException;
+import com.linbit.linstor.transaction.TransactionObject;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProtoSerializationCacheTest
+{
+    private ProtoSerializationCache cache;
+    private AtomicInteger buildCount;
+
+    private TransactionObject rsc;
+    private TransactionObject vlm;
+
+    @Before
+    public void setUp()
+    {
+        cache = new ProtoSerializationCache();
+        buildCount = new AtomicInteger();
+
+        rsc = mock(TransactionObject.class);
+        vlm = mock(TransactionObject.class);
+        when(rsc.getModificationCount()).thenReturn(3L);
+        when(vlm.getModificationCount()).thenReturn(5L);
+    }
+
+    @Test
+    public void sameVersionIsBuiltOnce() throws AccessDeniedException
+    {
+        UUID uuid = UUID.randomUUID();
+        MsgHeader first = cache.get(MsgHeader.class, uuid, version(), () -> build("rsc"));
+        MsgHeader second = cache.get(MsgHeader.class, uuid, version(), () -> build("rsc"));
+
+        assertSame(first, second);
+        assertEquals(1, buildCount.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void differentObjectsAreNotMixedUp() throws AccessDeniedException
+    {
+        MsgHeader first = cache.get(MsgHeader.class, UUID.randomUUID(), version(), () -> build("rsc1"));
+        MsgHeader second = cache.get(MsgHeader.class, UUID.randomUUID(), version(), () -> build("rsc2"));
+
+        assertEquals("rsc1", first.getMsgContent());
+        assertEquals("rsc2", second.getMsgContent());
+        assertEquals(2, buildCount.get());
+    }
+
+    @Test
+    public void modificationOfDependencyInvalidates() throws AccessDeniedException
+    {
+        UUID uuid = UUID.randomUUID();
+        MsgHeader first = cache.get(MsgHeader.class, uuid, version(), () -> build("old"));
+        when(vlm.getModificationCount()).thenReturn(6L);
+        MsgHeader second = cache.get(MsgHeader.class, uuid, version(), () -> build("new"));
+
+        assertNotSame(first, second);
+        assertEquals("new", second.getMsgContent());
+        assertEquals(2, buildCount.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void modificationOnlyInvalidatesDependentEntries() throws AccessDeniedException
+    {
+        UUID rscUuid = UUID.randomUUID();
+        UUID otherUuid = UUID.randomUUID();
+        TransactionObject other = mock(TransactionObject.class);
+        when(other.getModificationCount()).thenReturn(1L);
+
+        cache.get(MsgHeader.class, rscUuid, version(), () -> build("rsc"));
+        MsgHeader otherMsg = cache.get(MsgHeader.class, otherUuid, new Version().add(other), () -> build("other"));
+        when(rsc.getModificationCount()).thenReturn(4L);
+
+        assertSame(otherMsg, cache.get(MsgHeader.class, otherUuid, new Version().add(other), () -> build("other")));
+        assertEquals(2, buildCount.get());
+    }
+
+    @Test
+    public void addedDependencyInvalidates() throws AccessDeniedException
+    {
+        UUID uuid = UUID.randomUUID();
+        cache.get(MsgHeader.class, uuid, new Version().add(rsc), () -> build("one volume"));
+        MsgHeader second = cache.get(MsgHeader.class, uuid, version(), () -> build("two volumes"));
+
+        assertEquals("two volumes", second.getMsgContent());
+        assertEquals(2, buildCount.get());
+    }
+
+    private Version version()
+    {
+        return new Version().add(rsc).add(vlm);
+    }
+
+    private MsgHeader build(String content)
+    {
+        buildCount.incrementAndGet();
+        return MsgHeader.newBuilder()
+            .setMsgType(MsgHeader.MsgType.ONEWAY)
+            .setMsgContent(content)
+            .build();
+    }
+}
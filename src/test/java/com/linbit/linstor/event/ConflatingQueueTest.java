@@ -0,0 +1,58 @@
+package com.linbit.linstor.event;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConflatingQueueTest
+{
+    private ConflatingQueue<String, Integer> queue;
+
+    @Before
+    public void setUp()
+    {
+        queue = new ConflatingQueue<>("test");
+    }
+
+    @Test
+    public void keepsLatestValuePerKey()
+    {
+        queue.offer("a", 1);
+        queue.offer("b", 2);
+        queue.offer("a", 3);
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.getConflatedCount());
+        // "a" keeps the position in which it first became pending
+        assertEquals(Integer.valueOf(3), queue.poll());
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void offerAfterPollIsNotConflated()
+    {
+        queue.offer("a", 1);
+        queue.poll();
+        queue.offer("a", 2);
+
+        assertEquals(0, queue.getConflatedCount());
+        assertEquals(Integer.valueOf(2), queue.poll());
+    }
+
+    @Test
+    public void dropMatchingKeys()
+    {
+        queue.offer("a1", 1);
+        queue.offer("b1", 2);
+        queue.offer("a2", 3);
+
+        queue.drop(key -> key.startsWith("a"));
+
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertNull(queue.poll());
+    }
+}
@@ -0,0 +1,114 @@
+package com.linbit.linstor.event;
+
+import com.linbit.linstor.core.identifier.NodeName;
+import com.linbit.linstor.core.identifier.ResourceName;
+import com.linbit.linstor.core.identifier.VolumeNumber;
+import com.linbit.linstor.netcom.Peer;
+import com.linbit.linstor.testutils.BenchmarkHarness;
+import com.linbit.linstor.testutils.BenchmarkHarness.Measurement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.mockito.Mockito;
+
+/**
+ * Compares looking up the watches that match an event in the indexed {@link WatchStoreImpl} with scanning all
+ * watches, for about 10000 watches on volumes, resources and nodes, and a few watches of all objects.
+ *
+ * Run with {@link BenchmarkHarness}, the parameter is the number of lookups.
+ */
+public class WatchStoreBenchmark
+{
+    private static final String EVENT_NAME = "VolumeDiskState";
+    private static final int NODE_COUNT = 50;
+    private static final int RESOURCE_COUNT = 100;
+    private static final int GLOBAL_WATCH_COUNT = 10;
+    private static final int DEFAULT_ITERATIONS = 200_000;
+    private static final int WARMUP_ITERATIONS = 20_000;
+
+    private interface Lookup
+    {
+        int countMatchingWatches(EventIdentifier eventIdentifier);
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int iterations = BenchmarkHarness.intArg(args, DEFAULT_ITERATIONS);
+
+        Peer peer = Mockito.mock(Peer.class);
+        WatchStore watchStore = new WatchStoreImpl();
+        List<Watch> allWatches = new ArrayList<>();
+        List<EventIdentifier> events = new ArrayList<>();
+
+        int peerWatchId = 0;
+        for (int nodeIdx = 0; nodeIdx < NODE_COUNT; ++nodeIdx)
+        {
+            NodeName nodeName = new NodeName("node-" + nodeIdx);
+            allWatches.add(newWatch(peerWatchId++, EventIdentifier.node(EVENT_NAME, nodeName)));
+            for (int rscIdx = 0; rscIdx < RESOURCE_COUNT; ++rscIdx)
+            {
+                ResourceName rscName = new ResourceName("rsc-" + rscIdx);
+                VolumeNumber vlmNr = new VolumeNumber(0);
+                EventIdentifier volumeEvent = EventIdentifier.volume(EVENT_NAME, nodeName, rscName, vlmNr);
+                events.add(volumeEvent);
+                allWatches.add(newWatch(peerWatchId++, volumeEvent));
+                allWatches.add(newWatch(peerWatchId++, EventIdentifier.resource(EVENT_NAME, nodeName, rscName)));
+            }
+        }
+        for (int idx = 0; idx < GLOBAL_WATCH_COUNT; ++idx)
+        {
+            allWatches.add(newWatch(peerWatchId++, EventIdentifier.global(null)));
+        }
+        for (Watch watch : allWatches)
+        {
+            watchStore.addRoutedWatch(watch, peer);
+        }
+
+        Lookup scan = eventIdentifier ->
+        {
+            List<ObjectIdentifier> ancestors = eventIdentifier.getObjectIdentifier().getSelfAndAncestors();
+            int count = 0;
+            for (Watch watch : allWatches)
+            {
+                String watchEventName = watch.getEventIdentifier().getEventName();
+                if ((watchEventName == null || watchEventName.equals(eventIdentifier.getEventName())) &&
+                    ancestors.contains(watch.getEventIdentifier().getObjectIdentifier()))
+                {
+                    ++count;
+                }
+            }
+            return count;
+        };
+        Lookup index = eventIdentifier -> watchStore.getRoutedWatches(eventIdentifier).size();
+
+        BenchmarkHarness.printInfo("%d watches, %d event streams", allWatches.size(), events.size());
+        BenchmarkHarness harness = new BenchmarkHarness("lookup", "matches/event", "us/event");
+        run(harness, "scan", scan, events, Math.max(1, iterations / 100));
+        run(harness, "index", index, events, iterations);
+    }
+
+    private static Watch newWatch(int peerWatchId, EventIdentifier eventIdentifier)
+    {
+        return new Watch(UUID.randomUUID(), "benchmark-peer", peerWatchId, eventIdentifier);
+    }
+
+    private static void run(
+        BenchmarkHarness harness,
+        String name,
+        Lookup lookup,
+        List<EventIdentifier> events,
+        int iterations
+    )
+        throws Exception
+    {
+        int[] eventIdx = new int[1];
+        Measurement measurement = harness.measure(
+            Math.min(iterations, WARMUP_ITERATIONS),
+            iterations,
+            () -> lookup.countMatchingWatches(events.get(eventIdx[0]++ % events.size()))
+        );
+        harness.printRow(name, measurement.resultPerRun(), measurement.microsPerRun());
+    }
+}
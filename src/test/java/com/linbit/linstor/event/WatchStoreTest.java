@@ -4,12 +4,21 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 import reactor.core.Disposable;
+import reactor.util.function.Tuple2;
 
 import com.linbit.linstor.core.identifier.NodeName;
 import com.linbit.linstor.core.identifier.ResourceName;
 import com.linbit.linstor.core.identifier.VolumeNumber;
+import com.linbit.linstor.netcom.Peer;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 
 public class WatchStoreTest
@@ -92,6 +101,61 @@ public class WatchStoreTest
         Mockito.verify(otherPeerDisposable, Mockito.never()).dispose();
     }
 
+    @Test
+    public void getRoutedWatches()
+        throws Exception
+    {
+        Peer peer = Mockito.mock(Peer.class);
+        String testPeerId = "TestPeer";
+
+        Watch globalWatch = new Watch(UUID.randomUUID(), testPeerId, 1, globalEventIdentifier);
+        Watch allEventsWatch = new Watch(
+            UUID.randomUUID(), testPeerId, 2, new EventIdentifier(null, ObjectIdentifier.node(testNodeName)));
+        Watch resourceWatch = new Watch(UUID.randomUUID(), testPeerId, 3, resourceEventIdentifier);
+        Watch volumeWatch = new Watch(UUID.randomUUID(), testPeerId, 4, volumeEventIdentifier);
+        Watch otherEventWatch = new Watch(UUID.randomUUID(), testPeerId, 5, EventIdentifier.global("OtherEvent"));
+        Watch otherNodeWatch = new Watch(
+            UUID.randomUUID(), testPeerId, 6, EventIdentifier.node(TEST_EVENT_NAME, new NodeName("OtherNode")));
+        Watch otherVolumeWatch = new Watch(
+            UUID.randomUUID(),
+            testPeerId,
+            7,
+            EventIdentifier.volume(TEST_EVENT_NAME, testNodeName, testResourceName, new VolumeNumber(5))
+        );
+        for (Watch watch : Arrays.asList(
+            globalWatch, allEventsWatch, resourceWatch, volumeWatch, otherEventWatch, otherNodeWatch, otherVolumeWatch))
+        {
+            watchStore.addRoutedWatch(watch, peer);
+        }
+
+        assertEquals(
+            new HashSet<>(Arrays.asList(globalWatch, allEventsWatch, resourceWatch, volumeWatch)),
+            routedWatches(volumeEventIdentifier)
+        );
+        assertEquals(
+            new HashSet<>(Arrays.asList(globalWatch, allEventsWatch, resourceWatch)),
+            routedWatches(resourceEventIdentifier)
+        );
+
+        watchStore.removeWatchForPeerAndId(testPeerId, 3);
+        assertEquals(
+            new HashSet<>(Arrays.asList(globalWatch, allEventsWatch, volumeWatch)),
+            routedWatches(volumeEventIdentifier)
+        );
+
+        watchStore.removeWatchesForPeer(testPeerId);
+        assertEquals(0, routedWatches(volumeEventIdentifier).size());
+    }
+
+    private Set<Watch> routedWatches(EventIdentifier eventIdentifier)
+    {
+        List<Tuple2<Watch, Peer>> routedWatches = watchStore.getRoutedWatches(eventIdentifier);
+        Set<Watch> watches = routedWatches.stream().map(Tuple2::getT1).collect(Collectors.toSet());
+        // no watch must be returned twice
+        assertEquals(routedWatches.size(), watches.size());
+        return watches;
+    }
+
     private Watch makeWatch(EventIdentifier resourceEventIdentifier)
     {
         return new Watch(UUID.randomUUID(), null, 0, resourceEventIdentifier);
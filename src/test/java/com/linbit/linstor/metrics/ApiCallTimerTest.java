@@ -0,0 +1,98 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.linstor.metrics.ApiCallTimer.Phase;
+import com.linbit.linstor.testutils.EmptyErrorReporter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ApiCallTimerTest
+{
+    private static final long QUEUE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long LOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long COMMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SCOPE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private SlowApiCallTracker tracker;
+
+    @Before
+    public void setUp()
+    {
+        tracker = new SlowApiCallTracker(new EmptyErrorReporter());
+    }
+
+    @Test
+    public void phasesOfBoundTimer()
+    {
+        ApiCallTimer timer = tracker.startTimer("phasesOfBoundTimer", QUEUE_NANOS);
+
+        ApiCallTimer prev = timer.bind();
+        ApiCallTimer.addToCurrent(Phase.LOCK_WAIT, LOCK_NANOS);
+        ApiCallTimer.addToCurrent(Phase.COMMIT, COMMIT_NANOS);
+        ApiCallTimer.restore(prev);
+        // not bound anymore, must not be attributed to the timer
+        ApiCallTimer.addToCurrent(Phase.LOCK_WAIT, LOCK_NANOS);
+        timer.addScopeNanos(SCOPE_NANOS);
+
+        timer.finish();
+
+        assertEquals(QUEUE_NANOS, timer.getPhaseNanos(Phase.QUEUE));
+        assertEquals(LOCK_NANOS, timer.getPhaseNanos(Phase.LOCK_WAIT));
+        assertEquals(COMMIT_NANOS, timer.getPhaseNanos(Phase.COMMIT));
+        // the lock waits and commits happened within the scope
+        assertEquals(SCOPE_NANOS - LOCK_NANOS - COMMIT_NANOS, timer.getPhaseNanos(Phase.EXECUTION));
+        // the scope took longer than the timer ran
+        assertEquals(0, timer.getPhaseNanos(Phase.SATELLITE_WAIT));
+        assertTrue(timer.getTotalNanos() >= QUEUE_NANOS);
+    }
+
+    @Test
+    public void timeOutsideOfScopesIsSatelliteWait() throws InterruptedException
+    {
+        ApiCallTimer timer = tracker.startTimer("timeOutsideOfScopesIsSatelliteWait", 0);
+        Thread.sleep(20);
+        timer.finish();
+
+        assertEquals(0, timer.getPhaseNanos(Phase.EXECUTION));
+        assertTrue(timer.getPhaseNanos(Phase.SATELLITE_WAIT) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(timer.getPhaseNanos(Phase.SATELLITE_WAIT), timer.getTotalNanos());
+    }
+
+    @Test
+    public void nestedBindRestoresOuterTimer()
+    {
+        ApiCallTimer outer = tracker.startTimer("outer", 0);
+        ApiCallTimer inner = tracker.startTimer("inner", 0);
+
+        ApiCallTimer prevOuter = outer.bind();
+        ApiCallTimer prevInner = inner.bind();
+        ApiCallTimer.addToCurrent(Phase.COMMIT, COMMIT_NANOS);
+        ApiCallTimer.restore(prevInner);
+        ApiCallTimer.addToCurrent(Phase.LOCK_WAIT, LOCK_NANOS);
+        ApiCallTimer.restore(prevOuter);
+
+        assertEquals(COMMIT_NANOS, inner.getPhaseNanos(Phase.COMMIT));
+        assertEquals(0, inner.getPhaseNanos(Phase.LOCK_WAIT));
+        assertEquals(0, outer.getPhaseNanos(Phase.COMMIT));
+        assertEquals(LOCK_NANOS, outer.getPhaseNanos(Phase.LOCK_WAIT));
+    }
+
+    @Test
+    public void finishRecordsOnce()
+    {
+        ApiCallTimer timer = tracker.startTimer("finishRecordsOnce", QUEUE_NANOS);
+        timer.addScopeNanos(SCOPE_NANOS);
+
+        timer.finish();
+        long execNanos = timer.getPhaseNanos(Phase.EXECUTION);
+        timer.finish();
+
+        assertEquals(execNanos, timer.getPhaseNanos(Phase.EXECUTION));
+        assertEquals(1, tracker.getSlowCalls().size());
+    }
+}
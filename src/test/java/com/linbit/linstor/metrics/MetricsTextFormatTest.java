@@ -0,0 +1,63 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.ImplementationError;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MetricsTextFormatTest
+{
+    @Test
+    public void histogram()
+    {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram histogram = registry.histogram("test_seconds", "Test durations", new double[] {0.1, 1}, "call");
+        histogram.labels("a").observe(0.05);
+        histogram.labels("a").observe(0.5);
+        histogram.labels("a").observe(5);
+
+        assertEquals(
+            "# HELP test_seconds Test durations\n" +
+                "# TYPE test_seconds histogram\n" +
+                "test_seconds_bucket{call=\"a\",le=\"0.1\"} 1\n" +
+                "test_seconds_bucket{call=\"a\",le=\"1\"} 2\n" +
+                "test_seconds_bucket{call=\"a\",le=\"+Inf\"} 3\n" +
+                "test_seconds_count{call=\"a\"} 3\n" +
+                "test_seconds_sum{call=\"a\"} 5.55\n",
+            MetricsTextFormat.write(registry.collect())
+        );
+    }
+
+    @Test
+    public void escaping()
+    {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_total", "Multi\nline \\ help", "name").labels("quote\" backslash\\").inc(2);
+        registry.gauge("test_queue", "Queue").labels().inc();
+
+        assertEquals(
+            "# HELP test_queue Queue\n" +
+                "# TYPE test_queue gauge\n" +
+                "test_queue 1\n" +
+                "# HELP test_total Multi\\nline \\\\ help\n" +
+                "# TYPE test_total counter\n" +
+                "test_total{name=\"quote\\\" backslash\\\\\"} 2\n",
+            MetricsTextFormat.write(registry.collect())
+        );
+    }
+
+    @Test(expected = ImplementationError.class)
+    public void wrongLabelCount()
+    {
+        new MetricsRegistry().counter("test_total", "Test", "name").labels();
+    }
+
+    @Test(expected = ImplementationError.class)
+    public void duplicateName()
+    {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_total", "Test");
+        registry.gauge("test_total", "Test");
+    }
+}
@@ -0,0 +1,133 @@
+package com.linbit.linstor.metrics;
+
+import com.linbit.linstor.metrics.ApiCallTimer.Phase;
+import com.linbit.linstor.metrics.SlowApiCallTracker.SlowCall;
+import com.linbit.linstor.testutils.EmptyErrorReporter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SlowApiCallTrackerTest
+{
+    private SlowApiCallTracker tracker;
+
+    @Before
+    public void setUp()
+    {
+        tracker = new SlowApiCallTracker(new EmptyErrorReporter());
+    }
+
+    @After
+    public void tearDown() throws InterruptedException
+    {
+        tracker.shutdown();
+        tracker.awaitShutdown(1000);
+    }
+
+    @Test
+    public void slowestFirst()
+    {
+        // the queue time dominates the total duration of the calls
+        finishCall("medium", 2);
+        finishCall("fast", 1);
+        finishCall("slow", 3);
+
+        List<SlowCall> slowCalls = tracker.getSlowCalls();
+        assertEquals(3, slowCalls.size());
+        assertEquals("slow", slowCalls.get(0).apiCallName);
+        assertEquals("medium", slowCalls.get(1).apiCallName);
+        assertEquals("fast", slowCalls.get(2).apiCallName);
+        assertEquals(TimeUnit.SECONDS.toNanos(3), slowCalls.get(0).getPhaseNanos(Phase.QUEUE));
+    }
+
+    @Test
+    public void keepsOnlySlowestCalls()
+    {
+        for (int idx = 1; idx <= SlowApiCallTracker.MAX_SLOW_CALLS * 2; ++idx)
+        {
+            finishCall("call" + idx, idx);
+        }
+        // faster than all kept calls, must be dropped
+        finishCall("fast", 0);
+
+        List<SlowCall> slowCalls = tracker.getSlowCalls();
+        assertEquals(SlowApiCallTracker.MAX_SLOW_CALLS, slowCalls.size());
+        assertEquals("call" + SlowApiCallTracker.MAX_SLOW_CALLS * 2, slowCalls.get(0).apiCallName);
+        assertEquals(
+            "call" + (SlowApiCallTracker.MAX_SLOW_CALLS + 1),
+            slowCalls.get(SlowApiCallTracker.MAX_SLOW_CALLS - 1).apiCallName
+        );
+    }
+
+    @Test
+    public void previousWindowIsKept()
+    {
+        finishCall("prev", 2);
+        tracker.endWindow();
+        finishCall("current", 1);
+
+        List<SlowCall> slowCalls = tracker.getSlowCalls();
+        assertEquals(2, slowCalls.size());
+        assertEquals("prev", slowCalls.get(0).apiCallName);
+        assertEquals("current", slowCalls.get(1).apiCallName);
+
+        tracker.endWindow();
+        slowCalls = tracker.getSlowCalls();
+        assertEquals(1, slowCalls.size());
+        assertEquals("current", slowCalls.get(0).apiCallName);
+
+        tracker.endWindow();
+        assertTrue(tracker.getSlowCalls().isEmpty());
+    }
+
+    @Test
+    public void newWindowAcceptsFasterCalls()
+    {
+        for (int idx = 0; idx < SlowApiCallTracker.MAX_SLOW_CALLS; ++idx)
+        {
+            finishCall("slow" + idx, 10);
+        }
+        tracker.endWindow();
+        // the minimum of the full previous window must not apply to the new window
+        finishCall("fast", 1);
+        tracker.endWindow();
+
+        List<SlowCall> slowCalls = tracker.getSlowCalls();
+        assertEquals(1, slowCalls.size());
+        assertEquals("fast", slowCalls.get(0).apiCallName);
+    }
+
+    @Test
+    public void startAndShutdown() throws InterruptedException
+    {
+        assertFalse(tracker.isStarted());
+        // recording does not depend on the service
+        finishCall("beforeStart", 1);
+        assertEquals(1, tracker.getSlowCalls().size());
+
+        tracker.start();
+        assertTrue(tracker.isStarted());
+        tracker.start();
+        assertTrue(tracker.isStarted());
+
+        tracker.shutdown();
+        tracker.awaitShutdown(1000);
+        assertFalse(tracker.isStarted());
+
+        tracker.start();
+        assertTrue(tracker.isStarted());
+    }
+
+    private void finishCall(String apiCallName, long queuedSeconds)
+    {
+        tracker.startTimer(apiCallName, TimeUnit.SECONDS.toNanos(queuedSeconds)).finish();
+    }
+}
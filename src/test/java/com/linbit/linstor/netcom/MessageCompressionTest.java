@@ -0,0 +1,135 @@
+package com.linbit.linstor.netcom;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MessageCompressionTest
+{
+    private static final int THRESHOLD = 1024;
+
+    @Test
+    public void disabledByDefault() throws IllegalMessageStateException
+    {
+        MessageCompression compression = new MessageCompression();
+        byte[] data = repetitive(100_000);
+
+        Message sent = send(compression, data);
+
+        assertEquals(0, flags(sent));
+        assertArrayEquals(data, sent.getData());
+        assertEquals(0, compression.getCompressedMsgCount());
+    }
+
+    @Test
+    public void compressAboveThreshold() throws IllegalMessageStateException
+    {
+        MessageCompression sender = new MessageCompression();
+        sender.enable(THRESHOLD);
+        MessageCompression receiver = new MessageCompression();
+        byte[] data = repetitive(1_000_000);
+
+        Message sent = send(sender, data);
+        assertEquals(Message.FLAG_DEFLATE, flags(sent));
+        assertTrue(sent.getDataBuffer().limit() < data.length / 10);
+
+        assertArrayEquals(data, receive(receiver, sent).getData());
+        assertEquals(1, sender.getCompressedMsgCount());
+        assertEquals(data.length, sender.getCompressedRawBytes());
+        assertEquals(1, receiver.getDecompressedMsgCount());
+        assertEquals(data.length, receiver.getDecompressedRawBytes());
+    }
+
+    @Test
+    public void belowThresholdIsNotCompressed() throws IllegalMessageStateException
+    {
+        MessageCompression sender = new MessageCompression();
+        sender.enable(THRESHOLD);
+        byte[] data = repetitive(THRESHOLD - 1);
+
+        Message sent = send(sender, data);
+
+        assertEquals(0, flags(sent));
+        assertArrayEquals(data, receive(new MessageCompression(), sent).getData());
+    }
+
+    @Test
+    public void incompressibleDataIsSentRaw() throws IllegalMessageStateException
+    {
+        MessageCompression sender = new MessageCompression();
+        sender.enable(THRESHOLD);
+        byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+
+        Message sent = send(sender, data);
+
+        assertEquals(0, flags(sent));
+        assertArrayEquals(data, receive(new MessageCompression(), sent).getData());
+        assertEquals(1, sender.getIncompressibleMsgCount());
+    }
+
+    @Test(expected = IllegalMessageStateException.class)
+    public void wrongRawSize() throws IllegalMessageStateException
+    {
+        MessageCompression sender = new MessageCompression();
+        sender.enable(THRESHOLD);
+        Message sent = send(sender, repetitive(100_000));
+        sent.getHeaderBuffer().putInt(Message.RAW_LENGTH_FIELD_OFFSET, 100_001);
+
+        receive(new MessageCompression(), sent).getData();
+    }
+
+    @Test(expected = IllegalMessageStateException.class)
+    public void corruptData() throws IllegalMessageStateException
+    {
+        MessageCompression sender = new MessageCompression();
+        sender.enable(THRESHOLD);
+        Message sent = send(sender, repetitive(100_000));
+        byte[] wireData = sent.getData();
+        Arrays.fill(wireData, 2, wireData.length, (byte) 0xFF);
+
+        receive(new MessageCompression(), sent).getData();
+    }
+
+    private static Message send(MessageCompression compression, byte[] data) throws IllegalMessageStateException
+    {
+        Message msg = new MessageData(true);
+        compression.setData(msg, data);
+        return msg;
+    }
+
+    /*
+     * Simulates the transfer of the header and the data over the wire
+     */
+    private static Message receive(MessageCompression compression, Message sent)
+        throws IllegalMessageStateException
+    {
+        Message received = new MessageData(false, compression);
+        ByteBuffer headerBuffer = received.getHeaderBuffer();
+        headerBuffer.put(sent.getHeaderBuffer().array());
+        received.setData(Arrays.copyOf(sent.getData(), headerBuffer.getInt(Message.LENGTH_FIELD_OFFSET)));
+        return received;
+    }
+
+    private static int flags(Message msg)
+    {
+        return msg.getHeaderBuffer().getInt(Message.FLAGS_FIELD_OFFSET);
+    }
+
+    private static byte[] repetitive(int size)
+    {
+        byte[] data = new byte[size];
+        byte[] pattern = "DrbdOptions/Net/max-buffers=10000;".getBytes();
+        for (int idx = 0; idx < size; ++idx)
+        {
+            data[idx] = pattern[idx % pattern.length];
+        }
+        return data;
+    }
+}
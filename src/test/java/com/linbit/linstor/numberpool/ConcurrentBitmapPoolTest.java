@@ -0,0 +1,193 @@
+package com.linbit.linstor.numberpool;
+
+import com.linbit.ExhaustedPoolException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the {@link ConcurrentBitmapPool} gives the same results as the {@link BitmapPool}, and checks
+ * concurrent allocations
+ */
+public class ConcurrentBitmapPoolTest
+{
+    private static final int THREAD_COUNT = 8;
+    private static final int[] POOL_SIZES = {1, 2, 0xfff, 0x1000, 0x1001, 0x40001, 0x100000};
+    private static final int MAX_WINDOW_SIZE = 0x1100;
+    private static final int OPERATION_COUNT = 20000;
+
+    @Test
+    public void testSameResultsAsBitmapPool()
+        throws Exception
+    {
+        for (int size : POOL_SIZES)
+        {
+            NumberPool expectedPool = new BitmapPool(size);
+            NumberPool pool = new ConcurrentBitmapPool(size);
+            Random random = new Random(size);
+            // the operations are limited to a window, so that the pool is filled up and exhausted
+            int windowSize = Math.min(size, MAX_WINDOW_SIZE);
+            int windowStart = random.nextInt(size - windowSize + 1);
+
+            for (int opIdx = 0; opIdx < OPERATION_COUNT; opIdx++)
+            {
+                int rangeStart = windowStart + random.nextInt(windowSize);
+                int rangeEnd = rangeStart + random.nextInt(windowStart + windowSize - rangeStart);
+                int offset = rangeStart + random.nextInt(rangeEnd - rangeStart + 1);
+                String desc = String.format("size 0x%x, operation %d", size, opIdx);
+                switch (random.nextInt(5))
+                {
+                    case 0:
+                        assertThat(pool.allocate(offset)).as(desc).isEqualTo(expectedPool.allocate(offset));
+                        break;
+                    case 1:
+                        pool.deallocate(offset);
+                        expectedPool.deallocate(offset);
+                        break;
+                    case 2:
+                        assertThat(result(() -> pool.autoAllocate(rangeStart, rangeEnd))).as(desc)
+                            .isEqualTo(result(() -> expectedPool.autoAllocate(rangeStart, rangeEnd)));
+                        break;
+                    case 3:
+                        assertThat(result(() -> pool.autoAllocateFromOffset(rangeStart, rangeEnd, offset))).as(desc)
+                            .isEqualTo(result(() -> expectedPool.autoAllocateFromOffset(rangeStart, rangeEnd, offset)));
+                        break;
+                    default:
+                        assertThat(result(() -> pool.findUnallocated(rangeStart, rangeEnd))).as(desc)
+                            .isEqualTo(result(() -> expectedPool.findUnallocated(rangeStart, rangeEnd)));
+                        break;
+                }
+                assertThat(pool.isAllocated(offset)).as(desc).isEqualTo(expectedPool.isAllocated(offset));
+            }
+
+            for (int nr = windowStart; nr < windowStart + windowSize; nr++)
+            {
+                assertThat(pool.isAllocated(nr)).as("size 0x%x, isAllocated %d", size, nr)
+                    .isEqualTo(expectedPool.isAllocated(nr));
+            }
+        }
+    }
+
+    @Test
+    public void testAllocateFullBlock()
+        throws Exception
+    {
+        NumberPool pool = new ConcurrentBitmapPool(0x3000);
+
+        for (int nr = 0x1000; nr < 0x2000; nr++)
+        {
+            pool.allocate(nr);
+        }
+        assertThat(pool.autoAllocate(0x1000, 0x2fff)).isEqualTo(0x2000);
+
+        pool.deallocate(0x1234);
+        assertThat(pool.autoAllocate(0x1000, 0x2fff)).isEqualTo(0x1234);
+    }
+
+    @Test
+    public void testAutoAllocateFromOffsetWrapsAround()
+        throws Exception
+    {
+        NumberPool pool = new ConcurrentBitmapPool(0x1001);
+
+        pool.allocateAll(new int[] {0x1000});
+        assertThat(pool.autoAllocateFromOffset(0x10, 0x1000, 0x1000)).isEqualTo(0x10);
+    }
+
+    @Test(expected = ExhaustedPoolException.class)
+    public void testAutoAllocateUnalignedEnd()
+        throws Exception
+    {
+        NumberPool pool = new ConcurrentBitmapPool(0x1041);
+
+        pool.allocate(0x1040);
+        pool.autoAllocate(0x1040, 0x1040);
+    }
+
+    @Test
+    public void testConcurrentAutoAllocate()
+        throws Exception
+    {
+        final int rangeStart = 1000;
+        final int rangeEnd = 49999;
+        final int perThread = (rangeEnd - rangeStart + 1) / THREAD_COUNT;
+        NumberPool pool = new ConcurrentBitmapPool(0x100000);
+
+        List<Callable<List<Integer>>> tasks = new ArrayList<>();
+        for (int threadIdx = 0; threadIdx < THREAD_COUNT; threadIdx++)
+        {
+            tasks.add(() ->
+            {
+                List<Integer> allocated = new ArrayList<>(perThread);
+                for (int idx = 0; idx < perThread; idx++)
+                {
+                    int nr = pool.autoAllocateFromOffset(rangeStart, rangeEnd, rangeStart + idx * 7 % perThread);
+                    allocated.add(nr);
+                    if (idx % 3 == 0)
+                    {
+                        pool.deallocate(nr);
+                        allocated.add(pool.autoAllocate(rangeStart, rangeEnd));
+                        allocated.remove(allocated.size() - 2);
+                    }
+                }
+                return allocated;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        Set<Integer> allAllocated = new HashSet<>();
+        try
+        {
+            for (Future<List<Integer>> future : executor.invokeAll(tasks))
+            {
+                for (int nr : future.get())
+                {
+                    assertThat(allAllocated.add(nr)).as("allocated twice: %d", nr).isTrue();
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertThat(allAllocated).hasSize(perThread * THREAD_COUNT);
+        for (int nr : allAllocated)
+        {
+            assertThat(pool.isAllocated(nr)).as("isAllocated %d", nr).isTrue();
+        }
+    }
+
+    /**
+     * Returns the number returned by the operation, or -1 if the pool is exhausted
+     */
+    private static int result(PoolOperation operation)
+    {
+        int nr;
+        try
+        {
+            nr = operation.run();
+        }
+        catch (ExhaustedPoolException exc)
+        {
+            nr = -1;
+        }
+        return nr;
+    }
+
+    private interface PoolOperation
+    {
+        int run() throws ExhaustedPoolException;
+    }
+}
@@ -0,0 +1,111 @@
+package com.linbit.linstor.numberpool;
+
+import com.linbit.linstor.testutils.BenchmarkHarness;
+import com.linbit.linstor.testutils.BenchmarkHarness.Measurement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Compares the throughput of the {@link BitmapPool} and the {@link ConcurrentBitmapPool} when several threads
+ * allocate and deallocate numbers concurrently, in a pool the size of the minor number pool with the default
+ * minor number range, which is half allocated.
+ *
+ * Run with {@link BenchmarkHarness}, the parameter is the duration of each run in milliseconds.
+ */
+public class NumberPoolBenchmark
+{
+    private static final int POOL_SIZE = 0x100000;
+    private static final int RANGE_START = 1000;
+    private static final int RANGE_END = 49999;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int DEFAULT_RUN_MILLIS = 2000;
+    // numbers each thread holds at a time, so that the pool is not only hit at its first unallocated number
+    private static final int HELD_PER_THREAD = 64;
+
+    public static void main(String[] args) throws Exception
+    {
+        int runMillis = BenchmarkHarness.intArg(args, DEFAULT_RUN_MILLIS);
+
+        BenchmarkHarness harness = new BenchmarkHarness("pool", "threads", "ops/ms");
+        for (int threadCount : THREAD_COUNTS)
+        {
+            measure(harness, "BitmapPool", BitmapPool::new, threadCount, runMillis);
+            measure(harness, "ConcurrentBitmapPool", ConcurrentBitmapPool::new, threadCount, runMillis);
+        }
+    }
+
+    private static void measure(
+        BenchmarkHarness harness,
+        String name,
+        IntFunction<NumberPool> poolFactory,
+        int threadCount,
+        int runMillis
+    )
+        throws Exception
+    {
+        Measurement measurement = harness.measure(1, 1, () -> run(poolFactory, threadCount, runMillis));
+        harness.printRow(name, threadCount, measurement.resultSum / measurement.millis());
+    }
+
+    /**
+     * @return the number of allocations and deallocations of all threads
+     */
+    private static long run(IntFunction<NumberPool> poolFactory, int threadCount, int runMillis)
+        throws InterruptedException
+    {
+        NumberPool pool = poolFactory.apply(POOL_SIZE);
+        // every other number of the range is allocated
+        for (int nr = RANGE_START; nr <= RANGE_END; nr += 2)
+        {
+            pool.allocate(nr);
+        }
+
+        AtomicLong totalOps = new AtomicLong();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        long endNanos = System.nanoTime() + runMillis * 1_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int threadIdx = 0; threadIdx < threadCount; ++threadIdx)
+        {
+            final int offsetBase = RANGE_START + threadIdx * ((RANGE_END - RANGE_START) / threadCount);
+            Thread thread = new Thread(() ->
+            {
+                int[] held = new int[HELD_PER_THREAD];
+                long ops = 0;
+                try
+                {
+                    startLatch.await();
+                    for (int idx = 0; idx < HELD_PER_THREAD; ++idx)
+                    {
+                        held[idx] = pool.autoAllocateFromOffset(RANGE_START, RANGE_END, offsetBase);
+                    }
+                    int heldIdx = 0;
+                    while ((ops & 0xFF) != 0 || System.nanoTime() < endNanos)
+                    {
+                        pool.deallocate(held[heldIdx]);
+                        held[heldIdx] = pool.autoAllocateFromOffset(RANGE_START, RANGE_END, offsetBase);
+                        heldIdx = (heldIdx + 1) % HELD_PER_THREAD;
+                        ops += 2;
+                    }
+                }
+                catch (Exception exc)
+                {
+                    throw new RuntimeException(exc);
+                }
+                totalOps.addAndGet(ops);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        startLatch.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        return totalOps.get();
+    }
+}
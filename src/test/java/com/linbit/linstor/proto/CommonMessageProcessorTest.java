@@ -0,0 +1,169 @@
+package com.linbit.linstor.proto;
+
+import com.linbit.linstor.api.ApiCallReactive;
+import com.linbit.linstor.api.BaseApiCall;
+import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
+import com.linbit.linstor.api.protobuf.ApiCallDescriptor;
+import com.linbit.linstor.core.apicallhandler.ScopeRunner;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.metrics.SlowApiCallTracker;
+import com.linbit.linstor.netcom.Message;
+import com.linbit.linstor.netcom.MessageData;
+import com.linbit.linstor.netcom.MessageTypes;
+import com.linbit.linstor.netcom.Peer;
+import com.linbit.linstor.netcom.TcpConnector;
+import com.linbit.linstor.proto.MsgHeaderOuterClass.MsgHeader;
+import com.linbit.linstor.proto.MsgHeaderOuterClass.MsgHeader.MsgType;
+import com.linbit.linstor.testutils.EmptyErrorReporter;
+import com.linbit.utils.OrderingFlux;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class CommonMessageProcessorTest
+{
+    private static final String BLOCKED_API_CALL = "BlockedApiCall";
+    private static final long API_CALL_ID = 1;
+    // more API calls than the message processor has slots for
+    private static final int BLOCKED_COUNT = CommonMessageProcessor.MAX_QUEUE_SIZE;
+    private static final long AWAIT_TIMEOUT_SECONDS = 30;
+
+    private Scheduler scheduler;
+    private CommonMessageProcessor messageProcessor;
+    private MonoProcessor<Void> answerReceived;
+    private CountDownLatch creditsReturned;
+    private CountDownLatch apiCallsDone;
+    private Peer peer;
+
+    @Before
+    public void setUp()
+    {
+        ErrorReporter errorReporter = new EmptyErrorReporter();
+        scheduler = Schedulers.newParallel("TestMainWorkerPool", CommonMessageProcessor.MIN_THR_COUNT);
+        answerReceived = MonoProcessor.create();
+        creditsReturned = new CountDownLatch(BLOCKED_COUNT + 1);
+        apiCallsDone = new CountDownLatch(BLOCKED_COUNT);
+
+        ApiCallDescriptor apiCallDescriptor = Mockito.mock(ApiCallDescriptor.class);
+        Mockito.when(apiCallDescriptor.requiresAuth()).thenReturn(false);
+        Mockito.when(apiCallDescriptor.transactional()).thenReturn(false);
+        // waits for the answer to an API call, like an API call that asks the same peer for some data
+        ApiCallReactive blockedApiCall = msgDataIn -> answerReceived.thenMany(Flux.<byte[]>empty())
+            .doOnComplete(apiCallsDone::countDown);
+
+        messageProcessor = new CommonMessageProcessor(
+            errorReporter,
+            scheduler,
+            Mockito.mock(ScopeRunner.class),
+            Mockito.mock(CommonSerializer.class),
+            new SlowApiCallTracker(errorReporter),
+            Collections.<String, BaseApiCall>singletonMap(BLOCKED_API_CALL, blockedApiCall),
+            Collections.singletonMap(BLOCKED_API_CALL, apiCallDescriptor)
+        );
+
+        peer = Mockito.mock(Peer.class);
+        AtomicLong nextSeq = new AtomicLong();
+        Mockito.when(peer.getNextIncomingMessageSeq()).thenAnswer(ignored -> nextSeq.getAndIncrement());
+        Mockito.when(peer.isConnected(false)).thenReturn(true);
+
+        // in-order processing as done by the TcpConnectorPeer
+        UnicastProcessor<Tuple2<Long, Publisher<?>>> inOrderProcessor = UnicastProcessor.create();
+        FluxSink<Tuple2<Long, Publisher<?>>> inOrderSink = inOrderProcessor.sink();
+        inOrderProcessor
+            .transform(OrderingFlux::order)
+            .flatMap(Function.identity(), Integer.MAX_VALUE)
+            .subscribe();
+        Mockito.doAnswer(
+            invocation ->
+            {
+                inOrderSink.next(Tuples.of(invocation.getArgument(0), invocation.getArgument(1)));
+                return null;
+            }
+        ).when(peer).processInOrder(anyLong(), any());
+        Mockito.doAnswer(
+            ignored ->
+            {
+                answerReceived.onComplete();
+                return null;
+            }
+        ).when(peer).apiCallAnswer(eq(API_CALL_ID), any());
+        Mockito.doAnswer(
+            ignored ->
+            {
+                creditsReturned.countDown();
+                return null;
+            }
+        ).when(peer).inMessageProcessed(anyLong());
+    }
+
+    @After
+    public void tearDown()
+    {
+        answerReceived.onComplete();
+        scheduler.dispose();
+    }
+
+    /**
+     * More API calls than the message processor has slots for wait for an answer of the peer.
+     * The answer must still be processed, and the credits of all messages returned to the peer.
+     */
+    @Test
+    public void answerForBlockedApiCalls() throws Exception
+    {
+        TcpConnector connector = Mockito.mock(TcpConnector.class);
+        for (int idx = 0; idx < BLOCKED_COUNT; ++idx)
+        {
+            messageProcessor.processMessage(
+                dataMessage(MsgHeader.newBuilder().setMsgType(MsgType.ONEWAY).setMsgContent(BLOCKED_API_CALL)),
+                connector,
+                peer
+            );
+        }
+        messageProcessor.processMessage(
+            dataMessage(MsgHeader.newBuilder().setMsgType(MsgType.ANSWER).setApiCallId(API_CALL_ID)
+                .setMsgContent("Answer")),
+            connector,
+            peer
+        );
+
+        assertTrue(
+            "credits of the messages not returned",
+            creditsReturned.await(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        );
+        assertTrue("blocked API calls not finished", apiCallsDone.await(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private static Message dataMessage(MsgHeader.Builder header) throws Exception
+    {
+        ByteArrayOutputStream dataOut = new ByteArrayOutputStream();
+        header.build().writeDelimitedTo(dataOut);
+
+        MessageData msg = new MessageData(false);
+        msg.getHeaderBuffer().putInt(Message.TYPE_FIELD_OFFSET, MessageTypes.DATA);
+        msg.setData(dataOut.toByteArray());
+        return msg;
+    }
+}
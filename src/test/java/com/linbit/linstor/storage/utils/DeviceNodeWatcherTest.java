@@ -0,0 +1,197 @@
+package com.linbit.linstor.storage.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.linbit.fsevent.DirectoryObserver;
+import com.linbit.fsevent.FileSystemWatch;
+import com.linbit.fsevent.FileSystemWatch.DirectoryEntry;
+import com.linbit.fsevent.FileSystemWatch.Event;
+import com.linbit.linstor.storage.StorageException;
+import com.linbit.linstor.testutils.EmptyErrorReporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeviceNodeWatcherTest
+{
+    private static final long AWAIT_TIMEOUT_MS = 5000;
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private RecordingFileSystemWatch fsWatch;
+    private DeviceNodeWatcher watcher;
+    private Path devDir;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        // the event loop is not started, the events are delivered by the tests
+        fsWatch = new RecordingFileSystemWatch();
+        watcher = new DeviceNodeWatcher(fsWatch);
+        devDir = testFolder.newFolder("dev").toPath();
+    }
+
+    @After
+    public void tearDown()
+    {
+        fsWatch.shutdown();
+    }
+
+    @Test
+    public void devicesInSameDirectoryShareOneRegistration() throws Exception
+    {
+        Path devA = devDir.resolve("a");
+        Path devB = devDir.resolve("b");
+
+        CompletableFuture<Void> createdA = watcher.expectCreated(devA.toString());
+        CompletableFuture<Void> createdB = watcher.expectCreated(devB.toString());
+
+        assertEquals(1, fsWatch.registeredCount);
+        assertEquals(1, fsWatch.activeEntries.size());
+        DirectoryEntry dirEntry = fsWatch.activeEntries.get(0);
+        DirectoryObserver observer = fsWatch.observers.get(0);
+
+        observer.directoryEvent(dirEntry, devA);
+        assertTrue(createdA.isDone());
+        assertFalse(createdB.isDone());
+        // still required for the second device
+        assertEquals(1, fsWatch.activeEntries.size());
+
+        observer.directoryEvent(dirEntry, devB);
+        assertTrue(createdB.isDone());
+        assertTrue(fsWatch.activeEntries.isEmpty());
+
+        // a new device in the same directory registers the directory again
+        watcher.expectCreated(devDir.resolve("c").toString());
+        assertEquals(2, fsWatch.registeredCount);
+        assertEquals(1, fsWatch.activeEntries.size());
+    }
+
+    @Test
+    public void cancelRemovesRegistration() throws Exception
+    {
+        Path devA = devDir.resolve("a");
+        CompletableFuture<Void> createdA = watcher.expectCreated(devA.toString());
+        CompletableFuture<Void> createdB = watcher.expectCreated(devDir.resolve("b").toString());
+        DirectoryEntry dirEntry = fsWatch.activeEntries.get(0);
+        DirectoryObserver observer = fsWatch.observers.get(0);
+
+        createdA.cancel(false);
+        assertEquals(1, fsWatch.activeEntries.size());
+
+        // an event for a device that is no longer expected is ignored
+        observer.directoryEvent(dirEntry, devA);
+        assertFalse(createdB.isDone());
+
+        DeviceNodeWatcher.cancelAll(Collections.singletonList(createdB));
+        assertTrue(fsWatch.activeEntries.isEmpty());
+    }
+
+    @Test
+    public void overflowReprobesExpectedDevices() throws Exception
+    {
+        Path devA = devDir.resolve("a");
+        CompletableFuture<Void> createdA = watcher.expectCreated(devA.toString());
+        CompletableFuture<Void> createdB = watcher.expectCreated(devDir.resolve("b").toString());
+
+        // the event of the creation is lost
+        Files.createFile(devA);
+        assertFalse(createdA.isDone());
+
+        fsWatch.observers.get(0).directoryOverflow(fsWatch.activeEntries.get(0));
+        assertTrue(createdA.isDone());
+        assertFalse(createdB.isDone());
+        assertEquals(1, fsWatch.activeEntries.size());
+    }
+
+    @Test
+    public void existingDeviceCompletesImmediately() throws Exception
+    {
+        Path devA = Files.createFile(devDir.resolve("a"));
+
+        CompletableFuture<Void> createdA = watcher.expectCreated(devA.toString());
+
+        assertTrue(createdA.isDone());
+        assertTrue(fsWatch.activeEntries.isEmpty());
+    }
+
+    @Test
+    public void awaitCreatedFailsAfterTimeout() throws Exception
+    {
+        String devA = devDir.resolve("a").toString();
+        CompletableFuture<Void> createdA = watcher.expectCreated(devA);
+        try
+        {
+            watcher.awaitCreated(devA, createdA, System.currentTimeMillis(), 10);
+            fail("device that was not created reported as created");
+        }
+        catch (StorageException expected)
+        {
+            // expected
+        }
+        assertTrue(createdA.isCancelled());
+        assertTrue(fsWatch.activeEntries.isEmpty());
+    }
+
+    @Test
+    public void awaitCreatedReturnsForCreatedDevice() throws Exception
+    {
+        fsWatch.start();
+        Path devA = devDir.resolve("a");
+        CompletableFuture<Void> createdA = watcher.expectCreated(devA.toString());
+
+        Files.createFile(devA);
+
+        watcher.awaitCreated(devA.toString(), createdA, System.currentTimeMillis(), AWAIT_TIMEOUT_MS);
+        assertTrue(createdA.isDone());
+    }
+
+    /**
+     * Records the directory registrations of the {@link DeviceNodeWatcher}
+     */
+    private static class RecordingFileSystemWatch extends FileSystemWatch
+    {
+        private final List<DirectoryEntry> activeEntries = Collections.synchronizedList(new ArrayList<>());
+        private final List<DirectoryObserver> observers = Collections.synchronizedList(new ArrayList<>());
+        private int registeredCount;
+
+        RecordingFileSystemWatch() throws IOException
+        {
+            super(new EmptyErrorReporter());
+        }
+
+        @Override
+        public DirectoryEntry newDirectoryEntry(String dirPath, Event event, DirectoryObserver observer)
+            throws IOException
+        {
+            DirectoryEntry entry = super.newDirectoryEntry(dirPath, event, observer);
+            activeEntries.add(entry);
+            observers.add(observer);
+            ++registeredCount;
+            return entry;
+        }
+
+        @Override
+        public void removeDirectoryEntry(DirectoryEntry watchEntry)
+        {
+            super.removeDirectoryEntry(watchEntry);
+            observers.remove(activeEntries.indexOf(watchEntry));
+            activeEntries.remove(watchEntry);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.linbit.linstor.testutils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs the benchmarks in the test sources. The benchmarks are not unit tests, they are run manually:
+ * <pre>
+ * java -cp ... &lt;benchmark class&gt; [parameter]
+ * </pre>
+ *
+ * Each measurement is preceded by warmup runs of the same task. The results are printed to stdout as a table with
+ * one row per measurement.
+ */
+public class BenchmarkHarness
+{
+    private static final int MIN_COLUMN_WIDTH = 12;
+    // the first column holds the name of the measured variant
+    private static final int MIN_FIRST_COLUMN_WIDTH = 24;
+
+    public interface Task
+    {
+        /**
+         * Runs the measured code once.
+         *
+         * @return a value that is summed up over the measured runs, e.g. the number of operations or bytes
+         *     processed. Returning a result of the work also keeps the JIT compiler from optimizing it away.
+         */
+        long run() throws Exception;
+    }
+
+    private final int[] columnWidths;
+
+    /**
+     * Prints the header of the result table
+     */
+    public BenchmarkHarness(String... columnNames)
+    {
+        columnWidths = new int[columnNames.length];
+        for (int idx = 0; idx < columnNames.length; ++idx)
+        {
+            columnWidths[idx] = Math.max(
+                columnNames[idx].length(),
+                idx == 0 ? MIN_FIRST_COLUMN_WIDTH : MIN_COLUMN_WIDTH
+            );
+        }
+        printRow((Object[]) columnNames);
+    }
+
+    /**
+     * Returns the first command line argument of the benchmark, or the default value if it was not given
+     */
+    public static int intArg(String[] args, int dfltValue)
+    {
+        return args.length > 0 ? Integer.parseInt(args[0]) : dfltValue;
+    }
+
+    public Measurement measure(int warmupRuns, int runs, Task task) throws Exception
+    {
+        for (int idx = 0; idx < warmupRuns; ++idx)
+        {
+            task.run();
+        }
+
+        long resultSum = 0;
+        long allocStart = allocatedBytes();
+        long timeStart = System.nanoTime();
+        for (int idx = 0; idx < runs; ++idx)
+        {
+            resultSum += task.run();
+        }
+        long timeNanos = System.nanoTime() - timeStart;
+        long allocated = allocatedBytes() - allocStart;
+
+        return new Measurement(runs, timeNanos, allocated, resultSum);
+    }
+
+    /**
+     * Prints a row of the result table. The first column is left aligned, the other columns are right aligned.
+     * Floating point values are printed with 3 decimals.
+     */
+    public void printRow(Object... values)
+    {
+        StringBuilder row = new StringBuilder();
+        for (int idx = 0; idx < values.length; ++idx)
+        {
+            Object value = values[idx];
+            String str = value instanceof Double || value instanceof Float ?
+                String.format("%.3f", value) :
+                String.valueOf(value);
+            int width = idx < columnWidths.length ? columnWidths[idx] : MIN_COLUMN_WIDTH;
+            if (idx == 0)
+            {
+                row.append(String.format("%-" + width + "s", str));
+            }
+            else
+            {
+                row.append(' ').append(String.format("%" + width + "s", str));
+            }
+        }
+        System.out.println(row);
+    }
+
+    /**
+     * Prints a line describing the benchmark setup above the result table
+     */
+    public static void printInfo(String format, Object... args)
+    {
+        System.out.println(String.format(format, args));
+    }
+
+    private static long allocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public static class Measurement
+    {
+        public final int runs;
+        public final long timeNanos;
+        // only the allocations of the thread that called measure
+        public final long allocatedBytes;
+        public final long resultSum;
+
+        Measurement(int runsRef, long timeNanosRef, long allocatedBytesRef, long resultSumRef)
+        {
+            runs = runsRef;
+            timeNanos = timeNanosRef;
+            allocatedBytes = allocatedBytesRef;
+            resultSum = resultSumRef;
+        }
+
+        public double millis()
+        {
+            return timeNanos / 1_000_000.0;
+        }
+
+        public double microsPerRun()
+        {
+            return timeNanos / 1000.0 / runs;
+        }
+
+        public long allocatedBytesPerRun()
+        {
+            return allocatedBytes / runs;
+        }
+
+        public double resultPerRun()
+        {
+            return (double) resultSum / runs;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.linbit.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FairTaskSchedulerTest
+{
+    @Test
+    public void roundRobin()
+    {
+        Deque<Runnable> executorQueue = new ArrayDeque<>();
+        FairTaskScheduler<String> scheduler = new FairTaskScheduler<>(1, 100, executorQueue::add);
+
+        List<String> order = new ArrayList<>();
+        for (int idx = 1; idx <= 4; ++idx)
+        {
+            String name = "a" + idx;
+            scheduler.submit("a", 100, () -> order.add(name));
+        }
+        scheduler.submit("b", 100, () -> order.add("b1"));
+        scheduler.submit("b", 100, () -> order.add("b2"));
+        scheduler.submit("c", 100, () -> order.add("c1"));
+
+        assertEquals(1, executorQueue.size());
+        while (!executorQueue.isEmpty())
+        {
+            executorQueue.poll().run();
+        }
+
+        assertEquals(
+            Arrays.asList("a1", "a2", "b1", "c1", "a3", "b2", "a4"),
+            order
+        );
+        assertEquals(0, scheduler.getQueuedCount("a"));
+    }
+
+    @Test
+    public void costWeighted()
+    {
+        Deque<Runnable> executorQueue = new ArrayDeque<>();
+        FairTaskScheduler<String> scheduler = new FairTaskScheduler<>(1, 100, executorQueue::add);
+
+        List<String> order = new ArrayList<>();
+        scheduler.submit("big", 300, () -> order.add("big1"));
+        scheduler.submit("big", 300, () -> order.add("big2"));
+        for (int idx = 1; idx <= 6; ++idx)
+        {
+            String name = "small" + idx;
+            scheduler.submit("small", 100, () -> order.add(name));
+        }
+
+        while (!executorQueue.isEmpty())
+        {
+            executorQueue.poll().run();
+        }
+
+        // the tasks are weighted by their cost, "small" runs several tasks for each task of "big"
+        assertEquals(
+            Arrays.asList("big1", "small1", "small2", "big2", "small3", "small4", "small5", "small6"),
+            order
+        );
+    }
+
+    @Test
+    public void asyncTaskHoldsSlotUntilFinished()
+    {
+        Deque<Runnable> executorQueue = new ArrayDeque<>();
+        FairTaskScheduler<String> scheduler = new FairTaskScheduler<>(1, 100, executorQueue::add);
+
+        List<String> order = new ArrayList<>();
+        List<Runnable> finishedCallbacks = new ArrayList<>();
+        scheduler.submitAsync(
+            "a",
+            100,
+            finished ->
+            {
+                order.add("a1");
+                finishedCallbacks.add(finished);
+            }
+        );
+        scheduler.submit("b", 100, () -> order.add("b1"));
+
+        executorQueue.poll().run();
+        // a1 returned, but did not finish yet
+        assertTrue(executorQueue.isEmpty());
+        assertEquals(1, scheduler.getQueuedCount("b"));
+
+        finishedCallbacks.get(0).run();
+        // finishing more than once does not release more slots
+        finishedCallbacks.get(0).run();
+        assertEquals(1, executorQueue.size());
+        executorQueue.poll().run();
+
+        assertEquals(Arrays.asList("a1", "b1"), order);
+        assertTrue(executorQueue.isEmpty());
+    }
+
+    /**
+     * One source floods the scheduler with tasks, while other sources submit a task each.
+     * The tasks of the other sources must not wait for the backlog of the flooding source.
+     */
+    @Test
+    public void floodingSourceDoesNotDelayOthers() throws Exception
+    {
+        final int floodTaskCount = 2000;
+        final int quietSourceCount = 3;
+        final long quantum = 16 * 1024;
+        final long taskCost = 4096;
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try
+        {
+            FairTaskScheduler<String> scheduler = new FairTaskScheduler<>(1, quantum, executorService::execute);
+
+            List<String> startOrder = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch firstStarted = new CountDownLatch(1);
+            CountDownLatch releaseFirst = new CountDownLatch(1);
+            CountDownLatch allDone = new CountDownLatch(floodTaskCount + quietSourceCount);
+            for (int idx = 0; idx < floodTaskCount; ++idx)
+            {
+                final boolean first = idx == 0;
+                final String name = "flood" + idx;
+                scheduler.submit(
+                    "flood",
+                    taskCost,
+                    () ->
+                    {
+                        startOrder.add(name);
+                        if (first)
+                        {
+                            firstStarted.countDown();
+                            await(releaseFirst);
+                        }
+                        allDone.countDown();
+                    }
+                );
+            }
+
+            // the whole backlog of the flooding source is queued when the other sources submit their tasks
+            assertTrue(firstStarted.await(30, TimeUnit.SECONDS));
+            for (int sourceIdx = 0; sourceIdx < quietSourceCount; ++sourceIdx)
+            {
+                final String name = "quiet" + sourceIdx;
+                scheduler.submit(
+                    name,
+                    taskCost,
+                    () ->
+                    {
+                        startOrder.add(name);
+                        allDone.countDown();
+                    }
+                );
+            }
+            releaseFirst.countDown();
+
+            assertTrue(allDone.await(30, TimeUnit.SECONDS));
+            assertEquals(floodTaskCount + quietSourceCount, startOrder.size());
+
+            // the flooding source runs the rest of its current round and one more round before the other sources
+            // are served, instead of its whole backlog
+            int maxQuietStartIdx = 2 * (int) (quantum / taskCost) + quietSourceCount;
+            for (int sourceIdx = 0; sourceIdx < quietSourceCount; ++sourceIdx)
+            {
+                int startIdx = startOrder.indexOf("quiet" + sourceIdx);
+                assertTrue(
+                    "quiet" + sourceIdx + " started as task " + startIdx,
+                    startIdx >= 0 && startIdx < maxQuietStartIdx
+                );
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}